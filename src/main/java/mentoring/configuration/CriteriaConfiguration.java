@@ -2,6 +2,7 @@ package mentoring.configuration;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.ToIntFunction;
 import mentoring.match.NecessaryCriterion;
 import mentoring.match.ProgressiveCriterion;
 
@@ -15,4 +16,13 @@ public abstract class CriteriaConfiguration<Mentee,Mentor>
     public abstract Collection<ProgressiveCriterion<Mentee, Mentor>> getProgressiveCriteria();
     
     public abstract List<NecessaryCriterion<Mentee, Mentor>> getNecessaryCriteria();
+    
+    /**
+     * Returns the number of mentees each mentor accepts.
+     * @return a function returning the capacity of a mentor, or null if each mentor accepts one 
+     * mentee
+     */
+    public ToIntFunction<Mentor> getMentorCapacity(){
+        return null;
+    }
 }
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntBinaryOperator;
 
 /**
  * Utility class providing static methods to compute criteria.
@@ -37,6 +38,45 @@ public final class CriteriaToolbox {
         return SET_PROXIMITY_MULTIPLIER * nonCommonValues / (commonValues+1);
     }
     
+    /**
+     * Compute the distance of {@link #computeSetDistance(java.util.Set, java.util.Set)} between two
+     * sets encoded as single-word bitsets.
+     * @param first one of the two sets
+     * @param second the second set
+     * @return a non-negative integer
+     * @see mentoring.datastructure.SymbolTable
+     */
+    public static int computeSetDistance(long first, long second){
+        int commonValues = Long.bitCount(first & second);
+        int nonCommonValues = Long.bitCount(first ^ second);
+        return SET_PROXIMITY_MULTIPLIER * nonCommonValues / (commonValues+1);
+    }
+    
+    /**
+     * Compute the distance of {@link #computeSetDistance(java.util.Set, java.util.Set)} between two
+     * sets encoded as bitsets of any length, a missing word being empty.
+     * @param first one of the two sets
+     * @param second the second set
+     * @return a non-negative integer
+     * @see mentoring.datastructure.Person#getPropertyAsBitSet(java.lang.String, 
+     *      mentoring.datastructure.SymbolTable)
+     */
+    public static int computeSetDistance(long[] first, long[] second){
+        if (first.length <= 1 && second.length <= 1){
+            return computeSetDistance(first.length == 0 ? 0 : first[0], 
+                    second.length == 0 ? 0 : second[0]);
+        }
+        int commonValues = 0;
+        int nonCommonValues = 0;
+        for (int i = 0; i < Math.max(first.length, second.length); i++){
+            long firstWord = i < first.length ? first[i] : 0;
+            long secondWord = i < second.length ? second[i] : 0;
+            commonValues += Long.bitCount(firstWord & secondWord);
+            nonCommonValues += Long.bitCount(firstWord ^ secondWord);
+        }
+        return SET_PROXIMITY_MULTIPLIER * nonCommonValues / (commonValues+1);
+    }
+    
     private static <E> int countCommonValues(Set<? extends E> first, Set< ? extends E> second){
         int commonValues = 0;
         for (E val : first){
@@ -97,6 +137,41 @@ public final class CriteriaToolbox {
         return defaultFromWeight*fromFactor + defaultToWeight*toFactor;
     }
     
+    /**
+     * Compute the score of 
+     * {@link #computePreferenceMapSimilarityScore(java.util.Map, java.util.Map, int, int, int)} 
+     * between two preference maps encoded as arrays of keys ordered by value, without allocating
+     * memory.
+     * @param from first array to compare, where {@code from[v]} is the key of value {@code v} or 
+     *      a negative number if no key has that value, the last element being a key
+     * @param to second array to compare, with the same encoding as {@code from}
+     * @param fromFactor the higher this value, the higher the impact of the values of {@code from} 
+     *      on the result
+     * @param toFactor the higher this value, the higher the impact of the values of {@code to} on 
+     *      the result
+     * @param defaultValue value used if either {@code from} or {@code to} is empty
+     * @return a score that is minimal if the two input arrays share the same key for their lowest 
+     * value.
+     * @see mentoring.datastructure.Person#getPropertyAsRanks(java.lang.String, 
+     *      mentoring.datastructure.SymbolTable)
+     */
+    public static int computePreferenceMapSimilarityScore(int[] from, int[] to, int fromFactor, 
+            int toFactor, int defaultValue){
+        for (int fromValue = 0; fromValue < from.length; fromValue++){
+            int key = from[fromValue];
+            if (key >= 0){
+                for (int toValue = 0; toValue < to.length; toValue++){
+                    if (to[toValue] == key){
+                        return fromFactor * fromValue + toFactor * toValue;
+                    }
+                }
+            }
+        }
+        int defaultFromWeight = from.length == 0 ? defaultValue : from.length;
+        int defaultToWeight = to.length == 0 ? defaultValue : to.length;
+        return defaultFromWeight*fromFactor + defaultToWeight*toFactor;
+    }
+    
     /**
      * Computes an exponential cost between two elements of a sorted set of values.
      * @param <E> the type of the elements
@@ -109,6 +184,49 @@ public final class CriteriaToolbox {
      */
     public static <E> int exponentialDistance(Map<? extends E, ? extends Integer> indices, E first, 
             E second, int baseValue){
-        return (int) Math.pow(baseValue, Math.abs(indices.get(first) - indices.get(second)));
+        return exponentialDistance(indices.get(first), indices.get(second), baseValue);
+    }
+    
+    /**
+     * Computes an exponential cost between the numerical values of two elements, for criteria 
+     * that extract these values once per person.
+     * @param firstIndex the numerical value associated with the first element
+     * @param secondIndex the numerical value associated with the second element
+     * @param baseValue value that is returned if the two values are equal
+     * @return a value that grows exponentially with the difference between the two values
+     * @see #exponentialDistance(java.util.Map, java.lang.Object, java.lang.Object, int) 
+     * @see #exponentialDistanceTable(int, int) 
+     */
+    public static int exponentialDistance(int firstIndex, int secondIndex, int baseValue){
+        return (int) Math.pow(baseValue, Math.abs(firstIndex - secondIndex));
+    }
+    
+    /**
+     * Prepares the computation of 
+     * {@link #exponentialDistance(int, int, int)} on a fixed range of numerical values. The powers 
+     * of {@code baseValue} are computed once, so that each evaluation is a table lookup.
+     * @param baseValue base of the exponential cost
+     * @param indexCount number of numerical values, which range from 0 to {@code indexCount - 1}
+     * @return a function returning the exponential cost between two numerical values of the range
+     * @throws IllegalArgumentException if {@code indexCount} is not positive or if the cost between
+     *      two numerical values of the range does not fit in an int
+     */
+    public static IntBinaryOperator exponentialDistanceTable(int baseValue, int indexCount){
+        if (indexCount < 1){
+            throw new IllegalArgumentException("Expected at least one index, received " 
+                    + indexCount);
+        }
+        int[] powers = new int[indexCount];
+        long power = 1;
+        for (int distance = 0; distance < indexCount; distance++){
+            if (power != (int) power){
+                throw new IllegalArgumentException("%s^%s does not fit in an int"
+                        .formatted(baseValue, distance));
+            }
+            powers[distance] = (int) power;
+            //Cannot overflow: both factors fit in an int
+            power *= baseValue;
+        }
+        return (firstIndex, secondIndex) -> powers[Math.abs(firstIndex - secondIndex)];
     }
 }
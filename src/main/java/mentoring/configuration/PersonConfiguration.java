@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import mentoring.datastructure.MultiplePropertyDescription;
 import mentoring.datastructure.SimplePropertyDescription;
@@ -124,6 +125,25 @@ public final class PersonConfiguration extends Configuration<PersonConfiguration
         return allPropertiesHeaderNames;
     }
     
+    @Override
+    public boolean equals(Object o){
+        return o instanceof PersonConfiguration cast && toString().equals(cast.toString())
+                && properties.equals(cast.properties) 
+                && multipleProperties.equals(cast.multipleProperties)
+                && Objects.equals(separator, cast.separator) && nameFormat.equals(cast.nameFormat)
+                && nameProperties.equals(cast.nameProperties);
+    }
+    
+    /**
+     * Returns a hash code of the configuration. Two configurations describing the same properties
+     * have the same hash code, even in two different runs of the application.
+     */
+    @Override
+    public int hashCode(){
+        return Objects.hash(toString(), properties, multipleProperties, separator, nameFormat,
+                nameProperties);
+    }
+    
     /**
      * Verify if its input is a valid definition for computing Person names.
      * @param nameFormat String with placeholders defining how names will be computed
@@ -5,8 +5,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 import mentoring.datastructure.Person;
+import mentoring.datastructure.SymbolTable;
 import mentoring.datastructure.Year;
+import mentoring.match.FeatureCriterion;
 import mentoring.match.ProgressiveCriterion;
 import mentoring.match.NecessaryCriterion;
 
@@ -21,6 +24,7 @@ public final class PojoCriteriaConfiguration extends CriteriaConfiguration<Perso
     private static final String YEAR_PROPERTY = "Promotion";
     private static final String ACTIVITIES_PROPERTY = "Métiers";
     private static final String MOTIVATION_PROPERTY = "Motivation";
+    private static final String CAPACITY_PROPERTY = "Capacité";
     private static final String SECTOR2024 = "Secteur";
     private static final String MATURITY2024 = "Maturité";
     private static final String JOB2024 = "Métier";
@@ -40,72 +44,45 @@ public final class PojoCriteriaConfiguration extends CriteriaConfiguration<Perso
     /** Configuration used in simple test cases. */
     public final static PojoCriteriaConfiguration CRITERIA_CONFIGURATION = 
             new PojoCriteriaConfiguration("Test criteria configuration", List.of(
-                    (mentee, mentor) ->
-                            YEAR_WEIGHT * (MENTEE_YEAR
-                                    - mentor.getPropertyAs(YEAR_PROPERTY, Integer.class)),
-                    (mentee, mentor) -> {
-                        Set<String> menteeActivities = mentee
-                                .getPropertyAsSetOf(ACTIVITIES_PROPERTY, String.class);
-                        Set<String> mentorActivities = mentor
-                                .getPropertyAsSetOf(ACTIVITIES_PROPERTY, String.class);
-                        return CriteriaToolbox.computeSetDistance(menteeActivities, 
-                                mentorActivities);
-                    }, (mentee, mentor) -> {
-                        Set<String> menteeMotivation =
-                                mentee.getPropertyAsSetOf(MOTIVATION_PROPERTY, 
-                                        String.class);
-                        Set<String> mentorMotivation =
-                                mentor.getPropertyAsSetOf(MOTIVATION_PROPERTY, 
-                                        String.class);
-                        return CriteriaToolbox.computeSetDistance(menteeMotivation, 
-                                mentorMotivation);
-                    }), List.of((mentee, mentor) -> CriteriaToolbox.logicalNotAOrB(
+                    FeatureCriterion.ofInts(mentee -> MENTEE_YEAR,
+                            mentor -> mentor.getPropertyAs(YEAR_PROPERTY, Integer.class),
+                            (menteeYear, mentorYear) -> YEAR_WEIGHT * (menteeYear - mentorYear)),
+                    setDistanceCriterion(ACTIVITIES_PROPERTY),
+                    setDistanceCriterion(MOTIVATION_PROPERTY)
+                    ), List.of((mentee, mentor) -> CriteriaToolbox.logicalNotAOrB(
                             mentee.getPropertyAs(ENGLISH_PROPERTY, Boolean.class),
                             mentor.getPropertyAs(ENGLISH_PROPERTY, Boolean.class))));
+    /** 
+     * Configuration used in simple test cases where mentors accept several mentees, identical to
+     * {@link #CRITERIA_CONFIGURATION} apart from the capacity of the mentors.
+     */
+    public final static PojoCriteriaConfiguration CRITERIA_CONFIGURATION_WITH_CAPACITIES = 
+            new PojoCriteriaConfiguration("Test criteria configuration with capacities",
+                    CRITERIA_CONFIGURATION.progressiveCriteria, 
+                    CRITERIA_CONFIGURATION.necessaryCriteria,
+                    mentor -> mentor.getPropertyAs(CAPACITY_PROPERTY, Integer.class));
     /** Configuration used for the preprocessed 2024 data set. */
     public final static PojoCriteriaConfiguration CRITERIA_CONFIGURATION_2024_DATA =
             new PojoCriteriaConfiguration("Criteria configuration for 2024 data",
                     List.of(
-                            (mentee, mentor) -> CriteriaToolbox.exponentialDistance(
-                                    MEETING_INDICES, 
-                                    mentee.getPropertyAs(MEETING2024, String.class), 
-                                    mentor.getPropertyAs(MEETING2024, String.class), 
-                                    MEETING_WEIGHT),
-                            (mentee, mentor ) -> 
-                                YEAR_WEIGHT * Math.abs(
-                                        mentee.getPropertyAs(
-                                                YEAR_PROPERTY, Year.class).getNormalizedYear() - 10 
-                                        - mentor.getPropertyAs(
-                                                YEAR_PROPERTY, Year.class).getNormalizedYear()), 
-                            (mentee, mentor) -> MATURITY_WEIGHT * 
-                                    Math.abs(mentee.getPropertyAs(MATURITY2024, 
-                                            Integer.class)
-                                            - mentor.getPropertyAs(MATURITY2024, 
-                                                    Integer.class)), 
-                            (mentee, mentor) -> INTEREST_AMPLIFIER2024
-                                    * CriteriaToolbox.computePreferenceMapSimilarityScore(
-                                            mentee.getPropertyAsMapOf(SECTOR2024, String.class,
-                                                    Integer.class),
-                                            mentor.getPropertyAsMapOf(SECTOR2024, String.class,
-                                                    Integer.class),
-                                            SECTOR_MENTEE_WEIGHT, SECTOR_MENTOR_WEIGHT,
-                                            3*(SECTOR_MENTEE_WEIGHT+SECTOR_MENTOR_WEIGHT)), 
-                            (mentee, mentor) -> INTEREST_AMPLIFIER2024
-                                    * CriteriaToolbox.computePreferenceMapSimilarityScore(
-                                            mentee.getPropertyAsMapOf(JOB2024, String.class, 
-                                                    Integer.class), 
-                                            mentor.getPropertyAsMapOf(JOB2024, String.class,
-                                                    Integer.class),
-                                            JOB_MENTEE_WEIGHT, JOB_MENTOR_WEIGHT,
-                                            3*(JOB_MENTEE_WEIGHT+JOB_MENTOR_WEIGHT)), 
-                            (mentee, mentor) -> INTEREST_AMPLIFIER2024
-                                    * CriteriaToolbox.computePreferenceMapSimilarityScore(
-                                            mentee.getPropertyAsMapOf(COMPANY2024, String.class, 
-                                                    Integer.class), 
-                                            mentor.getPropertyAsMapOf(COMPANY2024, String.class,
-                                                    Integer.class),
-                                            COMPANY_MENTEE_WEIGHT, COMPANY_MENTOR_WEIGHT,
-                                            3*(COMPANY_MENTEE_WEIGHT+COMPANY_MENTOR_WEIGHT))
+                            FeatureCriterion.ofInts(PojoCriteriaConfiguration::getMeetingIndex,
+                                    PojoCriteriaConfiguration::getMeetingIndex,
+                                    CriteriaToolbox.exponentialDistanceTable(MEETING_WEIGHT,
+                                            MEETING_INDICES.size())),
+                            FeatureCriterion.ofInts(PojoCriteriaConfiguration::getNormalizedYear,
+                                    PojoCriteriaConfiguration::getNormalizedYear,
+                                    (menteeYear, mentorYear) ->
+                                            YEAR_WEIGHT * Math.abs(menteeYear - 10 - mentorYear)),
+                            FeatureCriterion.ofInts(
+                                    mentee -> mentee.getPropertyAs(MATURITY2024, Integer.class),
+                                    mentor -> mentor.getPropertyAs(MATURITY2024, Integer.class),
+                                    (menteeMaturity, mentorMaturity) -> MATURITY_WEIGHT
+                                            * Math.abs(menteeMaturity - mentorMaturity)),
+                            preferenceCriterion(SECTOR2024, SECTOR_MENTEE_WEIGHT,
+                                    SECTOR_MENTOR_WEIGHT),
+                            preferenceCriterion(JOB2024, JOB_MENTEE_WEIGHT, JOB_MENTOR_WEIGHT),
+                            preferenceCriterion(COMPANY2024, COMPANY_MENTEE_WEIGHT,
+                                    COMPANY_MENTOR_WEIGHT)
                     ),
                     List.of((mentee, mentor) -> {
                         boolean found = false;
@@ -121,8 +98,36 @@ public final class PojoCriteriaConfiguration extends CriteriaConfiguration<Perso
                         return found;
             }));
     
+    private static ProgressiveCriterion<Person, Person> setDistanceCriterion(String property){
+        SymbolTable symbols = new SymbolTable();
+        return FeatureCriterion.of(mentee -> mentee.getPropertyAsBitSet(property, symbols),
+                mentor -> mentor.getPropertyAsBitSet(property, symbols),
+                (long[] menteeSet, long[] mentorSet) -> 
+                        CriteriaToolbox.computeSetDistance(menteeSet, mentorSet));
+    }
+    
+    private static int getMeetingIndex(Person person){
+        return MEETING_INDICES.get(person.getPropertyAs(MEETING2024, String.class));
+    }
+    
+    private static int getNormalizedYear(Person person){
+        return person.getPropertyAs(YEAR_PROPERTY, Year.class).getNormalizedYear();
+    }
+    
+    private static ProgressiveCriterion<Person, Person> preferenceCriterion(String property,
+            int menteeWeight, int mentorWeight){
+        SymbolTable symbols = new SymbolTable();
+        return FeatureCriterion.of(mentee -> mentee.getPropertyAsRanks(property, symbols),
+                mentor -> mentor.getPropertyAsRanks(property, symbols),
+                (int[] menteePreferences, int[] mentorPreferences) -> INTEREST_AMPLIFIER2024
+                        * CriteriaToolbox.computePreferenceMapSimilarityScore(menteePreferences,
+                                mentorPreferences, menteeWeight, mentorWeight,
+                                3*(menteeWeight+mentorWeight)));
+    }
+    
     private final Collection<ProgressiveCriterion<Person, Person>> progressiveCriteria;
     private final List<NecessaryCriterion<Person, Person>> necessaryCriteria;
+    private final ToIntFunction<Person> mentorCapacity;
     
     @Override
     public Collection<ProgressiveCriterion<Person, Person>> getProgressiveCriteria(){
@@ -134,11 +139,32 @@ public final class PojoCriteriaConfiguration extends CriteriaConfiguration<Perso
         return Collections.unmodifiableList(necessaryCriteria);
     }
     
+    @Override
+    public ToIntFunction<Person> getMentorCapacity(){
+        return mentorCapacity;
+    }
+    
     public PojoCriteriaConfiguration(String configurationName,
             Collection<ProgressiveCriterion<Person, Person>> progressiveCriteria,
             List<NecessaryCriterion<Person, Person>> necessaryCriteria){
+        this(configurationName, progressiveCriteria, necessaryCriteria, null);
+    }
+    
+    /**
+     * Builds a configuration in which mentors may accept several mentees.
+     * @param configurationName name of the configuration
+     * @param progressiveCriteria used to compute the cost of each match
+     * @param necessaryCriteria used to forbid matches
+     * @param mentorCapacity returning the number of mentees a mentor accepts, or null if each 
+     * mentor accepts one mentee
+     */
+    public PojoCriteriaConfiguration(String configurationName,
+            Collection<ProgressiveCriterion<Person, Person>> progressiveCriteria,
+            List<NecessaryCriterion<Person, Person>> necessaryCriteria,
+            ToIntFunction<Person> mentorCapacity){
         super(configurationName);
         this.progressiveCriteria = progressiveCriteria;
         this.necessaryCriteria = necessaryCriteria;
+        this.mentorCapacity = mentorCapacity;
     }
 }
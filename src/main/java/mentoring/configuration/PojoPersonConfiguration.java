@@ -25,6 +25,15 @@ public enum PojoPersonConfiguration{
             Set.of(new SetPropertyDescription<>("Métiers","Activités et métiers", PropertyType.STRING), 
                     new SetPropertyDescription<>("Motivation", "Motivation", PropertyType.STRING)), 
             ";", "%s %s (X%s)", List.of("Prénom","Nom","Promotion"))),
+    /** Configuration used in simple test cases where mentors accept several mentees. */
+    TEST_CONFIGURATION_WITH_CAPACITIES(new PersonConfiguration(
+            "Test configuration with capacities",
+            Set.of(new SimplePropertyDescription<>("Anglais", "Anglais", PropertyType.BOOLEAN),
+                    new SimplePropertyDescription<>("Promotion", "Promotion", PropertyType.INTEGER),
+                    new SimplePropertyDescription<>("Capacité", "Capacité", PropertyType.INTEGER)), 
+            Set.of(new SetPropertyDescription<>("Métiers","Activités et métiers", PropertyType.STRING), 
+                    new SetPropertyDescription<>("Motivation", "Motivation", PropertyType.STRING)), 
+            ";", "%s %s (X%s)", List.of("Prénom","Nom","Promotion"))),
     /**Configuration used for real mentee data in the preprocessed 2023 data set. */
     MENTEE_CONFIGURATION_2024_DATA(new PersonConfiguration("Mentee configuration for 2024 data",
             Set.of(new SimplePropertyDescription<>("Email", "email", PropertyType.STRING),
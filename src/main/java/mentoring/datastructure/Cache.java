@@ -7,7 +7,8 @@ import org.apache.commons.collections4.map.AbstractReferenceMap;
 import org.apache.commons.collections4.map.ReferenceMap;
 
 /**
- * Standard contract for a cache.
+ * Standard contract for a cache. Caches are thread-safe: the value of a key may then be computed
+ * more than once by concurrent calls, but all the calls return the same cached value.
  * @param <K> the type of keys used to access values
  * @param <V> the type of values stored
  */
@@ -86,7 +87,17 @@ final class LruCache<K,V> implements Cache<K,V> {
 
     @Override
     public V computeIfAbsent(K key, Function<? super K,? extends V> function) {
-        return map.computeIfAbsent(key, function);
+        synchronized (map){
+            V cached = map.get(key);
+            if (cached != null){
+                return cached;
+            }
+        }
+        //Computes the value outside of the lock so that concurrent calls on other keys can proceed
+        V value = function.apply(key);
+        synchronized (map){
+            return map.computeIfAbsent(key, unused -> value);
+        }
     }
 }
 
@@ -104,6 +115,15 @@ final class GcCompatibleCache<K, V> implements Cache<K,V> {
     
     @Override
     public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
-        return map.computeIfAbsent(key, function);
+        synchronized (map){
+            V cached = map.get(key);
+            if (cached != null){
+                return cached;
+            }
+        }
+        V value = function.apply(key);
+        synchronized (map){
+            return map.computeIfAbsent(key, unused -> value);
+        }
     }
 }
\ No newline at end of file
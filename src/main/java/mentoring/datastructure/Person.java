@@ -1,31 +1,44 @@
 package mentoring.datastructure;
 
-import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 /**
  * Immutable class used to represent a single person. Person instances should be initialised through
- * a {@link PersonBuilder} object.
+ * a {@link PersonBuilder} object, or read from a {@link PersonTable}. A person is a view on a row
+ * of its table.
+ *
+ * <p>The hash code of a person is computed once, when it is built. Two persons are equal if they
+ * have the same full name and properties, unless one of them was read from a table with
+ * {@link PersonTable.Equality#IDENTITY}, in which case it is only equal to itself.
  */
 public final class Person {
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private final Map<String, Object> properties;
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private final Map<String, Map<?, ?>> multipleProperties;
-    private final String fullName;
+    private final PersonTable table;
+    private final int row;
+    private final int hash;
     
-    Person(Map<String, Object> properties, Map<String, Map<?,?>> multipleProperties, String name){
-        this.properties = Collections.unmodifiableMap(properties);
-        /*
-        Caveat: the fact that the values of multipleProperties are immutable is guaranteed 
-        by PersonBuilder.
-        */
-        this.multipleProperties = Collections.unmodifiableMap(multipleProperties);
-        this.fullName = name;
+    Person(PersonTable table, int row){
+        this.table = table;
+        this.row = row;
+        this.hash = table.rowHashCode(row);
+    }
+    
+    /**
+     * Returns the identifier of the person in the table it was read from. Persons parsed from a 
+     * file are numbered in the order of the file, starting at 0; persons built by a
+     * {@link PersonBuilder} all have identifier 0.
+     * @return the index of the row of the person in its table
+     */
+    public int getRowId(){
+        return row;
+    }
+    
+    PersonTable getTable(){
+        return table;
     }
     
     public String getFullName(){
-        return fullName;
+        return table.getFullName(row);
     }
     
     /**
@@ -37,15 +50,16 @@ public final class Person {
      * @return the value of the property cast to the given type.
      */
     public <T> T getPropertyAs(String property, Class<T> type) {
-        if (!properties.containsKey(property)){
+        Object value = table.getProperty(row, property);
+        if (value == null){
             throw new IllegalArgumentException(String.format(
                     "%s has no %s property", this, property));
-        } else if (!type.isInstance(properties.get(property))){
+        } else if (!type.isInstance(value)){
             throw new ClassCastException(String.format(
                     "Property %s of %s (%s) is not of required type, %s", property, this,
-                    properties.get(property), type));
+                    value, type));
         }
-        return type.cast(properties.get(property));
+        return type.cast(value);
     }
     
     /**
@@ -73,36 +87,74 @@ public final class Person {
      */
     @SuppressWarnings("unchecked")
     public <K,V> Map<K,V> getPropertyAsMapOf(String property, Class<K> keyType, Class<V> valueType){
-        if (!multipleProperties.containsKey(property)){
+        Map<?,?> value = table.getMultipleProperty(row, property);
+        if (value == null){
             throw new IllegalArgumentException(String.format(
                     "Person %s has no %s multiple property", this, property));
         }
-        try {
-            return (Map<K,V>) multipleProperties.get(property);
-        } catch (ClassCastException e){
-            throw new ClassCastException(String.format(
-                    "Property %s of person %s (%s) is not of required types, %s and %s", 
-                    property, this, properties.get(property), keyType, valueType));
+        return (Map<K,V>) value;
+    }
+    
+    /**
+     * Returns the keys of the given multiple property as a bitset. The index of each key is given
+     * by a symbol table, so that the bitsets of two persons encoded by the same table can be 
+     * compared whatever the files they were parsed from. Each distinct value of a property is 
+     * only encoded once per table.
+     * An exception will be raised if the property does not exist.
+     * @param property name of the property to get
+     * @param symbols table giving the index of each key
+     * @return the words of the bitset, as described in 
+     *      {@link SymbolTable#encode(java.util.Collection)}
+     */
+    public long[] getPropertyAsBitSet(String property, SymbolTable symbols){
+        long[] encoded = table.getBitSet(row, property, Objects.requireNonNull(symbols));
+        if (encoded == null){
+            throw new IllegalArgumentException(String.format(
+                    "Person %s has no %s multiple property", this, property));
         }
+        return encoded.clone();
+    }
+    
+    /**
+     * Returns the keys of the given multiple property ordered by their value, the value of each key
+     * being its rank. The index of each key is given by a symbol table, as in 
+     * {@link #getPropertyAsBitSet(java.lang.String, SymbolTable)}.
+     * An exception will be raised if the property does not exist or if its values are not distinct
+     * non-negative integers.
+     * @param property name of the property to get
+     * @param symbols table giving the index of each key
+     * @return the keys ordered by rank, as described in 
+     *      {@link SymbolTable#encodeRanks(java.util.Map)}
+     */
+    public int[] getPropertyAsRanks(String property, SymbolTable symbols){
+        int[] encoded = table.getRanks(row, property, Objects.requireNonNull(symbols));
+        if (encoded == null){
+            throw new IllegalArgumentException(String.format(
+                    "Person %s has no %s multiple property", this, property));
+        }
+        return encoded.clone();
     }
     
     @Override
     public String toString(){
-        return String.format("Person %s", fullName);
+        return String.format("Person %s", getFullName());
     }
     
     @Override
     public boolean equals(Object other){
-        if(! (other instanceof Person cast)){
+        if (this == other){
+            return true;
+        }
+        if(! (other instanceof Person cast) || hash != cast.hash
+                || table.getEquality() == PersonTable.Equality.IDENTITY
+                || cast.table.getEquality() == PersonTable.Equality.IDENTITY){
             return false;
         }
-        return (fullName.equals(cast.fullName) 
-                && properties.equals(cast.properties)
-                && multipleProperties.equals(cast.multipleProperties));
+        return table.rowEquals(row, cast.table, cast.row);
     }
     
     @Override
     public int hashCode(){
-        return fullName.hashCode() + 31*(properties.hashCode() + 31*multipleProperties.hashCode());
+        return hash;
     }
 }
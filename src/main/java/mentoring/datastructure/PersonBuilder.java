@@ -43,7 +43,7 @@ public final class PersonBuilder {
     }
     
     public Person build(){
-        Person result = new Person(properties, multipleProperties, name);
+        Person result = PersonTable.buildSinglePerson(properties, multipleProperties, name);
         clear();
         return result;
     }
@@ -0,0 +1,871 @@
+package mentoring.datastructure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Columnar storage of the properties of a set of persons. Each {@link Person} of the table is a
+ * view on one of its rows.
+ *
+ * <p>Each property is stored in a column of the table: integer properties in an int array,
+ * boolean properties in a bitset, and all the other properties are dictionary-encoded, so that
+ * a person only costs a few ints. Multiple properties are encoded by their unparsed value, so that
+ * each distinct value is only parsed once.
+ *
+ * <p>The hash code of each row is computed once, when the row is added. With
+ * {@link Equality#IDENTITY}, each person of the table is only equal to itself, so that hash-based
+ * collections of persons never compare their properties.
+ *
+ * <p>Rows are only appended, and a row never changes once added. This class is not thread-safe
+ * while rows are added; once it is published, its persons can be read concurrently. To parse rows
+ * in parallel, {@link #parseRow(String[], int[], int[], String)} can be called from any thread, 
+ * then the parsed rows added by a single thread with {@link #addParsedRow(ParsedRow)}.
+ *
+ * <p>A table can be stored in a binary format with {@link #writeTo(DataOutput)} and read back
+ * with {@link #readFrom(DataInput, Collection, Collection, String, Equality)} without parsing its
+ * values again.
+ */
+public final class PersonTable {
+    /** Size of the buffer first allocated to read a table, grown as needed. */
+    private static final int PAYLOAD_CHUNK_SIZE = 1 << 16;
+    private final List<SimplePropertyDescription<?>> simpleProperties;
+    private final List<MultiplePropertyDescription<?,?>> multipleProperties;
+    private final Map<String, SimpleColumn> simpleColumns = new LinkedHashMap<>();
+    private final Map<String, MultipleColumn> multipleColumns = new LinkedHashMap<>();
+    private final List<Person> persons = new ArrayList<>();
+    private final Equality equality;
+    private String[] fullNames = new String[0];
+    
+    /** How the persons of a table are compared by {@link Person#equals(java.lang.Object)}. */
+    public enum Equality {
+        /** Two persons are equal if they have the same full name and properties. */
+        VALUE,
+        /**
+         * A person is only equal to itself, even if another person has the same full name and
+         * properties, for example because a row is repeated in a file.
+         */
+        IDENTITY
+    }
+    
+    /**
+     * Builds an empty table whose persons are compared with {@link Equality#VALUE}.
+     * @param simpleProperties the single-valued properties of the persons
+     * @param multipleProperties the multi-valued properties of the persons
+     * @param separator separator used inside the unparsed values of multi-valued properties
+     */
+    public PersonTable(Collection<? extends SimplePropertyDescription<?>> simpleProperties,
+            Collection<? extends MultiplePropertyDescription<?,?>> multipleProperties,
+            String separator){
+        this(simpleProperties, multipleProperties, separator, Equality.VALUE);
+    }
+    
+    /**
+     * Builds an empty table.
+     * @param simpleProperties the single-valued properties of the persons
+     * @param multipleProperties the multi-valued properties of the persons
+     * @param separator separator used inside the unparsed values of multi-valued properties
+     * @param equality how the persons of the table are compared
+     */
+    public PersonTable(Collection<? extends SimplePropertyDescription<?>> simpleProperties,
+            Collection<? extends MultiplePropertyDescription<?,?>> multipleProperties,
+            String separator, Equality equality){
+        this.equality = Objects.requireNonNull(equality);
+        this.simpleProperties = List.copyOf(simpleProperties);
+        this.multipleProperties = List.copyOf(multipleProperties);
+        Objects.requireNonNull(separator);
+        for (SimplePropertyDescription<?> property : this.simpleProperties){
+            simpleColumns.put(property.getName(), buildColumn(property.getType()));
+        }
+        for (MultiplePropertyDescription<?,?> property : this.multipleProperties){
+            multipleColumns.put(property.getName(), new MultipleColumn(property, separator));
+        }
+    }
+    
+    private PersonTable(){
+        simpleProperties = List.of();
+        multipleProperties = List.of();
+        equality = Equality.VALUE;
+    }
+    
+    private static SimpleColumn buildColumn(PropertyType<?> type){
+        if (type == PropertyType.INTEGER){
+            return new IntColumn();
+        } else if (type == PropertyType.BOOLEAN){
+            return new BooleanColumn();
+        } else {
+            return new DictionaryColumn(type);
+        }
+    }
+    
+    /**
+     * Builds a table containing a single person, for persons built by a {@link PersonBuilder}.
+     * The maps of multiple properties MUST be immutable.
+     */
+    static Person buildSinglePerson(Map<String, Object> properties,
+            Map<String, Map<?,?>> multipleProperties, String fullName){
+        PersonTable table = new PersonTable();
+        table.grow(1);
+        properties.forEach((name, value) -> {
+            DictionaryColumn column = new DictionaryColumn(null);
+            column.grow(1);
+            column.set(0, value);
+            table.simpleColumns.put(name, column);
+        });
+        multipleProperties.forEach((name, map) -> {
+            MultipleColumn column = new MultipleColumn(null, null);
+            column.grow(1);
+            column.add(0, new MultipleValue(map));
+            table.multipleColumns.put(name, column);
+        });
+        return table.commitRow(fullName);
+    }
+    
+    /** Returns the single-valued properties of the table, in the order of its columns. */
+    public List<SimplePropertyDescription<?>> getSimpleProperties(){
+        return simpleProperties;
+    }
+    
+    /** Returns the multi-valued properties of the table, in the order of its columns. */
+    public List<MultiplePropertyDescription<?,?>> getMultipleProperties(){
+        return multipleProperties;
+    }
+    
+    /** Returns how the persons of the table are compared. */
+    public Equality getEquality(){
+        return equality;
+    }
+    
+    /**
+     * Parses a row and adds it to the table.
+     * @param values unparsed values of the row
+     * @param simpleIndices index in {@code values} of each single-valued property, in the order of
+     *      {@link #getSimpleProperties()}
+     * @param multipleIndices index in {@code values} of each multi-valued property, in the order of
+     *      {@link #getMultipleProperties()}
+     * @param fullName full name of the person
+     * @return the person stored in the new row, whose {@link Person#getRowId()} is the number of
+     *      rows added before
+     * @throws NumberFormatException if a numerical value cannot be parsed, in which case no row is
+     *      added
+     */
+    public Person addRow(String[] values, int[] simpleIndices, int[] multipleIndices,
+            String fullName){
+        return addParsedRow(parseRow(values, simpleIndices, multipleIndices, fullName));
+    }
+    
+    /**
+     * Parses a row without adding it to the table. This method is thread-safe, even while rows
+     * are added to the table.
+     * @param values unparsed values of the row
+     * @param simpleIndices index in {@code values} of each single-valued property, in the order of
+     *      {@link #getSimpleProperties()}
+     * @param multipleIndices index in {@code values} of each multi-valued property, in the order of
+     *      {@link #getMultipleProperties()}
+     * @param fullName full name of the person
+     * @return the parsed row, to add with {@link #addParsedRow(ParsedRow)}
+     * @throws NumberFormatException if a numerical value cannot be parsed
+     */
+    public ParsedRow parseRow(String[] values, int[] simpleIndices, int[] multipleIndices,
+            String fullName){
+        Object[] simpleValues = new Object[simpleColumns.size()];
+        int k = 0;
+        for (SimpleColumn column : simpleColumns.values()){
+            simpleValues[k] = column.parse(values[simpleIndices[k]]);
+            k++;
+        }
+        MultipleValue[] multipleValues = new MultipleValue[multipleColumns.size()];
+        k = 0;
+        for (MultipleColumn column : multipleColumns.values()){
+            multipleValues[k] = column.parse(values[multipleIndices[k]]);
+            k++;
+        }
+        return new ParsedRow(this, simpleValues, multipleValues, Objects.requireNonNull(fullName));
+    }
+    
+    /**
+     * Adds a row parsed by {@link #parseRow(String[], int[], int[], String)}. The rows are added 
+     * in the order of the calls, whatever the order in which they were parsed.
+     * @param parsedRow row parsed by this table
+     * @return the person stored in the new row, whose {@link Person#getRowId()} is the number of
+     *      rows added before
+     * @throws IllegalArgumentException if the row was parsed by another table
+     */
+    public Person addParsedRow(ParsedRow parsedRow){
+        if (parsedRow.table != this){
+            throw new IllegalArgumentException("Row of person %s was parsed by another table"
+                    .formatted(parsedRow.fullName));
+        }
+        int row = size();
+        if (row == fullNames.length){
+            grow(Math.max(16, 2 * row));
+        }
+        int k = 0;
+        for (SimpleColumn column : simpleColumns.values()){
+            column.set(row, parsedRow.simpleValues[k++]);
+        }
+        k = 0;
+        for (MultipleColumn column : multipleColumns.values()){
+            column.add(row, parsedRow.multipleValues[k++]);
+        }
+        return commitRow(parsedRow.fullName);
+    }
+    
+    private void grow(int capacity){
+        fullNames = Arrays.copyOf(fullNames, capacity);
+        simpleColumns.values().forEach(column -> column.grow(capacity));
+        multipleColumns.values().forEach(column -> column.grow(capacity));
+    }
+    
+    private Person commitRow(String fullName){
+        int row = size();
+        fullNames[row] = fullName;
+        Person result = new Person(this, row);
+        persons.add(result);
+        return result;
+    }
+    
+    /**
+     * Returns the table whose persons are exactly the given ones, in the order of its rows.
+     * @param persons a list of persons
+     * @return the table of the persons, or null if the list is empty or does not contain exactly
+     *      the persons of a single table
+     */
+    public static PersonTable tableOf(List<Person> persons){
+        if (persons.isEmpty()){
+            return null;
+        }
+        PersonTable table = persons.get(0).getTable();
+        if (table.size() != persons.size()){
+            return null;
+        }
+        for (int i = 0; i < persons.size(); i++){
+            if (persons.get(i) != table.persons.get(i)){
+                return null;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Writes the table in a binary format, to be read by
+     * {@link #readFrom(DataInput, Collection, Collection, String, Equality)}. The table is
+     * prefixed by its length in bytes, which bounds every count read back.
+     * @param output where to write the table
+     * @throws IOException if the table cannot be written
+     * @throws IllegalStateException if the persons of the table were built by a
+     *      {@link PersonBuilder}
+     */
+    public void writeTo(DataOutput output) throws IOException{
+        if (simpleColumns.size() != simpleProperties.size()
+                || multipleColumns.size() != multipleProperties.size()){
+            throw new IllegalStateException("Table of a person built by a PersonBuilder");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        int rowCount = size();
+        payload.writeInt(rowCount);
+        for (int row = 0; row < rowCount; row++){
+            writeString(payload, fullNames[row]);
+        }
+        payload.writeInt(simpleColumns.size());
+        for (Map.Entry<String, SimpleColumn> entry : simpleColumns.entrySet()){
+            writeString(payload, entry.getKey());
+            entry.getValue().write(payload, rowCount);
+        }
+        payload.writeInt(multipleColumns.size());
+        for (Map.Entry<String, MultipleColumn> entry : multipleColumns.entrySet()){
+            writeString(payload, entry.getKey());
+            entry.getValue().write(payload, rowCount);
+        }
+        output.writeInt(bytes.size());
+        output.write(bytes.toByteArray());
+    }
+    
+    /**
+     * Reads a table written by {@link #writeTo(DataOutput)}. The columns are matched with the
+     * properties by name, so the properties may be given in another order than when the table was
+     * written.
+     * @param input where to read the table
+     * @param simpleProperties the single-valued properties of the persons
+     * @param multipleProperties the multi-valued properties of the persons
+     * @param separator separator used inside the unparsed values of multi-valued properties
+     * @param equality how the persons of the table are compared
+     * @return the table read
+     * @throws IOException if the input cannot be read or does not contain a table with these
+     *      properties
+     */
+    public static PersonTable readFrom(DataInput input,
+            Collection<? extends SimplePropertyDescription<?>> simpleProperties,
+            Collection<? extends MultiplePropertyDescription<?,?>> multipleProperties,
+            String separator, Equality equality) throws IOException{
+        PersonTable table = new PersonTable(simpleProperties, multipleProperties, separator,
+                equality);
+        DataInputStream payload = readPayload(input);
+        int rowCount = readCount(payload, Integer.BYTES);
+        table.grow(rowCount);
+        String[] names = new String[rowCount];
+        for (int row = 0; row < rowCount; row++){
+            names[row] = readString(payload);
+        }
+        Set<String> readColumns = new HashSet<>();
+        readColumnCount(payload, table.simpleColumns.size());
+        for (int i = 0; i < table.simpleColumns.size(); i++){
+            String name = readString(payload);
+            SimpleColumn column = table.simpleColumns.get(name);
+            if (column == null || !readColumns.add(name)){
+                throw new IOException("Unexpected single-valued property " + name);
+            }
+            column.read(payload, rowCount);
+        }
+        readColumnCount(payload, table.multipleColumns.size());
+        for (int i = 0; i < table.multipleColumns.size(); i++){
+            String name = readString(payload);
+            MultipleColumn column = table.multipleColumns.get(name);
+            if (column == null || !readColumns.add(name)){
+                throw new IOException("Unexpected multi-valued property " + name);
+            }
+            column.read(payload, rowCount);
+        }
+        if (payload.available() != 0){
+            throw new IOException("%s unexpected bytes after the table"
+                    .formatted(payload.available()));
+        }
+        for (String name : names){
+            table.commitRow(name);
+        }
+        return table;
+    }
+    
+    /**
+     * Reads the length-prefixed payload of a table. The buffer grows as the bytes are read, so
+     * that a corrupted length cannot allocate much more memory than the input contains.
+     */
+    private static DataInputStream readPayload(DataInput input) throws IOException{
+        int length = input.readInt();
+        if (length < 0){
+            throw new IOException("Negative length " + length);
+        }
+        byte[] bytes = new byte[Math.min(length, PAYLOAD_CHUNK_SIZE)];
+        int read = 0;
+        while (read < length){
+            if (read == bytes.length){
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            input.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+    
+    private static void readColumnCount(DataInput input, int expected) throws IOException{
+        int count = input.readInt();
+        if (count != expected){
+            throw new IOException("Expected %s columns, found %s".formatted(expected, count));
+        }
+    }
+    
+    /**
+     * Reads a number of elements, each written on at least minBytes bytes, so that the number
+     * cannot exceed what the rest of the payload can hold.
+     */
+    private static int readCount(DataInputStream input, int minBytes) throws IOException{
+        int count = input.readInt();
+        //The payload is in memory, so available() is exactly the number of remaining bytes
+        if (count < 0 || (long) count * minBytes > input.available()){
+            throw new IOException("Count %s out of the %s remaining bytes"
+                    .formatted(count, input.available()));
+        }
+        return count;
+    }
+    
+    private static int readCode(DataInput input, int dictionarySize) throws IOException{
+        int code = input.readInt();
+        if (code < 0 || code >= dictionarySize){
+            throw new IOException("Code %s out of a dictionary of %s values"
+                    .formatted(code, dictionarySize));
+        }
+        return code;
+    }
+    
+    private static void writeString(DataOutput output, String value) throws IOException{
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+    
+    private static String readString(DataInputStream input) throws IOException{
+        byte[] bytes = new byte[readCount(input, Byte.BYTES)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeValue(DataOutput output, PropertyType<?> type, Object value)
+            throws IOException{
+        if (type == PropertyType.INTEGER){
+            output.writeInt((Integer) value);
+        } else if (type == PropertyType.BOOLEAN){
+            output.writeBoolean((Boolean) value);
+        } else if (type == PropertyType.STRING || type == PropertyType.SIMPLIFIED_LOWER_STRING){
+            writeString(output, (String) value);
+        } else if (type == PropertyType.YEAR){
+            Year year = (Year) value;
+            output.writeInt(year.getCurriculum().ordinal());
+            output.writeInt(year.getEntryYear());
+        } else {
+            throw new IllegalArgumentException("Values of type %s cannot be written"
+                    .formatted(type));
+        }
+    }
+    
+    private static Object readValue(DataInputStream input, PropertyType<?> type)
+            throws IOException{
+        if (type == PropertyType.INTEGER){
+            return input.readInt();
+        } else if (type == PropertyType.BOOLEAN){
+            return input.readBoolean();
+        } else if (type == PropertyType.STRING || type == PropertyType.SIMPLIFIED_LOWER_STRING){
+            return readString(input);
+        } else if (type == PropertyType.YEAR){
+            Year.Curriculum[] curricula = Year.Curriculum.values();
+            return Year.of(curricula[readCode(input, curricula.length)], input.readInt());
+        } else {
+            throw new IOException("Values of type %s cannot be read".formatted(type));
+        }
+    }
+    
+    /** Returns the number of persons in the table. */
+    public int size(){
+        return persons.size();
+    }
+    
+    /** Returns the persons of the table, in the order of their rows. */
+    public List<Person> getPersons(){
+        return Collections.unmodifiableList(persons);
+    }
+    
+    String getFullName(int row){
+        return fullNames[row];
+    }
+    
+    /** Returns the value of a single-valued property, or null if the table has no such property. */
+    Object getProperty(int row, String property){
+        SimpleColumn column = simpleColumns.get(property);
+        return column == null ? null : column.get(row);
+    }
+    
+    /** Returns the value of a multi-valued property, or null if the table has no such property. */
+    Map<?,?> getMultipleProperty(int row, String property){
+        MultipleColumn column = multipleColumns.get(property);
+        return column == null ? null : column.get(row);
+    }
+    
+    /**
+     * Returns the keys of a multi-valued property encoded as a bitset by a symbol table, or null
+     * if the table has no such property. The returned array MUST NOT be modified.
+     */
+    long[] getBitSet(int row, String property, SymbolTable symbols){
+        MultipleColumn column = multipleColumns.get(property);
+        return column == null ? null : column.getValue(row).bitSet(symbols);
+    }
+    
+    /**
+     * Returns the keys of a multi-valued property encoded by rank by a symbol table, or null if
+     * the table has no such property. The returned array MUST NOT be modified.
+     */
+    int[] getRanks(int row, String property, SymbolTable symbols){
+        MultipleColumn column = multipleColumns.get(property);
+        return column == null ? null : column.getValue(row).ranks(symbols);
+    }
+    
+    /** Returns true if the two rows have the same full name and the same properties. */
+    boolean rowEquals(int row, PersonTable other, int otherRow){
+        if (!fullNames[row].equals(other.fullNames[otherRow])){
+            return false;
+        }
+        if (this == other){
+            return simpleColumns.values().stream()
+                            .allMatch(column -> column.rowEquals(row, otherRow))
+                    && multipleColumns.values().stream()
+                            .allMatch(column -> column.rowEquals(row, otherRow));
+        }
+        return simpleColumns.keySet().equals(other.simpleColumns.keySet())
+                && multipleColumns.keySet().equals(other.multipleColumns.keySet())
+                && simpleColumns.entrySet().stream().allMatch(entry -> entry.getValue().get(row)
+                        .equals(other.simpleColumns.get(entry.getKey()).get(otherRow)))
+                && multipleColumns.entrySet().stream().allMatch(entry -> entry.getValue().get(row)
+                        .equals(other.multipleColumns.get(entry.getKey()).get(otherRow)));
+    }
+    
+    /**
+     * Returns a hash code of a row consistent with {@link #rowEquals(int, PersonTable, int)},
+     * equal to the hash code of the maps of the properties of the person.
+     */
+    int rowHashCode(int row){
+        int propertiesHash = 0;
+        for (Map.Entry<String, SimpleColumn> entry : simpleColumns.entrySet()){
+            propertiesHash += entry.getKey().hashCode() ^ entry.getValue().get(row).hashCode();
+        }
+        int multiplePropertiesHash = 0;
+        for (Map.Entry<String, MultipleColumn> entry : multipleColumns.entrySet()){
+            multiplePropertiesHash +=
+                    entry.getKey().hashCode() ^ entry.getValue().get(row).hashCode();
+        }
+        return fullNames[row].hashCode() + 31*(propertiesHash + 31*multiplePropertiesHash);
+    }
+    
+    /** Column of a single-valued property. */
+    private static abstract class SimpleColumn {
+        /** Makes room for rows up to the given capacity. */
+        abstract void grow(int capacity);
+    
+        /** Parses a value. This method is thread-safe. */
+        abstract Object parse(String value);
+    
+        /** Stores the value of a row, as returned by {@link #parse(java.lang.String)}. */
+        abstract void set(int row, Object value);
+    
+        abstract Object get(int row);
+    
+        /** Returns true if two rows of the column have equal values. */
+        abstract boolean rowEquals(int row, int otherRow);
+    
+        /** Writes the values of the first rows of the column. */
+        abstract void write(DataOutput output, int rowCount) throws IOException;
+    
+        /** Reads values written by {@link #write(DataOutput, int)} into an empty column. */
+        abstract void read(DataInputStream input, int rowCount) throws IOException;
+    }
+    
+    private static final class IntColumn extends SimpleColumn {
+        private int[] values = new int[0];
+    
+        @Override
+        void grow(int capacity){
+            values = Arrays.copyOf(values, capacity);
+        }
+    
+        @Override
+        Object parse(String value){
+            return Integer.parseInt(value);
+        }
+    
+        @Override
+        void set(int row, Object value){
+            values[row] = (Integer) value;
+        }
+    
+        @Override
+        Object get(int row){
+            return values[row];
+        }
+    
+        @Override
+        boolean rowEquals(int row, int otherRow){
+            return values[row] == values[otherRow];
+        }
+    
+        @Override
+        void write(DataOutput output, int rowCount) throws IOException{
+            for (int row = 0; row < rowCount; row++){
+                output.writeInt(values[row]);
+            }
+        }
+    
+        @Override
+        void read(DataInputStream input, int rowCount) throws IOException{
+            for (int row = 0; row < rowCount; row++){
+                values[row] = input.readInt();
+            }
+        }
+    }
+    
+    private static final class BooleanColumn extends SimpleColumn {
+        private final BitSet values = new BitSet();
+    
+        @Override
+        void grow(int capacity){
+            //BitSet grows as needed
+        }
+    
+        @Override
+        Object parse(String value){
+            return PropertyType.BOOLEAN.parse(value);
+        }
+    
+        @Override
+        void set(int row, Object value){
+            values.set(row, (Boolean) value);
+        }
+    
+        @Override
+        Object get(int row){
+            return values.get(row);
+        }
+    
+        @Override
+        boolean rowEquals(int row, int otherRow){
+            return values.get(row) == values.get(otherRow);
+        }
+    
+        @Override
+        void write(DataOutput output, int rowCount) throws IOException{
+            long[] words = values.get(0, rowCount).toLongArray();
+            output.writeInt(words.length);
+            for (long word : words){
+                output.writeLong(word);
+            }
+        }
+    
+        @Override
+        void read(DataInputStream input, int rowCount) throws IOException{
+            long[] words = new long[readCount(input, Long.BYTES)];
+            if (words.length > (rowCount + Long.SIZE - 1) / Long.SIZE){
+                throw new IOException("%s words for %s rows".formatted(words.length, rowCount));
+            }
+            for (int i = 0; i < words.length; i++){
+                words[i] = input.readLong();
+            }
+            values.or(BitSet.valueOf(words));
+        }
+    }
+    
+    /** Column storing the code of the value of each row in a dictionary of the distinct values. */
+    private static final class DictionaryColumn extends SimpleColumn {
+        /** Type used to parse the values, null if the column is not filled by parsing. */
+        private final PropertyType<?> type;
+        private final List<Object> dictionary = new ArrayList<>();
+        private final Map<Object, Integer> codesByValue = new HashMap<>();
+        private int[] codes = new int[0];
+    
+        DictionaryColumn(PropertyType<?> type){
+            this.type = type;
+        }
+    
+        @Override
+        void grow(int capacity){
+            codes = Arrays.copyOf(codes, capacity);
+        }
+    
+        @Override
+        Object parse(String value){
+            return type.parse(value);
+        }
+    
+        @Override
+        void set(int row, Object value){
+            codes[row] = codesByValue.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+    
+        @Override
+        Object get(int row){
+            return dictionary.get(codes[row]);
+        }
+    
+        @Override
+        boolean rowEquals(int row, int otherRow){
+            return codes[row] == codes[otherRow];
+        }
+    
+        @Override
+        void write(DataOutput output, int rowCount) throws IOException{
+            output.writeInt(dictionary.size());
+            for (Object value : dictionary){
+                writeValue(output, type, value);
+            }
+            for (int row = 0; row < rowCount; row++){
+                output.writeInt(codes[row]);
+            }
+        }
+    
+        @Override
+        void read(DataInputStream input, int rowCount) throws IOException{
+            int dictionarySize = readCount(input, Byte.BYTES);
+            for (int i = 0; i < dictionarySize; i++){
+                Object value = readValue(input, type);
+                if (codesByValue.putIfAbsent(value, i) != null){
+                    throw new IOException("Duplicate value " + value);
+                }
+                dictionary.add(value);
+            }
+            for (int row = 0; row < rowCount; row++){
+                codes[row] = readCode(input, dictionarySize);
+            }
+        }
+    }
+    
+    /**
+     * Values of a row parsed by {@link #parseRow(String[], int[], int[], String)}, not yet added
+     * to the table.
+     */
+    public static final class ParsedRow {
+        private final PersonTable table;
+        private final Object[] simpleValues;
+        private final MultipleValue[] multipleValues;
+        private final String fullName;
+    
+        private ParsedRow(PersonTable table, Object[] simpleValues, MultipleValue[] multipleValues,
+                String fullName){
+            this.table = table;
+            this.simpleValues = simpleValues;
+            this.multipleValues = multipleValues;
+            this.fullName = fullName;
+        }
+    }
+    
+    /**
+     * Parsed value of a multi-valued property. Its keys are encoded on demand by the symbol table
+     * of the caller, the last encoding being kept so that a value shared by several rows is only
+     * encoded once per table. This class is thread-safe.
+     */
+    private static final class MultipleValue {
+        private final Map<?,?> map;
+        private volatile Encoding<long[]> bitSet;
+        private volatile Encoding<int[]> ranks;
+    
+        /** Builds a value from the immutable map of the property. */
+        MultipleValue(Map<?,?> map){
+            this.map = map;
+        }
+    
+        Map<?,?> map(){
+            return map;
+        }
+    
+        long[] bitSet(SymbolTable symbols){
+            Encoding<long[]> encoding = bitSet;
+            if (encoding == null || encoding.symbols() != symbols){
+                encoding = new Encoding<>(symbols, symbols.encode(map.keySet()));
+                bitSet = encoding;
+            }
+            return encoding.value();
+        }
+    
+        @SuppressWarnings("unchecked")
+        int[] ranks(SymbolTable symbols){
+            Encoding<int[]> encoding = ranks;
+            if (encoding == null || encoding.symbols() != symbols){
+                encoding = new Encoding<>(symbols,
+                        symbols.encodeRanks((Map<?, ? extends Integer>) map));
+                ranks = encoding;
+            }
+            return encoding.value();
+        }
+    }
+    
+    /** Value encoded by a symbol table. */
+    private static record Encoding<T>(SymbolTable symbols, T value) {}
+    
+    /**
+     * Column of a multi-valued property, storing the code of the value of each row in a dictionary
+     * of the distinct values.
+     */
+    private static final class MultipleColumn {
+        /** Property used to parse the values, null if the column is not filled by parsing. */
+        private final MultiplePropertyDescription<?,?> property;
+        private final String separator;
+        /** Parsed values by unparsed value, so that each distinct value is only parsed once. */
+        private final Map<String, MultipleValue> valuesByUnparsedValue = new ConcurrentHashMap<>();
+        private final List<MultipleValue> dictionary = new ArrayList<>();
+        private final Map<MultipleValue, Integer> codesByValue = new IdentityHashMap<>();
+        private int[] codes = new int[0];
+    
+        MultipleColumn(MultiplePropertyDescription<?,?> property, String separator){
+            this.property = property;
+            this.separator = separator;
+        }
+    
+        void grow(int capacity){
+            codes = Arrays.copyOf(codes, capacity);
+        }
+    
+        /** Parses a value. This method is thread-safe. */
+        MultipleValue parse(String value){
+            return valuesByUnparsedValue.computeIfAbsent(value, this::decode);
+        }
+    
+        /**
+         * Builds a value from the unparsed value of the property. The encodings of its keys are
+         * only valid during a run of the application, so they are never stored.
+         */
+        private MultipleValue decode(String value){
+            return new MultipleValue(Map.copyOf(property.buildMap(value.split(separator))));
+        }
+    
+        /** Stores the value of a row, as returned by {@link #parse(java.lang.String)}. */
+        void add(int row, MultipleValue value){
+            codes[row] = codesByValue.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+    
+        MultipleValue getValue(int row){
+            return dictionary.get(codes[row]);
+        }
+    
+        Map<?,?> get(int row){
+            return getValue(row).map();
+        }
+    
+        boolean rowEquals(int row, int otherRow){
+            return codes[row] == codes[otherRow] || get(row).equals(get(otherRow));
+        }
+    
+        /** Writes the values of the first rows of the column. */
+        void write(DataOutput output, int rowCount) throws IOException{
+            output.writeInt(dictionary.size());
+            for (MultipleValue value : dictionary){
+                output.writeInt(value.map().size());
+                for (Map.Entry<?,?> entry : value.map().entrySet()){
+                    writeValue(output, property.getType(), entry.getKey());
+                    writeValue(output, property.getValueType(), entry.getValue());
+                }
+            }
+            for (int row = 0; row < rowCount; row++){
+                output.writeInt(codes[row]);
+            }
+        }
+    
+        /** Reads values written by {@link #write(DataOutput, int)} into an empty column. */
+        void read(DataInputStream input, int rowCount) throws IOException{
+            int dictionarySize = readCount(input, Integer.BYTES);
+            for (int i = 0; i < dictionarySize; i++){
+                int mapSize = readCount(input, 2 * Byte.BYTES);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int j = 0; j < mapSize; j++){
+                    Object key = readValue(input, property.getType());
+                    map.put(key, readValue(input, property.getValueType()));
+                }
+                MultipleValue value = new MultipleValue(Map.copyOf(map));
+                codesByValue.put(value, i);
+                dictionary.add(value);
+            }
+            for (int row = 0; row < rowCount; row++){
+                codes[row] = readCode(input, dictionarySize);
+            }
+        }
+    }
+}
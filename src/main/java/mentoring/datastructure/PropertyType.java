@@ -18,22 +18,22 @@ public final class PropertyType<T> {
     private static final Set<String> TRUE_VALUES = Set.of("oui","vrai","yes","true","True");
     
     public final static PropertyType<Boolean> BOOLEAN = 
-            new PropertyType<>(Boolean.class, TRUE_VALUES::contains);
+            new PropertyType<>("boolean", Boolean.class, TRUE_VALUES::contains);
     public final static PropertyType<Integer> INTEGER =
-            new PropertyType<>(Integer.class, Integer::valueOf);
+            new PropertyType<>("integer", Integer.class, Integer::valueOf);
     public final static PropertyType<String> STRING =
-            new PropertyType<>(String.class, Function.identity());
+            new PropertyType<>("string", String.class, Function.identity());
     public final static PropertyType<String> SIMPLIFIED_LOWER_STRING =
-            new PropertyType<>(String.class, PropertyType::simplifyString);
+            new PropertyType<>("simplifiedlowerstring", String.class, PropertyType::simplifyString);
     public final static PropertyType<Year> YEAR = 
-            new PropertyType<>(Year.class, Year::getYear);
-    //When adding a new type, add it to lookup.
+            new PropertyType<>("year", Year.class, Year::getYear);
+    //When adding a new type, add it to lookup and to the values stored by PersonTable.
     
-    private static final Map<String, PropertyType<?>> lookup = Map.of("boolean", BOOLEAN,
-            "integer", INTEGER,
-            "string", STRING,
-            "simplifiedlowerstring", SIMPLIFIED_LOWER_STRING,
-            "year", YEAR);
+    private static final Map<String, PropertyType<?>> lookup = Map.of(BOOLEAN.name, BOOLEAN,
+            INTEGER.name, INTEGER,
+            STRING.name, STRING,
+            SIMPLIFIED_LOWER_STRING.name, SIMPLIFIED_LOWER_STRING,
+            YEAR.name, YEAR);
     
     public static PropertyType<?> valueOf(String property){
         String simplified = property.toLowerCase().replace("_","");
@@ -44,10 +44,12 @@ public final class PropertyType<T> {
         return lookup.get(simplified);
     }
     
+    private final String name;
     private final Class<T> type;
     private final Function<String,T> parser;
     
-    private PropertyType(Class<T> type, Function<String,T> parser){
+    private PropertyType(String name, Class<T> type, Function<String,T> parser){
+        this.name = name;
         /*It is actually necessary to store type: otherwise, retrieving it afterwards is much 
         more complex.*/
         this.type = type;
@@ -62,6 +64,20 @@ public final class PropertyType<T> {
         return type;
     }
     
+    @Override
+    public String toString(){
+        return name;
+    }
+    
+    /** 
+     * Returns a hash code depending only on the name of the type, so that the hash codes of the
+     * objects describing properties are the same from one run of the application to the next.
+     */
+    @Override
+    public int hashCode(){
+        return name.hashCode();
+    }
+    
     private final static Pattern SIMPLIFICATION_PATTERN = Pattern.compile("[\\s\\p{M}]");
     
     private static String simplifyString(String input){
@@ -0,0 +1,94 @@
+package mentoring.datastructure;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dictionary associating each symbol of a property with a unique index, used to encode the sets
+ * of symbols of {@link SetPropertyDescription} properties as bitsets and the ranked symbols of 
+ * {@link IndexedPropertyDescription} properties as arrays. The index of a symbol never
+ * changes, so that bitsets encoded from different files can be compared.
+ *
+ * <p>Only the encodings of the same table can be compared: a table is typically owned by the
+ * criterion comparing the encodings, and lives as long as it. This class is thread-safe.
+ */
+public final class SymbolTable {
+    /** Number of symbols encoded in a word of a bitset. */
+    public static final int WORD_SIZE = Long.SIZE;
+    /** Value of the ranks without symbol in {@link #encodeRanks(java.util.Map)}. */
+    public static final int NO_SYMBOL = -1;
+    private final Map<Object, Integer> indices = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    
+    /** Builds an empty table. */
+    public SymbolTable(){}
+    
+    /**
+     * Returns the index of a symbol, adding the symbol to the table if needed.
+     * @param symbol whose index to return
+     * @return the index of the symbol in the bitsets encoded by this table
+     */
+    public int indexOf(Object symbol){
+        return indices.computeIfAbsent(Objects.requireNonNull(symbol),
+                key -> size.getAndIncrement());
+    }
+    
+    /** Returns the number of symbols in the table. */
+    public int size(){
+        return size.get();
+    }
+    
+    /**
+     * Encodes a set of symbols as a bitset, adding the new symbols to the table.
+     * @param symbols to encode
+     * @return the words of the bitset, the symbol of index {@code i} being bit {@code i % 64} of
+     *      word {@code i / 64}. The bitset has no trailing empty word.
+     */
+    public long[] encode(Collection<?> symbols){
+        int maxIndex = -1;
+        int[] symbolIndices = new int[symbols.size()];
+        int count = 0;
+        for (Object symbol : symbols){
+            int index = indexOf(symbol);
+            symbolIndices[count++] = index;
+            maxIndex = Math.max(maxIndex, index);
+        }
+        long[] result = new long[(maxIndex + WORD_SIZE) / WORD_SIZE];
+        for (int index : symbolIndices){
+            result[index / WORD_SIZE] |= 1L << index;
+        }
+        return result;
+    }
+    
+    /**
+     * Encodes a map associating symbols with distinct ranks, such as the properties described by
+     * {@link IndexedPropertyDescription}, as an array of symbols ordered by rank.
+     * @param rankedSymbols associating each symbol with its rank
+     * @return an array whose element {@code r} is the index of the symbol of rank {@code r}, or
+     *      {@link #NO_SYMBOL} if no symbol has that rank. The array ends with a symbol.
+     * @throws IllegalArgumentException if a rank is negative or if two symbols have the same rank
+     */
+    public int[] encodeRanks(Map<?, ? extends Integer> rankedSymbols){
+        int maxRank = -1;
+        for (int rank : rankedSymbols.values()){
+            if (rank < 0){
+                throw new IllegalArgumentException("Negative rank in " + rankedSymbols);
+            }
+            maxRank = Math.max(maxRank, rank);
+        }
+        int[] result = new int[maxRank + 1];
+        Arrays.fill(result, NO_SYMBOL);
+        for (Map.Entry<?, ? extends Integer> entry : rankedSymbols.entrySet()){
+            if (result[entry.getValue()] != NO_SYMBOL){
+                throw new IllegalArgumentException("Duplicate rank %s in %s"
+                        .formatted(entry.getValue(), rankedSymbols));
+            }
+            result[entry.getValue()] = indexOf(entry.getKey());
+        }
+        return result;
+    }
+}
@@ -27,6 +27,16 @@ public final class Year {
         this.normalizedYear = normalizedYear;
     }
     
+    /**
+     * Returns the year of a given curriculum, as it was before being formatted.
+     * @param curriculum the type of curriculum
+     * @param entryYear the calendar year during which the student enrolled
+     * @return the year whose {@link #getCurriculum()} and {@link #getEntryYear()} are the input
+     */
+    static Year of(Curriculum curriculum, int entryYear){
+        return new Year(curriculum, entryYear, entryYear + curriculum.offset);
+    }
+    
     /** Get the type of curriculum the student is or was enrolled in. */
     public Curriculum getCurriculum(){
         return curriculum;
@@ -0,0 +1,217 @@
+package mentoring.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Scanner reading the lines of a UTF-8 CSV file held in memory. Only the values of the selected
+ * columns are decoded into strings: the other values are skipped without being copied.
+ *
+ * <p>Values are separated by commas and lines by LF or CRLF. A value containing a separator, a
+ * quote or a line break is enclosed in double quotes, a quote inside such a value being doubled.
+ * Empty lines and a leading byte order mark are skipped. Unlike the default
+ * {@link com.opencsv.CSVParser}, backslashes are not escape characters: they are kept as is.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class MappedCsvScanner implements PersonFileParser.LineSource {
+    private static final byte SEPARATOR = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte LINE_FEED = '\n';
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private final ByteBuffer buffer;
+    private final List<String> values = new ArrayList<>();
+    /** Buffer used to unescape the quoted values before they are decoded. */
+    private byte[] scratch = new byte[64];
+    /** Columns whose values are decoded, null to decode all the columns. */
+    private BitSet columns = null;
+    private long linesRead = 0;
+    private long lineNumber = 0;
+    
+    /**
+     * Initialises a scanner reading a buffer from its position to its limit.
+     * @param buffer containing the UTF-8 encoded file
+     */
+    MappedCsvScanner(ByteBuffer buffer){
+        this.buffer = buffer;
+        skipByteOrderMark();
+    }
+    
+    /**
+     * Reads a file in memory to scan it. The file is closed when this method returns, so that it
+     * can be modified or deleted while it is scanned.
+     * @param file to scan
+     * @return a scanner positioned at the beginning of the file
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    static MappedCsvScanner read(Path file) throws IOException{
+        long size = Files.size(file);
+        if (size > Integer.MAX_VALUE){
+            throw new IOException("File %s is too large to be read: %s bytes"
+                    .formatted(file, size));
+        }
+        return new MappedCsvScanner(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+    
+    /**
+     * Maps a file in memory to scan it. The file is only read as its lines are scanned. On some
+     * platforms, notably Windows, the file cannot be modified or deleted until the mapping is
+     * garbage-collected.
+     * @param file to scan
+     * @return a scanner positioned at the beginning of the file
+     * @throws IOException if the file cannot be opened or is larger than 2 GB
+     */
+    static MappedCsvScanner map(Path file) throws IOException{
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE){
+                throw new IOException("File %s is too large to be mapped: %s bytes"
+                        .formatted(file, size));
+            }
+            //The mapping remains valid once the channel is closed
+            return new MappedCsvScanner(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+    
+    private void skipByteOrderMark(){
+        int start = buffer.position();
+        if (buffer.remaining() >= BYTE_ORDER_MARK.length
+                && buffer.get(start) == BYTE_ORDER_MARK[0]
+                && buffer.get(start + 1) == BYTE_ORDER_MARK[1]
+                && buffer.get(start + 2) == BYTE_ORDER_MARK[2]){
+            buffer.position(start + BYTE_ORDER_MARK.length);
+        }
+    }
+    
+    @Override
+    public void selectColumns(BitSet columns){
+        this.columns = (BitSet) columns.clone();
+    }
+    
+    @Override
+    public long getLineNumber(){
+        return lineNumber;
+    }
+    
+    @Override
+    public String[] readNext() throws IOException{
+        skipEmptyLines();
+        if (! buffer.hasRemaining()){
+            return null;
+        }
+        lineNumber = linesRead + 1;
+        values.clear();
+        int column = 0;
+        while (true){
+            values.add(readValue(columns == null || columns.get(column++)));
+            if (! buffer.hasRemaining()){
+                linesRead++;
+                break;
+            }
+            byte next = buffer.get();
+            if (next != SEPARATOR){
+                skipLineFeedAfter(next);
+                linesRead++;
+                break;
+            }
+        }
+        return values.toArray(String[]::new);
+    }
+    
+    private void skipEmptyLines(){
+        while (buffer.hasRemaining() && isLineBreak(buffer.get(buffer.position()))){
+            skipLineFeedAfter(buffer.get());
+            linesRead++;
+        }
+    }
+    
+    private static boolean isLineBreak(byte value){
+        return value == LINE_FEED || value == CARRIAGE_RETURN;
+    }
+    
+    /** Consumes the line feed of a CRLF line break. */
+    private void skipLineFeedAfter(byte lineBreak){
+        if (lineBreak == CARRIAGE_RETURN && buffer.hasRemaining()
+                && buffer.get(buffer.position()) == LINE_FEED){
+            buffer.get();
+        }
+    }
+    
+    /**
+     * Reads a value, leaving the buffer positioned on the separator or line break ending it.
+     * @param decode true to return the value, false to skip it
+     * @return the value, or null if it is skipped
+     */
+    private String readValue(boolean decode) throws IOException{
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == QUOTE){
+            return readQuotedValue(decode);
+        }
+        int start = buffer.position();
+        int end = start;
+        int limit = buffer.limit();
+        while (end < limit){
+            byte current = buffer.get(end);
+            if (current == SEPARATOR || isLineBreak(current)){
+                break;
+            }
+            end++;
+        }
+        buffer.position(end);
+        if (! decode){
+            return null;
+        }
+        ensureScratchCapacity(end - start);
+        buffer.get(start, scratch, 0, end - start);
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+    }
+    
+    private String readQuotedValue(boolean decode) throws IOException{
+        long startLine = linesRead + 1;
+        buffer.get();
+        int length = 0;
+        boolean quoted = true;
+        while (buffer.hasRemaining()){
+            byte current = buffer.get(buffer.position());
+            if (! quoted && (current == SEPARATOR || isLineBreak(current))){
+                break;
+            }
+            buffer.get();
+            if (quoted && current == QUOTE){
+                if (buffer.hasRemaining() && buffer.get(buffer.position()) == QUOTE){
+                    buffer.get();
+                } else {
+                    quoted = false;
+                    continue;
+                }
+            } else if (current == LINE_FEED){
+                linesRead++;
+            }
+            if (decode){
+                ensureScratchCapacity(length + 1);
+                scratch[length] = current;
+            }
+            length++;
+        }
+        if (quoted){
+            throw new IOException("Quoted value starting at line %s is never closed"
+                    .formatted(startLine));
+        }
+        return decode ? new String(scratch, 0, length, StandardCharsets.UTF_8) : null;
+    }
+    
+    private void ensureScratchCapacity(int capacity){
+        if (scratch.length < capacity){
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, 2 * scratch.length));
+        }
+    }
+}
@@ -22,6 +22,7 @@ class MatchFunctionDecoder {
     static final String MENTEE_TOKEN = STANDARD_TOKEN + "Mentee";
     static final String NAME_PROPERTY_TOKEN = STANDARD_TOKEN + "Name";
     static final String COST_TOKEN = STANDARD_TOKEN + "Cost";
+    static final String CRITERION_SCORES_TOKEN = STANDARD_TOKEN + "CriterionScores";
     
     /**
      * Decode a function to apply on a match between two persons.
@@ -39,6 +40,8 @@ class MatchFunctionDecoder {
             prefixLength = MENTEE_TOKEN.length();
         } else if (input.equals(COST_TOKEN)){
             return match -> match.getCost();
+        } else if (input.equals(CRITERION_SCORES_TOKEN)){
+            return match -> match.getCriterionScores();
         } else {
             throw new IllegalArgumentException(
                     "Input string \"" + input + "\" could not be parsed as a match function");
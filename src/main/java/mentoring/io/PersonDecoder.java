@@ -3,21 +3,45 @@ package mentoring.io;
 import mentoring.datastructure.Person;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import mentoring.configuration.PersonConfiguration;
-import mentoring.datastructure.PersonBuilder;
+import mentoring.datastructure.PersonTable;
 
 final class PersonDecoder {
     private final Map<String, Integer> propertyNameIndices = new HashMap<>();
     private final PersonConfiguration configuration;
+    private final PersonTable table;
+    /** Index in a line of each single-valued property of the table. */
+    private final int[] simplePropertyIndices;
+    /** Index in a line of each multi-valued property of the table. */
+    private final int[] multiplePropertyIndices;
+    /** Number of values a line needs to contain all the properties used to decode it. */
+    private final int minimalLineLength;
     
     PersonDecoder(PersonConfiguration configuration, String[] personFileHeader) 
             throws IOException{
+        this(configuration, personFileHeader, PersonTable.Equality.VALUE);
+    }
+    
+    PersonDecoder(PersonConfiguration configuration, String[] personFileHeader,
+            PersonTable.Equality equality) throws IOException{
         this.configuration = configuration;
         decodeHeader(personFileHeader);
+        table = new PersonTable(configuration.getSimplePropertiesNames(), 
+                configuration.getMultiplePropertiesNames(), configuration.getSeparator(),
+                equality);
+        simplePropertyIndices = table.getSimpleProperties().stream()
+                .mapToInt(property -> propertyNameIndices.get(property.getHeaderName()))
+                .toArray();
+        multiplePropertyIndices = table.getMultipleProperties().stream()
+                .mapToInt(property -> propertyNameIndices.get(property.getHeaderName()))
+                .toArray();
+        minimalLineLength = propertyNameIndices.values().stream()
+                .mapToInt(index -> index + 1).max().orElse(0);
     }
     
     private void decodeHeader(String[] header) throws IOException{
@@ -57,13 +81,32 @@ final class PersonDecoder {
         }
     }
     
+    /**
+     * Decodes a line of the file and adds it to the table of the decoder.
+     * @param line to decode
+     * @return the person of the line
+     * @throws IllegalArgumentException if a value of the line is missing or cannot be parsed
+     */
     Person decodeLine(String[] line){
+        return table.addParsedRow(parseLine(line));
+    }
+    
+    /**
+     * Parses a line of the file without adding it to the table of the decoder. This method is 
+     * thread-safe, so that lines can be parsed in parallel.
+     * @param line to parse
+     * @return the parsed line, to add to the table of the decoder with 
+     *      {@link PersonTable#addParsedRow(mentoring.datastructure.PersonTable.ParsedRow)}
+     * @throws IllegalArgumentException if a value of the line is missing or cannot be parsed
+     */
+    PersonTable.ParsedRow parseLine(String[] line){
+        if (line.length < minimalLineLength){
+            throw new IllegalArgumentException("Missing value of property %s in person %s"
+                    .formatted(getFirstMissingProperty(line.length), Arrays.toString(line)));
+        }
         try {
-            PersonBuilder builder = new PersonBuilder();
-            addPropertiesToBuilder(builder, line);
-            addMultiplePropertiesToBuilder(builder, line);
-            addFullNameToBuilder(builder, line);
-            return builder.build();
+            return table.parseRow(line, simplePropertyIndices, multiplePropertyIndices, 
+                    decodeFullName(line));
         } catch (NumberFormatException e){
             throw new IllegalArgumentException("Failed to parse person %s"
                     .formatted(Arrays.toString(line)),
@@ -71,26 +114,34 @@ final class PersonDecoder {
         }
     }
     
-    private void addPropertiesToBuilder(PersonBuilder builder, String[] personData){
-        configuration.getSimplePropertiesNames().forEach(property -> {
-            String stringValue = personData[propertyNameIndices.get(property.getHeaderName())];
-            builder.withProperty(property.getName(), 
-                    property.getType().parse(stringValue));
-        });
+    /** Returns the property of the first column used to decode the persons beyond a line. */
+    private String getFirstMissingProperty(int lineLength){
+        String result = null;
+        int resultIndex = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : propertyNameIndices.entrySet()){
+            if (entry.getValue() >= lineLength && entry.getValue() < resultIndex){
+                result = entry.getKey();
+                resultIndex = entry.getValue();
+            }
+        }
+        return result;
+    }
+    
+    /** Returns the indices of the columns of the file used to decode the persons. */
+    BitSet getUsedColumns(){
+        BitSet result = new BitSet();
+        propertyNameIndices.values().forEach(result::set);
+        return result;
     }
     
-    private void addMultiplePropertiesToBuilder(PersonBuilder builder, String[] personData){
-        configuration.getMultiplePropertiesNames().forEach(property -> {
-            String[] splitValue = personData[propertyNameIndices.get(property.getHeaderName())]
-                    .split(configuration.getSeparator());
-            builder.withPropertyMap(property.getName(), 
-                    property.buildMap(splitValue));
-        });
+    /** Returns the table containing all the persons decoded so far. */
+    PersonTable getTable(){
+        return table;
     }
     
-    private void addFullNameToBuilder(PersonBuilder builder, String[] personData){
+    private String decodeFullName(String[] personData){
         Object[] nameValues = configuration.getNamePropertiesHeaderNames().stream()
                 .map(property -> personData[propertyNameIndices.get(property)]).toArray();
-        builder.withFullName(String.format(configuration.getNameFormat(), nameValues));
+        return String.format(configuration.getNameFormat(), nameValues);
     }
 }
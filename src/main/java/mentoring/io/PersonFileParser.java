@@ -5,52 +5,340 @@ import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import mentoring.configuration.PersonConfiguration;
+import mentoring.datastructure.PersonTable;
 
 /**
- * A parser for CSV files based on a schema defined at runtime.
+ * A parser for CSV files based on a schema defined at runtime. The persons of a file are stored in 
+ * a {@link mentoring.datastructure.PersonTable} filled as the file is read.
  * 
  * <p>This class is thread-safe and is safe for reuse: if two files use the same configuration, 
- * the same instance can parse them both.
+ * the same instance can parse them both. The stream returned by 
+ * {@link #stream(java.io.Reader, java.util.function.Consumer)} is not thread-safe.
+ * <p>By default, the lines are decoded in the thread consuming the persons. A parser returned by
+ * {@link #withExecutor(java.util.concurrent.Executor)} reads the lines in that thread but decodes 
+ * them by batches on an executor, the persons still being returned in the order of the file.
  * <p>This class is not a subclass of {@link Parser} because it is made to read independent rows of
  * data in a file rather than a unique complex object.
  */
 public final class PersonFileParser {
+    /** Number of lines decoded by each task of the executor. */
+    private static final int BATCH_SIZE = 256;
     private final PersonConfiguration configuration;
+    private final PersonTable.Equality equality;
+    /** Executor decoding the lines, null to decode them in the thread reading the file. */
+    private final Executor executor;
     
     /**
-     * Initialises a parser.
+     * Initialises a parser whose persons are compared with {@link PersonTable.Equality#VALUE}.
      * @param configuration of the files to parse.
      */
     public PersonFileParser(PersonConfiguration configuration) {
+        this(configuration, PersonTable.Equality.VALUE);
+    }
+    
+    /**
+     * Initialises a parser. With {@link PersonTable.Equality#IDENTITY}, the persons parsed twice 
+     * from the same file are never equal, so that they cannot be looked up with the persons of 
+     * a previous parse.
+     * @param configuration of the files to parse.
+     * @param equality how the persons of the parsed files are compared
+     */
+    public PersonFileParser(PersonConfiguration configuration, PersonTable.Equality equality) {
+        this(configuration, equality, null);
+    }
+    
+    private PersonFileParser(PersonConfiguration configuration, PersonTable.Equality equality,
+            Executor executor){
         this.configuration = Objects.requireNonNull(configuration);
+        this.equality = Objects.requireNonNull(equality);
+        this.executor = executor;
+    }
+    
+    /**
+     * Returns a parser decoding the lines in parallel. The file is still read by the thread 
+     * consuming the persons, which submits batches of lines to the executor and adds the decoded 
+     * lines to the table of the persons in the order of the file. A bounded number of batches is 
+     * decoded ahead of the consumer.
+     * @param executor used to decode the batches of lines
+     * @return a new parser with the configuration of this parser
+     */
+    public PersonFileParser withExecutor(Executor executor){
+        return new PersonFileParser(configuration, equality, Objects.requireNonNull(executor));
     }
     
     /**
      * Parses a file corresponding to this parser's configuration.
      * @param fileReader providing the data to parse
-     * @return the persons contained in the file. There is no guarantee that the person will be in 
-     *      the same order as in the file.
+     * @return the persons contained in the file, in the same order as in the file.
+     *      {@link Person#getRowId()} is the index of the row of the person in the file, the header
+     *      excluded.
      * @throws IOException if the file cannot be read or does not correspond to its configuration.
+     * @throws IllegalArgumentException if a line of the file cannot be parsed
      */
     public List<Person> parse(Reader fileReader) throws IOException{
-        CSVReader reader = new CSVReader(fileReader);
-        PersonDecoder decoder = initialiseParser(reader);
-        List<Person> result = new ArrayList<>();
-        for (String[] line: reader){
-            result.add(decoder.decodeLine(line));
-        }
-        return result;
+        return parse(new CsvLineSource(new CSVReader(fileReader)));
+    }
+    
+    /**
+     * Parses a file corresponding to this parser's configuration, reading it in memory so that 
+     * only the values of the properties of the configuration are decoded. The file MUST be encoded
+     * in UTF-8, and its values are read as described in {@link MappedCsvScanner}: in particular,
+     * backslashes are not escape characters. The file is closed before it is parsed.
+     * @param file to parse
+     * @return the persons contained in the file, as described in 
+     *      {@link #parse(java.io.Reader)}
+     * @throws IOException if the file cannot be read or does not correspond to its configuration.
+     * @throws IllegalArgumentException if a line of the file cannot be parsed
+     */
+    public List<Person> parse(Path file) throws IOException{
+        return parse(MappedCsvScanner.read(file));
     }
     
-    private PersonDecoder initialiseParser(CSVReader reader) throws IOException{
+    private List<Person> parse(LineSource lines) throws IOException{
         try {
-            return new PersonDecoder(configuration, reader.readNext());
-        } catch (CsvValidationException e){
-            throw new IOException("Something went wrong in the CSV Parser", e);
+            return stream(lines, error -> {
+                        throw new IllegalArgumentException("Failed to parse line %s of the file"
+                                .formatted(error.lineNumber()), error.cause());
+                    })
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Parses a file corresponding to this parser's configuration as the persons are consumed. 
+     * The header is read immediately, then each line is only read when the stream needs its 
+     * person, so that the persons can be processed while the file is read.
+     * 
+     * <p>The lines that cannot be parsed are reported to the error handler then skipped, so that
+     * one invalid line does not prevent reading the rest of the file.
+     * @param fileReader providing the data to parse, which must not be used by the caller until
+     *      the stream is consumed
+     * @param errorHandler called with each line that cannot be parsed, before the next line is
+     *      read. It can stop the parsing by throwing an exception.
+     * @return a sequential stream of the persons contained in the file, in the order of the file.
+     *      If the file cannot be read while the stream is consumed, the stream throws an
+     *      {@link UncheckedIOException}.
+     * @throws IOException if the header cannot be read or does not correspond to the 
+     *      configuration.
+     */
+    public Stream<Person> stream(Reader fileReader, Consumer<? super LineError> errorHandler)
+            throws IOException{
+        return stream(new CsvLineSource(new CSVReader(fileReader)), errorHandler);
+    }
+    
+    /**
+     * Parses a file corresponding to this parser's configuration as the persons are consumed,
+     * mapping it in memory. The values are read as described in 
+     * {@link #parse(java.nio.file.Path)}, but the file is only read as the persons are consumed,
+     * and on some platforms, notably Windows, it cannot be modified or deleted until the mapping
+     * is garbage-collected.
+     * @param file to parse
+     * @param errorHandler called with each line that cannot be parsed, as described in
+     *      {@link #stream(java.io.Reader, java.util.function.Consumer)}
+     * @return a sequential stream of the persons contained in the file, in the order of the file
+     * @throws IOException if the file cannot be mapped, or if its header cannot be read or does 
+     *      not correspond to the configuration.
+     */
+    public Stream<Person> stream(Path file, Consumer<? super LineError> errorHandler)
+            throws IOException{
+        return stream(MappedCsvScanner.map(file), errorHandler);
+    }
+    
+    private Stream<Person> stream(LineSource lines, Consumer<? super LineError> errorHandler)
+            throws IOException{
+        Objects.requireNonNull(errorHandler);
+        PersonDecoder decoder = new PersonDecoder(configuration, lines.readNext(), equality);
+        lines.selectColumns(decoder.getUsedColumns());
+        return StreamSupport.stream(new PersonSpliterator(lines, decoder, errorHandler, executor),
+                false);
+    }
+    
+    /**
+     * A line of a file that could not be parsed.
+     * @param lineNumber number of the first line of the person in the file, the header being 
+     *      line 1
+     * @param cause the exception raised while decoding the line
+     */
+    public static record LineError(long lineNumber, IllegalArgumentException cause) {}
+    
+    /** Source of the lines of a file. */
+    interface LineSource {
+        /**
+         * Reads the next line of the file.
+         * @return the values of the line, or null at the end of the file
+         * @throws IOException if the file cannot be read
+         */
+        String[] readNext() throws IOException;
+    
+        /** Returns the number of the first line in the file of the last line returned. */
+        long getLineNumber();
+    
+        /**
+         * Indicates the columns whose values are needed, the source being free to return null 
+         * instead of the values of the other columns.
+         */
+        default void selectColumns(BitSet columns){}
+    }
+    
+    /** Line source reading a file with opencsv. */
+    private static final class CsvLineSource implements LineSource {
+        private final CSVReader reader;
+        private long lineNumber = 0;
+        
+        CsvLineSource(CSVReader reader){
+            this.reader = reader;
+        }
+        
+        @Override
+        public String[] readNext() throws IOException{
+            lineNumber = reader.getLinesRead() + 1;
+            try {
+                return reader.readNext();
+            } catch (CsvValidationException e){
+                throw new IOException("Something went wrong in the CSV Parser", e);
+            }
+        }
+        
+        @Override
+        public long getLineNumber(){
+            return lineNumber;
+        }
+    }
+    
+    /** Line read from a file, before it is decoded. */
+    private static record RawLine(long lineNumber, String[] values) {}
+    
+    /** Line decoded into either a row or the error raised by its decoding. */
+    private static record DecodedLine(long lineNumber, PersonTable.ParsedRow row,
+            IllegalArgumentException error) {}
+    
+    /**
+     * Reads the lines of a file by batches and decodes each batch, either immediately or on an
+     * executor, then adds the decoded lines to the table in the order of the file.
+     */
+    private static final class PersonSpliterator extends Spliterators.AbstractSpliterator<Person>{
+        private final LineSource lines;
+        private final PersonDecoder decoder;
+        private final Consumer<? super LineError> errorHandler;
+        private final Executor executor;
+        private final int batchSize;
+        private final int maxPendingBatches;
+        private final Deque<CompletableFuture<List<DecodedLine>>> pendingBatches = 
+                new ArrayDeque<>();
+        private Iterator<DecodedLine> currentBatch = Collections.emptyIterator();
+        private boolean endOfFile = false;
+        
+        PersonSpliterator(LineSource lines, PersonDecoder decoder, 
+                Consumer<? super LineError> errorHandler, Executor executor){
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.lines = lines;
+            this.decoder = decoder;
+            this.errorHandler = errorHandler;
+            this.executor = executor;
+            //Without executor, reads a single line at a time so that the file is read lazily
+            batchSize = executor == null ? 1 : BATCH_SIZE;
+            maxPendingBatches = executor == null ? 1 
+                    : 2 * Runtime.getRuntime().availableProcessors();
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super Person> action){
+            while (true){
+                if (! currentBatch.hasNext()){
+                    if (! nextBatch()){
+                        return false;
+                    }
+                    continue;
+                }
+                DecodedLine line = currentBatch.next();
+                if (line.error() != null){
+                    errorHandler.accept(new LineError(line.lineNumber(), line.error()));
+                    continue;
+                }
+                action.accept(decoder.getTable().addParsedRow(line.row()));
+                return true;
+            }
+        }
+        
+        private boolean nextBatch(){
+            while (! endOfFile && pendingBatches.size() < maxPendingBatches){
+                List<RawLine> lines = readBatch();
+                if (! lines.isEmpty()){
+                    pendingBatches.add(executor == null 
+                            ? CompletableFuture.completedFuture(decode(lines))
+                            : CompletableFuture.supplyAsync(() -> decode(lines), executor));
+                }
+            }
+            CompletableFuture<List<DecodedLine>> batch = pendingBatches.poll();
+            if (batch == null){
+                return false;
+            }
+            try {
+                currentBatch = batch.join().iterator();
+            } catch (CompletionException e){
+                if (e.getCause() instanceof RuntimeException cause){
+                    throw cause;
+                }
+                throw e;
+            }
+            return true;
+        }
+        
+        private List<RawLine> readBatch(){
+            List<RawLine> result = new ArrayList<>(batchSize);
+            while (result.size() < batchSize){
+                String[] line = readNext();
+                if (line == null){
+                    endOfFile = true;
+                    break;
+                }
+                result.add(new RawLine(lines.getLineNumber(), line));
+            }
+            return result;
+        }
+        
+        /** Decodes a batch of lines. This method is thread-safe. */
+        private List<DecodedLine> decode(List<RawLine> lines){
+            List<DecodedLine> result = new ArrayList<>(lines.size());
+            for (RawLine line : lines){
+                try {
+                    result.add(new DecodedLine(line.lineNumber(), 
+                            decoder.parseLine(line.values()), null));
+                } catch (IllegalArgumentException e){
+                    result.add(new DecodedLine(line.lineNumber(), null, e));
+                }
+            }
+            return result;
+        }
+        
+        private String[] readNext(){
+            try {
+                return lines.readNext();
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
         }
     }
 }
@@ -0,0 +1,238 @@
+package mentoring.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import mentoring.configuration.PersonConfiguration;
+import mentoring.datastructure.MultiplePropertyDescription;
+import mentoring.datastructure.Person;
+import mentoring.datastructure.PersonTable;
+import mentoring.datastructure.PropertyDescription;
+import mentoring.datastructure.SimplePropertyDescription;
+
+/**
+ * Cache storing the persons parsed from a file in a binary snapshot, so that they can be read
+ * again without parsing the file as long as neither the file nor its configuration changes.
+ *
+ * <p>A snapshot is keyed on a SHA-256 hash of the content of the file, of every field of the
+ * {@link PersonConfiguration} used to parse it, and of the current year, on which the parsing of
+ * years written with two digits depends. When the key of the snapshot of a file does not match,
+ * the file is parsed again and its snapshot replaced.
+ *
+ * <p>Snapshots are only an optimisation: a snapshot that cannot be read or written is ignored.
+ */
+public final class PersonSnapshotCache {
+    private static final int MAGIC = 0x4D4E5450;
+    /** Version of the format of the snapshots, to increment when it changes. */
+    private static final int VERSION = 2;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final Path directory;
+    private final PersonTable.Equality equality;
+    
+    /**
+     * Function parsing a file, called when its snapshot is missing or outdated.
+     */
+    @FunctionalInterface
+    public interface SourceParser {
+        /**
+         * Parses the file.
+         * @return the persons of the file
+         * @throws IOException if the file cannot be parsed
+         */
+        List<Person> parse() throws IOException;
+    }
+    
+    /**
+     * Initialises a cache.
+     * @param directory where the snapshots are stored, created when the first snapshot is written
+     * @param equality how the persons read from the snapshots are compared
+     */
+    public PersonSnapshotCache(Path directory, PersonTable.Equality equality){
+        this.directory = Objects.requireNonNull(directory);
+        this.equality = Objects.requireNonNull(equality);
+    }
+    
+    /**
+     * Returns the persons of a file, read from its snapshot if it is up to date, parsed otherwise.
+     * In the latter case, the snapshot is refreshed.
+     * @param source the file containing the persons
+     * @param configuration the configuration used to parse the file
+     * @param parser the function parsing the file, with the configuration
+     * @return the persons of the file
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public List<Person> load(Path source, PersonConfiguration configuration, SourceParser parser)
+            throws IOException{
+        byte[] key = computeKey(source, configuration);
+        Path snapshot = getSnapshot(source);
+        List<Person> result = read(snapshot, key, configuration);
+        if (result == null){
+            result = parser.parse();
+            write(snapshot, key, result);
+        }
+        return result;
+    }
+    
+    private static byte[] computeKey(Path source, PersonConfiguration configuration)
+            throws IOException{
+        MessageDigest digest = getDigest();
+        try (InputStream input = new DigestInputStream(Files.newInputStream(source), digest)){
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        byte[] fileHash = digest.digest();
+        digest.update(fileHash);
+        DataOutputStream output = new DataOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        writeConfiguration(output, configuration);
+        output.writeInt(LocalDate.now().getYear());
+        output.flush();
+        return digest.digest();
+    }
+    
+    /**
+     * Writes the fields of a configuration in a canonical form: the properties are sorted, and
+     * each string is prefixed by its length.
+     */
+    private static void writeConfiguration(DataOutput output, PersonConfiguration configuration)
+            throws IOException{
+        writeString(output, configuration.toString());
+        output.writeBoolean(configuration.getSeparator() != null);
+        if (configuration.getSeparator() != null){
+            writeString(output, configuration.getSeparator());
+        }
+        writeString(output, configuration.getNameFormat());
+        List<String> nameHeaders = configuration.getNamePropertiesHeaderNames();
+        output.writeInt(nameHeaders.size());
+        for (String header : nameHeaders){
+            writeString(output, header);
+        }
+        List<SimplePropertyDescription<?>> properties = 
+                sort(configuration.getSimplePropertiesNames());
+        output.writeInt(properties.size());
+        for (SimplePropertyDescription<?> property : properties){
+            writeProperty(output, property);
+        }
+        List<MultiplePropertyDescription<?,?>> multipleProperties =
+                sort(configuration.getMultiplePropertiesNames());
+        output.writeInt(multipleProperties.size());
+        for (MultiplePropertyDescription<?,?> property : multipleProperties){
+            writeProperty(output, property);
+            writeString(output, property.getValueType().toString());
+        }
+    }
+    
+    private static <T extends PropertyDescription<?>> List<T> sort(Collection<T> properties){
+        return properties.stream()
+                .sorted(Comparator.comparing((T property) -> property.getName())
+                        .thenComparing(property -> property.getHeaderName()))
+                .toList();
+    }
+    
+    private static void writeProperty(DataOutput output, PropertyDescription<?> property)
+            throws IOException{
+        //The class of a multi-valued property defines how its values are aggregated
+        writeString(output, property.getClass().getName());
+        writeString(output, property.getName());
+        writeString(output, property.getHeaderName());
+        writeString(output, property.getType().toString());
+    }
+    
+    private static void writeString(DataOutput output, String value) throws IOException{
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+    
+    private Path getSnapshot(Path source){
+        byte[] pathHash = getDigest().digest(source.toAbsolutePath().normalize().toString()
+                .getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(pathHash) + SNAPSHOT_EXTENSION);
+    }
+    
+    private static MessageDigest getDigest(){
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 must be supported by every Java platform", e);
+        }
+    }
+    
+    /** Reads the snapshot in a single pass, returns null if it is missing or outdated. */
+    private List<Person> read(Path snapshot, byte[] key, PersonConfiguration configuration){
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(snapshot), BUFFER_SIZE))){
+            if (input.readInt() != MAGIC || input.readInt() != VERSION){
+                return null;
+            }
+            byte[] snapshotKey = new byte[key.length];
+            input.readFully(snapshotKey);
+            if (!Arrays.equals(key, snapshotKey)){
+                return null;
+            }
+            PersonTable table = PersonTable.readFrom(input,
+                    configuration.getSimplePropertiesNames(),
+                    configuration.getMultiplePropertiesNames(), configuration.getSeparator(),
+                    equality);
+            return input.read() == -1 ? table.getPersons() : null;
+        } catch (IOException e){
+            //A missing or corrupted snapshot is replaced as an outdated one
+            return null;
+        }
+    }
+    
+    private void write(Path snapshot, byte[] key, List<Person> persons){
+        PersonTable table = PersonTable.tableOf(persons);
+        if (table == null){
+            return;
+        }
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, null, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary), BUFFER_SIZE))){
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.write(key);
+                table.writeTo(output);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e){
+            //The persons are parsed again next time
+            deleteQuietly(temporary);
+        }
+    }
+    
+    private static void deleteQuietly(Path file){
+        if (file == null){
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e){
+            //Nothing more can be done, the file is only left behind
+        }
+    }
+}
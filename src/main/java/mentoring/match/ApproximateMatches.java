@@ -0,0 +1,21 @@
+package mentoring.match;
+
+/**
+ * Matches computed by an approximate solver, with a bound of their distance to optimality.
+ * @param <Mentee> class representing an individual mentee
+ * @param <Mentor> class representing an individual mentor
+ * @param matches the approximate matches
+ * @param cost total cost of the matches between actual mentees and mentors
+ * @param lowerBound lower bound of the total cost of the optimal matches
+ */
+public record ApproximateMatches<Mentee, Mentor>(Matches<Mentee, Mentor> matches, long cost, 
+        long lowerBound) {
+    
+    /**
+     * Returns the difference between the cost of the matches and the lower bound: the optimal 
+     * matches are at most that much cheaper.
+     */
+    public long gap(){
+        return cost - lowerBound;
+    }
+}
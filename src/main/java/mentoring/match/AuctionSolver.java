@@ -0,0 +1,276 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Solver based on the epsilon-scaling auction algorithm. Only the allowed pairs are considered:
+ * the cells of the cost matrix equal to {@link MatchesBuilder#PROHIBITIVE_VALUE} are never
+ * assigned. The solver first maximises the number of assigned rows, then minimises the total cost
+ * of the assignment, which is what the {@link MatchesBuilder} expects from a solver.
+ *
+ * <p>The auction algorithm works on the sparse graph of allowed pairs, it is therefore faster than
+ * a dense solver when most pairs are forbidden, for example when necessary criteria partition
+ * the persons.
+ *
+ * <p>AuctionSolver is thread-safe.
+ */
+public final class AuctionSolver implements MatrixSolver {
+    /** Factor by which epsilon is divided between two scaling phases. */
+    private static final long SCALING_FACTOR = 5;
+    private final Integer unassignedValue;
+    
+    /**
+     * Builds a solver.
+     * @param unassignedValue value used in the result to signal that a row or a column is not
+     * assigned
+     */
+    public AuctionSolver(Integer unassignedValue){
+        this.unassignedValue = unassignedValue;
+    }
+    
+    /**
+     * Solves an assignment problem.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those
+     * @throws IllegalArgumentException if the matrix is not rectangular or if its costs are too
+     * large for the auction to be computed without overflow
+     */
+    @Override
+    public Result solve(int[][] costMatrix) throws IllegalArgumentException {
+        return solve(costMatrix, Deadline.NONE);
+    }
+    
+    /**
+     * Solves an assignment problem, unless a deadline is reached first.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param deadline checked before each bid
+     * @return the same result as {@link #solve(int[][])}
+     * @throws IllegalArgumentException if the input is invalid, as in {@link #solve(int[][])}
+     * @throws CancellationException if the deadline is reached before the end of the auction, as
+     * a {@link StoppedSolveException} with the assignment found so far
+     */
+    Result solve(int[][] costMatrix, Deadline deadline)
+            throws IllegalArgumentException, CancellationException {
+        Auction auction = new Auction(costMatrix);
+        int[] rowAssignments;
+        try {
+            rowAssignments = auction.run(deadline);
+        } catch (CancellationException e){
+            throw new StoppedSolveException(e, costMatrix, auction.assignedColumns);
+        }
+        int nColumns = costMatrix.length == 0 ? 0 : costMatrix[0].length;
+        List<Integer> rows = new ArrayList<>(Collections.nCopies(costMatrix.length,
+                unassignedValue));
+        List<Integer> columns = new ArrayList<>(Collections.nCopies(nColumns, unassignedValue));
+        for (int i = 0; i < rowAssignments.length; i++){
+            if (rowAssignments[i] != -1){
+                rows.set(i, rowAssignments[i]);
+                columns.set(rowAssignments[i], i);
+            }
+        }
+        return new AuctionResult(rows, columns);
+    }
+    
+    /**
+     * Auction on a square problem built from the n x m input so that every row can always be
+     * assigned: each real row i may be assigned to a dummy column i, each real column j to a dummy
+     * row j, and dummy row j may be assigned to dummy column i if the pair (i, j) is allowed.
+     * Assigning a real person to its dummy counterpart costs more than any difference of total
+     * cost between two assignments, so that the number of real pairs is maximised first.
+     *
+     * <p>The costs are multiplied by N + 1, N being the size of the square problem, so that an
+     * assignment reached with epsilon equal to 1 is optimal.
+     */
+    private static class Auction {
+        private final int nRows;
+        private final int nColumns;
+        private final int size;
+        /** Real row i is allowed with the columns of the edges from rowStarts[i] to the next. */
+        private final int[] rowStarts;
+        private final int[] rowColumns;
+        private final long[] rowBenefits;
+        /** Real column j is allowed with the rows of the edges from columnStarts[j] to the next. */
+        private final int[] columnStarts;
+        private final int[] columnRows;
+        /** Benefit of assigning a real person to its dummy counterpart. */
+        private final long dummyBenefit;
+        private final long maxAbsoluteBenefit;
+        private final long[] prices;
+        /** Column assigned to each row of the square problem, -1 if none. */
+        private final int[] assignedColumns;
+        /** Row assigned to each column of the square problem, -1 if none. */
+        private final int[] assignedRows;
+    
+        Auction(int[][] costMatrix) throws IllegalArgumentException {
+            nRows = costMatrix.length;
+            nColumns = nRows == 0 ? 0 : costMatrix[0].length;
+            size = nRows + nColumns;
+            rowStarts = new int[nRows + 1];
+            columnStarts = new int[nColumns + 1];
+            long minCost = Long.MAX_VALUE;
+            long maxCost = Long.MIN_VALUE;
+            for (int i = 0; i < nRows; i++){
+                if (costMatrix[i].length != nColumns){
+                    throw new IllegalArgumentException("Row %s has %s columns instead of %s"
+                            .formatted(i, costMatrix[i].length, nColumns));
+                }
+                int allowed = 0;
+                for (int j = 0; j < nColumns; j++){
+                    int cost = costMatrix[i][j];
+                    if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                        allowed++;
+                        columnStarts[j + 1]++;
+                        minCost = Math.min(minCost, cost);
+                        maxCost = Math.max(maxCost, cost);
+                    }
+                }
+                rowStarts[i + 1] = rowStarts[i] + allowed;
+            }
+            for (int j = 0; j < nColumns; j++){
+                columnStarts[j + 1] += columnStarts[j];
+            }
+            int nEdges = rowStarts[nRows];
+            rowColumns = new int[nEdges];
+            rowBenefits = new long[nEdges];
+            columnRows = new int[nEdges];
+            long costRange = nEdges == 0 ? 0 : maxCost - minCost;
+            try {
+                long multiplier = size + 1;
+                long dummyCost = Math.addExact(
+                        Math.multiplyExact(costRange, Math.min(nRows, nColumns)), 1);
+                dummyBenefit = -Math.multiplyExact(dummyCost, multiplier);
+                maxAbsoluteBenefit = -dummyBenefit;
+                //Prices stay below the benefit range times the size of the problem
+                Math.multiplyExact(Math.multiplyExact(maxAbsoluteBenefit, 2), multiplier);
+            } catch (ArithmeticException e){
+                throw new IllegalArgumentException("Costs range from %s to %s: too large"
+                        .formatted(minCost, maxCost), e);
+            }
+            int[] nextColumnEdge = columnStarts.clone();
+            for (int i = 0; i < nRows; i++){
+                int edge = rowStarts[i];
+                for (int j = 0; j < nColumns; j++){
+                    int cost = costMatrix[i][j];
+                    if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                        rowColumns[edge] = j;
+                        rowBenefits[edge] = -(cost - minCost) * (long) (size + 1);
+                        edge++;
+                        columnRows[nextColumnEdge[j]++] = i;
+                    }
+                }
+            }
+            prices = new long[size];
+            assignedColumns = new int[size];
+            assignedRows = new int[size];
+        }
+    
+        /**
+         * Runs the auction.
+         * @return the column assigned to each real row, or -1 if it is not assigned to a real
+         * column
+         */
+        int[] run(Deadline deadline){
+            int[] unassigned = new int[size];
+            long epsilon = Math.max(1, maxAbsoluteBenefit / SCALING_FACTOR);
+            while (true){
+                Arrays.fill(assignedColumns, -1);
+                Arrays.fill(assignedRows, -1);
+                int nUnassigned = 0;
+                for (int row = size - 1; row >= 0; row--){
+                    unassigned[nUnassigned++] = row;
+                }
+                while (nUnassigned > 0){
+                    deadline.check();
+                    int row = unassigned[--nUnassigned];
+                    int previousOwner = bid(row, epsilon);
+                    if (previousOwner != -1){
+                        unassigned[nUnassigned++] = previousOwner;
+                    }
+                }
+                if (epsilon == 1){
+                    break;
+                }
+                epsilon = Math.max(1, epsilon / SCALING_FACTOR);
+            }
+            int[] result = new int[nRows];
+            for (int i = 0; i < nRows; i++){
+                result[i] = assignedColumns[i] < nColumns ? assignedColumns[i] : -1;
+            }
+            return result;
+        }
+    
+        /**
+         * Makes a row bid for its best column and assigns the column to it.
+         * @return the row previously assigned to the column, or -1 if there was none
+         */
+        private int bid(int row, long epsilon){
+            boolean realRow = row < nRows;
+            int firstEdge = realRow ? rowStarts[row] : columnStarts[row - nRows];
+            int endEdge = realRow ? rowStarts[row + 1] : columnStarts[row - nRows + 1];
+            long bestValue = Long.MIN_VALUE;
+            long secondValue = Long.MIN_VALUE;
+            int bestColumn = -1;
+            //The last candidate is the dummy counterpart of the row
+            for (int edge = firstEdge; edge <= endEdge; edge++){
+                int column;
+                long benefit;
+                if (edge == endEdge){
+                    column = realRow ? nColumns + row : row - nRows;
+                    benefit = dummyBenefit;
+                } else if (realRow){
+                    column = rowColumns[edge];
+                    benefit = rowBenefits[edge];
+                } else {
+                    column = nColumns + columnRows[edge];
+                    benefit = 0;
+                }
+                long value = benefit - prices[column];
+                if (value > bestValue){
+                    secondValue = bestValue;
+                    bestValue = value;
+                    bestColumn = column;
+                } else if (value > secondValue){
+                    secondValue = value;
+                }
+            }
+            prices[bestColumn] += secondValue == Long.MIN_VALUE ? epsilon
+                    : bestValue - secondValue + epsilon;
+            int previousOwner = assignedRows[bestColumn];
+            assignedRows[bestColumn] = row;
+            assignedColumns[row] = bestColumn;
+            if (previousOwner != -1){
+                assignedColumns[previousOwner] = -1;
+            }
+            return previousOwner;
+        }
+    }
+    
+    private static class AuctionResult extends Result {
+        private final List<Integer> rows;
+        private final List<Integer> columns;
+    
+        AuctionResult(List<Integer> rows, List<Integer> columns){
+            super(null);
+            this.rows = Collections.unmodifiableList(rows);
+            this.columns = Collections.unmodifiableList(columns);
+        }
+    
+        @Override
+        public List<Integer> getRowAssignments(){
+            return rows;
+        }
+    
+        @Override
+        public List<Integer> getColumnAssignments(){
+            return columns;
+        }
+    }
+}
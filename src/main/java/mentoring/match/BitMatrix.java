@@ -0,0 +1,255 @@
+package mentoring.match;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Matrix of booleans packed in {@code long} words. All the cells are initially false. Rows and 
+ * columns can be appended or removed, the other cells keeping their value.
+ *
+ * <p>Each row starts on a new word so that distinct rows never share a word: different threads can
+ * safely write to different rows. BitMatrix is otherwise not thread-safe.
+ */
+final class BitMatrix {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private int nRows;
+    private int nColumns;
+    private int wordsPerRow;
+    private long[] words;
+    
+    /**
+     * Builds a matrix where all cells are false.
+     * @param nRows number of rows of the matrix
+     * @param nColumns number of columns of the matrix
+     * @throws IllegalArgumentException if a dimension is negative or if the matrix is too large
+     */
+    BitMatrix(int nRows, int nColumns) throws IllegalArgumentException {
+        if (nRows < 0 || nColumns < 0){
+            throw new IllegalArgumentException("Cannot build a %sx%s matrix"
+                    .formatted(nRows, nColumns));
+        }
+        this.nRows = nRows;
+        this.nColumns = nColumns;
+        this.wordsPerRow = wordCount(nColumns);
+        this.words = new long[computeSize(nRows, nColumns)];
+    }
+    
+    private static int computeSize(int nRows, int nColumns) throws IllegalArgumentException {
+        long size = (long) nRows * wordCount(nColumns);
+        if (size > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Cannot build a %sx%s matrix: too large"
+                    .formatted(nRows, nColumns));
+        }
+        return (int) size;
+    }
+    
+    private static int wordCount(int nBits){
+        return (int) (((long) nBits + Long.SIZE - 1) >>> ADDRESS_BITS_PER_WORD);
+    }
+    
+    int getRowCount(){
+        return nRows;
+    }
+    
+    int getColumnCount(){
+        return nColumns;
+    }
+    
+    private int wordIndex(int row, int column){
+        Objects.checkIndex(row, nRows);
+        Objects.checkIndex(column, nColumns);
+        return row * wordsPerRow + (column >>> ADDRESS_BITS_PER_WORD);
+    }
+    
+    /**
+     * Returns the value of a cell.
+     * @param row of the cell
+     * @param column of the cell
+     * @return true if the cell is set
+     */
+    boolean get(int row, int column){
+        return (words[wordIndex(row, column)] & (1L << column)) != 0;
+    }
+    
+    /**
+     * Sets a cell to true.
+     * @param row of the cell
+     * @param column of the cell
+     * @return true if the cell was previously false
+     */
+    boolean set(int row, int column){
+        int index = wordIndex(row, column);
+        long mask = 1L << column;
+        boolean result = (words[index] & mask) == 0;
+        words[index] |= mask;
+        return result;
+    }
+    
+    /**
+     * Sets a cell to false.
+     * @param row of the cell
+     * @param column of the cell
+     * @return true if the cell was previously true
+     */
+    boolean clear(int row, int column){
+        int index = wordIndex(row, column);
+        long mask = 1L << column;
+        boolean result = (words[index] & mask) != 0;
+        words[index] &= ~mask;
+        return result;
+    }
+    
+    /**
+     * Sets a cell to the given value.
+     * @param row of the cell
+     * @param column of the cell
+     * @param value to set
+     */
+    void put(int row, int column, boolean value){
+        if (value){
+            set(row, column);
+        } else {
+            clear(row, column);
+        }
+    }
+    
+    /**
+     * Returns the column of the first true cell of a row starting from a given column.
+     * @param row to search
+     * @param fromColumn first column to check, included
+     * @return the column of the first true cell found, or -1 if there is none
+     * @throws IndexOutOfBoundsException if the row does not exist or if fromColumn is negative
+     */
+    int nextSetBit(int row, int fromColumn) throws IndexOutOfBoundsException {
+        Objects.checkIndex(row, nRows);
+        if (fromColumn < 0){
+            throw new IndexOutOfBoundsException("fromColumn < 0: " + fromColumn);
+        }
+        if (fromColumn >= nColumns){
+            return -1;
+        }
+        int rowStart = row * wordsPerRow;
+        int wordIndex = fromColumn >>> ADDRESS_BITS_PER_WORD;
+        long word = words[rowStart + wordIndex] & (-1L << fromColumn);
+        while (word == 0){
+            if (++wordIndex == wordsPerRow){
+                return -1;
+            }
+            word = words[rowStart + wordIndex];
+        }
+        return (wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+    }
+    
+    /** Sets all the cells to false. */
+    void clearAll(){
+        Arrays.fill(words, 0L);
+    }
+    
+    /** Returns true if all the cells are false. */
+    boolean isEmpty(){
+        for (long word : words){
+            if (word != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /** Returns a matrix with the same cells as this one, that can be modified independently. */
+    BitMatrix copy(){
+        BitMatrix result = new BitMatrix(0, 0);
+        result.nRows = nRows;
+        result.nColumns = nColumns;
+        result.wordsPerRow = wordsPerRow;
+        result.words = words.clone();
+        return result;
+    }
+    
+    /**
+     * Appends rows at the end of the matrix. All the cells of the new rows are false.
+     * @param count number of rows to append
+     * @throws IllegalArgumentException if count is negative or if the matrix becomes too large
+     */
+    void addRows(int count) throws IllegalArgumentException {
+        if (count < 0){
+            throw new IllegalArgumentException("Cannot add %s rows".formatted(count));
+        }
+        words = Arrays.copyOf(words, computeSize(nRows + count, nColumns));
+        nRows += count;
+    }
+    
+    /**
+     * Appends columns at the end of the matrix. All the cells of the new columns are false.
+     * @param count number of columns to append
+     * @throws IllegalArgumentException if count is negative or if the matrix becomes too large
+     */
+    void addColumns(int count) throws IllegalArgumentException {
+        if (count < 0){
+            throw new IllegalArgumentException("Cannot add %s columns".formatted(count));
+        }
+        int newColumnCount = nColumns + count;
+        int newWordsPerRow = wordCount(newColumnCount);
+        if (newWordsPerRow != wordsPerRow){
+            long[] newWords = new long[computeSize(nRows, newColumnCount)];
+            for (int i = 0; i < nRows; i++){
+                System.arraycopy(words, i * wordsPerRow, newWords, i * newWordsPerRow, 
+                        wordsPerRow);
+            }
+            words = newWords;
+            wordsPerRow = newWordsPerRow;
+        }
+        nColumns = newColumnCount;
+    }
+    
+    /**
+     * Removes rows from the matrix. The remaining rows keep their relative order.
+     * @param rows indices of the rows to remove
+     * @throws IndexOutOfBoundsException if a row does not exist
+     */
+    void removeRows(BitSet rows) throws IndexOutOfBoundsException {
+        checkIndices(rows, nRows);
+        int kept = 0;
+        for (int i = 0; i < nRows; i++){
+            if (!rows.get(i)){
+                System.arraycopy(words, i * wordsPerRow, words, kept * wordsPerRow, wordsPerRow);
+                kept++;
+            }
+        }
+        words = Arrays.copyOf(words, kept * wordsPerRow);
+        nRows = kept;
+    }
+    
+    /**
+     * Removes columns from the matrix. The remaining columns keep their relative order.
+     * @param columns indices of the columns to remove
+     * @throws IndexOutOfBoundsException if a column does not exist
+     */
+    void removeColumns(BitSet columns) throws IndexOutOfBoundsException {
+        checkIndices(columns, nColumns);
+        int newColumnCount = nColumns - columns.cardinality();
+        int newWordsPerRow = wordCount(newColumnCount);
+        long[] newWords = new long[nRows * newWordsPerRow];
+        for (int i = 0; i < nRows; i++){
+            int newColumn = 0;
+            for (int j = 0; j < nColumns; j++){
+                if (!columns.get(j)){
+                    if ((words[i * wordsPerRow + (j >>> ADDRESS_BITS_PER_WORD)] & (1L << j)) != 0){
+                        newWords[i * newWordsPerRow + (newColumn >>> ADDRESS_BITS_PER_WORD)] |= 
+                                1L << newColumn;
+                    }
+                    newColumn++;
+                }
+            }
+        }
+        words = newWords;
+        wordsPerRow = newWordsPerRow;
+        nColumns = newColumnCount;
+    }
+    
+    private static void checkIndices(BitSet indices, int length){
+        if (!indices.isEmpty()){
+            Objects.checkIndex(indices.length() - 1, length);
+        }
+    }
+}
@@ -1,102 +1,519 @@
 package mentoring.match;
 
 import assignmentproblem.Result;
-import assignmentproblem.Solver;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntBinaryOperator;
 import java.util.stream.IntStream;
 
 class CostMatrixHandler<Mentee, Mentor> {
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
     private final List<Mentee> mentees;
-    private final List<Integer> menteeIndices;
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
     private final List<Mentor> mentors;
-    private final List<Integer> mentorIndices;
     private final Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria;
-    private Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria = List.of();
+    private Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria;
+    private final ForkJoinPool pool;
     /** Cell [i][j] is the cost of associating mentee i with mentor j. */
-    private final int[][] costMatrix;
+    private int[][] costMatrix;
     
-    private enum ForbiddenCode {SPECIFICALLY_FORBIDDEN, FORBIDDEN_BY_CRITERIA}
-    private final List<List<Set<ForbiddenCode>>> forbiddenMatches;
+    /** Cell [i][j] is set if the match between mentee i and mentor j is specifically forbidden. */
+    private final BitMatrix specificallyForbiddenMatches;
+    /** Cell [i][j] is set if the match between mentee i and mentor j fails a necessary criterion. */
+    private BitMatrix matchesForbiddenByCriteria;
+    /** Last matrix handed to a solver, reused by the next solve with the same dimensions. */
+    private int[][] actualCostMatrixBuffer = new int[0][0];
+    /** Result of the last solve by a {@link LapjvSolver} involving each mentee and mentor. */
+    private final WarmStarts warmStarts;
+    /** Number of mentees each mentor accepts, null if each mentor accepts one mentee. */
+    private int[] mentorCapacities = null;
+    /** Deadline after which the solves fall back to a {@link GreedySolver}. */
+    private Deadline deadline = Deadline.NONE;
+    /** Score of each progressive criterion on each pair, null if they are not recorded. */
+    private CriterionScores criterionScores = null;
     
     CostMatrixHandler(List<Mentee> mentees, List<Mentor> mentors,
             Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria){
-        this.mentors = mentors;
-        menteeIndices = IntStream.range(0, mentees.size()).boxed().collect(Collectors.toList());
-        this.mentees = mentees;
-        mentorIndices = IntStream.range(0, mentors.size()).boxed().collect(Collectors.toList());
+        this(mentees, mentors, progressiveCriteria, null);
+    }
+    
+    /**
+     * Builds a handler, computing the cost matrix in parallel if a pool is provided.
+     * @param mentees list of the mentees, whose indices are the rows of the cost matrix
+     * @param mentors list of the mentors, whose indices are the columns of the cost matrix
+     * @param progressiveCriteria used to compute the cost matrix, they MUST be thread-safe if 
+     *      {@code pool} is not null
+     * @param pool used to compute the rows of the cost matrix in parallel, or null to compute them 
+     *      sequentially in the calling thread
+     */
+    CostMatrixHandler(List<Mentee> mentees, List<Mentor> mentors,
+            Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria,
+            ForkJoinPool pool){
+        this(mentees, mentors, progressiveCriteria, List.of(), pool);
+    }
+    
+    /**
+     * Builds a handler, evaluating the progressive and necessary criteria in a single pass over the
+     * pairs, in parallel if a pool is provided. The progressive criteria are only evaluated on the 
+     * pairs meeting all necessary criteria: the score of the other pairs is 
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE}.
+     * @param mentees list of the mentees, whose indices are the rows of the cost matrix
+     * @param mentors list of the mentors, whose indices are the columns of the cost matrix
+     * @param progressiveCriteria used to compute the cost matrix, they MUST be thread-safe if 
+     *      {@code pool} is not null
+     * @param necessaryCriteria used to forbid matches, they MUST be thread-safe if {@code pool} is
+     *      not null
+     * @param pool used to evaluate the rows of the cost matrix in parallel, or null to evaluate 
+     *      them sequentially in the calling thread
+     */
+    CostMatrixHandler(List<Mentee> mentees, List<Mentor> mentors,
+            Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria,
+            Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria,
+            ForkJoinPool pool){
+        this.mentees = new ArrayList<>(mentees);
+        this.mentors = new ArrayList<>(mentors);
         this.progressiveCriteria = progressiveCriteria;
-        costMatrix = new int[mentees.size()][mentors.size()];
-        buildCostMatrix();
-        forbiddenMatches = buildForbiddenCodeMatrix(mentees.size(), mentors.size());
+        this.necessaryCriteria = necessaryCriteria;
+        this.pool = pool;
+        Block block = computeBlock(new Block(this.mentees, this.mentors));
+        costMatrix = block.costs;
+        matchesForbiddenByCriteria = block.forbiddenByCriteria;
+        specificallyForbiddenMatches = new BitMatrix(mentees.size(), mentors.size());
+        warmStarts = new WarmStarts(mentees.size(), mentors.size());
     }
     
-    private static List<List<Set<ForbiddenCode>>> buildForbiddenCodeMatrix(int nRows, 
-            int nColumns){
-        List<List<Set<ForbiddenCode>>> result = new ArrayList<>(nRows);
-        for(int i = 0; i < nRows; i++){
-            List<Set<ForbiddenCode>> line = new ArrayList<>(nColumns);
-            result.add(line);
-            for (int j = 0; j < nColumns; j++){
-                line.add(EnumSet.noneOf(ForbiddenCode.class));
-            }
+    /**
+     * Builds a copy of a handler, sharing its criteria and its pool. The costs, forbidden matches,
+     * warm starts and criterion scores are copied, so that each handler can then be updated 
+     * without affecting the other one.
+     * @param other handler to copy
+     */
+    private CostMatrixHandler(CostMatrixHandler<Mentee, Mentor> other){
+        this.mentees = new ArrayList<>(other.mentees);
+        this.mentors = new ArrayList<>(other.mentors);
+        this.progressiveCriteria = other.progressiveCriteria;
+        this.necessaryCriteria = other.necessaryCriteria;
+        this.pool = other.pool;
+        costMatrix = new int[other.costMatrix.length][];
+        for (int i = 0; i < costMatrix.length; i++){
+            costMatrix[i] = other.costMatrix[i].clone();
         }
-        return result;
+        specificallyForbiddenMatches = other.specificallyForbiddenMatches.copy();
+        matchesForbiddenByCriteria = other.matchesForbiddenByCriteria.copy();
+        warmStarts = other.warmStarts.copy();
+        mentorCapacities = other.mentorCapacities;
+        criterionScores = other.criterionScores == null ? null : other.criterionScores.copy();
     }
     
+    /**
+     * Returns a copy of this handler, computing no cost again.
+     * @return a handler that can be updated without affecting this one
+     */
+    CostMatrixHandler<Mentee, Mentor> copy(){
+        return new CostMatrixHandler<>(this);
+    }
+    
+    /**
+     * Sets the necessary criteria and evaluates them on all the pairs, in parallel if this handler
+     * has a pool. The progressive criteria are evaluated on the pairs that were forbidden by the 
+     * previous necessary criteria and are now allowed.
+     * @param necessaryCriteria used to forbid matches, they MUST be thread-safe if this handler has
+     *      a pool
+     * @return this handler
+     */
     CostMatrixHandler<Mentee, Mentor> withNecessaryCriteria(
             Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria){
         this.necessaryCriteria = necessaryCriteria;
-        for (int i : menteeIndices){
-            for (int j : mentorIndices){
-                boolean allowed = checkNecessaryCriteria(mentees.get(i), mentors.get(j));
-                Set<ForbiddenCode> status = forbiddenMatches.get(i).get(j);
-                setOrRemoveForbiddenByCriteriaCode(allowed, status);
-            }
-        }
+        matchesForbiddenByCriteria = 
+                computeBlock(new Block(matchesForbiddenByCriteria)).forbiddenByCriteria;
         return this;
     }
     
-    private static void setOrRemoveForbiddenByCriteriaCode(boolean allowedByCriteria, 
-        Set<ForbiddenCode> status){
-            if(allowedByCriteria && status.contains(ForbiddenCode.FORBIDDEN_BY_CRITERIA)){
-                status.remove(ForbiddenCode.FORBIDDEN_BY_CRITERIA);
-            } else if (!allowedByCriteria && !status.contains(ForbiddenCode.FORBIDDEN_BY_CRITERIA)){
-                status.add(ForbiddenCode.FORBIDDEN_BY_CRITERIA);
-            }
+    /**
+     * Sets the number of mentees each mentor accepts, used by a {@link MinCostFlowSolver} or a 
+     * {@link GreedySolver}. The capacities are not updated when mentors are added or removed: 
+     * they must be set again before the next solve.
+     * @param mentorCapacities capacity of each mentor, indexed like the mentors, or null if each 
+     *      mentor accepts one mentee
+     */
+    void setMentorCapacities(int[] mentorCapacities){
+        this.mentorCapacities = mentorCapacities;
+    }
+    
+    /**
+     * Sets the deadline of the next solves. The {@link LapjvSolver}, {@link AuctionSolver} and 
+     * {@link MinCostFlowSolver} check it while they run, the other solvers only before they start.
+     * A solve stopped by the time limit of the deadline returns the approximate result of a 
+     * {@link GreedySolver} instead, and does not update the warm starts. A solve stopped because 
+     * the thread that built the deadline is interrupted throws a {@link CancellationException}.
+     * @param deadline of the next solves, {@link Deadline#NONE} to let them run to the end
+     */
+    void setDeadline(Deadline deadline){
+        this.deadline = deadline;
+    }
+    
+    /**
+     * Records the score of each progressive criterion on each pair allowed by the necessary 
+     * criteria, from now on. If they were not recorded yet, all the criteria are evaluated again 
+     * on all the pairs, in parallel if this handler has a pool.
+     */
+    void recordCriterionScores(){
+        if (criterionScores == null){
+            criterionScores = new CriterionScores(progressiveCriteria.size());
+            Block block = computeBlock(new Block());
+            criterionScores.setRows(block.scores);
+            matchesForbiddenByCriteria = block.forbiddenByCriteria;
+        }
+    }
+    
+    /**
+     * Returns the score of each progressive criterion on a pair.
+     * @param menteeIndex index of the mentee of the pair
+     * @param mentorIndex index of the mentor of the pair
+     * @return the scores in the order of the criteria, or null if the scores are not recorded or 
+     *      if the pair fails a necessary criterion
+     */
+    int[] getCriterionScores(int menteeIndex, int mentorIndex){
+        if (criterionScores == null || matchesForbiddenByCriteria.get(menteeIndex, mentorIndex)){
+            return null;
+        }
+        return criterionScores.get(menteeIndex, mentorIndex);
     }
     
     boolean forbidMatch(int menteeIndex, int mentorIndex){
-        return forbiddenMatches.get(menteeIndex).get(mentorIndex)
-                .add(ForbiddenCode.SPECIFICALLY_FORBIDDEN);
+        return specificallyForbiddenMatches.set(menteeIndex, mentorIndex);
     }
     
     boolean allowMatch(int menteeIndex, int mentorIndex){
-        return forbiddenMatches.get(menteeIndex).get(mentorIndex)
-                .remove(ForbiddenCode.SPECIFICALLY_FORBIDDEN);
+        return specificallyForbiddenMatches.clear(menteeIndex, mentorIndex);
     }
     
-    private CostMatrixHandler<Mentee, Mentor> buildCostMatrix(){
-        for (int i : menteeIndices){
-            for (int j : mentorIndices){
-                costMatrix[i][j] = computeProgressiveCriteriaCost(mentees.get(i), mentors.get(j));
+    /**
+     * Appends mentees as new rows of the cost matrix. Only the cells of the new rows are computed:
+     * the existing scores and forbidden matches are kept. The new mentees have no specifically 
+     * forbidden match.
+     * @param newMentees to append, in order, after the existing mentees
+     */
+    void addMentees(List<Mentee> newMentees){
+        Block newBlock = computeBlock(new Block(newMentees, mentors));
+        int[][] newRows = newBlock.costs;
+        BitMatrix newRowsForbiddenByCriteria = newBlock.forbiddenByCriteria;
+        int oldRowCount = mentees.size();
+        mentees.addAll(newMentees);
+        costMatrix = Arrays.copyOf(costMatrix, mentees.size());
+        System.arraycopy(newRows, 0, costMatrix, oldRowCount, newRows.length);
+        specificallyForbiddenMatches.addRows(newMentees.size());
+        matchesForbiddenByCriteria.addRows(newMentees.size());
+        warmStarts.addMentees(newMentees.size());
+        if (criterionScores != null){
+            criterionScores.addRows(newBlock.scores);
+        }
+        for (int i = 0; i < newRows.length; i++){
+            for (int j = 0; j < mentors.size(); j++){
+                if (newRowsForbiddenByCriteria.get(i, j)){
+                    matchesForbiddenByCriteria.set(oldRowCount + i, j);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Appends mentors as new columns of the cost matrix. Only the cells of the new columns are 
+     * computed: the existing scores and forbidden matches are kept. The new mentors have no 
+     * specifically forbidden match.
+     * @param newMentors to append, in order, after the existing mentors
+     */
+    void addMentors(List<Mentor> newMentors){
+        Block newBlock = computeBlock(new Block(mentees, newMentors));
+        int[][] newColumns = newBlock.costs;
+        BitMatrix newColumnsForbiddenByCriteria = newBlock.forbiddenByCriteria;
+        int oldColumnCount = mentors.size();
+        mentors.addAll(newMentors);
+        for (int i = 0; i < costMatrix.length; i++){
+            int[] row = Arrays.copyOf(costMatrix[i], mentors.size());
+            System.arraycopy(newColumns[i], 0, row, oldColumnCount, newMentors.size());
+            costMatrix[i] = row;
+        }
+        specificallyForbiddenMatches.addColumns(newMentors.size());
+        matchesForbiddenByCriteria.addColumns(newMentors.size());
+        warmStarts.addMentors(newMentors.size());
+        if (criterionScores != null){
+            criterionScores.addColumns(newBlock.scores);
+        }
+        for (int i = 0; i < costMatrix.length; i++){
+            for (int j = 0; j < newMentors.size(); j++){
+                if (newColumnsForbiddenByCriteria.get(i, j)){
+                    matchesForbiddenByCriteria.set(i, oldColumnCount + j);
+                }
             }
         }
-        return this;
     }
     
-    private int computeCost(int menteeIndex, int mentorIndex){
-        if (isMatchAllowed(menteeIndex, mentorIndex)){
-            return computeProgressiveCriteriaCost(mentees.get(menteeIndex), 
-                    mentors.get(mentorIndex));
+    /**
+     * Removes mentees from the cost matrix. The remaining mentees keep their relative order, their
+     * scores and their forbidden matches.
+     * @param menteeIndices indices of the mentees to remove
+     * @throws IndexOutOfBoundsException if an index does not match a mentee
+     */
+    void removeMentees(BitSet menteeIndices) throws IndexOutOfBoundsException {
+        specificallyForbiddenMatches.removeRows(menteeIndices);
+        matchesForbiddenByCriteria.removeRows(menteeIndices);
+        warmStarts.removeMentees(menteeIndices);
+        if (criterionScores != null){
+            criterionScores.removeRows(menteeIndices);
+        }
+        int kept = 0;
+        for (int i = 0; i < mentees.size(); i++){
+            if (!menteeIndices.get(i)){
+                mentees.set(kept, mentees.get(i));
+                costMatrix[kept] = costMatrix[i];
+                kept++;
+            }
+        }
+        mentees.subList(kept, mentees.size()).clear();
+        costMatrix = Arrays.copyOf(costMatrix, kept);
+    }
+    
+    /**
+     * Removes mentors from the cost matrix. The remaining mentors keep their relative order, their
+     * scores and their forbidden matches.
+     * @param mentorIndices indices of the mentors to remove
+     * @throws IndexOutOfBoundsException if an index does not match a mentor
+     */
+    void removeMentors(BitSet mentorIndices) throws IndexOutOfBoundsException {
+        specificallyForbiddenMatches.removeColumns(mentorIndices);
+        matchesForbiddenByCriteria.removeColumns(mentorIndices);
+        warmStarts.removeMentors(mentorIndices);
+        if (criterionScores != null){
+            criterionScores.removeColumns(mentorIndices, mentors.size());
+        }
+        int newColumnCount = mentors.size() - mentorIndices.cardinality();
+        for (int i = 0; i < costMatrix.length; i++){
+            int[] row = new int[newColumnCount];
+            int kept = 0;
+            for (int j = 0; j < mentors.size(); j++){
+                if (!mentorIndices.get(j)){
+                    row[kept++] = costMatrix[i][j];
+                }
+            }
+            costMatrix[i] = row;
+        }
+        int kept = 0;
+        for (int j = 0; j < mentors.size(); j++){
+            if (!mentorIndices.get(j)){
+                mentors.set(kept++, mentors.get(j));
+            }
+        }
+        mentors.subList(kept, mentors.size()).clear();
+    }
+    
+    /**
+     * Evaluates the criteria on all the pairs of a block of the cost matrix, visiting each pair 
+     * once. Rows are split among the workers of the pool if there is one.
+     * @param block to evaluate
+     * @return the evaluated block
+     */
+    private Block computeBlock(Block block){
+        if (pool == null){
+            for (int i = 0; i < block.rowMentees.size(); i++){
+                block.computeRow(i);
+            }
         } else {
-            return MatchesBuilder.PROHIBITIVE_VALUE;
+            computeBlockInParallel(block);
+        }
+        return block;
+    }
+    
+    private void computeBlockInParallel(Block block){
+        /*
+        Each row records its own failure so that the exception thrown is the one the sequential 
+        path would have thrown: the first failure in row-major order.
+        */
+        RuntimeException[] rowFailures = new RuntimeException[block.rowMentees.size()];
+        int rowsPerTask = Math.max(1, rowFailures.length / (4 * pool.getParallelism()));
+        pool.invoke(new RowRangeAction(0, rowFailures.length, rowsPerTask, block, rowFailures));
+        for (RuntimeException failure : rowFailures){
+            if (failure != null){
+                throw failure;
+            }
+        }
+    }
+    
+    /**
+     * Block of the cost matrix. Rows can be computed concurrently: each of them is only written by
+     * the thread computing it.
+     * 
+     * <p>The necessary criteria are evaluated first: the progressive criteria are never evaluated 
+     * on a pair failing a necessary criterion, whose cost is set to 
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE}. The cost of a pair may therefore be missing only if
+     * the pair is forbidden by criteria.
+     * 
+     * <p>The progressive criteria are prepared on the mentees and mentors of the block before its
+     * rows are computed, so that they can extract what they need from each person once. If the 
+     * handler records the criterion scores, the score of each progressive criterion is recorded 
+     * along with the cost of the pair.
+     */
+    private class Block {
+        final List<Mentee> rowMentees;
+        final List<Mentor> columnMentors;
+        /** Cell [i][j] is the cost of the pair. */
+        final int[][] costs;
+        /** True if the rows of {@link #costs} must be created, false if they already exist. */
+        private final boolean newRows;
+        /** True if the cost of all the pairs must be computed. */
+        private final boolean allCosts;
+        /** Cell [i][j] is set if the cost of the pair may be missing, null if no cost is missing. */
+        private final BitMatrix missingCosts;
+        /** Cell [i][j] is set if the pair fails a necessary criterion. */
+        final BitMatrix forbiddenByCriteria;
+        /** Criterion scores of each row, null if they are not recorded. */
+        final CriterionScores.Row[] scores;
+        /** The progressive criteria, in the order of their evaluators. */
+        private final List<ProgressiveCriterion<Mentee, Mentor>> criteria;
+        /** Evaluator of each progressive criterion on the pairs of the block. */
+        private final IntBinaryOperator[] evaluators;
+        
+        /**
+         * Builds a block of new rows.
+         * @param rowMentees the mentees of the block
+         * @param columnMentors the mentors of the block
+         */
+        Block(List<Mentee> rowMentees, List<Mentor> columnMentors){
+            this(rowMentees, columnMentors, new int[rowMentees.size()][], true, true, null,
+                    criterionScores == null ? null 
+                            : criterionScores.newRows(rowMentees.size(), columnMentors.size()));
+        }
+        
+        /**
+         * Builds a block evaluating all the criteria again on the whole cost matrix, recording 
+         * all the criterion scores in new rows.
+         */
+        Block(){
+            this(mentees, mentors, costMatrix, false, true, null, 
+                    criterionScores.newRows(mentees.size(), mentors.size()));
+        }
+        
+        /**
+         * Builds a block re-evaluating the necessary criteria on the whole cost matrix, computing 
+         * the costs that were missing for pairs that are now allowed.
+         * @param previouslyForbidden the pairs previously forbidden by criteria
+         */
+        Block(BitMatrix previouslyForbidden){
+            this(mentees, mentors, costMatrix, false, false, previouslyForbidden, 
+                    criterionScores == null ? null : criterionScores.getRows());
+        }
+        
+        private Block(List<Mentee> rowMentees, List<Mentor> columnMentors, int[][] costs, 
+                boolean newRows, boolean allCosts, BitMatrix missingCosts, 
+                CriterionScores.Row[] scores){
+            this.rowMentees = rowMentees;
+            this.columnMentors = columnMentors;
+            this.costs = costs;
+            this.newRows = newRows;
+            this.allCosts = allCosts;
+            this.missingCosts = missingCosts;
+            this.forbiddenByCriteria = new BitMatrix(rowMentees.size(), columnMentors.size());
+            this.scores = scores;
+            this.criteria = List.copyOf(progressiveCriteria);
+            this.evaluators = new IntBinaryOperator[criteria.size()];
+            for (int k = 0; k < evaluators.length; k++){
+                evaluators[k] = criteria.get(k).prepare(rowMentees, columnMentors);
+            }
+        }
+        
+        void computeRow(int rowIndex){
+            Mentee mentee = rowMentees.get(rowIndex);
+            int[] row = newRows ? new int[columnMentors.size()] : costs[rowIndex];
+            CriterionScores.Row scoreRow = scores == null ? null : scores[rowIndex];
+            for (int j = 0; j < columnMentors.size(); j++){
+                Mentor mentor = columnMentors.get(j);
+                if (!checkNecessaryCriteria(mentee, mentor)){
+                    forbiddenByCriteria.set(rowIndex, j);
+                    if (newRows){
+                        row[j] = MatchesBuilder.PROHIBITIVE_VALUE;
+                    }
+                } else if (allCosts || missingCosts.get(rowIndex, j)){
+                    row[j] = computeProgressiveCriteriaCost(rowIndex, j, scoreRow, 
+                            scoreRow == null ? 0 : criterionScores.getOffset(j));
+                }
+            }
+            costs[rowIndex] = row;
+        }
+        
+        /**
+         * Computes the cost of a pair.
+         * @param rowIndex index of the mentee of the pair in the block
+         * @param columnIndex index of the mentor of the pair in the block
+         * @param scores receiving the score of each criterion, or null if they are not recorded
+         * @param offset index in {@code scores} of the score of the first criterion
+         * @return the sum of the scores of the progressive criteria
+         */
+        private int computeProgressiveCriteriaCost(int rowIndex, int columnIndex, 
+                CriterionScores.Row scores, int offset){
+            int result = 0;
+            for (int k = 0; k < evaluators.length; k++){
+                int tmp = evaluators[k].applyAsInt(rowIndex, columnIndex);
+                if (tmp < 0){
+                    throw new IllegalStateException("Score of criterion " + criteria.get(k) 
+                            + " for " + rowMentees.get(rowIndex) + " and " 
+                            + columnMentors.get(columnIndex) + " is " + tmp + ", below 0.");
+                }
+                if (scores != null){
+                    scores.set(offset + k, tmp);
+                }
+                result += tmp;
+                if (result < 0){
+                    throw new IllegalStateException("Score for " + rowMentees.get(rowIndex) 
+                            + " and " + columnMentors.get(columnIndex) + " overflows, reached " 
+                            + result + " after criterion " + criteria.get(k));
+                }
+            }
+            return result;
+        }
+    }
+    
+    private class RowRangeAction extends RecursiveAction {
+        private final int start;
+        private final int end;
+        private final int rowsPerTask;
+        private final Block block;
+        private final RuntimeException[] rowFailures;
+        
+        RowRangeAction(int start, int end, int rowsPerTask, Block block, 
+                RuntimeException[] rowFailures){
+            this.start = start;
+            this.end = end;
+            this.rowsPerTask = rowsPerTask;
+            this.block = block;
+            this.rowFailures = rowFailures;
+        }
+        
+        @Override
+        protected void compute(){
+            if (end - start <= rowsPerTask){
+                computeDirectly();
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RowRangeAction(start, middle, rowsPerTask, block, rowFailures),
+                        new RowRangeAction(middle, end, rowsPerTask, block, rowFailures));
+            }
+        }
+        
+        private void computeDirectly(){
+            for (int i = start; i < end; i++){
+                try {
+                    block.computeRow(i);
+                } catch (RuntimeException e){
+                    rowFailures[i] = e;
+                    return;
+                }
+            }
         }
     }
     
@@ -109,46 +526,449 @@ class CostMatrixHandler<Mentee, Mentor> {
         return true;
     }
     
-    private int computeProgressiveCriteriaCost(Mentee mentee, Mentor mentor){
-        int result = 0;
-        for (ProgressiveCriterion<Mentee, Mentor> criterion : progressiveCriteria){
-            int tmp = criterion.applyAsInt(mentee, mentor);
-            if (tmp < 0){
-                throw new IllegalStateException("Score of criterion " + criterion + " for " +
-                    mentee + " and " + mentor + " is " + tmp + ", below 0.");
+    Result solveCostMatrix(MatrixSolver solver){
+        int[][] actualCostMatrix = getActualCostMatrixBuffer(mentees.size(), mentors.size());
+        for (int i = 0; i < actualCostMatrix.length; i++){
+            int[] row = actualCostMatrix[i];
+            System.arraycopy(costMatrix[i], 0, row, 0, row.length);
+            markForbiddenMatches(row, i, specificallyForbiddenMatches);
+            markForbiddenMatches(row, i, matchesForbiddenByCriteria);
+        }
+        return solve(solver, actualCostMatrix, IntStream.range(0, mentees.size()).toArray(),
+                IntStream.range(0, mentors.size()).toArray());
+    }
+    
+    /**
+     * Solves an actual cost matrix. A {@link LapjvSolver} is warm-started with the result of the 
+     * last solves involving the same persons, which is then replaced by the result of this solve. 
+     * A {@link MinCostFlowSolver} or a {@link GreedySolver} receives the capacities of the mentors.
+     * If the time limit of the deadline is reached, a {@link GreedySolver} finishes the solve 
+     * from the assignment found so far, if the solver reports one with a 
+     * {@link StoppedSolveException}.
+     * @param solver used to solve the matrix
+     * @param actualCostMatrix to solve
+     * @param menteeIndices index of the mentee of each row of the matrix
+     * @param mentorIndices index of the mentor of each column of the matrix
+     * @return the result of the solver, or an approximate result if the deadline was reached
+     * @throws CancellationException if the thread that built the deadline is interrupted
+     */
+    private Result solve(MatrixSolver solver, int[][] actualCostMatrix, int[] menteeIndices, 
+            int[] mentorIndices){
+        try {
+            deadline.check();
+            return solveUntilDeadline(solver, actualCostMatrix, menteeIndices, mentorIndices);
+        } catch (CancellationException e){
+            if (deadline.isInterrupted()){
+                throw e;
+            }
+            int[] partialAssignment = e instanceof StoppedSolveException stopped 
+                    ? stopped.getPartialAssignment() : null;
+            return new GreedySolver(null).solve(actualCostMatrix, getCapacities(mentorIndices), 
+                    partialAssignment);
+        }
+    }
+    
+    private Result solveUntilDeadline(MatrixSolver solver, int[][] actualCostMatrix, 
+            int[] menteeIndices, int[] mentorIndices) throws CancellationException {
+        if (solver instanceof LapjvSolver lapjvSolver){
+            LapjvSolver.DualResult result = lapjvSolver.solve(actualCostMatrix, 
+                    warmStarts.get(menteeIndices, mentorIndices), deadline);
+            warmStarts.record(result.getWarmStart(), menteeIndices, mentorIndices);
+            return result;
+        } else if (solver instanceof AuctionSolver auctionSolver){
+            return auctionSolver.solve(actualCostMatrix, deadline);
+        } else if (solver instanceof MinCostFlowSolver minCostFlowSolver){
+            return minCostFlowSolver.solve(actualCostMatrix, getCapacities(mentorIndices), 
+                    deadline);
+        } else if (solver instanceof GreedySolver greedySolver){
+            return greedySolver.solve(actualCostMatrix, getCapacities(mentorIndices));
+        }
+        return solver.solve(actualCostMatrix);
+    }
+    
+    /** Returns the capacities of the mentors, 1 for each of them if they are not set. */
+    private int[] getCapacities(int[] mentorIndices){
+        int[] capacities = new int[mentorIndices.length];
+        for (int j = 0; j < capacities.length; j++){
+            capacities[j] = mentorCapacities == null ? 1 : mentorCapacities[mentorIndices[j]];
+        }
+        return capacities;
+    }
+    
+    private static void markForbiddenMatches(int[] row, int rowIndex, BitMatrix forbiddenMatches){
+        for (int j = forbiddenMatches.nextSetBit(rowIndex, 0); j != -1; 
+                j = forbiddenMatches.nextSetBit(rowIndex, j + 1)){
+            row[j] = MatchesBuilder.PROHIBITIVE_VALUE;
+        }
+    }
+    
+    Result solvePartialCostMatrix(MatrixSolver solver, int[] menteeIndices, int[] mentorIndices){
+        return solve(solver, fillActualCostMatrix(
+                getActualCostMatrixBuffer(menteeIndices.length, mentorIndices.length),
+                menteeIndices, mentorIndices), menteeIndices, mentorIndices);
+    }
+    
+    /**
+     * Enumerates the best assignments of a problem with Murty's algorithm, the subspaces of each 
+     * assignment being solved in parallel if this handler has a pool. The first solve is 
+     * warm-started with the last solves involving the same persons.
+     * @param menteeIndices index of the mentee of each row of the problem
+     * @param mentorIndices index of the mentor of each column of the problem
+     * @param k maximal number of assignments to return
+     * @return the k best assignments, from the best to the worst, as returned by 
+     *      {@link KBestAssignments#solve(int, mentoring.match.LapjvSolver.WarmStart)}
+     */
+    List<int[]> solveBest(int[] menteeIndices, int[] mentorIndices, int k){
+        int[][] actualCostMatrix = fillActualCostMatrix(
+                getActualCostMatrixBuffer(menteeIndices.length, mentorIndices.length),
+                menteeIndices, mentorIndices);
+        return new KBestAssignments(actualCostMatrix, pool).solve(k, 
+                warmStarts.get(menteeIndices, mentorIndices));
+    }
+    
+    private int[][] fillActualCostMatrix(int[][] actualCostMatrix, int[] menteeIndices, 
+            int[] columns){
+        for (int i = 0; i < actualCostMatrix.length; i++){
+            int menteeIndex = menteeIndices[i];
+            int[] scores = costMatrix[menteeIndex];
+            int[] row = actualCostMatrix[i];
+            for (int j = 0; j < columns.length; j++){
+                row[j] = isMatchAllowed(menteeIndex, columns[j]) 
+                        ? scores[columns[j]] : MatchesBuilder.PROHIBITIVE_VALUE;
+            }
+        }
+        return actualCostMatrix;
+    }
+    
+    /**
+     * Sub-problem that can be solved independently of the rest of the problem: no allowed match 
+     * links one of its mentees to a mentor outside of it, or one of its mentors to a mentee 
+     * outside of it.
+     * @param rows positions of its mentees in the mentee indices of the problem, in increasing 
+     *      order
+     * @param columns positions of its mentors in the mentor indices of the problem, in increasing
+     *      order
+     */
+    record Component(int[] rows, int[] columns) {}
+    
+    /**
+     * Splits a problem into the connected components of the graph of allowed matches. The mentees 
+     * and mentors without any allowed match do not belong to any component. When no match is 
+     * forbidden, the pairs are not visited: the whole problem is returned as a single component.
+     * @param menteeIndices indices of the mentees of the problem
+     * @param mentorIndices indices of the mentors of the problem
+     * @return the components, sorted by their first mentee, each with at least one mentee and one 
+     *      mentor
+     */
+    List<Component> findComponents(int[] menteeIndices, int[] mentorIndices){
+        int nRows = menteeIndices.length;
+        int nNodes = nRows + mentorIndices.length;
+        if (nRows == 0 || mentorIndices.length == 0){
+            return List.of();
+        }
+        if (specificallyForbiddenMatches.isEmpty() && matchesForbiddenByCriteria.isEmpty()){
+            return List.of(wholeComponent(nRows, mentorIndices.length));
+        }
+        int[] parents = new int[nNodes];
+        for (int node = 0; node < nNodes; node++){
+            parents[node] = node;
+        }
+        int unions = 0;
+        for (int i = 0; i < nRows; i++){
+            for (int j = 0; j < mentorIndices.length; j++){
+                if (isMatchAllowed(menteeIndices[i], mentorIndices[j]) 
+                        && union(parents, i, nRows + j) && ++unions == nNodes - 1){
+                    //All the nodes are connected: the other pairs cannot split the problem
+                    return List.of(wholeComponent(nRows, mentorIndices.length));
+                }
+            }
+        }
+        /*
+        Rows come first in the node numbering: the components are numbered in the order of their 
+        first mentee, and a column whose root has no number is a mentor without allowed match.
+        */
+        int[] componentOfRoot = new int[nNodes];
+        Arrays.fill(componentOfRoot, -1);
+        int[] componentOfNode = new int[nNodes];
+        int[] rowCounts = new int[nRows];
+        int[] columnCounts = new int[nRows];
+        int nComponents = 0;
+        for (int node = 0; node < nNodes; node++){
+            int root = find(parents, node);
+            if (node < nRows && componentOfRoot[root] == -1){
+                componentOfRoot[root] = nComponents++;
+            }
+            int component = componentOfRoot[root];
+            componentOfNode[node] = component;
+            if (component != -1){
+                if (node < nRows){
+                    rowCounts[component]++;
+                } else {
+                    columnCounts[component]++;
+                }
+            }
+        }
+        int[][] rows = new int[nComponents][];
+        int[][] columns = new int[nComponents][];
+        for (int component = 0; component < nComponents; component++){
+            rows[component] = new int[rowCounts[component]];
+            columns[component] = new int[columnCounts[component]];
+            rowCounts[component] = 0;
+            columnCounts[component] = 0;
+        }
+        for (int node = 0; node < nNodes; node++){
+            int component = componentOfNode[node];
+            if (component != -1){
+                if (node < nRows){
+                    rows[component][rowCounts[component]++] = node;
+                } else {
+                    columns[component][columnCounts[component]++] = node - nRows;
+                }
             }
-            result += tmp;
-            if (result < 0){
-                throw new IllegalStateException("Score for " + mentee + " and " + mentor + 
-                    " overflows, reached " + result + " after criterion " + criterion);
+        }
+        List<Component> result = new ArrayList<>(nComponents);
+        for (int component = 0; component < nComponents; component++){
+            if (columns[component].length > 0){
+                result.add(new Component(rows[component], columns[component]));
             }
         }
         return result;
     }
     
-    Result solveCostMatrix(Solver solver){
-        return solvePartialCostMatrix(solver, menteeIndices, mentorIndices);
+    private static Component wholeComponent(int nRows, int nColumns){
+        return new Component(IntStream.range(0, nRows).toArray(), 
+                IntStream.range(0, nColumns).toArray());
     }
     
-    Result solvePartialCostMatrix(Solver solver, List<Integer> menteeIndices,
-            List<Integer> mentorIndices){
-        int[][] actualCostMatrix = computeActualCostMatrix(menteeIndices, mentorIndices);
-        return solver.solve(actualCostMatrix);
+    private static int find(int[] parents, int node){
+        int root = node;
+        while (parents[root] != root){
+            root = parents[root];
+        }
+        while (parents[node] != root){
+            int next = parents[node];
+            parents[node] = root;
+            node = next;
+        }
+        return root;
     }
     
-    private int[][] computeActualCostMatrix(List<Integer> menteeIndices, 
-            List<Integer> mentorIndices){
-        int[][] result = new int[menteeIndices.size()][mentorIndices.size()];
-        for (int i = 0; i < result.length; i++){
-            for (int j = 0; j < result[i].length; j++){
-                result[i][j] = computeCost(menteeIndices.get(i), mentorIndices.get(j));
+    /** Merges the trees of two nodes, returns false if they were already in the same tree. */
+    private static boolean union(int[] parents, int first, int second){
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot == secondRoot){
+            return false;
+        }
+        parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        return true;
+    }
+    
+    /**
+     * Solves each component of a problem independently, in parallel if this handler has a pool.
+     * @param solver used to solve the components, it MUST be thread-safe if this handler has a 
+     *      pool
+     * @param menteeIndices indices of the mentees of the problem
+     * @param mentorIndices indices of the mentors of the problem
+     * @param components as returned by {@link #findComponents(int[], int[])}
+     * @return the result of each component, in the same order, where row i and column j refer to 
+     *      the i-th row and j-th column of the component
+     */
+    Result[] solveComponents(MatrixSolver solver, int[] menteeIndices, int[] mentorIndices, 
+            List<Component> components){
+        Result[] results = new Result[components.size()];
+        if (pool == null || results.length < 2){
+            for (int k = 0; k < results.length; k++){
+                results[k] = solveComponent(solver, menteeIndices, mentorIndices, 
+                        components.get(k));
+            }
+        } else {
+            RuntimeException[] failures = new RuntimeException[results.length];
+            pool.invoke(new ComponentRangeAction(0, results.length, solver, menteeIndices, 
+                    mentorIndices, components, results, failures));
+            for (RuntimeException failure : failures){
+                if (failure != null){
+                    throw failure;
+                }
+            }
+        }
+        return results;
+    }
+    
+    private Result solveComponent(MatrixSolver solver, int[] menteeIndices, int[] mentorIndices, 
+            Component component){
+        int[] rows = component.rows();
+        int[] columns = component.columns();
+        int[] componentMentees = new int[rows.length];
+        for (int i = 0; i < rows.length; i++){
+            componentMentees[i] = menteeIndices[rows[i]];
+        }
+        int[] componentMentors = new int[columns.length];
+        for (int j = 0; j < columns.length; j++){
+            componentMentors[j] = mentorIndices[columns[j]];
+        }
+        return solve(solver, fillActualCostMatrix(new int[rows.length][columns.length], 
+                componentMentees, componentMentors), componentMentees, componentMentors);
+    }
+    
+    private class ComponentRangeAction extends RecursiveAction {
+        private final int start;
+        private final int end;
+        private final MatrixSolver solver;
+        private final int[] menteeIndices;
+        private final int[] mentorIndices;
+        private final List<Component> components;
+        private final Result[] results;
+        private final RuntimeException[] failures;
+        
+        ComponentRangeAction(int start, int end, MatrixSolver solver, int[] menteeIndices, 
+                int[] mentorIndices, List<Component> components, Result[] results, 
+                RuntimeException[] failures){
+            this.start = start;
+            this.end = end;
+            this.solver = solver;
+            this.menteeIndices = menteeIndices;
+            this.mentorIndices = mentorIndices;
+            this.components = components;
+            this.results = results;
+            this.failures = failures;
+        }
+        
+        @Override
+        protected void compute(){
+            if (end - start == 1){
+                try {
+                    results[start] = solveComponent(solver, menteeIndices, mentorIndices, 
+                            components.get(start));
+                } catch (RuntimeException e){
+                    failures[start] = e;
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ComponentRangeAction(start, middle, solver, menteeIndices, 
+                                mentorIndices, components, results, failures),
+                        new ComponentRangeAction(middle, end, solver, menteeIndices, 
+                                mentorIndices, components, results, failures));
             }
         }
-        return result;
+    }
+    
+    /**
+     * Warm starts of a {@link LapjvSolver}, indexed by mentee and mentor. Solves involving 
+     * disjoint sets of persons can read and record their warm starts concurrently.
+     */
+    private static class WarmStarts {
+        private long[] menteeDuals;
+        private long[] mentorDuals;
+        /** Mentor index last assigned to each mentee, -1 if none. */
+        private int[] mentorOfMentee;
+        
+        WarmStarts(int nMentees, int nMentors){
+            menteeDuals = new long[0];
+            mentorDuals = new long[0];
+            mentorOfMentee = new int[0];
+            addMentees(nMentees);
+            addMentors(nMentors);
+        }
+        
+        WarmStarts copy(){
+            WarmStarts result = new WarmStarts(0, 0);
+            result.menteeDuals = menteeDuals.clone();
+            result.mentorDuals = mentorDuals.clone();
+            result.mentorOfMentee = mentorOfMentee.clone();
+            return result;
+        }
+        
+        void addMentees(int count){
+            int oldCount = menteeDuals.length;
+            menteeDuals = Arrays.copyOf(menteeDuals, oldCount + count);
+            Arrays.fill(menteeDuals, oldCount, menteeDuals.length, LapjvSolver.UNKNOWN_DUAL);
+            mentorOfMentee = Arrays.copyOf(mentorOfMentee, oldCount + count);
+            Arrays.fill(mentorOfMentee, oldCount, mentorOfMentee.length, -1);
+        }
+        
+        void addMentors(int count){
+            int oldCount = mentorDuals.length;
+            mentorDuals = Arrays.copyOf(mentorDuals, oldCount + count);
+            Arrays.fill(mentorDuals, oldCount, mentorDuals.length, LapjvSolver.UNKNOWN_DUAL);
+        }
+        
+        void removeMentees(BitSet indices){
+            int kept = 0;
+            for (int i = 0; i < menteeDuals.length; i++){
+                if (!indices.get(i)){
+                    menteeDuals[kept] = menteeDuals[i];
+                    mentorOfMentee[kept] = mentorOfMentee[i];
+                    kept++;
+                }
+            }
+            menteeDuals = Arrays.copyOf(menteeDuals, kept);
+            mentorOfMentee = Arrays.copyOf(mentorOfMentee, kept);
+        }
+        
+        void removeMentors(BitSet indices){
+            int[] newIndices = new int[mentorDuals.length];
+            int kept = 0;
+            for (int j = 0; j < mentorDuals.length; j++){
+                if (indices.get(j)){
+                    newIndices[j] = -1;
+                } else {
+                    newIndices[j] = kept;
+                    mentorDuals[kept++] = mentorDuals[j];
+                }
+            }
+            mentorDuals = Arrays.copyOf(mentorDuals, kept);
+            for (int i = 0; i < mentorOfMentee.length; i++){
+                if (mentorOfMentee[i] != -1){
+                    mentorOfMentee[i] = newIndices[mentorOfMentee[i]];
+                }
+            }
+        }
+        
+        LapjvSolver.WarmStart get(int[] menteeIndices, int[] mentorIndices){
+            Map<Integer, Integer> columnOfMentor = new HashMap<>(mentorIndices.length * 4 / 3 + 1);
+            long[] columnDuals = new long[mentorIndices.length];
+            for (int j = 0; j < mentorIndices.length; j++){
+                columnOfMentor.putIfAbsent(mentorIndices[j], j);
+                columnDuals[j] = mentorDuals[mentorIndices[j]];
+            }
+            long[] rowDuals = new long[menteeIndices.length];
+            int[] rowAssignments = new int[menteeIndices.length];
+            for (int i = 0; i < menteeIndices.length; i++){
+                rowDuals[i] = menteeDuals[menteeIndices[i]];
+                rowAssignments[i] = columnOfMentor.getOrDefault(
+                        mentorOfMentee[menteeIndices[i]], -1);
+            }
+            return new LapjvSolver.WarmStart(rowDuals, columnDuals, rowAssignments);
+        }
+        
+        void record(LapjvSolver.WarmStart warmStart, int[] menteeIndices, int[] mentorIndices){
+            for (int i = 0; i < menteeIndices.length; i++){
+                menteeDuals[menteeIndices[i]] = warmStart.rowDuals()[i];
+                int column = warmStart.rowAssignments()[i];
+                mentorOfMentee[menteeIndices[i]] = column == -1 ? -1 : mentorIndices[column];
+            }
+            for (int j = 0; j < mentorIndices.length; j++){
+                mentorDuals[mentorIndices[j]] = warmStart.columnDuals()[j];
+            }
+        }
+    }
+    
+    /**
+     * Returns the buffer in which to write the actual cost matrix, reusing the previous one when the 
+     * dimensions are unchanged. The content of the buffer is undefined: all cells must be written.
+     */
+    private int[][] getActualCostMatrixBuffer(int nRows, int nColumns){
+        if (actualCostMatrixBuffer.length != nRows 
+                || (nRows > 0 && actualCostMatrixBuffer[0].length != nColumns)){
+            actualCostMatrixBuffer = new int[nRows][nColumns];
+        }
+        return actualCostMatrixBuffer;
     }
     
     boolean isMatchAllowed(int menteeIndex, int mentorIndex){
-        return forbiddenMatches.get(menteeIndex).get(mentorIndex).isEmpty();
+        return !specificallyForbiddenMatches.get(menteeIndex, mentorIndex)
+                && !matchesForbiddenByCriteria.get(menteeIndex, mentorIndex);
     }
     
     int getMatchScore(int menteeIndex, int mentorIndex){
@@ -156,10 +976,6 @@ class CostMatrixHandler<Mentee, Mentor> {
     }
     
     void clearSpecificallyForbiddenMatches(){
-        for(int i: menteeIndices){
-            for (int j: mentorIndices){
-                forbiddenMatches.get(i).get(j).remove(ForbiddenCode.SPECIFICALLY_FORBIDDEN);
-            }
-        }
+        specificallyForbiddenMatches.clearAll();
     }
 }
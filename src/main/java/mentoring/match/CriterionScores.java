@@ -0,0 +1,202 @@
+package mentoring.match;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Score of each progressive criterion on the pairs of a cost matrix. The scores of a pair are
+ * contiguous, in the order of the criteria, and the scores of a mentee are stored as shorts unless
+ * one of them does not fit, in which case they are all stored as ints.
+ *
+ * <p>A {@link Row} can be written concurrently with the other rows, but only by one thread.
+ */
+final class CriterionScores {
+    private final int criterionCount;
+    /** Scores of the pairs of each mentee. */
+    private Row[] rows;
+    
+    /**
+     * Builds a store for the scores of an empty cost matrix.
+     * @param criterionCount number of progressive criteria
+     */
+    CriterionScores(int criterionCount){
+        this.criterionCount = criterionCount;
+        rows = new Row[0];
+    }
+    
+    /**
+     * Returns the rows of scores of the mentees, to be filled while the cost matrix is computed.
+     * @return the rows of scores, indexed by {@link #getOffset(int)}
+     */
+    Row[] getRows(){
+        return rows;
+    }
+    
+    /** Returns the index of the score of the first criterion of a mentor in a {@link Row}. */
+    int getOffset(int mentorIndex){
+        return mentorIndex * criterionCount;
+    }
+    
+    /**
+     * Returns the scores of a pair.
+     * @param menteeIndex index of the mentee of the pair
+     * @param mentorIndex index of the mentor of the pair
+     * @return the score of each criterion, in the order of the criteria
+     */
+    int[] get(int menteeIndex, int mentorIndex){
+        Row row = rows[menteeIndex];
+        int offset = getOffset(mentorIndex);
+        int[] result = new int[criterionCount];
+        for (int k = 0; k < criterionCount; k++){
+            result[k] = row.get(offset + k);
+        }
+        return result;
+    }
+    
+    /**
+     * Builds empty rows of scores.
+     * @param rowCount number of rows
+     * @param mentorCount number of mentors of each row
+     * @return rows to fill then add with {@link #addRows(mentoring.match.CriterionScores.Row[])}
+     *      or {@link #addColumns(mentoring.match.CriterionScores.Row[])}
+     */
+    Row[] newRows(int rowCount, int mentorCount){
+        Row[] result = new Row[rowCount];
+        for (int i = 0; i < rowCount; i++){
+            result[i] = new Row(mentorCount * criterionCount);
+        }
+        return result;
+    }
+    
+    /** Returns a store with the same scores as this one, that can be modified independently. */
+    CriterionScores copy(){
+        CriterionScores result = new CriterionScores(criterionCount);
+        result.rows = new Row[rows.length];
+        for (int i = 0; i < rows.length; i++){
+            result.rows[i] = rows[i].copy();
+        }
+        return result;
+    }
+    
+    /** Replaces all the rows, for example after all the scores were computed again. */
+    void setRows(Row[] rows){
+        this.rows = rows;
+    }
+    
+    /** Appends the rows of new mentees. */
+    void addRows(Row[] newRows){
+        int oldRowCount = rows.length;
+        rows = Arrays.copyOf(rows, oldRowCount + newRows.length);
+        System.arraycopy(newRows, 0, rows, oldRowCount, newRows.length);
+    }
+    
+    /** Appends the scores of new mentors to each row. */
+    void addColumns(Row[] newColumns){
+        for (int i = 0; i < rows.length; i++){
+            rows[i] = rows[i].append(newColumns[i]);
+        }
+    }
+    
+    /** Removes the rows of mentees, the other rows keeping their relative order. */
+    void removeRows(BitSet menteeIndices){
+        int kept = 0;
+        for (int i = 0; i < rows.length; i++){
+            if (!menteeIndices.get(i)){
+                rows[kept++] = rows[i];
+            }
+        }
+        rows = Arrays.copyOf(rows, kept);
+    }
+    
+    /** Removes the scores of mentors from each row. */
+    void removeColumns(BitSet mentorIndices, int mentorCount){
+        for (int i = 0; i < rows.length; i++){
+            rows[i] = rows[i].remove(mentorIndices, mentorCount, criterionCount);
+        }
+    }
+    
+    /** Scores of the pairs of a mentee. */
+    static final class Row {
+        /** Scores if they all fit in a short, null otherwise. */
+        private short[] shortScores;
+        /** Scores if one of them does not fit in a short, null otherwise. */
+        private int[] intScores;
+    
+        Row(int size){
+            shortScores = new short[size];
+        }
+    
+        private Row(short[] shortScores, int[] intScores){
+            this.shortScores = shortScores;
+            this.intScores = intScores;
+        }
+    
+        int get(int index){
+            return intScores == null ? shortScores[index] : intScores[index];
+        }
+    
+        void set(int index, int score){
+            if (intScores != null){
+                intScores[index] = score;
+            } else if (score <= Short.MAX_VALUE){
+                shortScores[index] = (short) score;
+            } else {
+                intScores = toInts();
+                shortScores = null;
+                intScores[index] = score;
+            }
+        }
+    
+        private Row copy(){
+            return new Row(shortScores == null ? null : shortScores.clone(),
+                    intScores == null ? null : intScores.clone());
+        }
+    
+        private int size(){
+            return intScores == null ? shortScores.length : intScores.length;
+        }
+    
+        private int[] toInts(){
+            if (intScores != null){
+                return intScores;
+            }
+            int[] result = new int[shortScores.length];
+            for (int k = 0; k < result.length; k++){
+                result[k] = shortScores[k];
+            }
+            return result;
+        }
+    
+        Row append(Row other){
+            int size = size();
+            if (intScores == null && other.intScores == null){
+                short[] result = Arrays.copyOf(shortScores, size + other.size());
+                System.arraycopy(other.shortScores, 0, result, size, other.size());
+                return new Row(result, null);
+            }
+            int[] result = Arrays.copyOf(toInts(), size + other.size());
+            System.arraycopy(other.toInts(), 0, result, size, other.size());
+            return new Row(null, result);
+        }
+    
+        Row remove(BitSet mentorIndices, int mentorCount, int criterionCount){
+            int newSize = (mentorCount - mentorIndices.cardinality()) * criterionCount;
+            Row result = intScores == null ? new Row(new short[newSize], null)
+                    : new Row(null, new int[newSize]);
+            int kept = 0;
+            for (int j = 0; j < mentorCount; j++){
+                if (!mentorIndices.get(j)){
+                    if (intScores == null){
+                        System.arraycopy(shortScores, j * criterionCount, result.shortScores,
+                                kept, criterionCount);
+                    } else {
+                        System.arraycopy(intScores, j * criterionCount, result.intScores,
+                                kept, criterionCount);
+                    }
+                    kept += criterionCount;
+                }
+            }
+            return result;
+        }
+    }
+}
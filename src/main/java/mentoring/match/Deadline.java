@@ -0,0 +1,60 @@
+package mentoring.match;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Point after which a solve must stop. The deadline is also reached as soon as the thread that
+ * created it is interrupted, so that the workers of a pool stop when the solve is cancelled. The
+ * interrupted status of that thread is left unchanged.
+ *
+ * <p>Deadline is thread-safe.
+ */
+final class Deadline {
+    /** Deadline that is never reached. */
+    static final Deadline NONE = new Deadline(null, 0);
+    private final Thread owner;
+    private final long endNanos;
+    
+    private Deadline(Thread owner, long endNanos){
+        this.owner = owner;
+        this.endNanos = endNanos;
+    }
+    
+    /**
+     * Builds a deadline reached after a time limit, or when the current thread is interrupted.
+     * @param timeLimit time from now after which the deadline is reached
+     * @return the deadline
+     */
+    static Deadline after(Duration timeLimit){
+        long now = System.nanoTime();
+        long nanos;
+        try {
+            nanos = timeLimit.toNanos();
+        } catch (ArithmeticException e){
+            nanos = timeLimit.isNegative() ? 0 : Long.MAX_VALUE;
+        }
+        //Caps the time limit so that the difference with the current time never overflows
+        return new Deadline(Thread.currentThread(), now + Math.min(nanos, Long.MAX_VALUE / 2));
+    }
+    
+    /** Returns true if the deadline is reached. */
+    boolean isReached(){
+        return owner != null && (owner.isInterrupted() || System.nanoTime() - endNanos >= 0);
+    }
+    
+    /** Returns true if the deadline is reached because the thread that built it is interrupted. */
+    boolean isInterrupted(){
+        return owner != null && owner.isInterrupted();
+    }
+    
+    /**
+     * Checkpoint of a long computation.
+     * @throws CancellationException if the deadline is reached
+     */
+    void check() throws CancellationException {
+        if (isReached()){
+            throw new CancellationException("Deadline reached");
+        }
+    }
+}
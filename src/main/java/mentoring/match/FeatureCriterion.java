@@ -0,0 +1,131 @@
+package mentoring.match;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Progressive criterion computed from a feature of the mentee and a feature of the mentor. When 
+ * the criterion is evaluated on all the pairs of a block of mentees and mentors, the features are
+ * extracted once per person into arrays, so that evaluating a pair only reads these arrays. The 
+ * features are then extracted from all the persons of the block, even from those whose pairs all 
+ * fail a necessary criterion.
+ * 
+ * <p>FeatureCriterion is thread-safe if its functions are.
+ * @param <Mentee> class representing an individual mentee
+ * @param <Mentor> class representing an individual mentor
+ */
+public abstract class FeatureCriterion<Mentee, Mentor> 
+        implements ProgressiveCriterion<Mentee, Mentor> {
+    
+    private FeatureCriterion(){}
+    
+    /**
+     * Builds a criterion computed from integer features, such as a year or a level.
+     * @param <Mentee> class representing an individual mentee
+     * @param <Mentor> class representing an individual mentor
+     * @param menteeFeature extracting the feature of a mentee
+     * @param mentorFeature extracting the feature of a mentor
+     * @param score computing the non-negative score of a pair from the feature of its mentee and 
+     *      the feature of its mentor
+     * @return the criterion
+     */
+    public static <Mentee, Mentor> FeatureCriterion<Mentee, Mentor> ofInts(
+            ToIntFunction<? super Mentee> menteeFeature, 
+            ToIntFunction<? super Mentor> mentorFeature, IntBinaryOperator score){
+        return new IntFeatureCriterion<>(Objects.requireNonNull(menteeFeature), 
+                Objects.requireNonNull(mentorFeature), Objects.requireNonNull(score));
+    }
+    
+    /**
+     * Builds a criterion computed from features of any type, such as a set of preferences.
+     * @param <Mentee> class representing an individual mentee
+     * @param <Mentor> class representing an individual mentor
+     * @param <A> type of the feature of a mentee
+     * @param <B> type of the feature of a mentor
+     * @param menteeFeature extracting the feature of a mentee
+     * @param mentorFeature extracting the feature of a mentor
+     * @param score computing the non-negative score of a pair from the feature of its mentee and 
+     *      the feature of its mentor
+     * @return the criterion
+     */
+    public static <Mentee, Mentor, A, B> FeatureCriterion<Mentee, Mentor> of(
+            Function<? super Mentee, ? extends A> menteeFeature, 
+            Function<? super Mentor, ? extends B> mentorFeature, 
+            ToIntBiFunction<? super A, ? super B> score){
+        return new ObjectFeatureCriterion<>(Objects.requireNonNull(menteeFeature), 
+                Objects.requireNonNull(mentorFeature), Objects.requireNonNull(score));
+    }
+    
+    private static final class IntFeatureCriterion<Mentee, Mentor> 
+            extends FeatureCriterion<Mentee, Mentor> {
+        private final ToIntFunction<? super Mentee> menteeFeature;
+        private final ToIntFunction<? super Mentor> mentorFeature;
+        private final IntBinaryOperator score;
+        
+        IntFeatureCriterion(ToIntFunction<? super Mentee> menteeFeature, 
+                ToIntFunction<? super Mentor> mentorFeature, IntBinaryOperator score){
+            this.menteeFeature = menteeFeature;
+            this.mentorFeature = mentorFeature;
+            this.score = score;
+        }
+        
+        @Override
+        public int applyAsInt(Mentee mentee, Mentor mentor){
+            return score.applyAsInt(menteeFeature.applyAsInt(mentee), 
+                    mentorFeature.applyAsInt(mentor));
+        }
+        
+        @Override
+        public IntBinaryOperator prepare(List<? extends Mentee> mentees, 
+                List<? extends Mentor> mentors){
+            int[] menteeFeatures = new int[mentees.size()];
+            for (int i = 0; i < menteeFeatures.length; i++){
+                menteeFeatures[i] = menteeFeature.applyAsInt(mentees.get(i));
+            }
+            int[] mentorFeatures = new int[mentors.size()];
+            for (int j = 0; j < mentorFeatures.length; j++){
+                mentorFeatures[j] = mentorFeature.applyAsInt(mentors.get(j));
+            }
+            return (i, j) -> score.applyAsInt(menteeFeatures[i], mentorFeatures[j]);
+        }
+    }
+    
+    private static final class ObjectFeatureCriterion<Mentee, Mentor, A, B> 
+            extends FeatureCriterion<Mentee, Mentor> {
+        private final Function<? super Mentee, ? extends A> menteeFeature;
+        private final Function<? super Mentor, ? extends B> mentorFeature;
+        private final ToIntBiFunction<? super A, ? super B> score;
+        
+        ObjectFeatureCriterion(Function<? super Mentee, ? extends A> menteeFeature, 
+                Function<? super Mentor, ? extends B> mentorFeature, 
+                ToIntBiFunction<? super A, ? super B> score){
+            this.menteeFeature = menteeFeature;
+            this.mentorFeature = mentorFeature;
+            this.score = score;
+        }
+        
+        @Override
+        public int applyAsInt(Mentee mentee, Mentor mentor){
+            return score.applyAsInt(menteeFeature.apply(mentee), mentorFeature.apply(mentor));
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public IntBinaryOperator prepare(List<? extends Mentee> mentees, 
+                List<? extends Mentor> mentors){
+            Object[] menteeFeatures = new Object[mentees.size()];
+            for (int i = 0; i < menteeFeatures.length; i++){
+                menteeFeatures[i] = menteeFeature.apply(mentees.get(i));
+            }
+            Object[] mentorFeatures = new Object[mentors.size()];
+            for (int j = 0; j < mentorFeatures.length; j++){
+                mentorFeatures[j] = mentorFeature.apply(mentors.get(j));
+            }
+            return (i, j) -> score.applyAsInt((A) menteeFeatures[i], (B) mentorFeatures[j]);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Approximate solver, fast enough to preview an assignment before an exact solver refines it. The
+ * cheapest allowed pairs of each row are assigned greedily by increasing cost, then the assignment
+ * is improved by swapping the columns of two rows, or moving a row to a column that is not full,
+ * as long as this lowers the total cost. The cells of the cost matrix equal to
+ * {@link MatchesBuilder#PROHIBITIVE_VALUE} are never assigned.
+ *
+ * <p>The result is not optimal in general: it reports its cost and a lower bound of the cost of
+ * the optimal assignment, computed from the minima of the rows and columns of the cost matrix.
+ *
+ * <p>GreedySolver is thread-safe.
+ */
+public final class GreedySolver implements MatrixSolver {
+    /** Number of cheapest pairs of each row considered by the greedy assignment. */
+    private static final int CANDIDATES_PER_ROW = 8;
+    /** Maximal number of improvement passes over the assignment. */
+    private static final int MAX_IMPROVEMENT_PASSES = 10;
+    private final Integer unassignedValue;
+    
+    /**
+     * Builds a solver.
+     * @param unassignedValue value used in the result to signal that a row or a column is not
+     * assigned
+     */
+    public GreedySolver(Integer unassignedValue){
+        this.unassignedValue = unassignedValue;
+    }
+    
+    /**
+     * Approximately solves an assignment problem in which each column accepts at most one row.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @return an assignment in which no allowed pair links an unassigned row to an unassigned
+     * column, with its cost and a lower bound of the optimal cost
+     * @throws IllegalArgumentException if the matrix is not rectangular
+     */
+    @Override
+    public ApproximateResult solve(int[][] costMatrix) throws IllegalArgumentException {
+        int[] capacities = new int[costMatrix.length == 0 ? 0 : costMatrix[0].length];
+        Arrays.fill(capacities, 1);
+        return solve(costMatrix, capacities);
+    }
+    
+    /**
+     * Approximately solves an assignment problem in which each column accepts several rows.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param capacities maximal number of rows assigned to each column
+     * @return an assignment in which no allowed pair links an unassigned row to a column that is
+     * not full, with its cost and a lower bound of the optimal cost. The row assignments give the
+     * column of each row, the column assignments give one of the rows assigned to each column.
+     * @throws IllegalArgumentException if the matrix is not rectangular, or if the capacities do
+     * not match its columns or are negative
+     */
+    public ApproximateResult solve(int[][] costMatrix, int[] capacities)
+            throws IllegalArgumentException {
+        return solve(costMatrix, capacities, null);
+    }
+    
+    /**
+     * Approximately solves an assignment problem in which each column accepts several rows,
+     * starting from a partial assignment, for example the one found by an exact solver stopped
+     * before the end. The rows of the partial assignment keep their column during the greedy
+     * assignment of the other rows, the improvement of the assignment may then change it.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param capacities maximal number of rows assigned to each column
+     * @param partialAssignment column assigned to each row, -1 if none, or null to start from
+     * scratch
+     * @return the same result as {@link #solve(int[][], int[])}
+     * @throws IllegalArgumentException if the input is invalid, as in
+     * {@link #solve(int[][], int[])}, or if the partial assignment does not match the matrix,
+     * assigns a forbidden pair or exceeds the capacity of a column
+     */
+    ApproximateResult solve(int[][] costMatrix, int[] capacities, int[] partialAssignment)
+            throws IllegalArgumentException {
+        int nRows = costMatrix.length;
+        int nColumns = nRows == 0 ? capacities.length : costMatrix[0].length;
+        checkInput(costMatrix, capacities, nColumns);
+        int[] columnOfRow = new int[nRows];
+        Arrays.fill(columnOfRow, -1);
+        int[] loads = new int[nColumns];
+        if (partialAssignment != null){
+            checkPartialAssignment(costMatrix, capacities, partialAssignment);
+            for (int i = 0; i < nRows; i++){
+                columnOfRow[i] = partialAssignment[i];
+                if (columnOfRow[i] != -1){
+                    loads[columnOfRow[i]]++;
+                }
+            }
+        }
+        assignGreedily(costMatrix, capacities, columnOfRow, loads);
+        improve(costMatrix, capacities, columnOfRow);
+        List<Integer> rows = new ArrayList<>(Collections.nCopies(nRows, unassignedValue));
+        List<Integer> columns = new ArrayList<>(Collections.nCopies(nColumns, unassignedValue));
+        int nPairs = 0;
+        long cost = 0;
+        for (int i = 0; i < nRows; i++){
+            int j = columnOfRow[i];
+            if (j != -1){
+                rows.set(i, j);
+                columns.set(j, i);
+                nPairs++;
+                cost += costMatrix[i][j];
+            }
+        }
+        return new ApproximateResult(rows, columns, cost,
+                computeLowerBound(costMatrix, capacities, nColumns, nPairs));
+    }
+    
+    private static void checkInput(int[][] costMatrix, int[] capacities, int nColumns)
+            throws IllegalArgumentException {
+        if (capacities.length != nColumns){
+            throw new IllegalArgumentException("Expected %s capacities, got %s"
+                    .formatted(nColumns, capacities.length));
+        }
+        for (int j = 0; j < nColumns; j++){
+            if (capacities[j] < 0){
+                throw new IllegalArgumentException("Capacity of column %s is %s, below 0"
+                        .formatted(j, capacities[j]));
+            }
+        }
+        for (int i = 0; i < costMatrix.length; i++){
+            if (costMatrix[i].length != nColumns){
+                throw new IllegalArgumentException("Row %s has %s columns instead of %s"
+                        .formatted(i, costMatrix[i].length, nColumns));
+            }
+        }
+    }
+    
+    private static void checkPartialAssignment(int[][] costMatrix, int[] capacities,
+            int[] partialAssignment) throws IllegalArgumentException {
+        if (partialAssignment.length != costMatrix.length){
+            throw new IllegalArgumentException("Expected %s row assignments, got %s"
+                    .formatted(costMatrix.length, partialAssignment.length));
+        }
+        int[] loads = new int[capacities.length];
+        for (int i = 0; i < partialAssignment.length; i++){
+            int j = partialAssignment[i];
+            if (j == -1){
+                continue;
+            }
+            if (j < 0 || j >= capacities.length
+                    || costMatrix[i][j] == MatchesBuilder.PROHIBITIVE_VALUE){
+                throw new IllegalArgumentException("Row %s cannot be assigned to column %s"
+                        .formatted(i, j));
+            }
+            if (++loads[j] > capacities[j]){
+                throw new IllegalArgumentException("Column %s is assigned more than %s rows"
+                        .formatted(j, capacities[j]));
+            }
+        }
+    }
+    
+    /**
+     * Assigns the cheapest allowed pairs of the unassigned rows by increasing cost, as long as
+     * their row is still unassigned and their column is not full. The rows left unassigned then
+     * take their cheapest allowed column that is not full, if any.
+     * @param columnOfRow column assigned to each row, -1 if none, updated with the new pairs
+     * @param loads number of rows assigned to each column, updated with the new pairs
+     */
+    private static void assignGreedily(int[][] costMatrix, int[] capacities, int[] columnOfRow,
+            int[] loads){
+        int nRows = costMatrix.length;
+        int nColumns = capacities.length;
+        int[] candidateColumns = new int[nRows * CANDIDATES_PER_ROW];
+        //The cost fills the upper half of each key and the index of the candidate its lower half
+        long[] sortedCandidates = new long[nRows * CANDIDATES_PER_ROW];
+        int nCandidates = 0;
+        long[] rowCandidates = new long[CANDIDATES_PER_ROW];
+        for (int i = 0; i < nRows; i++){
+            if (columnOfRow[i] != -1){
+                continue;
+            }
+            int nRowCandidates = 0;
+            for (int j = 0; j < nColumns; j++){
+                int cost = costMatrix[i][j];
+                if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                    long key = ((long) cost << 32) | j;
+                    if (nRowCandidates < CANDIDATES_PER_ROW){
+                        rowCandidates[nRowCandidates++] = key;
+                    } else if (key < rowCandidates[CANDIDATES_PER_ROW - 1]){
+                        rowCandidates[CANDIDATES_PER_ROW - 1] = key;
+                    } else {
+                        continue;
+                    }
+                    //Insertion sort keeping the most expensive candidate last
+                    for (int k = nRowCandidates - 1;
+                            k > 0 && rowCandidates[k] < rowCandidates[k - 1]; k--){
+                        long tmp = rowCandidates[k];
+                        rowCandidates[k] = rowCandidates[k - 1];
+                        rowCandidates[k - 1] = tmp;
+                    }
+                }
+            }
+            for (int k = 0; k < nRowCandidates; k++){
+                int candidate = i * CANDIDATES_PER_ROW + k;
+                candidateColumns[candidate] = (int) rowCandidates[k];
+                sortedCandidates[nCandidates++] = (rowCandidates[k] & 0xFFFFFFFF00000000L)
+                        | candidate;
+            }
+        }
+        Arrays.sort(sortedCandidates, 0, nCandidates);
+        for (int k = 0; k < nCandidates; k++){
+            int candidate = (int) sortedCandidates[k];
+            int i = candidate / CANDIDATES_PER_ROW;
+            int j = candidateColumns[candidate];
+            if (columnOfRow[i] == -1 && loads[j] < capacities[j]){
+                columnOfRow[i] = j;
+                loads[j]++;
+            }
+        }
+        for (int i = 0; i < nRows; i++){
+            if (columnOfRow[i] == -1){
+                int[] row = costMatrix[i];
+                int cheapest = -1;
+                for (int j = 0; j < nColumns; j++){
+                    if (loads[j] < capacities[j] && row[j] != MatchesBuilder.PROHIBITIVE_VALUE
+                            && (cheapest == -1 || row[j] < row[cheapest])){
+                        cheapest = j;
+                    }
+                }
+                if (cheapest != -1){
+                    columnOfRow[i] = cheapest;
+                    loads[cheapest]++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Lowers the cost of an assignment without changing its number of pairs: a row moves to a
+     * column that is not full, or two rows exchange their columns, if the total cost decreases. A
+     * row only considers the columns cheaper than its own: any improving exchange lowers the cost
+     * of at least one of its rows.
+     */
+    private static void improve(int[][] costMatrix, int[] capacities, int[] columnOfRow){
+        int nColumns = capacities.length;
+        int[] loads = new int[nColumns];
+        int[] firstRows = new int[nColumns];
+        Arrays.fill(firstRows, -1);
+        int[] nextRows = new int[columnOfRow.length];
+        int[] previousRows = new int[columnOfRow.length];
+        for (int i = 0; i < columnOfRow.length; i++){
+            if (columnOfRow[i] != -1){
+                addRow(i, columnOfRow[i], loads, firstRows, nextRows, previousRows);
+            }
+        }
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_IMPROVEMENT_PASSES; pass++){
+            improved = false;
+            for (int i = 0; i < columnOfRow.length; i++){
+                if (columnOfRow[i] == -1){
+                    continue;
+                }
+                int[] row = costMatrix[i];
+                for (int j = 0; j < nColumns; j++){
+                    int column = columnOfRow[i];
+                    if (row[j] >= row[column]){
+                        continue;
+                    }
+                    if (loads[j] < capacities[j]){
+                        removeRow(i, column, loads, firstRows, nextRows, previousRows);
+                        addRow(i, j, loads, firstRows, nextRows, previousRows);
+                        columnOfRow[i] = j;
+                        improved = true;
+                        continue;
+                    }
+                    for (int other = firstRows[j]; other != -1; other = nextRows[other]){
+                        if (isImprovingSwap(costMatrix, i, column, other, j)){
+                            removeRow(i, column, loads, firstRows, nextRows, previousRows);
+                            removeRow(other, j, loads, firstRows, nextRows, previousRows);
+                            addRow(i, j, loads, firstRows, nextRows, previousRows);
+                            addRow(other, column, loads, firstRows, nextRows, previousRows);
+                            columnOfRow[i] = j;
+                            columnOfRow[other] = column;
+                            improved = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private static void addRow(int row, int column, int[] loads, int[] firstRows, int[] nextRows,
+            int[] previousRows){
+        loads[column]++;
+        nextRows[row] = firstRows[column];
+        previousRows[row] = -1;
+        if (firstRows[column] != -1){
+            previousRows[firstRows[column]] = row;
+        }
+        firstRows[column] = row;
+    }
+    
+    private static void removeRow(int row, int column, int[] loads, int[] firstRows,
+            int[] nextRows, int[] previousRows){
+        loads[column]--;
+        if (previousRows[row] == -1){
+            firstRows[column] = nextRows[row];
+        } else {
+            nextRows[previousRows[row]] = nextRows[row];
+        }
+        if (nextRows[row] != -1){
+            previousRows[nextRows[row]] = previousRows[row];
+        }
+    }
+    
+    private static boolean isImprovingSwap(int[][] costMatrix, int row, int column, int otherRow,
+            int otherColumn){
+        int swappedCost = costMatrix[row][otherColumn];
+        int otherSwappedCost = costMatrix[otherRow][column];
+        return column != otherColumn
+                && swappedCost != MatchesBuilder.PROHIBITIVE_VALUE
+                && otherSwappedCost != MatchesBuilder.PROHIBITIVE_VALUE
+                && (long) swappedCost + otherSwappedCost
+                        < (long) costMatrix[row][column] + costMatrix[otherRow][otherColumn];
+    }
+    
+    /**
+     * Computes a lower bound of the cost of any assignment with a given number of pairs. Each pair
+     * costs at least the minimum of its row, and at least the minimum of its column: the cost of
+     * the assignment is at least the sum of the smallest row minima, and at least the sum of the
+     * smallest column minima, each column minimum counting as many times as the column accepts
+     * rows.
+     */
+    private static long computeLowerBound(int[][] costMatrix, int[] capacities, int nColumns,
+            int nPairs){
+        long[] rowMinima = new long[costMatrix.length];
+        long[] columnMinima = new long[nColumns];
+        Arrays.fill(rowMinima, Long.MAX_VALUE);
+        Arrays.fill(columnMinima, Long.MAX_VALUE);
+        for (int i = 0; i < costMatrix.length; i++){
+            for (int j = 0; j < nColumns; j++){
+                int cost = costMatrix[i][j];
+                if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                    rowMinima[i] = Math.min(rowMinima[i], cost);
+                    columnMinima[j] = Math.min(columnMinima[j], cost);
+                }
+            }
+        }
+        Arrays.sort(rowMinima);
+        long rowBound = 0;
+        for (int k = 0; k < nPairs; k++){
+            rowBound += rowMinima[k];
+        }
+        Integer[] columnsByMinimum = new Integer[nColumns];
+        for (int j = 0; j < nColumns; j++){
+            columnsByMinimum[j] = j;
+        }
+        Arrays.sort(columnsByMinimum, (j1, j2) -> Long.compare(columnMinima[j1],
+                columnMinima[j2]));
+        long columnBound = 0;
+        int remaining = nPairs;
+        for (int k = 0; k < nColumns && remaining > 0; k++){
+            int j = columnsByMinimum[k];
+            int count = Math.min(remaining, capacities[j]);
+            if (columnMinima[j] != Long.MAX_VALUE){
+                columnBound += count * columnMinima[j];
+                remaining -= count;
+            }
+        }
+        return Math.max(rowBound, columnBound);
+    }
+    
+    /** Assignment returned by a {@link GreedySolver}, with a bound of its distance to optimum. */
+    public static final class ApproximateResult extends Result {
+        private final List<Integer> rows;
+        private final List<Integer> columns;
+        private final long cost;
+        private final long lowerBound;
+    
+        ApproximateResult(List<Integer> rows, List<Integer> columns, long cost, long lowerBound){
+            super(null);
+            this.rows = Collections.unmodifiableList(rows);
+            this.columns = Collections.unmodifiableList(columns);
+            this.cost = cost;
+            this.lowerBound = lowerBound;
+        }
+    
+        @Override
+        public List<Integer> getRowAssignments(){
+            return rows;
+        }
+    
+        @Override
+        public List<Integer> getColumnAssignments(){
+            return columns;
+        }
+    
+        /** Returns the total cost of the assigned pairs. */
+        public long getCost(){
+            return cost;
+        }
+    
+        /**
+         * Returns a lower bound of the cost of any assignment with as many pairs as this one. When
+         * no cost is negative, it is also a lower bound of the cost of the assignment returned by
+         * an exact solver, which has at least as many pairs.
+         */
+        public long getLowerBound(){
+            return lowerBound;
+        }
+    
+        /** Returns the difference between the cost and the lower bound, never negative. */
+        public long getGap(){
+            return cost - lowerBound;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package mentoring.match;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * List of elements backed by a hash index so that {@link #indexOf(java.lang.Object)} runs in
+ * constant time. Elements are compared with {@link Object#equals(java.lang.Object)}, and must
+ * therefore not be mutated in a way that changes their hash code while they are in the list.
+ *
+ * <p>IndexedList is not thread-safe.
+ * @param <T> type of the elements in the list
+ */
+final class IndexedList<T> {
+    private final List<T> elements;
+    /** Index of the first occurrence of each element of the list. */
+    private final Map<T, Integer> firstIndices;
+    
+    IndexedList(Collection<? extends T> elements){
+        this.elements = new ArrayList<>(elements);
+        this.firstIndices = new HashMap<>(elements.size() * 4 / 3 + 1);
+        indexFrom(0);
+    }
+    
+    /**
+     * Builds a list with the same elements as another one, that can be modified independently.
+     * @param other list to copy
+     */
+    IndexedList(IndexedList<T> other){
+        this.elements = new ArrayList<>(other.elements);
+        this.firstIndices = new HashMap<>(other.firstIndices);
+    }
+    
+    private void indexFrom(int start){
+        for (int i = start; i < elements.size(); i++){
+            firstIndices.putIfAbsent(elements.get(i), i);
+        }
+    }
+    
+    int size(){
+        return elements.size();
+    }
+    
+    T get(int index){
+        return elements.get(index);
+    }
+    
+    /** Returns an unmodifiable view of the list. */
+    List<T> asList(){
+        return Collections.unmodifiableList(elements);
+    }
+    
+    /**
+     * Returns the index of the first occurrence of an element.
+     * @param element to look for
+     * @return the index of the element, or -1 if it is not in the list
+     */
+    int indexOf(Object element){
+        Integer result = firstIndices.get(element);
+        return result == null ? -1 : result;
+    }
+    
+    /**
+     * Returns the index of the first occurrence of an element that is not marked.
+     * @param element to look for
+     * @param marked indices to ignore
+     * @return the index of the element, or -1 if all its occurrences are marked
+     */
+    int indexOfUnmarked(Object element, BitSet marked){
+        int first = indexOf(element);
+        if (first == -1 || !marked.get(first)){
+            return first;
+        }
+        for (int i = marked.nextClearBit(first); i < elements.size(); 
+                i = marked.nextClearBit(i + 1)){
+            if (Objects.equals(element, elements.get(i))){
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Appends elements at the end of the list.
+     * @param toAdd elements to append
+     */
+    void addAll(Collection<? extends T> toAdd){
+        int start = elements.size();
+        elements.addAll(toAdd);
+        indexFrom(start);
+    }
+    
+    /**
+     * Removes elements from the list. The remaining elements keep their relative order.
+     * @param indices of the elements to remove
+     */
+    void removeAll(BitSet indices){
+        if (indices.isEmpty()){
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < elements.size(); i++){
+            if (!indices.get(i)){
+                elements.set(kept++, elements.get(i));
+            }
+        }
+        elements.subList(kept, elements.size()).clear();
+        firstIndices.clear();
+        indexFrom(0);
+    }
+}
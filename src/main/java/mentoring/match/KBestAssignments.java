@@ -0,0 +1,411 @@
+package mentoring.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Enumeration of the best assignments of a cost matrix with Murty's algorithm. The assignments are
+ * ranked as the {@link LapjvSolver} ranks them: by decreasing number of pairs, then by increasing
+ * total cost. The cells of the cost matrix equal to {@link MatchesBuilder#PROHIBITIVE_VALUE} are
+ * never assigned.
+ *
+ * <p>The search works on the square problem solved by the {@link LapjvSolver}, where the dummy and
+ * forbidden cells cost more than any difference of total cost between two assignments. Each time
+ * an assignment is found, the space of the assignments it was the best of is partitioned: the t-th
+ * subspace keeps the first t - 1 pairs of the assignment and forbids its t-th pair. The best
+ * assignment of a subspace is found from the dual variables and the assignment of its parent by a
+ * single shortest augmenting path. The subspaces are only solved when their lower bound, computed
+ * from the reduced costs of their parent, makes them candidates for the next assignment; they are
+ * solved in parallel if a pool is provided.
+ *
+ * <p>KBestAssignments is thread-safe if its cost matrix is not modified.
+ */
+final class KBestAssignments {
+    private final int[][] costMatrix;
+    private final int nRows;
+    private final int nColumns;
+    private final ForkJoinPool pool;
+    
+    /**
+     * Builds an enumeration.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     *      {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param pool used to solve the candidate subspaces in parallel, or null to solve them
+     *      sequentially in the calling thread
+     * @throws IllegalArgumentException if the matrix is not rectangular
+     */
+    KBestAssignments(int[][] costMatrix, ForkJoinPool pool) throws IllegalArgumentException {
+        this.costMatrix = costMatrix;
+        nRows = costMatrix.length;
+        nColumns = nRows == 0 ? 0 : costMatrix[0].length;
+        for (int i = 0; i < nRows; i++){
+            if (costMatrix[i].length != nColumns){
+                throw new IllegalArgumentException("Row %s has %s columns instead of %s"
+                        .formatted(i, costMatrix[i].length, nColumns));
+            }
+        }
+        this.pool = pool;
+    }
+    
+    /**
+     * Enumerates the best assignments.
+     * @param k maximal number of assignments to return
+     * @param warmStart starting point of the first solve, or null to start from scratch
+     * @return the k best assignments, or all of them if there are fewer, from the best to the
+     *      worst. Each assignment gives the column assigned to each row, -1 if none.
+     * @throws IllegalArgumentException if k is not positive, or if the costs are too large for a
+     *      {@link LapjvSolver}
+     */
+    List<int[]> solve(int k, LapjvSolver.WarmStart warmStart) throws IllegalArgumentException {
+        if (k < 1){
+            throw new IllegalArgumentException("Cannot enumerate %s assignments".formatted(k));
+        }
+        Enumeration enumeration = new Enumeration(LapjvSolver.solveSquare(costMatrix, warmStart));
+        int batchSize = pool == null ? 1 : pool.getParallelism();
+        List<int[]> result = new ArrayList<>(k);
+        PriorityQueue<Enumeration.Subspace> candidates =
+                new PriorityQueue<>(Enumeration.Subspace.ORDER);
+        candidates.add(enumeration.root);
+        while (result.size() < k && !candidates.isEmpty()){
+            if (candidates.peek().isSolved()){
+                Enumeration.Subspace best = candidates.poll();
+                result.add(best.getAssignment());
+                if (result.size() < k){
+                    candidates.addAll(best.partition());
+                }
+            } else {
+                //Only the subspaces whose bound is lower than any known assignment are solved
+                List<Enumeration.Subspace> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && !candidates.isEmpty()
+                        && !candidates.peek().isSolved()){
+                    batch.add(candidates.poll());
+                }
+                solveAll(batch);
+                candidates.addAll(batch);
+            }
+        }
+        return result;
+    }
+    
+    private void solveAll(List<Enumeration.Subspace> subspaces){
+        if (pool == null || subspaces.size() < 2){
+            for (Enumeration.Subspace subspace : subspaces){
+                subspace.solve();
+            }
+        } else {
+            pool.invoke(new SolveRangeAction(subspaces, 0, subspaces.size()));
+        }
+    }
+    
+    private static long pair(int row, int column){
+        return ((long) row << 32) | column;
+    }
+    
+    /** State of one call to {@link #solve(int, LapjvSolver.WarmStart)}. */
+    private final class Enumeration {
+        private final int size;
+        private final long minCost;
+        private final long forbiddenCost;
+        private final Subspace root;
+    
+        Enumeration(LapjvSolver.SquareSolution solution){
+            size = solution.columnOfRow().length;
+            minCost = solution.minCost();
+            forbiddenCost = solution.forbiddenCost();
+            root = new Subspace(solution);
+        }
+    
+        /** Returns the cost of a cell of the square problem, ignoring the forbidden pairs. */
+        private long cost(int i, int j){
+            if (i < nRows && j < nColumns){
+                int cost = costMatrix[i][j];
+                if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                    return cost - minCost;
+                }
+            }
+            return forbiddenCost;
+        }
+    
+        /**
+         * Subset of the assignments containing some forced pairs, and none of some forbidden pairs.
+         * Before it is solved, a subspace only knows its parent and a lower bound of its cost.
+         */
+        private final class Subspace {
+            /** Ranks the subspaces by cost or bound, the solved ones first. */
+            static final Comparator<Subspace> ORDER = Comparator
+                    .comparingLong((Subspace subspace) -> subspace.key)
+                    .thenComparing(Subspace::isSolved, Comparator.reverseOrder());
+            private final Subspace parent;
+            /** Index in the partition of the parent of the row whose pair is forbidden. */
+            private final int position;
+            /** Cost of the square problem once solved, lower bound of that cost before. */
+            private long key;
+            private boolean solved;
+            /** Forbidden pairs, sorted, with the row in the upper half and the column below. */
+            private long[] forbiddenPairs;
+            /** Columns of the forced pairs. */
+            private boolean[] forcedColumns;
+            private long[] u;
+            private long[] v;
+            private int[] columnOfRow;
+            private int[] rowOfColumn;
+            /** Rows of the pairs that can be forbidden in the children, in row order. */
+            private int[] partitionRows;
+    
+            Subspace(LapjvSolver.SquareSolution solution){
+                parent = null;
+                position = -1;
+                forbiddenPairs = new long[0];
+                forcedColumns = new boolean[size];
+                u = solution.rowDuals();
+                v = solution.columnDuals();
+                columnOfRow = solution.columnOfRow();
+                rowOfColumn = solution.rowOfColumn();
+                for (int i = 0; i < size; i++){
+                    key += cost(i, columnOfRow[i]);
+                }
+                solved = true;
+            }
+    
+            Subspace(Subspace parent, int position, long bound){
+                this.parent = parent;
+                this.position = position;
+                key = bound;
+            }
+    
+            boolean isSolved(){
+                return solved;
+            }
+    
+            private boolean isForbidden(int i, int j){
+                return Arrays.binarySearch(forbiddenPairs, pair(i, j)) >= 0;
+            }
+    
+            /** Returns true if a cell is a pair of the input. */
+            private boolean isPair(int i, int j){
+                return cost(i, j) < forbiddenCost && !isForbidden(i, j);
+            }
+    
+            /**
+             * Marks the columns forbidden for a row, or unmarks them.
+             * @return true if a column was marked
+             */
+            private boolean markForbiddenColumns(int row, boolean[] marks, boolean value){
+                int k = Arrays.binarySearch(forbiddenPairs, pair(row, 0));
+                k = k < 0 ? -k - 1 : k;
+                boolean result = false;
+                for (; k < forbiddenPairs.length && forbiddenPairs[k] >>> 32 == row; k++){
+                    marks[(int) forbiddenPairs[k]] = value;
+                    result = true;
+                }
+                return result;
+            }
+    
+            int[] getAssignment(){
+                int[] result = new int[nRows];
+                for (int i = 0; i < nRows; i++){
+                    int j = columnOfRow[i];
+                    result[i] = isPair(i, j) ? j : -1;
+                }
+                return result;
+            }
+    
+            /** Partitions the rest of this solved subspace and bounds the cost of each part. */
+            List<Subspace> partition(){
+                int[] rows = new int[size];
+                int nPartitionRows = 0;
+                for (int i = 0; i < size; i++){
+                    int j = columnOfRow[i];
+                    if (!forcedColumns[j] && isPair(i, j)){
+                        rows[nPartitionRows++] = i;
+                    }
+                }
+                partitionRows = Arrays.copyOf(rows, nPartitionRows);
+                List<Subspace> result = new ArrayList<>(nPartitionRows);
+                boolean[] marks = new boolean[size];
+                for (int t = 0; t < nPartitionRows; t++){
+                    int row = partitionRows[t];
+                    result.add(new Subspace(this, t,
+                            key + getPathBound(row, columnOfRow[row], marks)));
+                }
+                return result;
+            }
+    
+            /**
+             * Returns a lower bound of the length of the shortest augmenting path from a row to its
+             * column once their pair is forbidden: either the pair itself at the forbidden cost, or
+             * a path leaving the row through another column and reaching the column from another
+             * row.
+             */
+            private long getPathBound(int row, int column, boolean[] marks){
+                long direct = forbiddenCost - u[row] - v[column];
+                markForbiddenColumns(row, marks, true);
+                long rowMin = Long.MAX_VALUE;
+                for (int j = 0; j < size; j++){
+                    if (j != column && !forcedColumns[j]){
+                        long cost = marks[j] ? forbiddenCost : cost(row, j);
+                        rowMin = Math.min(rowMin, cost - v[j]);
+                    }
+                }
+                markForbiddenColumns(row, marks, false);
+                for (long forbiddenPair : forbiddenPairs){
+                    if ((int) forbiddenPair == column){
+                        marks[(int) (forbiddenPair >>> 32)] = true;
+                    }
+                }
+                long columnMin = Long.MAX_VALUE;
+                for (int i = 0; i < size; i++){
+                    if (i != row){
+                        long cost = marks[i] ? forbiddenCost : cost(i, column);
+                        columnMin = Math.min(columnMin, cost - u[i]);
+                    }
+                }
+                for (long forbiddenPair : forbiddenPairs){
+                    if ((int) forbiddenPair == column){
+                        marks[(int) (forbiddenPair >>> 32)] = false;
+                    }
+                }
+                if (rowMin == Long.MAX_VALUE || columnMin == Long.MAX_VALUE){
+                    return direct;
+                }
+                return Math.min(direct, rowMin - u[row] + columnMin - v[column]);
+            }
+    
+            /**
+             * Solves this subspace: the pair of its row is removed from the assignment of its
+             * parent, then the row is assigned again along a shortest augmenting path.
+             */
+            void solve(){
+                int row = parent.partitionRows[position];
+                int column = parent.columnOfRow[row];
+                long forbiddenPair = pair(row, column);
+                int insertion = -Arrays.binarySearch(parent.forbiddenPairs, forbiddenPair) - 1;
+                forbiddenPairs = new long[parent.forbiddenPairs.length + 1];
+                System.arraycopy(parent.forbiddenPairs, 0, forbiddenPairs, 0, insertion);
+                forbiddenPairs[insertion] = forbiddenPair;
+                System.arraycopy(parent.forbiddenPairs, insertion, forbiddenPairs, insertion + 1,
+                        parent.forbiddenPairs.length - insertion);
+                forcedColumns = parent.forcedColumns.clone();
+                for (int t = 0; t < position; t++){
+                    forcedColumns[parent.columnOfRow[parent.partitionRows[t]]] = true;
+                }
+                u = parent.u.clone();
+                v = parent.v.clone();
+                columnOfRow = parent.columnOfRow.clone();
+                rowOfColumn = parent.rowOfColumn.clone();
+                columnOfRow[row] = -1;
+                rowOfColumn[column] = -1;
+                augment(row);
+                key = 0;
+                for (int k = 0; k < size; k++){
+                    key += u[k] + v[k];
+                }
+                solved = true;
+            }
+    
+            /**
+             * Assigns a free row along a shortest augmenting path, found with Dijkstra's algorithm
+             * on the reduced costs of the columns that are not forced.
+             */
+            private void augment(int freeRow){
+                long[] distances = new long[size];
+                int[] predecessors = new int[size];
+                int[] remaining = new int[size];
+                int[] scannedRows = new int[size];
+                int[] scannedColumns = new int[size];
+                boolean[] marks = new boolean[size];
+                Arrays.fill(distances, Long.MAX_VALUE);
+                int nRemaining = 0;
+                for (int j = 0; j < size; j++){
+                    if (!forcedColumns[j]){
+                        remaining[nRemaining++] = j;
+                    }
+                }
+                int nScannedRows = 0;
+                int nScannedColumns = 0;
+                long minDistance = 0;
+                int row = freeRow;
+                int sink = -1;
+                while (sink == -1){
+                    scannedRows[nScannedRows++] = row;
+                    boolean hasForbiddenColumns = markForbiddenColumns(row, marks, true);
+                    long offset = minDistance - u[row];
+                    int closest = -1;
+                    long lowest = Long.MAX_VALUE;
+                    for (int k = 0; k < nRemaining; k++){
+                        int j = remaining[k];
+                        long cost = marks[j] ? forbiddenCost : cost(row, j);
+                        long distance = offset + cost - v[j];
+                        if (distance < distances[j]){
+                            distances[j] = distance;
+                            predecessors[j] = row;
+                        }
+                        if (distances[j] < lowest
+                                || (distances[j] == lowest && rowOfColumn[j] == -1)){
+                            lowest = distances[j];
+                            closest = k;
+                        }
+                    }
+                    if (hasForbiddenColumns){
+                        markForbiddenColumns(row, marks, false);
+                    }
+                    minDistance = lowest;
+                    int column = remaining[closest];
+                    remaining[closest] = remaining[--nRemaining];
+                    scannedColumns[nScannedColumns++] = column;
+                    if (rowOfColumn[column] == -1){
+                        sink = column;
+                    } else {
+                        row = rowOfColumn[column];
+                    }
+                }
+                u[freeRow] += minDistance;
+                for (int k = 1; k < nScannedRows; k++){
+                    int i = scannedRows[k];
+                    u[i] += minDistance - distances[columnOfRow[i]];
+                }
+                for (int k = 0; k < nScannedColumns; k++){
+                    int j = scannedColumns[k];
+                    v[j] -= minDistance - distances[j];
+                }
+                int column = sink;
+                int i;
+                do {
+                    i = predecessors[column];
+                    rowOfColumn[column] = i;
+                    int previousColumn = columnOfRow[i];
+                    columnOfRow[i] = column;
+                    column = previousColumn;
+                } while (i != freeRow);
+            }
+        }
+    }
+    
+    private class SolveRangeAction extends RecursiveAction {
+        private final List<Enumeration.Subspace> subspaces;
+        private final int start;
+        private final int end;
+    
+        SolveRangeAction(List<Enumeration.Subspace> subspaces, int start, int end){
+            this.subspaces = subspaces;
+            this.start = start;
+            this.end = end;
+        }
+    
+        @Override
+        protected void compute(){
+            if (end - start == 1){
+                subspaces.get(start).solve();
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new SolveRangeAction(subspaces, start, middle),
+                        new SolveRangeAction(subspaces, middle, end));
+            }
+        }
+    }
+}
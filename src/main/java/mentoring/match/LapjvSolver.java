@@ -0,0 +1,463 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Solver based on the shortest augmenting path algorithm of Jonker and Volgenant. The cells of the
+ * cost matrix equal to {@link MatchesBuilder#PROHIBITIVE_VALUE} are never assigned. The solver
+ * first maximises the number of assigned rows, then minimises the total cost of the assignment,
+ * which is what the {@link MatchesBuilder} expects from a solver.
+ *
+ * <p>The solver can be warm-started with the dual variables and the assignment of a previous
+ * solve: when the problem only changed slightly since, for example when a match was forbidden,
+ * most rows keep their previous assignment and only a few augmenting paths are searched, instead
+ * of one per row.
+ *
+ * <p>LapjvSolver is thread-safe.
+ */
+public class LapjvSolver implements MatrixSolver {
+    /** Value of a dual variable for which no warm start is available. */
+    public static final long UNKNOWN_DUAL = Long.MIN_VALUE;
+    private final Integer unassignedValue;
+    
+    /**
+     * Builds a solver.
+     * @param unassignedValue value used in the result to signal that a row or a column is not
+     * assigned
+     */
+    public LapjvSolver(Integer unassignedValue){
+        this.unassignedValue = unassignedValue;
+    }
+    
+    /**
+     * Solves an assignment problem from scratch.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those, and the dual variables certifying it
+     * @throws IllegalArgumentException if the matrix is not rectangular or if its costs are too
+     * large for the solver to run without overflow
+     */
+    @Override
+    public DualResult solve(int[][] costMatrix) throws IllegalArgumentException {
+        return solve(costMatrix, null);
+    }
+    
+    /**
+     * Solves an assignment problem, starting from the result of a previous solve. The result is the
+     * same as the one of {@link #solve(int[][])} up to ties, whatever the warm start: it only makes
+     * the solve faster when it comes from a similar problem.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param warmStart starting point of the solve, or null to start from scratch
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those, and the dual variables certifying it
+     * @throws IllegalArgumentException if the matrix is not rectangular, if its costs are too
+     * large for the solver to run without overflow, or if the warm start does not match its
+     * dimensions
+     */
+    public DualResult solve(int[][] costMatrix, WarmStart warmStart)
+            throws IllegalArgumentException {
+        return solve(costMatrix, warmStart, Deadline.NONE);
+    }
+    
+    /**
+     * Solves an assignment problem, starting from the result of a previous solve, unless a
+     * deadline is reached first.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param warmStart starting point of the solve, or null to start from scratch
+     * @param deadline checked before each augmenting path search
+     * @return the same result as {@link #solve(int[][], WarmStart)}
+     * @throws IllegalArgumentException if the input is invalid, as in
+     * {@link #solve(int[][], WarmStart)}
+     * @throws CancellationException if the deadline is reached before the end of the solve, as a
+     * {@link StoppedSolveException} with the assignment found so far
+     */
+    DualResult solve(int[][] costMatrix, WarmStart warmStart, Deadline deadline)
+            throws IllegalArgumentException, CancellationException {
+        Problem problem = run(costMatrix, warmStart, deadline);
+        List<Integer> rows = new ArrayList<>(Collections.nCopies(problem.nRows, unassignedValue));
+        List<Integer> columns =
+                new ArrayList<>(Collections.nCopies(problem.nColumns, unassignedValue));
+        int[] rowAssignments = new int[problem.nRows];
+        for (int i = 0; i < problem.nRows; i++){
+            int j = problem.columnOfRow[i];
+            if (j < problem.nColumns && costMatrix[i][j] != MatchesBuilder.PROHIBITIVE_VALUE){
+                rows.set(i, j);
+                columns.set(j, i);
+                rowAssignments[i] = j;
+            } else {
+                rowAssignments[i] = -1;
+            }
+        }
+        return new DualResult(rows, columns, new WarmStart(problem.getRowDuals(),
+                problem.getColumnDuals(), rowAssignments));
+    }
+    
+    /**
+     * Solves an assignment problem and returns the square problem solved internally, from which
+     * the {@link KBestAssignments} search the next best assignments.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param warmStart starting point of the solve, or null to start from scratch
+     * @return the optimal solution of the square problem
+     * @throws IllegalArgumentException if the input is invalid, as in
+     * {@link #solve(int[][], WarmStart)}
+     */
+    static SquareSolution solveSquare(int[][] costMatrix, WarmStart warmStart)
+            throws IllegalArgumentException {
+        Problem problem = run(costMatrix, warmStart, Deadline.NONE);
+        return new SquareSolution(problem.minCost, problem.forbiddenCost, problem.u, problem.v,
+                problem.columnOfRow, problem.rowOfColumn);
+    }
+    
+    private static Problem run(int[][] costMatrix, WarmStart warmStart, Deadline deadline)
+            throws IllegalArgumentException, CancellationException {
+        Problem problem = new Problem(costMatrix);
+        if (warmStart != null){
+            checkLength(warmStart.rowDuals().length, problem.nRows, "row duals");
+            checkLength(warmStart.columnDuals().length, problem.nColumns, "column duals");
+            checkLength(warmStart.rowAssignments().length, problem.nRows, "row assignments");
+        }
+        problem.run(warmStart, deadline);
+        return problem;
+    }
+    
+    private static void checkLength(int actual, int expected, String name)
+            throws IllegalArgumentException {
+        if (actual != expected){
+            throw new IllegalArgumentException("Expected %s %s, got %s"
+                    .formatted(expected, name, actual));
+        }
+    }
+    
+    /**
+     * Square problem built from the n x m input by adding dummy rows or columns. The allowed costs
+     * are shifted so that the cheapest one is 0, and the dummy and forbidden cells all cost more
+     * than any difference of total cost between two assignments, so that the number of allowed
+     * pairs is maximised first.
+     *
+     * <p>The dual variables u and v always satisfy cost(i, j) - u[i] - v[j] &gt;= 0, with equality
+     * on the assigned pairs: the assignment is therefore optimal once all rows are assigned.
+     */
+    private static class Problem {
+        private final int[][] costs;
+        private final int nRows;
+        private final int nColumns;
+        private final int size;
+        private final long minCost;
+        /** Cost of a dummy or forbidden cell, after the shift of the allowed costs. */
+        private final long forbiddenCost;
+        /** Bound on the absolute value of the dual variables that the solver can produce. */
+        private final long dualBound;
+        private final long[] u;
+        private final long[] v;
+        /** Column assigned to each row, -1 if none. */
+        private final int[] columnOfRow;
+        /** Row assigned to each column, -1 if none. */
+        private final int[] rowOfColumn;
+    
+        Problem(int[][] costMatrix) throws IllegalArgumentException {
+            costs = costMatrix;
+            nRows = costMatrix.length;
+            nColumns = nRows == 0 ? 0 : costMatrix[0].length;
+            size = Math.max(nRows, nColumns);
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < nRows; i++){
+                if (costMatrix[i].length != nColumns){
+                    throw new IllegalArgumentException("Row %s has %s columns instead of %s"
+                            .formatted(i, costMatrix[i].length, nColumns));
+                }
+                for (int cost : costMatrix[i]){
+                    if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                        min = Math.min(min, cost);
+                        max = Math.max(max, cost);
+                    }
+                }
+            }
+            minCost = min == Long.MAX_VALUE ? 0 : min;
+            long costRange = min == Long.MAX_VALUE ? 0 : max - min;
+            try {
+                forbiddenCost = Math.addExact(
+                        Math.multiplyExact(costRange, Math.min(nRows, nColumns)), 1);
+                dualBound = Math.multiplyExact(forbiddenCost, size + 1L);
+                //Warm start values are bounded by twice the bound, intermediate sums by eight times
+                Math.multiplyExact(dualBound, 8);
+            } catch (ArithmeticException e){
+                throw new IllegalArgumentException("Costs range from %s to %s: too large"
+                        .formatted(min, max), e);
+            }
+            u = new long[size];
+            v = new long[size];
+            columnOfRow = new int[size];
+            rowOfColumn = new int[size];
+        }
+    
+        private long cost(int i, int j){
+            if (i < nRows && j < nColumns){
+                int cost = costs[i][j];
+                if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                    return cost - minCost;
+                }
+            }
+            return forbiddenCost;
+        }
+    
+        void run(WarmStart warmStart, Deadline deadline){
+            initialiseColumnDuals(warmStart);
+            Arrays.fill(columnOfRow, -1);
+            Arrays.fill(rowOfColumn, -1);
+            assignTightPairs(warmStart == null ? null : warmStart.rowAssignments());
+            Augmenter augmenter = new Augmenter();
+            try {
+                for (int i = 0; i < size; i++){
+                    if (columnOfRow[i] == -1){
+                        deadline.check();
+                        augmenter.augment(i);
+                    }
+                }
+            } catch (CancellationException e){
+                throw new StoppedSolveException(e, costs, columnOfRow);
+            }
+        }
+    
+        /**
+         * Sets the column duals to their warm start value if any, and otherwise to the minimal
+         * cost of their column. The dummy columns are all alike: their warm start value is the
+         * largest one compatible with the known row duals.
+         */
+        private void initialiseColumnDuals(WarmStart warmStart){
+            Arrays.fill(v, forbiddenCost);
+            boolean[] warmColumns = new boolean[size];
+            int nWarmColumns = 0;
+            if (warmStart != null){
+                long[] columnDuals = warmStart.columnDuals();
+                for (int j = 0; j < nColumns; j++){
+                    if (isUsable(columnDuals[j])){
+                        v[j] = columnDuals[j];
+                        warmColumns[j] = true;
+                        nWarmColumns++;
+                    }
+                }
+                initialiseDummyColumnDuals(warmStart.rowDuals());
+            }
+            if (nWarmColumns < nColumns){
+                for (int i = 0; i < nRows; i++){
+                    for (int j = 0; j < nColumns; j++){
+                        if (!warmColumns[j]){
+                            v[j] = Math.min(v[j], cost(i, j));
+                        }
+                    }
+                }
+            }
+        }
+    
+        private void initialiseDummyColumnDuals(long[] rowDuals){
+            long dummyDual = Long.MAX_VALUE;
+            for (int i = 0; i < nRows && nColumns < size; i++){
+                if (rowDuals[i] != UNKNOWN_DUAL && isUsable(rowDuals[i] - minCost)){
+                    dummyDual = Math.min(dummyDual, forbiddenCost - (rowDuals[i] - minCost));
+                }
+            }
+            if (dummyDual != Long.MAX_VALUE){
+                Arrays.fill(v, nColumns, size, dummyDual);
+            }
+        }
+    
+        /** Returns true if a warm start value cannot make the solver overflow. */
+        private boolean isUsable(long dual){
+            return dual != UNKNOWN_DUAL && dual >= -2 * dualBound && dual <= 2 * dualBound;
+        }
+    
+        /**
+         * Sets each row dual to the largest value compatible with the column duals, then assigns 
+         * the rows to free columns on which their reduced cost is 0: first to their previous 
+         * column if any, then to the first such column.
+         * @param previousColumns column previously assigned to each real row, -1 if none, or null
+         */
+        private void assignTightPairs(int[] previousColumns){
+            int[] firstTightColumns = new int[size];
+            for (int i = 0; i < size; i++){
+                long min = Long.MAX_VALUE;
+                for (int j = 0; j < size; j++){
+                    long reducedCost = cost(i, j) - v[j];
+                    if (reducedCost < min){
+                        min = reducedCost;
+                        firstTightColumns[i] = j;
+                    }
+                }
+                u[i] = min;
+            }
+            if (previousColumns != null){
+                for (int i = 0; i < nRows; i++){
+                    int j = previousColumns[i];
+                    if (j >= 0 && j < nColumns && rowOfColumn[j] == -1 && isTight(i, j)){
+                        columnOfRow[i] = j;
+                        rowOfColumn[j] = i;
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++){
+                for (int j = firstTightColumns[i]; columnOfRow[i] == -1 && j < size; j++){
+                    if (rowOfColumn[j] == -1 && isTight(i, j)){
+                        columnOfRow[i] = j;
+                        rowOfColumn[j] = i;
+                    }
+                }
+            }
+        }
+    
+        private boolean isTight(int i, int j){
+            return cost(i, j) - v[j] == u[i];
+        }
+    
+        long[] getRowDuals(){
+            long[] result = new long[nRows];
+            for (int i = 0; i < nRows; i++){
+                result[i] = u[i] + minCost;
+            }
+            return result;
+        }
+    
+        long[] getColumnDuals(){
+            return Arrays.copyOf(v, nColumns);
+        }
+    
+        /** Searches shortest augmenting paths with Dijkstra's algorithm on the reduced costs. */
+        private class Augmenter {
+            /** Length of the shortest alternating path from the free row to each column. */
+            private final long[] distances = new long[size];
+            /** Row preceding each column on its shortest alternating path. */
+            private final int[] predecessors = new int[size];
+            /** Columns whose distance is not final yet. */
+            private final int[] remaining = new int[size];
+            private final int[] scannedRows = new int[size];
+            private final int[] scannedColumns = new int[size];
+    
+            void augment(int freeRow){
+                Arrays.fill(distances, Long.MAX_VALUE);
+                for (int k = 0; k < size; k++){
+                    remaining[k] = k;
+                }
+                int nRemaining = size;
+                int nScannedRows = 0;
+                int nScannedColumns = 0;
+                long minDistance = 0;
+                int row = freeRow;
+                int sink = -1;
+                while (sink == -1){
+                    scannedRows[nScannedRows++] = row;
+                    long offset = minDistance - u[row];
+                    int closest = -1;
+                    long lowest = Long.MAX_VALUE;
+                    for (int k = 0; k < nRemaining; k++){
+                        int j = remaining[k];
+                        long distance = offset + cost(row, j) - v[j];
+                        if (distance < distances[j]){
+                            distances[j] = distance;
+                            predecessors[j] = row;
+                        }
+                        if (distances[j] < lowest
+                                || (distances[j] == lowest && rowOfColumn[j] == -1)){
+                            lowest = distances[j];
+                            closest = k;
+                        }
+                    }
+                    minDistance = lowest;
+                    int column = remaining[closest];
+                    remaining[closest] = remaining[--nRemaining];
+                    scannedColumns[nScannedColumns++] = column;
+                    if (rowOfColumn[column] == -1){
+                        sink = column;
+                    } else {
+                        row = rowOfColumn[column];
+                    }
+                }
+                u[freeRow] += minDistance;
+                for (int k = 1; k < nScannedRows; k++){
+                    int i = scannedRows[k];
+                    u[i] += minDistance - distances[columnOfRow[i]];
+                }
+                for (int k = 0; k < nScannedColumns; k++){
+                    int j = scannedColumns[k];
+                    v[j] -= minDistance - distances[j];
+                }
+                int column = sink;
+                int i;
+                do {
+                    i = predecessors[column];
+                    rowOfColumn[column] = i;
+                    int previousColumn = columnOfRow[i];
+                    columnOfRow[i] = column;
+                    column = previousColumn;
+                } while (i != freeRow);
+            }
+        }
+    }
+    
+    /**
+     * Optimal solution of the square problem built from an n x m input by adding dummy rows or
+     * columns. The dummy and forbidden cells cost the forbidden cost, the allowed cells their cost
+     * minus the minimal cost: with these costs, the dual variables satisfy
+     * cost(i, j) - rowDuals[i] - columnDuals[j] &gt;= 0, with equality on the assigned pairs.
+     * @param minCost minimal allowed cost of the input
+     * @param forbiddenCost cost of the dummy and forbidden cells, larger than any difference of
+     * total cost between two assignments of the input
+     * @param rowDuals dual variable of each row of the square problem
+     * @param columnDuals dual variable of each column of the square problem
+     * @param columnOfRow column assigned to each row of the square problem
+     * @param rowOfColumn row assigned to each column of the square problem
+     */
+    record SquareSolution(long minCost, long forbiddenCost, long[] rowDuals, long[] columnDuals,
+            int[] columnOfRow, int[] rowOfColumn) {}
+    
+    /**
+     * Starting point of a solve, taken from the result of a previous solve on a similar problem.
+     * The arrays are not copied: they must not be modified while a solve uses them.
+     * @param rowDuals dual variable of each row, or {@link #UNKNOWN_DUAL} if the row has no
+     * previous value
+     * @param columnDuals dual variable of each column, or {@link #UNKNOWN_DUAL} if the column has
+     * no previous value
+     * @param rowAssignments column previously assigned to each row, or -1 if none
+     */
+    public record WarmStart(long[] rowDuals, long[] columnDuals, int[] rowAssignments) {}
+    
+    /** Assignment returned by a {@link LapjvSolver}, with the dual variables certifying it. */
+    public static final class DualResult extends Result {
+        private final List<Integer> rows;
+        private final List<Integer> columns;
+        private final WarmStart warmStart;
+    
+        DualResult(List<Integer> rows, List<Integer> columns, WarmStart warmStart){
+            super(null);
+            this.rows = Collections.unmodifiableList(rows);
+            this.columns = Collections.unmodifiableList(columns);
+            this.warmStart = warmStart;
+        }
+    
+        @Override
+        public List<Integer> getRowAssignments(){
+            return rows;
+        }
+    
+        @Override
+        public List<Integer> getColumnAssignments(){
+            return columns;
+        }
+    
+        /**
+         * Returns the dual variables and the assignment of this result, to be used as a warm
+         * start by {@link LapjvSolver#solve(int[][], mentoring.match.LapjvSolver.WarmStart)}.
+         */
+        public WarmStart getWarmStart(){
+            return warmStart;
+        }
+    }
+}
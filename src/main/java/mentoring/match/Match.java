@@ -1,14 +1,22 @@
 package mentoring.match;
 
+import java.util.List;
+
 public final class Match<Mentee, Mentor> {
     private final int cost;
     private final Mentee mentee;
     private final Mentor mentor;
+    private final List<Integer> criterionScores;
     
     Match(Mentee mentee, Mentor mentor, int cost){
+        this(mentee, mentor, cost, List.of());
+    }
+    
+    Match(Mentee mentee, Mentor mentor, int cost, List<Integer> criterionScores){
         this.mentee = mentee;
         this.mentor = mentor;
         this.cost = cost;
+        this.criterionScores = criterionScores;
     }
     
     public Mentee getMentee(){
@@ -23,6 +31,16 @@ public final class Match<Mentee, Mentor> {
         return this.cost;
     }
     
+    /**
+     * Returns the score of each progressive criterion on this match, whose sum is its cost.
+     * @return the scores in the order of the criteria, or an empty list if the match is not 
+     *      allowed or if the scores were not recorded with 
+     *      {@link MatchesBuilder#withCriterionScores()}
+     */
+    public List<Integer> getCriterionScores(){
+        return this.criterionScores;
+    }
+    
     @Override
     public String toString(){
         return String.format("Mentee %s with mentor %s at cost %s", 
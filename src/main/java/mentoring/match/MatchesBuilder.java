@@ -3,9 +3,19 @@ package mentoring.match;
 import assignmentproblem.Result;
 import assignmentproblem.Solver;
 import assignmentproblem.hungariansolver.HungarianSolver;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 /**
@@ -19,21 +29,20 @@ import java.util.stream.IntStream;
  * @param <Mentor> class representing an individual mentor
  */
 public final class MatchesBuilder<Mentee, Mentor> {
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    final private List<Mentee> mentees;
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    final private List<Mentor> mentors;
+    final private IndexedList<Mentee> mentees;
+    final private IndexedList<Mentor> mentors;
     final CostMatrixHandler<Mentee, Mentor> costMatrixHandler;
     /**
      * A value such that all candidate matches with this cost will be considered invalid.
      */
     public static final int PROHIBITIVE_VALUE = Integer.MAX_VALUE;
     private Integer unassignedValue = null;
-    private Solver solver = new HungarianSolver(unassignedValue);
+    private MatrixSolver solver = new HungarianSolver(unassignedValue)::solve;
     private Mentee defaultMentee;
     private Mentor defaultMentor;
     private boolean hasPlaceholderPersons = false;
     private ForbiddenMatches<Mentee, Mentor> forbiddenMatches = null;
+    private ToIntFunction<Mentor> mentorCapacity = null;
     
     /**
      * Instantiates a default MatchesBuilder instance.
@@ -47,13 +56,81 @@ public final class MatchesBuilder<Mentee, Mentor> {
         this(mentees, mentors, new CostMatrixHandler<>(mentees, mentors, progressiveCriteria));
     }
     
+    /**
+     * Instantiates a MatchesBuilder instance evaluating the progressive criteria in parallel. The 
+     * resulting builder behaves exactly as one built with 
+     * {@link #MatchesBuilder(java.util.List, java.util.List, java.util.Collection)}.
+     * @param mentees List of the mentees awaiting a mentor
+     * @param mentors List of the mentors awaiting a mentee
+     * @param progressiveCriteria used to evaluate the cost of assigning each mentor to 
+     * each mentee, they MUST be thread-safe
+     * @param pool used to evaluate the progressive criteria, the rows of the cost matrix being 
+     * split among its workers, and to solve the independent parts of the problem in parallel
+     */
+    public MatchesBuilder(List<Mentee> mentees, List<Mentor> mentors,
+            Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria,
+            ForkJoinPool pool){
+        this(mentees, mentors, new CostMatrixHandler<>(mentees, mentors, progressiveCriteria,
+                Objects.requireNonNull(pool, "pool cannot be null")));
+    }
+    
+    /**
+     * Instantiates a MatchesBuilder instance evaluating the progressive and necessary criteria in 
+     * a single pass over the (mentee, mentor) pairs. The necessary criteria are evaluated first and
+     * the progressive criteria are skipped on the pairs that fail them. Apart from the errors that
+     * the skipped evaluations would have raised, the resulting builder behaves exactly as one 
+     * built with {@link #MatchesBuilder(java.util.List, java.util.List, java.util.Collection)} 
+     * then configured with {@link #withNecessaryCriteria(java.util.Collection)}.
+     * @param mentees List of the mentees awaiting a mentor
+     * @param mentors List of the mentors awaiting a mentee
+     * @param progressiveCriteria used to evaluate the cost of assigning each mentor to 
+     * each mentee, they MUST be thread-safe if {@code pool} is not null
+     * @param necessaryCriteria used to evaluate if it is possible to assign each mentor to 
+     * each mentee, they MUST be thread-safe if {@code pool} is not null
+     * @param pool used to evaluate the criteria, the rows of the cost matrix being split among its 
+     * workers, and to solve the independent parts of the problem in parallel, or null to do both 
+     * sequentially in the calling thread
+     */
+    public MatchesBuilder(List<Mentee> mentees, List<Mentor> mentors,
+            Collection<ProgressiveCriterion<Mentee, Mentor>> progressiveCriteria,
+            Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria,
+            ForkJoinPool pool){
+        this(mentees, mentors, new CostMatrixHandler<>(mentees, mentors, progressiveCriteria,
+                Objects.requireNonNull(necessaryCriteria, "necessary criteria cannot be null"),
+                pool));
+    }
+    
     MatchesBuilder(List<Mentee> mentees, List<Mentor> mentors, 
             CostMatrixHandler<Mentee, Mentor> handler){
-        this.mentees = mentees;
-        this.mentors = mentors;
+        this.mentees = new IndexedList<>(mentees);
+        this.mentors = new IndexedList<>(mentors);
         this.costMatrixHandler = handler;
     }
     
+    private MatchesBuilder(MatchesBuilder<Mentee, Mentor> other){
+        this.mentees = new IndexedList<>(other.mentees);
+        this.mentors = new IndexedList<>(other.mentors);
+        this.costMatrixHandler = other.costMatrixHandler.copy();
+        this.unassignedValue = other.unassignedValue;
+        this.solver = other.solver;
+        this.defaultMentee = other.defaultMentee;
+        this.defaultMentor = other.defaultMentor;
+        this.hasPlaceholderPersons = other.hasPlaceholderPersons;
+        this.forbiddenMatches = other.forbiddenMatches;
+        this.mentorCapacity = other.mentorCapacity;
+    }
+    
+    /**
+     * Returns a copy of this builder with the same persons, costs and settings, computing no cost
+     * again. The copy can be updated, for example with 
+     * {@link #updatePersons(java.util.List, java.util.List)}, without invalidating the indices 
+     * returned by this builder.
+     * @return a builder that can be modified independently of this one
+     */
+    MatchesBuilder<Mentee, Mentor> copy(){
+        return new MatchesBuilder<>(this);
+    }
+    
     /**
      * Sets the criteria deciding if an assignment can be viable. A pair (mentee, mentor) for which 
      * any necessary criterion is not met is considered not viable.
@@ -79,15 +156,51 @@ public final class MatchesBuilder<Mentee, Mentor> {
         return this;
     }
     
-    private int getMenteeIndex(Mentee mentee){
+    /**
+     * Returns the index of a mentee in this builder. The index is valid until mentees are added or
+     * removed.
+     * @param mentee to look for
+     * @return the index of the first occurrence of the mentee
+     * @throws IllegalArgumentException if the mentee is unknown
+     */
+    public int getMenteeIndex(Mentee mentee) throws IllegalArgumentException {
         return getIndex(mentee, mentees, "mentee");
     }
     
-    private int getMentorIndex(Mentor mentor){
+    /**
+     * Returns the index of a mentor in this builder. The index is valid until mentors are added or
+     * removed.
+     * @param mentor to look for
+     * @return the index of the first occurrence of the mentor
+     * @throws IllegalArgumentException if the mentor is unknown
+     */
+    public int getMentorIndex(Mentor mentor) throws IllegalArgumentException {
         return getIndex(mentor, mentors, "mentor");
     }
     
-    private int getIndex(Object object, List<?> list, String typeOfObject){
+    /**
+     * Returns the indices of mentees in this builder, to be used with 
+     * {@link #build(int[], int[])}.
+     * @param mentees to look for
+     * @return the index of each mentee, in the same order
+     * @throws IllegalArgumentException if a mentee is unknown
+     */
+    public int[] getMenteeIndices(List<Mentee> mentees) throws IllegalArgumentException {
+        return getIndices(mentees, this.mentees, "mentee");
+    }
+    
+    /**
+     * Returns the indices of mentors in this builder, to be used with 
+     * {@link #build(int[], int[])}.
+     * @param mentors to look for
+     * @return the index of each mentor, in the same order
+     * @throws IllegalArgumentException if a mentor is unknown
+     */
+    public int[] getMentorIndices(List<Mentor> mentors) throws IllegalArgumentException {
+        return getIndices(mentors, this.mentors, "mentor");
+    }
+    
+    private static int getIndex(Object object, IndexedList<?> list, String typeOfObject){
         int result = list.indexOf(object);
         if(result == -1){
             throw new IllegalArgumentException("Unknown %s %s".formatted(typeOfObject, object));
@@ -95,26 +208,168 @@ public final class MatchesBuilder<Mentee, Mentor> {
         return result;
     }
     
+    /**
+     * Adds mentees to the problem. Only the costs involving the new mentees are computed, the 
+     * existing costs and forbidden matches are kept. The new mentees have no specifically forbidden
+     * match: call {@link #withForbiddenMatches(mentoring.match.ForbiddenMatches)} again if needed.
+     * @param mentees to add, a mentee already known is added a second time
+     * @return the same builder instance
+     */
+    public MatchesBuilder<Mentee, Mentor> addMentees(List<Mentee> mentees){
+        costMatrixHandler.addMentees(mentees);
+        this.mentees.addAll(mentees);
+        return this;
+    }
+    
+    /**
+     * Adds mentors to the problem. Only the costs involving the new mentors are computed, the 
+     * existing costs and forbidden matches are kept. The new mentors have no specifically forbidden
+     * match: call {@link #withForbiddenMatches(mentoring.match.ForbiddenMatches)} again if needed.
+     * @param mentors to add, a mentor already known is added a second time
+     * @return the same builder instance
+     */
+    public MatchesBuilder<Mentee, Mentor> addMentors(List<Mentor> mentors){
+        costMatrixHandler.addMentors(mentors);
+        this.mentors.addAll(mentors);
+        return this;
+    }
+    
+    /**
+     * Removes mentees from the problem. The costs and forbidden matches of the remaining mentees 
+     * are kept.
+     * @param mentees to remove, a mentee known several times is removed once per occurrence in 
+     * this collection
+     * @return the same builder instance
+     * @throws IllegalArgumentException if a mentee is unknown, in which case no mentee is removed
+     */
+    public MatchesBuilder<Mentee, Mentor> removeMentees(Collection<Mentee> mentees) 
+            throws IllegalArgumentException {
+        BitSet indices = getIndicesToRemove(mentees, this.mentees, "mentee");
+        costMatrixHandler.removeMentees(indices);
+        this.mentees.removeAll(indices);
+        return this;
+    }
+    
+    /**
+     * Removes mentors from the problem. The costs and forbidden matches of the remaining mentors 
+     * are kept.
+     * @param mentors to remove, a mentor known several times is removed once per occurrence in 
+     * this collection
+     * @return the same builder instance
+     * @throws IllegalArgumentException if a mentor is unknown, in which case no mentor is removed
+     */
+    public MatchesBuilder<Mentee, Mentor> removeMentors(Collection<Mentor> mentors) 
+            throws IllegalArgumentException {
+        BitSet indices = getIndicesToRemove(mentors, this.mentors, "mentor");
+        costMatrixHandler.removeMentors(indices);
+        this.mentors.removeAll(indices);
+        return this;
+    }
+    
+    private static BitSet getIndicesToRemove(Collection<?> toRemove, IndexedList<?> list, 
+            String typeOfObject) throws IllegalArgumentException {
+        BitSet result = new BitSet(list.size());
+        for (Object object : toRemove){
+            int index = list.indexOfUnmarked(object, result);
+            if (index == -1){
+                throw new IllegalArgumentException("Unknown %s %s".formatted(typeOfObject, object));
+            }
+            result.set(index);
+        }
+        return result;
+    }
+    
+    /**
+     * Updates the problem so that its mentees and mentors are those given as input, adding and 
+     * removing only the persons that differ.
+     * @param mentees that the builder must know after the call
+     * @param mentors that the builder must know after the call
+     */
+    void updatePersons(List<Mentee> mentees, List<Mentor> mentors){
+        removeMentees(difference(this.mentees.asList(), mentees));
+        addMentees(difference(mentees, this.mentees.asList()));
+        removeMentors(difference(this.mentors.asList(), mentors));
+        addMentors(difference(mentors, this.mentors.asList()));
+    }
+    
+    /** Returns the elements of minuend missing from subtrahend, counting duplicates. */
+    private static <T> List<T> difference(List<T> minuend, List<T> subtrahend){
+        Map<T, Integer> remainingCounts = new HashMap<>();
+        for (T element : subtrahend){
+            remainingCounts.merge(element, 1, Integer::sum);
+        }
+        List<T> result = new ArrayList<>();
+        for (T element : minuend){
+            int count = remainingCounts.getOrDefault(element, 0);
+            if (count == 0){
+                result.add(element);
+            } else {
+                remainingCounts.put(element, count - 1);
+            }
+        }
+        return result;
+    }
+    
     /**
      * Sets the solver used to find the optimal assignment. If this method is not called before 
-     * {@link #build()}, a default solver is used.
+     * {@link #build()}, a default solver is used. The solver is called once per independent 
+     * part of the problem, concurrently if this builder was instantiated with a pool, and only 
+     * with {@code int[][]} cost matrices. 
+     * If mentor capacities are set, a new {@link MinCostFlowSolver} is used instead.
      * @param solver used to solve the assignment problem defined by the mentees, the mentors and 
-     * the different criteria
+     * the different criteria, it MUST be thread-safe if this builder was instantiated with a pool
      * @param unassignedValue value used by the solver to signal that a row or a column is not 
      * assigned in the optimal solution
      * @return the same builder instance
      */
     public MatchesBuilder<Mentee, Mentor> withSolver(Solver solver, Integer unassignedValue){
+        MatrixSolver matrixSolver = solver::solve;
+        return withSolver(matrixSolver, unassignedValue);
+    }
+    
+    /**
+     * Sets the solver used to find the optimal assignment, as 
+     * {@link #withSolver(assignmentproblem.Solver, java.lang.Integer)} does. A 
+     * {@link LapjvSolver} is warm-started with the result of the last solve involving the same 
+     * persons, so that solving again after a small change, such as a new forbidden match, is fast:
+     * it is not used by default, call this method with a LapjvSolver to benefit from it.
+     * If mentor capacities are set, the solver is only used if it is a {@link MinCostFlowSolver}: 
+     * otherwise, a new MinCostFlowSolver is used instead.
+     * @param solver used to solve the assignment problem defined by the mentees, the mentors and 
+     * the different criteria, it MUST be thread-safe if this builder was instantiated with a pool
+     * @param unassignedValue value used by the solver to signal that a row or a column is not 
+     * assigned in the optimal solution
+     * @return the same builder instance
+     */
+    public MatchesBuilder<Mentee, Mentor> withSolver(MatrixSolver solver, 
+            Integer unassignedValue){
         this.solver = solver;
         this.unassignedValue = unassignedValue;
         return this;
     }
     
+    /**
+     * Sets the number of mentees each mentor accepts. If this method is not called before 
+     * {@link #build()}, each mentor is assigned at most one mentee. If it is called, the problem 
+     * is solved with a {@link MinCostFlowSolver}: a mentor accepting several mentees is not 
+     * duplicated, the cost of its matches is computed once per mentee. The best assignments can 
+     * then no longer be enumerated with {@link #buildBest(int[], int[], int)}.
+     * @param mentorCapacity returning the maximal number of mentees of a mentor, evaluated on all 
+     * the mentors each time the problem is solved, or null to assign at most one mentee per mentor
+     * @return the same builder instance
+     */
+    public MatchesBuilder<Mentee, Mentor> withMentorCapacities(
+            ToIntFunction<Mentor> mentorCapacity){
+        this.mentorCapacity = mentorCapacity;
+        return this;
+    }
+    
     /**
      * Defines the default persons to assign to unassigned mentors and mentees. If this method is 
      * not called before {@link #build()}, unassigned mentors and mentees are not included in the 
      * resulting {@link Matches} instance. If it is called, unassigned mentors and mentees are 
-     * included in the instance, each assigned to their respective default counterpart.
+     * included in the instance, each assigned to their respective default counterpart. A mentor 
+     * is only assigned to the default mentee if it has no mentee.
      * @param defaultMentee to assign to unassigned mentors
      * @param defaultMentor to assign to unassigned mentees
      * @return the same builder instance
@@ -127,6 +382,19 @@ public final class MatchesBuilder<Mentee, Mentor> {
         return this;
     }
     
+    /**
+     * Records the score of each progressive criterion on each pair, so that the matches built 
+     * afterwards explain their cost with {@link Match#getCriterionScores()}. If this method is not
+     * called, the scores are only summed into the cost of each pair. The first call evaluates all 
+     * the progressive criteria again on all the pairs; the scores are then recorded while the 
+     * costs of new persons are computed. The scores are stored as shorts when they fit.
+     * @return the same builder instance
+     */
+    public MatchesBuilder<Mentee, Mentor> withCriterionScores(){
+        costMatrixHandler.recordCriterionScores();
+        return this;
+    }
+    
     /**
      * Solves the assignment problem instance and returns the result.
      * @return an optimal assignment between the mentees and the mentors.
@@ -136,10 +404,8 @@ public final class MatchesBuilder<Mentee, Mentor> {
             forbiddenMatches.applyFromLastState(costMatrixHandler, this::getMenteeIndex, 
                     this::getMentorIndex);
         }
-        Result rawResult = costMatrixHandler.solveCostMatrix(solver);
-        return formatResult(rawResult,
-                IntStream.range(0, mentees.size()).boxed().collect(Collectors.toList()),
-                IntStream.range(0, mentors.size()).boxed().collect(Collectors.toList()));
+        return solve(IntStream.range(0, mentees.size()).toArray(),
+                IntStream.range(0, mentors.size()).toArray(), true);
     }
     
     /**
@@ -152,62 +418,288 @@ public final class MatchesBuilder<Mentee, Mentor> {
      */
     public Matches<Mentee, Mentor> build(List<Mentee> mentees, List<Mentor> mentors) 
             throws IllegalArgumentException{
-        List<Integer> menteeIndices = getIndices(mentees, this.mentees, "mentee");
-        List<Integer> mentorIndices = getIndices(mentors, this.mentors, "mentor");
+        return build(getMenteeIndices(mentees), getMentorIndices(mentors));
+    }
+    
+    /**
+     * Solves the assignment problem instance and returns the result.
+     * @param menteeIndices indices of the subset of mentees on which to solve the problem, as 
+     *      returned by {@link #getMenteeIndices(java.util.List)}
+     * @param mentorIndices indices of the subset of mentors on which to solve the problem, as 
+     *      returned by {@link #getMentorIndices(java.util.List)}
+     * @return an optimal assignment between the input mentees and mentors.
+     * @throws IllegalArgumentException if an index does not correspond to a mentee or a mentor 
+     *      known by this MatchesBuilder.
+     */
+    public Matches<Mentee, Mentor> build(int[] menteeIndices, int[] mentorIndices) 
+            throws IllegalArgumentException{
+        checkIndices(menteeIndices, mentees, "mentee");
+        checkIndices(mentorIndices, mentors, "mentor");
+        if (forbiddenMatches != null){
+            forbiddenMatches.apply(costMatrixHandler, this::getMenteeIndex, this::getMentorIndex);
+        }
+        return solve(menteeIndices, mentorIndices, false);
+    }
+    
+    /**
+     * Solves the assignment problem instance within a time limit and returns the result. The 
+     * problem is solved as by {@link #build(int[], int[])}, unless the time limit is reached 
+     * first: the parts of the problem that were not solved yet are then solved approximately with
+     * a {@link GreedySolver}, starting from the pairs already found by the solver, so that the 
+     * result is always a valid assignment. The {@link LapjvSolver}, {@link AuctionSolver} and 
+     * {@link MinCostFlowSolver} stop as soon as the time limit is reached, the other solvers can 
+     * only be stopped before they start solving a part of the problem: the builders forged by a 
+     * {@link MatchesBuilderHandler} therefore use one of the former. If the calling thread is 
+     * interrupted, the solve stops in the same way but no assignment is returned. The interrupted
+     * status of the calling thread is left unchanged.
+     * @param menteeIndices indices of the subset of mentees on which to solve the problem, as 
+     *      returned by {@link #getMenteeIndices(java.util.List)}
+     * @param mentorIndices indices of the subset of mentors on which to solve the problem, as 
+     *      returned by {@link #getMentorIndices(java.util.List)}
+     * @param timeLimit after which the best assignment found so far is returned
+     * @return an optimal assignment between the input mentees and mentors if the time limit was 
+     *      not reached, an approximate one otherwise.
+     * @throws IllegalArgumentException if an index does not correspond to a mentee or a mentor 
+     *      known by this MatchesBuilder.
+     * @throws CancellationException if the calling thread is interrupted before the end of the 
+     *      solve.
+     */
+    public Matches<Mentee, Mentor> build(int[] menteeIndices, int[] mentorIndices, 
+            Duration timeLimit) throws IllegalArgumentException, CancellationException{
+        costMatrixHandler.setDeadline(Deadline.after(timeLimit));
+        try {
+            return build(menteeIndices, mentorIndices);
+        } finally {
+            costMatrixHandler.setDeadline(Deadline.NONE);
+        }
+    }
+    
+    /**
+     * Enumerates the best assignments of the problem, for example to know the alternatives to 
+     * the optimal matches if some of them fall through. The assignments are ranked by decreasing
+     * number of matches, then by increasing total cost: the first one is an optimal assignment, 
+     * as returned by {@link #build(int[], int[])}. They are enumerated with Murty's algorithm and
+     * a {@link LapjvSolver}, the solver set with 
+     * {@link #withSolver(assignmentproblem.Solver, java.lang.Integer)} is not used.
+     * @param menteeIndices indices of the subset of mentees on which to solve the problem, as 
+     *      returned by {@link #getMenteeIndices(java.util.List)}
+     * @param mentorIndices indices of the subset of mentors on which to solve the problem, as 
+     *      returned by {@link #getMentorIndices(java.util.List)}
+     * @param k maximal number of assignments to return
+     * @return the k best assignments between the input mentees and mentors, or all of them if 
+     *      there are fewer, from the best to the worst.
+     * @throws IllegalArgumentException if k is not positive, or if an index does not correspond 
+     *      to a mentee or a mentor known by this MatchesBuilder.
+     * @throws IllegalStateException if mentor capacities were set with 
+     *      {@link #withMentorCapacities(java.util.function.ToIntFunction)}: the enumeration only 
+     *      supports mentors accepting one mentee each. This is checked before any other argument.
+     */
+    public List<Matches<Mentee, Mentor>> buildBest(int[] menteeIndices, int[] mentorIndices, 
+            int k) throws IllegalArgumentException, IllegalStateException {
+        if (mentorCapacity != null){
+            throw new IllegalStateException(
+                    "Cannot enumerate the best assignments with mentor capacities");
+        }
+        if (k < 1){
+            throw new IllegalArgumentException("Cannot enumerate %s assignments".formatted(k));
+        }
+        checkIndices(menteeIndices, mentees, "mentee");
+        checkIndices(mentorIndices, mentors, "mentor");
+        if (forbiddenMatches != null){
+            forbiddenMatches.apply(costMatrixHandler, this::getMenteeIndex, this::getMentorIndex);
+        }
+        List<Matches<Mentee, Mentor>> result = new ArrayList<>(k);
+        for (int[] assignment : costMatrixHandler.solveBest(menteeIndices, mentorIndices, k)){
+            List<Integer> rowAssignments = 
+                    new ArrayList<>(Collections.nCopies(menteeIndices.length, unassignedValue));
+            List<Integer> columnAssignments = 
+                    new ArrayList<>(Collections.nCopies(mentorIndices.length, unassignedValue));
+            for (int i = 0; i < assignment.length; i++){
+                if (assignment[i] != -1){
+                    rowAssignments.set(i, assignment[i]);
+                    columnAssignments.set(assignment[i], i);
+                }
+            }
+            result.add(formatResult(rowAssignments, columnAssignments, menteeIndices, 
+                    mentorIndices));
+        }
+        return result;
+    }
+    
+    /**
+     * Quickly computes approximate matches with a {@link GreedySolver}, for example to preview 
+     * the result of {@link #build(int[], int[])} while it runs. The solver set with 
+     * {@link #withSolver(assignmentproblem.Solver, java.lang.Integer)} is not used.
+     * @param menteeIndices indices of the subset of mentees on which to solve the problem, as 
+     *      returned by {@link #getMenteeIndices(java.util.List)}
+     * @param mentorIndices indices of the subset of mentors on which to solve the problem, as 
+     *      returned by {@link #getMentorIndices(java.util.List)}
+     * @return approximate matches between the input mentees and mentors, with a lower bound of 
+     *      the cost of the optimal matches
+     * @throws IllegalArgumentException if an index does not correspond to a mentee or a mentor 
+     *      known by this MatchesBuilder.
+     */
+    public ApproximateMatches<Mentee, Mentor> buildPreview(int[] menteeIndices, 
+            int[] mentorIndices) throws IllegalArgumentException{
+        checkIndices(menteeIndices, mentees, "mentee");
+        checkIndices(mentorIndices, mentors, "mentor");
         if (forbiddenMatches != null){
             forbiddenMatches.apply(costMatrixHandler, this::getMenteeIndex, this::getMentorIndex);
         }
-        Result rawResult = costMatrixHandler.solvePartialCostMatrix(solver, menteeIndices, 
-                mentorIndices);
-        return formatResult(rawResult, menteeIndices, mentorIndices);
+        updateMentorCapacities();
+        List<Result> rawResults = new ArrayList<>();
+        Matches<Mentee, Mentor> matches = solve(menteeIndices, mentorIndices, false, 
+                new GreedySolver(unassignedValue), rawResults);
+        long cost = 0;
+        long lowerBound = 0;
+        for (Result rawResult : rawResults){
+            GreedySolver.ApproximateResult approximateResult = 
+                    (GreedySolver.ApproximateResult) rawResult;
+            cost += approximateResult.getCost();
+            lowerBound += approximateResult.getLowerBound();
+        }
+        return new ApproximateMatches<>(matches, cost, lowerBound);
+    }
+    
+    /*
+    The problem is split into the connected components of the graph of allowed matches. As no 
+    allowed match links two components, an optimal assignment of the whole problem is made of 
+    optimal assignments of each component, which are smaller and can be solved in parallel. When
+    several assignments are optimal, the one found may differ from the one found on the whole 
+    problem, but it has the same number of matches and the same total cost.
+    */
+    private Matches<Mentee, Mentor> solve(int[] menteeIndices, int[] mentorIndices, 
+            boolean wholeProblem){
+        MatrixSolver actualSolver = 
+                updateMentorCapacities() && !(solver instanceof MinCostFlowSolver)
+                ? new MinCostFlowSolver(unassignedValue) : solver;
+        return solve(menteeIndices, mentorIndices, wholeProblem, actualSolver, null);
     }
     
-    private <T> List<Integer> getIndices(List<T> sublist, List<T> superlist, String typeOfObject){
-        return sublist.stream().map(element -> getIndex(element, superlist, typeOfObject))
-                .collect(Collectors.toList());
+    /**
+     * Solves the problem with a solver.
+     * @param rawResults receiving the results of the solver, or null if they are not needed
+     */
+    private Matches<Mentee, Mentor> solve(int[] menteeIndices, int[] mentorIndices, 
+            boolean wholeProblem, MatrixSolver actualSolver, List<Result> rawResults){
+        List<CostMatrixHandler.Component> components = 
+                costMatrixHandler.findComponents(menteeIndices, mentorIndices);
+        if (components.size() == 1 && components.get(0).rows().length == menteeIndices.length
+                && components.get(0).columns().length == mentorIndices.length){
+            Result rawResult = wholeProblem ? costMatrixHandler.solveCostMatrix(actualSolver)
+                    : costMatrixHandler.solvePartialCostMatrix(actualSolver, menteeIndices, 
+                            mentorIndices);
+            if (rawResults != null){
+                rawResults.add(rawResult);
+            }
+            return formatResult(rawResult.getRowAssignments(), rawResult.getColumnAssignments(), 
+                    menteeIndices, mentorIndices);
+        }
+        Result[] componentResults = costMatrixHandler.solveComponents(actualSolver, 
+                menteeIndices, mentorIndices, components);
+        if (rawResults != null){
+            rawResults.addAll(Arrays.asList(componentResults));
+        }
+        List<Integer> rowAssignments = 
+                new ArrayList<>(Collections.nCopies(menteeIndices.length, unassignedValue));
+        List<Integer> columnAssignments = 
+                new ArrayList<>(Collections.nCopies(mentorIndices.length, unassignedValue));
+        for (int k = 0; k < componentResults.length; k++){
+            int[] rows = components.get(k).rows();
+            int[] columns = components.get(k).columns();
+            mergeAssignments(componentResults[k].getRowAssignments(), rows, columns, 
+                    rowAssignments);
+            mergeAssignments(componentResults[k].getColumnAssignments(), columns, rows, 
+                    columnAssignments);
+        }
+        return formatResult(rowAssignments, columnAssignments, menteeIndices, mentorIndices);
     }
     
-    private Matches<Mentee, Mentor> formatResult(Result rawResult, 
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
+    /**
+     * Gives the current mentor capacities to the handler.
+     * @return true if the mentors have capacities, false if each of them accepts one mentee
+     */
+    private boolean updateMentorCapacities(){
+        if (mentorCapacity == null){
+            costMatrixHandler.setMentorCapacities(null);
+            return false;
+        }
+        int[] capacities = new int[mentors.size()];
+        for (int j = 0; j < capacities.length; j++){
+            capacities[j] = mentorCapacity.applyAsInt(mentors.get(j));
+        }
+        costMatrixHandler.setMentorCapacities(capacities);
+        return true;
+    }
+    
+    private void mergeAssignments(List<Integer> componentAssignments, int[] positions, 
+            int[] counterpartPositions, List<Integer> assignments){
+        for (int i = 0; i < positions.length; i++){
+            Integer assigned = componentAssignments.get(i);
+            if (!Objects.equals(assigned, unassignedValue)){
+                assignments.set(positions[i], counterpartPositions[assigned]);
+            }
+        }
+    }
+    
+    private static int[] getIndices(List<?> sublist, IndexedList<?> superlist, 
+            String typeOfObject){
+        int[] result = new int[sublist.size()];
+        for (int i = 0; i < result.length; i++){
+            result[i] = getIndex(sublist.get(i), superlist, typeOfObject);
+        }
+        return result;
+    }
+    
+    private static void checkIndices(int[] indices, IndexedList<?> list, String typeOfObject){
+        for (int index : indices){
+            if (index < 0 || index >= list.size()){
+                throw new IllegalArgumentException("Unknown %s index %s"
+                        .formatted(typeOfObject, index));
+            }
+        }
+    }
+    
+    private Matches<Mentee, Mentor> formatResult(List<Integer> rowAssignments, 
+            List<Integer> colAssignments, int[] menteeIndices, int[] mentorIndices){
         if (this.hasPlaceholderPersons){
-            return formatMatchesWithPlaceholders(rawResult, menteeIndices, mentorIndices);
+            return formatMatchesWithPlaceholders(rowAssignments, colAssignments, 
+                    menteeIndices, mentorIndices);
         } else {
-            return filterAndFormatValidMatches(rawResult, menteeIndices, mentorIndices);
+            return filterAndFormatValidMatches(rowAssignments, menteeIndices, mentorIndices);
         }
     }
     
-    private Matches<Mentee, Mentor> formatMatchesWithPlaceholders(Result rawResult, 
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
-        List<Match<Mentee, Mentor>> matches = buildMenteeMatchesWithValidOrDefaultMentor(rawResult,
-                menteeIndices, mentorIndices);
-        matches.addAll(buildDefaultMatchesForUnassignedMentors(rawResult, 
+    private Matches<Mentee, Mentor> formatMatchesWithPlaceholders(List<Integer> rowAssignments, 
+            List<Integer> colAssignments, int[] menteeIndices, int[] mentorIndices){
+        List<Match<Mentee, Mentor>> matches = buildMenteeMatchesWithValidOrDefaultMentor(
+                rowAssignments, menteeIndices, mentorIndices);
+        matches.addAll(buildDefaultMatchesForUnassignedMentors(colAssignments, 
                 menteeIndices, mentorIndices));
         return new Matches<>(matches);
     }
     
-    private Matches<Mentee, Mentor> filterAndFormatValidMatches(Result rawResult, 
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
-        List<Integer> rowAssignments = rawResult.getRowAssignments();
+    private Matches<Mentee, Mentor> filterAndFormatValidMatches(List<Integer> rowAssignments, 
+            int[] menteeIndices, int[] mentorIndices){
         return new Matches<>(IntStream.range(0, rowAssignments.size())
             .filter(i -> isValidMatch(i,rowAssignments.get(i), menteeIndices, mentorIndices))
-            .mapToObj(i -> buildMatch(menteeIndices.get(i), 
-                    mentorIndices.get(rowAssignments.get(i))))
+            .mapToObj(i -> buildMatch(menteeIndices[i], 
+                    mentorIndices[rowAssignments.get(i)]))
             .collect(Collectors.toList())
         );
     }
     
     private boolean isValidMatch(Integer menteeIndex, Integer mentorIndex, 
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
+            int[] menteeIndices, int[] mentorIndices){
         return (menteeIndex != unassignedValue 
                 && mentorIndex != unassignedValue 
-                && costMatrixHandler.isMatchAllowed(menteeIndices.get(menteeIndex), 
-                        mentorIndices.get(mentorIndex)));
+                && costMatrixHandler.isMatchAllowed(menteeIndices[menteeIndex], 
+                        mentorIndices[mentorIndex]));
     }
     
     private List<Match<Mentee, Mentor>> 
-            buildMenteeMatchesWithValidOrDefaultMentor(Result rawResult, 
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
-        List<Integer> rowAssignments = rawResult.getRowAssignments();
+            buildMenteeMatchesWithValidOrDefaultMentor(List<Integer> rowAssignments, 
+            int[] menteeIndices, int[] mentorIndices){
         List<Match<Mentee, Mentor>> result = new ArrayList<>(rowAssignments.size());
         for (int i = 0; i < rowAssignments.size(); i++){
             result.add(buildMatchWithValidOrDefaultMentor(i, rowAssignments.get(i),
@@ -216,31 +708,35 @@ public final class MatchesBuilder<Mentee, Mentor> {
         return result;
     }
     
-    private List<Match<Mentee,Mentor>> buildDefaultMatchesForUnassignedMentors(Result rawResult,
-            List<Integer> menteeIndices, List<Integer> mentorIndices){
-        List<Integer> colAssignments = rawResult.getColumnAssignments();
+    private List<Match<Mentee,Mentor>> buildDefaultMatchesForUnassignedMentors(
+            List<Integer> colAssignments, int[] menteeIndices, int[] mentorIndices){
         List<Match<Mentee,Mentor>> result = new ArrayList<>();
         for (int j = 0; j < colAssignments.size(); j++){
             if (!isValidMatch(colAssignments.get(j),j, menteeIndices, mentorIndices)){
-                result.add(buildDefaultMentorMatch(mentorIndices.get(j)));
+                result.add(buildDefaultMentorMatch(mentorIndices[j]));
             }
         }
         return result;
     }
     
     private Match<Mentee, Mentor> buildMatchWithValidOrDefaultMentor(int menteeIndex, 
-            Integer mentorIndex, List<Integer> menteeIndices, List<Integer> mentorIndices){
+            Integer mentorIndex, int[] menteeIndices, int[] mentorIndices){
         if (isValidMatch(menteeIndex, mentorIndex, menteeIndices, mentorIndices)){
-            return buildMatch(menteeIndices.get(menteeIndex), mentorIndices.get(mentorIndex));
+            return buildMatch(menteeIndices[menteeIndex], mentorIndices[mentorIndex]);
         } else {
-            return buildDefaultMenteeMatch(menteeIndices.get(menteeIndex));
+            return buildDefaultMenteeMatch(menteeIndices[menteeIndex]);
         }
     }
     
     private Match<Mentee, Mentor> buildMatch(int menteeIndex, int mentorIndex){
-        return buildMatch(mentees.get(menteeIndex),
-                mentors.get(mentorIndex),
-                costMatrixHandler.getMatchScore(menteeIndex, mentorIndex));
+        return new Match<>(mentees.get(menteeIndex), mentors.get(mentorIndex),
+                costMatrixHandler.getMatchScore(menteeIndex, mentorIndex),
+                getCriterionScores(menteeIndex, mentorIndex));
+    }
+    
+    private List<Integer> getCriterionScores(int menteeIndex, int mentorIndex){
+        int[] scores = costMatrixHandler.getCriterionScores(menteeIndex, mentorIndex);
+        return scores == null ? List.of() : Arrays.stream(scores).boxed().toList();
     }
     
     private Match<Mentee, Mentor> buildDefaultMenteeMatch(int menteeIndex){
@@ -276,9 +772,11 @@ public final class MatchesBuilder<Mentee, Mentor> {
         } else if (mentorIndex == -1) {
             throw new IllegalArgumentException("Mentor %s are invalid".formatted(mentor));
         }
-        int cost = costMatrixHandler.isMatchAllowed(menteeIndex, mentorIndex) 
-                ? costMatrixHandler.getMatchScore(menteeIndex, mentorIndex)
-                : PROHIBITIVE_VALUE;
-        return new Match<>(mentee, mentor, cost);
+        if (!costMatrixHandler.isMatchAllowed(menteeIndex, mentorIndex)){
+            return new Match<>(mentee, mentor, PROHIBITIVE_VALUE);
+        }
+        return new Match<>(mentee, mentor, 
+                costMatrixHandler.getMatchScore(menteeIndex, mentorIndex),
+                getCriterionScores(menteeIndex, mentorIndex));
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package mentoring.match;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 //TODO refactor: here, mentoring.match relies on mentoring.configuration and vice-versa.
 import mentoring.configuration.CriteriaConfiguration;
@@ -13,6 +15,10 @@ import mentoring.configuration.CriteriaConfiguration;
  * The handler does not actually run the {@link Future} objects it receives, it only waits for their
  * result.
  * 
+ * <p>Unless mentor capacities are set, the builders forged use a {@link LapjvSolver}, 
+ * warm-started with the last solve involving the same persons: solving again after a match was 
+ * forbidden only searches the few assignments that changed.
+ * 
  * <p>MatchesBuilderHandler is thread-safe: it uses internal synchronisation to make sure that
  * the MatchesBuilder instance returned is consistent with the previous setter calls.
  * @param <Mentee> class representing an individual mentee
@@ -21,17 +27,48 @@ import mentoring.configuration.CriteriaConfiguration;
 public class MatchesBuilderHandler<Mentee, Mentor> {
     private final SupplierList suppliers = new SupplierList();
     private MatchesBuilder<Mentee, Mentor> lastBuilder;
+    private ParametersList lastParameters;
+    /** Held while forging or updating a builder, so that setters are never blocked meanwhile. */
+    private final Object builderLock = new Object();
+    private final ForkJoinPool pool;
+    private final LapjvSolver solver;
+    /**
+     * Instantiates a MatchesBuilderHandler instance evaluating the criteria in the calling thread.
+     */
+    public MatchesBuilderHandler(){
+        this(null);
+    }
+    
     /**
      * Instantiates a MatchesBuilderHandler instance.
+     * @param pool used to evaluate the criteria in parallel, or null to evaluate them in the 
+     * thread calling {@link #get()}. The criteria supplied MUST be thread-safe if pool is not null.
      */
-    public MatchesBuilderHandler(){}
+    public MatchesBuilderHandler(ForkJoinPool pool){
+        this(pool, new LapjvSolver(null));
+    }
+    
+    /**
+     * Instantiates a MatchesBuilderHandler instance whose builders use a given solver.
+     * @param pool used to evaluate the criteria in parallel, as in 
+     * {@link #MatchesBuilderHandler(java.util.concurrent.ForkJoinPool)}
+     * @param solver used by the builders when no mentor capacities are set
+     */
+    MatchesBuilderHandler(ForkJoinPool pool, LapjvSolver solver){
+        this.pool = pool;
+        this.solver = Objects.requireNonNull(solver);
+    }
     
     public ForbiddenMatches<Mentee, Mentor> getForbiddenMatches(){
         return suppliers.forbiddenMatches;
     }
     
     /**
-     * Forges a MatchesBuilder if necessary and returns it.
+     * Forges a MatchesBuilder if necessary and returns it. When only the mentees, the mentors, the 
+     * forbidden matches or the placeholders have changed since the last call, a copy of the last 
+     * builder is updated instead of a new one being forged: only the costs involving new persons 
+     * are computed. A builder returned by this method is never modified afterwards, so that the 
+     * indices it returned stay valid.
      * @return a MatchesBuilder consistent with the latest calls to this instance's setters.
      * @throws IllegalStateException if some mandatory setters have not been called before calling
      * this method.
@@ -47,13 +84,18 @@ public class MatchesBuilderHandler<Mentee, Mentor> {
         }
         SupplierList synchronizedSuppliers = suppliers.atomicCopy();
         MatchesBuilder<Mentee, Mentor> builder;
+        ParametersList parameters;
         try {
-            ParametersList parameters = new ParametersList(synchronizedSuppliers);
-            builder = new MatchesBuilder<>(
-                    parameters.mentees, parameters.mentors,
-                    parameters.criteria.getProgressiveCriteria());
-            if (parameters.criteria.getNecessaryCriteria() != null){
-                builder.withNecessaryCriteria(parameters.criteria.getNecessaryCriteria());
+            parameters = new ParametersList(synchronizedSuppliers);
+        } catch (InterruptedException ex) {
+            throw new InterruptedException();
+        }
+        synchronized(builderLock){
+            if (canUpdateLastBuilder(parameters)){
+                builder = lastBuilder.copy();
+                builder.updatePersons(parameters.mentees, parameters.mentors);
+            } else {
+                builder = forgeBuilder(parameters);
             }
             if (parameters.placeholderMentee != null 
                     && parameters.placeholderMentor != null){
@@ -61,11 +103,30 @@ public class MatchesBuilderHandler<Mentee, Mentor> {
                         parameters.placeholderMentor);
             }
             builder.withForbiddenMatches(parameters.forbiddenMatches);
-        } catch (InterruptedException ex) {
-            throw new InterruptedException();
+            lastParameters = parameters;
+            synchronized(this){
+                lastBuilder = builder;
+            }
         }
-        synchronized(this){
-            lastBuilder = builder;
+        return builder;
+    }
+    
+    private boolean canUpdateLastBuilder(ParametersList parameters){
+        return lastBuilder != null
+                && lastParameters.criteria == parameters.criteria
+                && (parameters.placeholderMentee != null 
+                        || lastParameters.placeholderMentee == null);
+    }
+    
+    private MatchesBuilder<Mentee, Mentor> forgeBuilder(ParametersList parameters){
+        Collection<NecessaryCriterion<Mentee, Mentor>> necessaryCriteria = 
+                parameters.criteria.getNecessaryCriteria();
+        MatchesBuilder<Mentee, Mentor> builder = new MatchesBuilder<>(parameters.mentees, 
+                parameters.mentors, parameters.criteria.getProgressiveCriteria(),
+                necessaryCriteria == null ? List.of() : necessaryCriteria, pool)
+                .withMentorCapacities(parameters.criteria.getMentorCapacity());
+        if (parameters.criteria.getMentorCapacity() == null){
+            builder.withSolver(solver, null);
         }
         return builder;
     }
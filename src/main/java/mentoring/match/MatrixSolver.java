@@ -0,0 +1,22 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+
+/**
+ * Solver of assignment problems given as {@code int[][]} cost matrices, the form in which the
+ * {@link MatchesBuilder} hands its problems to a solver. Unlike an
+ * {@link assignmentproblem.Solver}, it is not required to solve an
+ * {@link assignmentproblem.CostMatrix}.
+ */
+@FunctionalInterface
+public interface MatrixSolver {
+    /**
+     * Solves an assignment problem.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those
+     * @throws IllegalArgumentException if the matrix cannot be solved by this solver
+     */
+    Result solve(int[][] costMatrix) throws IllegalArgumentException;
+}
@@ -0,0 +1,356 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Solver assigning each row to at most one column, each column accepting up to its capacity of
+ * rows. The cells of the cost matrix equal to {@link MatchesBuilder#PROHIBITIVE_VALUE} are never
+ * assigned. The solver first maximises the number of assigned rows, then minimises the total cost
+ * of the assignment, which is what the {@link MatchesBuilder} expects from a solver.
+ *
+ * <p>The problem is solved as a min-cost flow with successive shortest paths: the capacities are
+ * handled natively, a column accepting several rows is not duplicated in the cost matrix.
+ *
+ * <p>MinCostFlowSolver is thread-safe.
+ */
+public final class MinCostFlowSolver implements MatrixSolver {
+    private final Integer unassignedValue;
+    
+    /**
+     * Builds a solver.
+     * @param unassignedValue value used in the result to signal that a row or a column is not
+     * assigned
+     */
+    public MinCostFlowSolver(Integer unassignedValue){
+        this.unassignedValue = unassignedValue;
+    }
+    
+    /**
+     * Solves an assignment problem in which each column accepts at most one row.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those
+     * @throws IllegalArgumentException if the matrix is not rectangular or if its costs are too
+     * large for the solver to run without overflow
+     */
+    @Override
+    public Result solve(int[][] costMatrix) throws IllegalArgumentException {
+        int[] capacities = new int[costMatrix.length == 0 ? 0 : costMatrix[0].length];
+        Arrays.fill(capacities, 1);
+        return solve(costMatrix, capacities);
+    }
+    
+    /**
+     * Solves an assignment problem in which each column accepts several rows.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param capacities maximal number of rows assigned to each column
+     * @return an assignment maximising the number of assigned rows, with a minimal total cost
+     * among those. The row assignments give the column of each row, the column assignments give
+     * one of the rows assigned to each column.
+     * @throws IllegalArgumentException if the matrix is not rectangular, if its costs are too
+     * large for the solver to run without overflow, or if the capacities do not match its columns
+     * or are negative
+     */
+    public Result solve(int[][] costMatrix, int[] capacities) throws IllegalArgumentException {
+        return solve(costMatrix, capacities, Deadline.NONE);
+    }
+    
+    /**
+     * Solves an assignment problem in which each column accepts several rows, unless a deadline
+     * is reached first.
+     * @param costMatrix where cell [i][j] is the cost of assigning row i to column j, or
+     * {@link MatchesBuilder#PROHIBITIVE_VALUE} if row i cannot be assigned to column j
+     * @param capacities maximal number of rows assigned to each column
+     * @param deadline checked before each augmenting path search
+     * @return the same result as {@link #solve(int[][], int[])}
+     * @throws IllegalArgumentException if the input is invalid, as in
+     * {@link #solve(int[][], int[])}
+     * @throws CancellationException if the deadline is reached before the end of the solve, as a
+     * {@link StoppedSolveException} with the assignment found so far
+     */
+    Result solve(int[][] costMatrix, int[] capacities, Deadline deadline)
+            throws IllegalArgumentException, CancellationException {
+        FlowProblem problem = new FlowProblem(costMatrix, capacities);
+        problem.run(deadline);
+        List<Integer> rows = new ArrayList<>(Collections.nCopies(problem.nRows, unassignedValue));
+        List<Integer> columns =
+                new ArrayList<>(Collections.nCopies(problem.nColumns, unassignedValue));
+        for (int i = 0; i < problem.nRows; i++){
+            int j = problem.columnOfRow[i];
+            if (j < problem.nColumns){
+                rows.set(i, j);
+                columns.set(j, i);
+            }
+        }
+        return new CapacitatedResult(rows, columns);
+    }
+    
+    /**
+     * Flow problem built from the n x m input: each row sends one unit of flow either to a column
+     * it is allowed with, or to a dummy column of unbounded capacity. The allowed costs are
+     * shifted so that the cheapest one is 0, and the dummy column costs more than any difference
+     * of total cost between two assignments, so that the number of assigned rows is maximised
+     * first.
+     *
+     * <p>The column duals v are never positive, and are 0 on the columns that are not full. The
+     * implicit dual of an assigned row is cost(i, j) - v[j] on its column j, which is minimal
+     * among all its columns: the assignment is therefore optimal once all rows are assigned.
+     */
+    private static class FlowProblem {
+        private final int[][] costs;
+        private final int[] capacities;
+        private final int nRows;
+        private final int nColumns;
+        /** Index of the dummy column. */
+        private final int dummyColumn;
+        private final long minCost;
+        /** Cost of the dummy column, after the shift of the allowed costs. */
+        private final long dummyCost;
+        private final long[] v;
+        /** Number of rows assigned to each real column. */
+        private final int[] loads;
+        /** Column assigned to each row, the dummy column included, -1 if none. */
+        private final int[] columnOfRow;
+        /** First row of the list of rows assigned to each real column, -1 if none. */
+        private final int[] firstRows;
+        private final int[] nextRows;
+        private final int[] previousRows;
+    
+        FlowProblem(int[][] costMatrix, int[] capacities) throws IllegalArgumentException {
+            costs = costMatrix;
+            this.capacities = capacities;
+            nRows = costMatrix.length;
+            nColumns = nRows == 0 ? capacities.length : costMatrix[0].length;
+            if (capacities.length != nColumns){
+                throw new IllegalArgumentException("Expected %s capacities, got %s"
+                        .formatted(nColumns, capacities.length));
+            }
+            long totalCapacity = 0;
+            for (int j = 0; j < nColumns; j++){
+                if (capacities[j] < 0){
+                    throw new IllegalArgumentException("Capacity of column %s is %s, below 0"
+                            .formatted(j, capacities[j]));
+                }
+                totalCapacity += capacities[j];
+            }
+            dummyColumn = nColumns;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < nRows; i++){
+                if (costMatrix[i].length != nColumns){
+                    throw new IllegalArgumentException("Row %s has %s columns instead of %s"
+                            .formatted(i, costMatrix[i].length, nColumns));
+                }
+                for (int cost : costMatrix[i]){
+                    if (cost != MatchesBuilder.PROHIBITIVE_VALUE){
+                        min = Math.min(min, cost);
+                        max = Math.max(max, cost);
+                    }
+                }
+            }
+            minCost = min == Long.MAX_VALUE ? 0 : min;
+            long costRange = min == Long.MAX_VALUE ? 0 : max - min;
+            try {
+                dummyCost = Math.addExact(
+                        Math.multiplyExact(costRange, Math.min(nRows, totalCapacity)), 1);
+                //Each augmentation lowers the duals by at most the dummy cost
+                Math.multiplyExact(Math.multiplyExact(dummyCost, nRows + 1L), 4);
+            } catch (ArithmeticException e){
+                throw new IllegalArgumentException("Costs range from %s to %s: too large"
+                        .formatted(min, max), e);
+            }
+            v = new long[nColumns + 1];
+            loads = new int[nColumns];
+            columnOfRow = new int[nRows];
+            firstRows = new int[nColumns];
+            nextRows = new int[nRows];
+            previousRows = new int[nRows];
+        }
+    
+        /** Returns the shifted cost of a cell, or -1 if it is forbidden. */
+        private long cost(int i, int j){
+            if (j == dummyColumn){
+                return dummyCost;
+            }
+            int cost = costs[i][j];
+            return cost == MatchesBuilder.PROHIBITIVE_VALUE ? -1 : cost - minCost;
+        }
+    
+        private boolean isFull(int j){
+            return j != dummyColumn && loads[j] >= capacities[j];
+        }
+    
+        void run(Deadline deadline){
+            Arrays.fill(columnOfRow, -1);
+            Arrays.fill(firstRows, -1);
+            assignCheapestColumns();
+            Augmenter augmenter = new Augmenter();
+            try {
+                for (int i = 0; i < nRows; i++){
+                    if (columnOfRow[i] == -1){
+                        deadline.check();
+                        augmenter.augment(i);
+                    }
+                }
+            } catch (CancellationException e){
+                throw new StoppedSolveException(e, costs, columnOfRow);
+            }
+        }
+    
+        /** Assigns each row to its cheapest column if that column is not full yet. */
+        private void assignCheapestColumns(){
+            for (int i = 0; i < nRows; i++){
+                long min = dummyCost;
+                int cheapest = dummyColumn;
+                for (int j = 0; j < nColumns; j++){
+                    long cost = cost(i, j);
+                    if (cost != -1 && cost < min){
+                        min = cost;
+                        cheapest = j;
+                    }
+                }
+                if (!isFull(cheapest)){
+                    assign(i, cheapest);
+                }
+            }
+        }
+    
+        private void assign(int row, int column){
+            columnOfRow[row] = column;
+            if (column != dummyColumn){
+                loads[column]++;
+                nextRows[row] = firstRows[column];
+                previousRows[row] = -1;
+                if (firstRows[column] != -1){
+                    previousRows[firstRows[column]] = row;
+                }
+                firstRows[column] = row;
+            }
+        }
+    
+        private void unassign(int row){
+            int column = columnOfRow[row];
+            columnOfRow[row] = -1;
+            if (column != dummyColumn){
+                loads[column]--;
+                if (previousRows[row] == -1){
+                    firstRows[column] = nextRows[row];
+                } else {
+                    nextRows[previousRows[row]] = nextRows[row];
+                }
+                if (nextRows[row] != -1){
+                    previousRows[nextRows[row]] = previousRows[row];
+                }
+            }
+        }
+    
+        /**
+         * Searches shortest augmenting paths with Dijkstra's algorithm on the reduced costs. A path
+         * goes from the free row to a column that is not full, through full columns: from a full
+         * column, the path can continue with any of the rows assigned to it.
+         */
+        private class Augmenter {
+            private final int size = nColumns + 1;
+            /** Length of the shortest alternating path from the free row to each column. */
+            private final long[] distances = new long[size];
+            /** Row preceding each column on its shortest alternating path. */
+            private final int[] predecessors = new int[size];
+            /** Columns whose distance is not final yet. */
+            private final int[] remaining = new int[size];
+            private final int[] scannedColumns = new int[size];
+            private int nRemaining;
+    
+            void augment(int freeRow){
+                Arrays.fill(distances, Long.MAX_VALUE);
+                for (int k = 0; k < size; k++){
+                    remaining[k] = k;
+                }
+                nRemaining = size;
+                int nScannedColumns = 0;
+                relax(freeRow, 0);
+                long minDistance;
+                int sink;
+                while (true){
+                    int closest = -1;
+                    long lowest = Long.MAX_VALUE;
+                    for (int k = 0; k < nRemaining; k++){
+                        int j = remaining[k];
+                        if (distances[j] < lowest || (distances[j] == lowest && !isFull(j))){
+                            lowest = distances[j];
+                            closest = k;
+                        }
+                    }
+                    minDistance = lowest;
+                    int column = remaining[closest];
+                    remaining[closest] = remaining[--nRemaining];
+                    if (!isFull(column)){
+                        sink = column;
+                        break;
+                    }
+                    scannedColumns[nScannedColumns++] = column;
+                    for (int i = firstRows[column]; i != -1; i = nextRows[i]){
+                        relax(i, minDistance - (cost(i, column) - v[column]));
+                    }
+                }
+                for (int k = 0; k < nScannedColumns; k++){
+                    int j = scannedColumns[k];
+                    v[j] -= minDistance - distances[j];
+                }
+                int column = sink;
+                int i;
+                do {
+                    i = predecessors[column];
+                    int previousColumn = columnOfRow[i];
+                    if (previousColumn != -1){
+                        unassign(i);
+                    }
+                    assign(i, column);
+                    column = previousColumn;
+                } while (i != freeRow);
+            }
+    
+            /** Updates the distances of the remaining columns through a row. */
+            private void relax(int row, long offset){
+                for (int k = 0; k < nRemaining; k++){
+                    int j = remaining[k];
+                    long cost = cost(row, j);
+                    if (cost != -1){
+                        long distance = offset + cost - v[j];
+                        if (distance < distances[j]){
+                            distances[j] = distance;
+                            predecessors[j] = row;
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private static class CapacitatedResult extends Result {
+        private final List<Integer> rows;
+        private final List<Integer> columns;
+    
+        CapacitatedResult(List<Integer> rows, List<Integer> columns){
+            super(null);
+            this.rows = Collections.unmodifiableList(rows);
+            this.columns = Collections.unmodifiableList(columns);
+        }
+    
+        @Override
+        public List<Integer> getRowAssignments(){
+            return rows;
+        }
+    
+        @Override
+        public List<Integer> getColumnAssignments(){
+            return columns;
+        }
+    }
+}
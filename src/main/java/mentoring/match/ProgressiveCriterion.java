@@ -1,5 +1,7 @@
 package mentoring.match;
 
+import java.util.List;
+import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntBiFunction;
 /**
  * The general contract that a progressive criterion must follow.
@@ -15,4 +17,18 @@ import java.util.function.ToIntBiFunction;
  * @param <Mentor> class representing an individual mentor
  */
 public interface ProgressiveCriterion<Mentee, Mentor> extends ToIntBiFunction<Mentee, Mentor> {
-}
\ No newline at end of file
+    
+    /**
+     * Prepares the evaluation of this criterion on all the pairs of a block of mentees and 
+     * mentors. The default implementation evaluates the criterion on each pair: a criterion can 
+     * instead extract what it needs from each person once, as a {@link FeatureCriterion} does.
+     * @param mentees the mentees of the block
+     * @param mentors the mentors of the block
+     * @return a function such that {@code function.applyAsInt(i, j)} is 
+     *      {@code applyAsInt(mentees.get(i), mentors.get(j))}, thread-safe if this criterion is
+     */
+    default IntBinaryOperator prepare(List<? extends Mentee> mentees, 
+            List<? extends Mentor> mentors){
+        return (i, j) -> applyAsInt(mentees.get(i), mentors.get(j));
+    }
+}
@@ -0,0 +1,40 @@
+package mentoring.match;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exception thrown when a {@link Deadline} stops a solver, with the assignment that the solver had
+ * found so far, from which a {@link GreedySolver} can finish the solve approximately.
+ */
+final class StoppedSolveException extends CancellationException {
+    private static final long serialVersionUID = 1L;
+    /** Column assigned to each row when the solver stopped, -1 if none. */
+    private final transient int[] partialAssignment;
+    
+    /**
+     * Builds an exception from the current assignment of a solver, of which only the allowed
+     * pairs are kept.
+     * @param cause exception thrown by the deadline
+     * @param costMatrix solved by the solver
+     * @param columnOfRow column assigned to each row by the solver, -1 if none, which may also
+     * cover the dummy rows and columns added by the solver
+     */
+    StoppedSolveException(CancellationException cause, int[][] costMatrix, int[] columnOfRow){
+        super(cause.getMessage());
+        initCause(cause);
+        partialAssignment = new int[costMatrix.length];
+        for (int i = 0; i < costMatrix.length; i++){
+            int j = columnOfRow[i];
+            partialAssignment[i] = j >= 0 && j < costMatrix[i].length
+                    && costMatrix[i][j] != MatchesBuilder.PROHIBITIVE_VALUE ? j : -1;
+        }
+    }
+    
+    /**
+     * Returns the assignment found by the solver before it stopped.
+     * @return the column assigned to each row, -1 if none, every assigned pair being allowed
+     */
+    int[] getPartialAssignment(){
+        return partialAssignment;
+    }
+}
@@ -10,8 +10,11 @@ import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
@@ -20,6 +23,7 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableBooleanValue;
 import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import mentoring.concurrency.ConcurrencyHandler;
 import mentoring.configuration.Configuration;
 import mentoring.configuration.CriteriaConfiguration;
@@ -30,14 +34,17 @@ import mentoring.configuration.PojoResultConfiguration;
 import mentoring.configuration.ResultConfiguration;
 import mentoring.datastructure.Person;
 import mentoring.datastructure.PersonBuilder;
+import mentoring.datastructure.PersonTable;
 import mentoring.io.PersonConfigurationParser;
 import mentoring.io.PersonFileParser;
+import mentoring.io.PersonSnapshotCache;
 import mentoring.io.ResultConfigurationParser;
 import mentoring.io.datareader.YamlReader;
 import mentoring.match.MatchesBuilderHandler;
 import mentoring.viewmodel.base.BoundableConfigurationPickerViewModel;
 import mentoring.viewmodel.base.ConfigurationPickerViewModel;
 import mentoring.viewmodel.base.FilePickerViewModel;
+import mentoring.viewmodel.base.Parameters;
 import mentoring.viewmodel.datastructure.PersonListViewModel;
 import mentoring.viewmodel.datastructure.PersonMatchViewModel;
 import mentoring.viewmodel.datastructure.PersonMatchesViewModel;
@@ -71,6 +78,9 @@ public class MainViewModel {
             new EnumMap<>(PersonType.class);
     private final ForbiddenMatchListViewModel extraForbiddenMatches = 
             new ForbiddenMatchListViewModel();
+    private final PersonSnapshotCache personSnapshots = new PersonSnapshotCache(
+            Parameters.getDefaultDirectory().toPath().resolve(".mentoring").resolve("snapshots"),
+            PersonTable.Equality.VALUE);
     
     private final static List<Pair<String, List<String>>> YAML_EXTENSIONS = List.of(
                 Pair.of("YAML files", List.of("*.yaml")),
@@ -207,7 +217,7 @@ public class MainViewModel {
             AbstractTask.TaskCompletionCallback<? super List<Person>> callback){
         //TODO add to callback to signal that person type has been loaded
         Task<List<Person>> result = new PersonGetterTask(resultVM, personPickers.get(type), 
-                        personConfigurations.get(type), callback);
+                        personConfigurations.get(type), personSnapshots, callback);
         taskHandler.submit(result);
         switch(type){
             case MENTEE -> matchesBuilderHandler.setMenteesSupplier(result);
@@ -217,14 +227,18 @@ public class MainViewModel {
     }
     
     /**
-     * Run the application: get the relevant data, and make matches.
+     * Run the application: get the relevant data, and make matches. Approximate matches are 
+     * computed first and shown as a preview, then replaced by the optimal matches computed in the
+     * background. The callback is called when the optimal matches are available, or when one of 
+     * the two computations fails.
      * @param menteeVM the ViewModel containing the mentees
      * @param mentorVM the ViewModel containing the mentors
      * @param resultVM the ViewModel to update with the results
      * @param excludedMatchesVM the optional ViewModel containing matches that should be excluded
      *      from the match-making process
      * @param callback the method to call when the task has run
-     * @return a Future object that can be used to control the execution and completion of the task.
+     * @return a Future object that can be used to control the execution and completion of the 
+     *      task computing the optimal matches, cancelling it also cancels the preview task.
      */
     public Future<?> makeMatches(PersonListViewModel menteeVM, PersonListViewModel mentorVM,
             PersonMatchesViewModel resultVM, PersonMatchesViewModel excludedMatchesVM,
@@ -234,9 +248,19 @@ public class MainViewModel {
                 matchConfiguration.getConfiguration());
         taskHandler.submit(configuration);
         matchesBuilderHandler.setCriteriaSupplier(configuration);
-        return taskHandler.submit(new MultipleMatchTask(resultVM, excludedMatchesVM, 
-                matchesBuilderHandler,
-                menteeVM, mentorVM, callback));
+        MultipleMatchTask exactTask = new MultipleMatchTask(resultVM, excludedMatchesVM, 
+                matchesBuilderHandler, menteeVM, mentorVM, false, callback);
+        Future<?> preview = taskHandler.submit(new MultipleMatchTask(resultVM, excludedMatchesVM,
+                matchesBuilderHandler, menteeVM, mentorVM, true, previewTask -> {
+                    if (previewTask.getState() == Worker.State.SUCCEEDED){
+                        //A cancelled task does nothing when it runs
+                        taskHandler.submit(exactTask);
+                    } else {
+                        exactTask.cancel(false);
+                        callback.accept(previewTask);
+                    }
+                }));
+        return new ChainedFuture(preview, exactTask);
     }
     
     /**
@@ -409,6 +433,7 @@ public class MainViewModel {
                 PojoCriteriaConfiguration.CRITERIA_CONFIGURATION;
         List<CriteriaConfiguration<Person, Person>> values = 
                 List.of(PojoCriteriaConfiguration.CRITERIA_CONFIGURATION, 
+                        PojoCriteriaConfiguration.CRITERIA_CONFIGURATION_WITH_CAPACITIES,
                         PojoCriteriaConfiguration.CRITERIA_CONFIGURATION_2024_DATA);
         IOFunction<CriteriaConfiguration<Person, Person>> parser = file -> {
             throw new UnsupportedOperationException("not implemented yet");
@@ -425,10 +450,11 @@ public class MainViewModel {
     }
             
     private FilePickerViewModel<List<Person>> forgePersonListPickerViewModel(PersonType type){
-        IOFunction<List<Person>> parser = reader -> 
+        //Reads the file in memory rather than going through a reader, see PersonFileParser
+        FileParser<List<Person>> parser = file -> 
                 new PersonFileParser(personConfigurations.get(type).getConfiguration())
-                        .parse(reader);
-        return forgeFilePickerViewModel(parser, CSV_EXTENSIONS);
+                        .parse(file.toPath());
+        return new FilePickerViewModel<>("", parser, CSV_EXTENSIONS);
     }
     
     private <T> FilePickerViewModel<T> forgeFilePickerViewModel(IOFunction<T> parser, 
@@ -442,6 +468,47 @@ public class MainViewModel {
         return new FilePickerViewModel<>(defaultPath, actualParser, extensions);
     }
     
+    /**
+     * Future of a task submitted once a first task succeeds, and cancelled if it fails. Cancelling
+     * this object cancels both tasks, its other methods reflect the second task.
+     */
+    private static class ChainedFuture implements Future<Object> {
+        private final Future<?> first;
+        private final Future<?> second;
+        
+        ChainedFuture(Future<?> first, Future<?> second){
+            this.first = first;
+            this.second = second;
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning){
+            boolean firstCancelled = first.cancel(mayInterruptIfRunning);
+            return second.cancel(mayInterruptIfRunning) || firstCancelled;
+        }
+        
+        @Override
+        public boolean isCancelled(){
+            return second.isCancelled();
+        }
+        
+        @Override
+        public boolean isDone(){
+            return second.isDone();
+        }
+        
+        @Override
+        public Object get() throws InterruptedException, ExecutionException{
+            return second.get();
+        }
+        
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, 
+                ExecutionException, TimeoutException{
+            return second.get(timeout, unit);
+        }
+    }
+    
     @FunctionalInterface
     private static interface IOFunction<T> {
         public T apply(FileReader reader) throws IOException;
@@ -1,5 +1,7 @@
 package mentoring.viewmodel.tasks;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -7,6 +9,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import mentoring.datastructure.Person;
 import mentoring.datastructure.PersonBuilder;
+import mentoring.match.ApproximateMatches;
 import mentoring.match.Match;
 import mentoring.match.Matches;
 import mentoring.match.MatchesBuilder;
@@ -24,8 +27,30 @@ public class MultipleMatchTask extends AbstractTask<Void> {
     private final PersonListViewModel mentees;
     private final PersonListViewModel mentors;
     private final MatchesBuilderHandler<Person, Person> builderHandler;
+    private static final Duration NO_TIME_LIMIT = ChronoUnit.FOREVER.getDuration();
+    private final boolean preview;
     private Matches<Person, Person> results;
-
+    private ApproximateMatches<Person, Person> previewResults;
+    
+    /**
+     * Initialise a MultipleMatchTask object.
+     * @param resultVM the ViewModel that will be updated when the task completes
+     * @param excludedMatchesVM an optional ViewModel encapsulating matches that should be excluded
+     *      from the match-making process, this argument MAY be null
+     * @param builderHandler the handler that will supply the {@link MatchesBuilder}
+     * @param mentees the VM containing the list of mentees to match
+     * @param mentors the VM containing the list of mentors to match
+     * @param callback the method to call when the task has run
+     */
+    public MultipleMatchTask(PersonMatchesViewModel resultVM, 
+            PersonMatchesViewModel excludedMatchesVM,
+            MatchesBuilderHandler<Person, Person> builderHandler,
+            PersonListViewModel mentees, 
+            PersonListViewModel mentors,
+            TaskCompletionCallback<? super Void> callback) {
+        this(resultVM, excludedMatchesVM, builderHandler, mentees, mentors, false, callback);
+    }
+    
     /**
      * Initialise a MultipleMatchTask object.
      * @param resultVM the ViewModel that will be updated when the task completes
@@ -34,6 +59,8 @@ public class MultipleMatchTask extends AbstractTask<Void> {
      * @param builderHandler the handler that will supply the {@link MatchesBuilder}
      * @param mentees the VM containing the list of mentees to match
      * @param mentors the VM containing the list of mentors to match
+     * @param preview true to quickly compute approximate matches with 
+     *      {@link MatchesBuilder#buildPreview(int[], int[])}, false to compute the optimal ones
      * @param callback the method to call when the task has run
      */
     public MultipleMatchTask(PersonMatchesViewModel resultVM, 
@@ -41,8 +68,10 @@ public class MultipleMatchTask extends AbstractTask<Void> {
             MatchesBuilderHandler<Person, Person> builderHandler,
             PersonListViewModel mentees, 
             PersonListViewModel mentors,
+            boolean preview,
             TaskCompletionCallback<? super Void> callback) {
         super(callback);
+        this.preview = preview;
         this.resultVM = Objects.requireNonNull(resultVM);
         this.excludedMatchesVM = excludedMatchesVM;
         this.builderHandler = Objects.requireNonNull(builderHandler);
@@ -63,10 +92,28 @@ public class MultipleMatchTask extends AbstractTask<Void> {
             filteredMentors = filterAvailablePerson(mentors.getUnderlyingData(), 
                     excludedMatchesVM.getContent(), t -> t.getMentor());
         }
-        results = builderHandler.get().build(filteredMentees, filteredMentors);
+        MatchesBuilder<Person, Person> builder = builderHandler.get();
+        int[] menteeIndices = builder.getMenteeIndices(filteredMentees);
+        int[] mentorIndices = builder.getMentorIndices(filteredMentors);
+        if (preview){
+            previewResults = builder.buildPreview(menteeIndices, mentorIndices);
+            results = previewResults.matches();
+        } else {
+            //The time limit lets the solve stop when the task is cancelled
+            results = builder.build(menteeIndices, mentorIndices, NO_TIME_LIMIT);
+        }
         return null;
     }
-
+    
+    /**
+     * Returns the approximate matches computed by this task and their distance to optimality.
+     * @return the approximate matches if this task computed a preview and succeeded, null 
+     *      otherwise
+     */
+    public ApproximateMatches<Person, Person> getPreviewResults(){
+        return previewResults;
+    }
+    
     @Override
     protected void specificActionOnSuccess() {
         resultVM.setAll(results);
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Objects;
 import mentoring.configuration.PersonConfiguration;
 import mentoring.datastructure.Person;
+import mentoring.io.PersonSnapshotCache;
 import mentoring.viewmodel.base.ConfigurationPickerViewModel;
 import mentoring.viewmodel.base.FilePickerViewModel;
 import mentoring.viewmodel.datastructure.PersonListViewModel;
@@ -17,6 +18,8 @@ public class PersonGetterTask extends AbstractTask<List<Person>> {
     private List<Person> persons;
     private final FilePickerViewModel<List<Person>> personPicker;
     private final ConfigurationPickerViewModel<PersonConfiguration> configurationPicker;
+    /** Cache of the parsed person files, null to always parse the file. */
+    private final PersonSnapshotCache snapshots;
     
     /**
      * Initialise a PersonGetter object.
@@ -29,16 +32,39 @@ public class PersonGetterTask extends AbstractTask<List<Person>> {
             FilePickerViewModel<List<Person>> personPicker,
             ConfigurationPickerViewModel<PersonConfiguration> configurationPicker,
             TaskCompletionCallback<? super List<Person>> callback) {
+        this(resultVM, personPicker, configurationPicker, null, callback);
+    }
+    
+    /**
+     * Initialise a PersonGetter object reading the persons from a snapshot when the person file
+     * has not changed since it was last parsed.
+     * @param resultVM the ViewModel that will be updated when the task completes
+     * @param personPicker the ViewModel that knows how to parse the person file
+     * @param configurationPicker the ViewModel that knows how to obtain the person configuration
+     * @param snapshots the cache of the parsed person files
+     * @param callback the method to call when the task has run
+     */
+    public PersonGetterTask(PersonListViewModel resultVM, 
+            FilePickerViewModel<List<Person>> personPicker,
+            ConfigurationPickerViewModel<PersonConfiguration> configurationPicker,
+            PersonSnapshotCache snapshots,
+            TaskCompletionCallback<? super List<Person>> callback) {
         super(callback);
         this.resultVM = Objects.requireNonNull(resultVM);
         this.personPicker = Objects.requireNonNull(personPicker);
         this.configurationPicker = Objects.requireNonNull(configurationPicker);
+        this.snapshots = snapshots;
     }
 
     @Override
     protected List<Person> call() throws Exception {
         personConfiguration = configurationPicker.getConfiguration();
-        persons = personPicker.parseCurrentFile();
+        if (snapshots == null){
+            persons = personPicker.parseCurrentFile();
+        } else {
+            persons = snapshots.load(personPicker.getCurrentFile().get().toPath(),
+                    personConfiguration, personPicker::parseCurrentFile);
+        }
         return persons;
     }
 
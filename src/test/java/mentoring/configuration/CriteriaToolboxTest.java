@@ -1,8 +1,11 @@
 package mentoring.configuration;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntBinaryOperator;
 import java.util.stream.Stream;
+import mentoring.datastructure.SymbolTable;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.TestFactory;
@@ -48,18 +51,35 @@ class CriteriaToolboxTest implements TestFramework<Object>{
                 });
     }
     
+    @TestFactory
+    Stream<DynamicNode> computeSetProximity_bitSets() {
+        Set<Integer> first = Set.of(0,1);
+        Stream<BitSetArgs> sets = Stream.of(0, 100).flatMap(offset -> Stream.of(
+                new BitSetArgs("no element", offset, first, Set.of()),
+                new BitSetArgs("one non-common element", offset, first, Set.of(2)),
+                new BitSetArgs("one common element", offset, first, Set.of(1)),
+                new BitSetArgs("two partially common elements", offset, first, Set.of(0,2)),
+                new BitSetArgs("three partially common elements", offset, first, Set.of(0,1,2))));
+        return test(sets, "computeSetProximity() on bitsets returns the same value as on sets", 
+                args -> {
+                    SymbolTable table = new SymbolTable();
+                    for (int i = 0; i < args.offset(); i++){
+                        table.indexOf("filler " + i);
+                    }
+                    long[] firstBits = table.encode(args.first());
+                    long[] secondBits = table.encode(args.second());
+                    int expected = CriteriaToolbox.computeSetDistance(args.first(), args.second());
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(expected, 
+                                    CriteriaToolbox.computeSetDistance(firstBits, secondBits)),
+                            () -> Assertions.assertEquals(expected, 
+                                    CriteriaToolbox.computeSetDistance(secondBits, firstBits)));
+                });
+    }
+    
     @TestFactory
     Stream<DynamicNode> computePreferenceMapSimilarityScore_correctOutput(){
-        return test(Stream.of(
-                new TwoMapsArgs("same first property", 102, Map.of(2, 1), Map.of(2,2,5,6),
-                        100, 1, 12),
-                new TwoMapsArgs("multiple common property", 28, Map.of(2,1,5,2,6,4),
-                        Map.of(6,5,5,8), 10, 1, 3),
-                new TwoMapsArgs("no common property", 38, Map.of(-5,1,0,2),
-                        Map.of(12,3),10,2, 5),
-                new TwoMapsArgs("empty from", -38, Map.of(), Map.of(2,1), 25, 6, -2),
-                new TwoMapsArgs("empty to", 375, Map.of(1,2), Map.of(), 25, 2, 150),
-                new TwoMapsArgs("both maps empty", 93, Map.of(), Map.of(), 25, 6, 3)),
+        return test(TwoMapsArgs.argsSupplier(),
                 "computePreferenceMapSimilarityScore() returns the expected result", args ->
                         Assertions.assertEquals(args.expected,
                                 CriteriaToolbox.computePreferenceMapSimilarityScore(args.from, 
@@ -67,6 +87,19 @@ class CriteriaToolboxTest implements TestFramework<Object>{
                                         args.defaultValue)));
     }
     
+    @TestFactory
+    Stream<DynamicNode> computePreferenceMapSimilarityScore_sameResultOnRanks(){
+        return test(TwoMapsArgs.argsSupplier(),
+                "computePreferenceMapSimilarityScore() on ranks returns the same result as on maps",
+                args -> {
+                    SymbolTable table = new SymbolTable();
+                    Assertions.assertEquals(args.expected,
+                            CriteriaToolbox.computePreferenceMapSimilarityScore(
+                                    table.encodeRanks(args.from), table.encodeRanks(args.to),
+                                    args.fromFactor, args.toFactor, args.defaultValue));
+                });
+    }
+    
     @TestFactory
     Stream<DynamicNode> exponentialDistance_correctOuput(){
         return test(DistanceArgs.argsSupplier(),
@@ -85,6 +118,43 @@ class CriteriaToolboxTest implements TestFramework<Object>{
                                     args.first, args.baseValue)));
     }
     
+    @TestFactory
+    Stream<DynamicNode> exponentialDistance_sameResultOnIndices(){
+        return test(DistanceArgs.argsSupplier(),
+                "exponentialDistance() on indices returns the same result as on elements", args ->
+                    Assertions.assertEquals(args.expectedResult, 
+                            CriteriaToolbox.exponentialDistance(args.indices.get(args.first), 
+                                    args.indices.get(args.second), args.baseValue)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> exponentialDistanceTable_sameResultAsExponentialDistance(){
+        return test(DistanceArgs.argsSupplier(),
+                "exponentialDistanceTable() returns the same result as exponentialDistance()", 
+                args -> {
+                    IntBinaryOperator table = CriteriaToolbox.exponentialDistanceTable(
+                            args.baseValue, Collections.max(args.indices.values()) + 1);
+                    int first = args.indices.get(args.first);
+                    int second = args.indices.get(args.second);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(args.expectedResult, 
+                                    table.applyAsInt(first, second)),
+                            () -> Assertions.assertEquals(args.expectedResult, 
+                                    table.applyAsInt(second, first)));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> exponentialDistanceTable_invalidInput(){
+        return test(Stream.of(new TableArgs("overflow", 10, 11),
+                new TableArgs("negative overflow", -2, 33),
+                new TableArgs("no index", 2, 0)),
+                "exponentialDistanceTable() throws an exception on invalid input", args ->
+                    Assertions.assertThrows(IllegalArgumentException.class, () -> 
+                            CriteriaToolbox.exponentialDistanceTable(args.baseValue, 
+                                    args.indexCount)));
+    }
+    
     @TestFactory
     Stream<DynamicNode> exponentialDistance_invalidInput(){
         return test(Stream.of(new DistanceArgs("invalid input", Map.of(), "", "b", 0, 0)),
@@ -116,6 +186,15 @@ class CriteriaToolboxTest implements TestFramework<Object>{
         }
     }
     
+    static record BitSetArgs(String testCase, int offset, Set<Integer> first, 
+        Set<Integer> second){
+        
+        @Override
+        public String toString(){
+            return testCase + " after " + offset + " symbols";
+        }
+    }
+    
     static record TwoMapsArgs(String testCase, int expected, Map<Integer, Integer> from, 
         Map<Integer, Integer> to, int fromFactor, int toFactor, int defaultValue) {
         
@@ -123,6 +202,27 @@ class CriteriaToolboxTest implements TestFramework<Object>{
         public String toString(){
             return testCase;
         }
+        
+        static Stream<TwoMapsArgs> argsSupplier(){
+            return Stream.of(
+                    new TwoMapsArgs("same first property", 102, Map.of(2, 1), Map.of(2,2,5,6),
+                            100, 1, 12),
+                    new TwoMapsArgs("multiple common property", 28, Map.of(2,1,5,2,6,4),
+                            Map.of(6,5,5,8), 10, 1, 3),
+                    new TwoMapsArgs("no common property", 38, Map.of(-5,1,0,2),
+                            Map.of(12,3),10,2, 5),
+                    new TwoMapsArgs("empty from", -38, Map.of(), Map.of(2,1), 25, 6, -2),
+                    new TwoMapsArgs("empty to", 375, Map.of(1,2), Map.of(), 25, 2, 150),
+                    new TwoMapsArgs("both maps empty", 93, Map.of(), Map.of(), 25, 6, 3));
+        }
+    }
+    
+    static record TableArgs(String testCase, int baseValue, int indexCount) {
+        
+        @Override
+        public String toString(){
+            return testCase;
+        }
     }
     
     static record DistanceArgs(String testCase, Map<String, Integer> indices, String first, 
@@ -65,6 +65,21 @@ public interface SimplePersonConfigurationTest<T extends SimplePersonConfigurati
                 });
     }
     
+    @TestFactory
+    default Stream<DynamicNode> equals_copy(){
+        return test("equals() and hashCode() are the same on a copy of the configuration", args -> {
+            PersonConfiguration configuration = args.convert();
+            PersonConfiguration copy = new PersonConfiguration(configuration.toString(),
+                    new HashSet<>(configuration.getSimplePropertiesNames()),
+                    new HashSet<>(configuration.getMultiplePropertiesNames()),
+                    configuration.getSeparator(), configuration.getNameFormat(),
+                    new ArrayList<>(configuration.getNamePropertiesHeaderNames()));
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(configuration, copy),
+                    () -> Assertions.assertEquals(configuration.hashCode(), copy.hashCode()));
+        });
+    }
+    
     @TestFactory
     default Stream<DynamicNode> isValidNameDefinition_validInput(){
         return test(Stream.of(Pair.of("no placeholder", new ArrayList<String>()),
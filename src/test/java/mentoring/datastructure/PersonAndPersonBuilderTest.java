@@ -171,6 +171,47 @@ final class PersonAndPersonBuilderTest implements
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> getPropertyAsBitSet_encodedByGivenTable(){
+        return test("getPropertyAsBitSet() encodes the keys with the given symbol table", 
+                args -> {
+                    Person person = args.initialisePersonBuilder().build();
+                    SymbolTable symbols = new SymbolTable();
+                    SymbolTable otherSymbols = new SymbolTable();
+                    otherSymbols.indexOf("symbol of no property");
+                    Assertions.assertAll(args.mapProperties.entrySet().stream().map(entry -> 
+                            () -> Assertions.assertAll(
+                                    () -> Assertions.assertArrayEquals(
+                                            symbols.encode(entry.getValue().keySet()),
+                                            person.getPropertyAsBitSet(entry.getKey(), 
+                                                    symbols)),
+                                    () -> Assertions.assertArrayEquals(
+                                            otherSymbols.encode(entry.getValue().keySet()),
+                                            person.getPropertyAsBitSet(entry.getKey(), 
+                                                    otherSymbols)))));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> getPropertyAsRanks_encodedByGivenTable(){
+        return test(Stream.of(new PersonArgs("specific test case", Map.of(), Map.of(), Map.of(), 
+                "name")), "getPropertyAsRanks() encodes the keys with the given symbol table", 
+                args -> {
+                    String property = "ranked property";
+                    Map<String, Integer> ranks = Map.of("first", 0, "second", 1, "third", 3);
+                    Person person = args.initialisePersonBuilder()
+                            .withPropertyMap(property, ranks).build();
+                    SymbolTable symbols = new SymbolTable();
+                    Assertions.assertAll(
+                            () -> Assertions.assertArrayEquals(symbols.encodeRanks(ranks),
+                                    person.getPropertyAsRanks(property, symbols)),
+                            () -> Assertions.assertEquals(4, 
+                                    person.getPropertyAsRanks(property, symbols).length),
+                            () -> Assertions.assertThrows(IllegalArgumentException.class,
+                                    () -> person.getPropertyAsRanks("unknown", symbols)));
+                });
+    }
+    
     @TestFactory
     Stream<DynamicNode> equalsReturnsTrueWhenAppropriate(){
         return test("equals() on equal values", args -> 
@@ -0,0 +1,113 @@
+package mentoring.datastructure;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+/**
+ * Times the lookups of persons in a {@link HashMap}, as done by the collections indexing persons
+ * such as {@link mentoring.match.ForbiddenMatches}, with the persons compared by value or by
+ * identity. The baseline is a key hashing and comparing the full name and the maps of properties
+ * of a person on each call, as {@link Person} did before its hash code was cached. Run with
+ * {@code gradlew benchmark}: the sizes can be set with the {@code mentoring.benchmark.sizes} system
+ * property.
+ */
+@Tag("benchmark")
+final class PersonLookupBenchmark implements TestFramework<PersonLookupBenchmark.LookupArgs>{
+    private static final List<SimplePropertyDescription<?>> SIMPLE_PROPERTIES = List.of(
+            new SimplePropertyDescription<>("Promotion", "Promotion", PropertyType.INTEGER),
+            new SimplePropertyDescription<>("Anglais", "Anglais", PropertyType.BOOLEAN),
+            new SimplePropertyDescription<>("Email", "Email", PropertyType.STRING));
+    private static final List<MultiplePropertyDescription<?,?>> MULTIPLE_PROPERTIES = List.of(
+            new SetPropertyDescription<>("Métiers", "Métiers", PropertyType.STRING),
+            new IndexedPropertyDescription<>("Motivation", "Motivation", PropertyType.STRING));
+    private static final int[] SIMPLE_INDICES = {0, 1, 2};
+    private static final int[] MULTIPLE_INDICES = {3, 4};
+    private static final int ROUNDS = 20;
+    
+    @Override
+    public Stream<LookupArgs> argumentsSupplier(){
+        return Arrays.stream(System.getProperty("mentoring.benchmark.sizes", "10000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .map(size -> new LookupArgs("%s persons".formatted(size), size));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> lookupsFindAllPersons(){
+        return test("lookups by value and by identity find all the persons", args -> {
+            List<Person> byValue = args.parse(PersonTable.Equality.VALUE);
+            List<Person> byIdentity = args.parse(PersonTable.Equality.IDENTITY);
+            time(args, "map-based hash and equality", byValue.stream()
+                    .map(person -> new PersonValues(person)).toList());
+            time(args, "cached hash, value equality", byValue);
+            time(args, "cached hash, identity equality", byIdentity);
+        });
+    }
+    
+    private static <K> void time(LookupArgs args, String mode, List<K> keys){
+        Map<K, Integer> indices = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++){
+            indices.put(keys.get(i), i);
+        }
+        long start = System.nanoTime();
+        long found = 0;
+        for (int round = 0; round < ROUNDS; round++){
+            for (K key : keys){
+                found += indices.get(key) == null ? 0 : 1;
+            }
+        }
+        System.out.printf("%s, %s: %d ms for %d lookups%n", args, mode,
+                (System.nanoTime() - start) / 1_000_000, ROUNDS * keys.size());
+        Assertions.assertEquals((long) ROUNDS * keys.size(), found);
+    }
+    
+    /** Key with the hash code and equality of a person before they were cached. */
+    private record PersonValues(String fullName, Map<String, Object> properties,
+            Map<String, Map<Object, Object>> multipleProperties){
+        PersonValues(Person person){
+            this(person.getFullName(), toMap(SIMPLE_PROPERTIES, property ->
+                            person.getPropertyAs(property.getName(), Object.class)),
+                    toMap(MULTIPLE_PROPERTIES, property -> person.getPropertyAsMapOf(
+                            property.getName(), Object.class, Object.class)));
+        }
+    
+        private static <P extends PropertyDescription<?>, V> Map<String, V> toMap(
+                List<P> properties, Function<P, V> getter){
+            Map<String, V> result = new HashMap<>();
+            properties.forEach(property -> result.put(property.getName(), getter.apply(property)));
+            return result;
+        }
+    }
+    
+    static class LookupArgs extends TestArgs{
+        final int size;
+    
+        LookupArgs(String testCase, int size){
+            super(testCase);
+            this.size = size;
+        }
+    
+        List<Person> parse(PersonTable.Equality equality){
+            PersonTable table = new PersonTable(SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";",
+                    equality);
+            for (int i = 0; i < size; i++){
+                table.addRow(new String[]{String.valueOf(2000 + i % 25),
+                            i % 2 == 0 ? "oui" : "non", "person" + i + "@example.com",
+                            "métier " + i % 7 + ";métier " + (7 + i % 11),
+                            "motivation " + i % 3 + ";motivation " + (i % 3 + 1)},
+                        SIMPLE_INDICES, MULTIPLE_INDICES, "Person " + i);
+            }
+            return table.getPersons();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package mentoring.datastructure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class PersonTableTest implements TestFramework<PersonTableTest.PersonTableArgs>{
+    private static final List<SimplePropertyDescription<?>> SIMPLE_PROPERTIES = List.of(
+            new SimplePropertyDescription<>("integer", "integer header", PropertyType.INTEGER),
+            new SimplePropertyDescription<>("boolean", "boolean header", PropertyType.BOOLEAN),
+            new SimplePropertyDescription<>("string", "string header", PropertyType.STRING),
+            new SimplePropertyDescription<>("year", "year header", PropertyType.YEAR));
+    private static final List<MultiplePropertyDescription<?,?>> MULTIPLE_PROPERTIES = List.of(
+            new SetPropertyDescription<>("set", "set header", PropertyType.STRING),
+            new IndexedPropertyDescription<>("indexed", "indexed header", PropertyType.STRING));
+    private static final int[] SIMPLE_INDICES = {0, 1, 2, 3};
+    private static final int[] MULTIPLE_INDICES = {4, 5};
+    
+    @Override
+    public Stream<PersonTableArgs> argumentsSupplier(){
+        return Stream.of(new PersonTableArgs("single row", List.<String[]>of(
+                        new String[]{"12", "oui", "foo", "X12", "a;b", "b;a;c"})),
+                new PersonTableArgs("rows sharing values", List.of(
+                        new String[]{"12", "oui", "foo", "X12", "a;b", "b;a;c"},
+                        new String[]{"-3", "non", "foo", "X12", "a;b", "c"},
+                        new String[]{"12", "oui", "bar", "X14", "b;a", "b;a;c"})),
+                new PersonTableArgs("rows with empty values", List.of(
+                        new String[]{"0", "", "", "X10", "", ""},
+                        new String[]{"0", "", "", "X10", "", ""})));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addRow_sameAsPersonBuilder(){
+        return test("addRow() returns persons equal to the ones built by PersonBuilder", args -> {
+            PersonTable table = args.convert();
+            SymbolTable symbols = new SymbolTable();
+            for (int i = 0; i < args.rows.size(); i++){
+                String[] row = args.rows.get(i);
+                Person actual = table.addRow(row, SIMPLE_INDICES, MULTIPLE_INDICES, "name " + i);
+                Person expected = args.buildPerson(row, "name " + i);
+                Assertions.assertAll(
+                        () -> Assertions.assertEquals(expected, actual),
+                        () -> Assertions.assertEquals(actual, expected),
+                        () -> Assertions.assertEquals(expected.hashCode(), actual.hashCode()),
+                        () -> Assertions.assertArrayEquals(
+                                expected.getPropertyAsBitSet("set", symbols),
+                                actual.getPropertyAsBitSet("set", symbols)),
+                        () -> Assertions.assertArrayEquals(
+                                expected.getPropertyAsRanks("indexed", symbols),
+                                actual.getPropertyAsRanks("indexed", symbols)));
+            }
+            Assertions.assertEquals(args.rows.size(), table.size());
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> equals_rowsOfSameTable(){
+        return test("equals() compares the values of the rows of a table", args -> {
+            PersonTable table = args.convert();
+            List<Person> persons = args.rows.stream()
+                    .map(row -> table.addRow(row, SIMPLE_INDICES, MULTIPLE_INDICES, "name"))
+                    .toList();
+            for (int i = 0; i < persons.size(); i++){
+                for (int j = 0; j < persons.size(); j++){
+                    boolean expected = args.buildPerson(args.rows.get(i), "name")
+                            .equals(args.buildPerson(args.rows.get(j), "name"));
+                    Assertions.assertEquals(expected, persons.get(i).equals(persons.get(j)),
+                            "rows %s and %s".formatted(i, j));
+                }
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> equals_identityEquality(){
+        return test("equals() only returns true on the same person with IDENTITY", args -> {
+            PersonTable table = args.convert(PersonTable.Equality.IDENTITY);
+            List<Person> persons = args.rows.stream()
+                    .map(row -> table.addRow(row, SIMPLE_INDICES, MULTIPLE_INDICES, "name"))
+                    .toList();
+            for (int i = 0; i < persons.size(); i++){
+                Person person = persons.get(i);
+                Person sameValues = args.buildPerson(args.rows.get(i), "name");
+                Assertions.assertAll(
+                        () -> Assertions.assertNotEquals(sameValues, person),
+                        () -> Assertions.assertNotEquals(person, sameValues),
+                        () -> Assertions.assertEquals(sameValues.hashCode(), person.hashCode()));
+                for (int j = 0; j < persons.size(); j++){
+                    Assertions.assertEquals(i == j, person.equals(persons.get(j)),
+                            "rows %s and %s".formatted(i, j));
+                }
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> getRowId_orderOfRows(){
+        return test("getRowId() returns the index of the row of the person", args -> {
+            PersonTable table = args.convert();
+            List<Integer> actual = args.rows.stream()
+                    .map(row -> table.addRow(row, SIMPLE_INDICES, MULTIPLE_INDICES, "name"))
+                    .map(Person::getRowId)
+                    .toList();
+            Assertions.assertEquals(IntStream.range(0, args.rows.size()).boxed().toList(), actual);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addRow_invalidInput(){
+        return test(Stream.of(new PersonTableArgs("invalid integer", List.<String[]>of(
+                        new String[]{"twelve", "oui", "foo", "X12", "a;b", "b;a;c"}))),
+                "addRow() fails without adding a row on invalid input", args -> {
+                    PersonTable table = args.convert();
+                    Assertions.assertThrows(NumberFormatException.class,
+                            () -> table.addRow(args.rows.get(0), SIMPLE_INDICES,
+                                    MULTIPLE_INDICES, "name"));
+                    Assertions.assertEquals(0, table.size());
+                    Person person = table.addRow(new String[]{"1", "oui", "foo", "X12", "a", "a"},
+                            SIMPLE_INDICES, MULTIPLE_INDICES, "name");
+                    Assertions.assertEquals(List.of(person), table.getPersons());
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addParsedRow_otherTable(){
+        return test(Stream.of(new PersonTableArgs("specific test case", List.<String[]>of(
+                        new String[]{"12", "oui", "foo", "X12", "a;b", "b;a;c"}))),
+                "addParsedRow() fails on a row parsed by another table", args -> {
+                    PersonTable.ParsedRow row = args.convert().parseRow(args.rows.get(0), 
+                            SIMPLE_INDICES, MULTIPLE_INDICES, "name");
+                    PersonTable table = args.convert();
+                    Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> table.addParsedRow(row));
+                    Assertions.assertEquals(0, table.size());
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readFrom_sameAsWrittenTable(){
+        return test("readFrom() returns a table equal to the one written by writeTo()", args -> {
+            PersonTable table = args.fill(args.convert());
+            PersonTable actual = null;
+            try {
+                actual = PersonTable.readFrom(args.toInput(args.write(table)),
+                        reverse(SIMPLE_PROPERTIES), reverse(MULTIPLE_PROPERTIES), ";",
+                        PersonTable.Equality.VALUE);
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+            List<Person> expected = table.getPersons();
+            List<Person> persons = actual.getPersons();
+            Assertions.assertEquals(expected, persons);
+            SymbolTable symbols = new SymbolTable();
+            for (int i = 0; i < persons.size(); i++){
+                Person person = persons.get(i);
+                Assertions.assertAll(
+                        () -> Assertions.assertEquals(person.hashCode(),
+                                expected.get(person.getRowId()).hashCode()),
+                        () -> Assertions.assertArrayEquals(expected.get(person.getRowId())
+                                        .getPropertyAsBitSet("set", symbols),
+                                person.getPropertyAsBitSet("set", symbols)),
+                        () -> Assertions.assertArrayEquals(expected.get(person.getRowId())
+                                        .getPropertyAsRanks("indexed", symbols),
+                                person.getPropertyAsRanks("indexed", symbols)));
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readFrom_invalidInput(){
+        return test("readFrom() throws an IOException on truncated input or other properties",
+                args -> {
+                    PersonTable table = args.fill(args.convert());
+                    byte[] bytes = args.write(table);
+                    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+                    Assertions.assertAll(
+                            () -> Assertions.assertThrows(IOException.class,
+                                    () -> PersonTable.readFrom(args.toInput(truncated),
+                                            SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";",
+                                            PersonTable.Equality.VALUE)),
+                            () -> Assertions.assertThrows(IOException.class,
+                                    () -> PersonTable.readFrom(args.toInput(bytes),
+                                            SIMPLE_PROPERTIES.subList(1, SIMPLE_PROPERTIES.size()),
+                                            MULTIPLE_PROPERTIES, ";",
+                                            PersonTable.Equality.VALUE)));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readFrom_corruptedCounts(){
+        return test("readFrom() throws an IOException on a length or count larger than the input",
+                args -> {
+                    byte[] bytes = args.write(args.fill(args.convert()));
+                    byte[] corruptedLength = bytes.clone();
+                    ByteBuffer.wrap(corruptedLength).putInt(0, Integer.MAX_VALUE);
+                    byte[] corruptedRowCount = bytes.clone();
+                    ByteBuffer.wrap(corruptedRowCount).putInt(Integer.BYTES, Integer.MAX_VALUE);
+                    Assertions.assertAll(
+                            () -> Assertions.assertThrows(IOException.class,
+                                    () -> PersonTable.readFrom(args.toInput(corruptedLength),
+                                            SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";",
+                                            PersonTable.Equality.VALUE)),
+                            () -> Assertions.assertThrows(IOException.class,
+                                    () -> PersonTable.readFrom(args.toInput(corruptedRowCount),
+                                            SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";",
+                                            PersonTable.Equality.VALUE)));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> tableOf_personsOfTable(){
+        return test("tableOf() only returns the table on exactly its persons", args -> {
+            PersonTable table = args.fill(args.convert());
+            List<Person> persons = table.getPersons();
+            List<Person> reversed = reverse(persons);
+            Assertions.assertAll(
+                    () -> Assertions.assertSame(table, PersonTable.tableOf(persons)),
+                    () -> Assertions.assertNull(PersonTable.tableOf(List.of())),
+                    () -> Assertions.assertNull(
+                            PersonTable.tableOf(persons.subList(1, persons.size()))),
+                    () -> Assertions.assertEquals(persons.size() == 1 ? table : null,
+                            PersonTable.tableOf(reversed)));
+        });
+    }
+    
+    private static <T> List<T> reverse(List<T> list){
+        List<T> result = new ArrayList<>(list);
+        Collections.reverse(result);
+        return result;
+    }
+    
+    static class PersonTableArgs extends TestArgs{
+        final List<String[]> rows;
+    
+        PersonTableArgs(String testCase, List<String[]> rows){
+            super(testCase);
+            this.rows = rows;
+        }
+    
+        PersonTable convert(){
+            return new PersonTable(SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";");
+        }
+    
+        PersonTable convert(PersonTable.Equality equality){
+            return new PersonTable(SIMPLE_PROPERTIES, MULTIPLE_PROPERTIES, ";", equality);
+        }
+    
+        PersonTable fill(PersonTable table){
+            for (int i = 0; i < rows.size(); i++){
+                table.addRow(rows.get(i), SIMPLE_INDICES, MULTIPLE_INDICES, "name " + i);
+            }
+            return table;
+        }
+    
+        byte[] write(PersonTable table){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                table.writeTo(new DataOutputStream(bytes));
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+            return bytes.toByteArray();
+        }
+    
+        DataInputStream toInput(byte[] bytes){
+            return new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+    
+        Person buildPerson(String[] row, String name){
+            PersonBuilder builder = new PersonBuilder().withFullName(name);
+            for (int i = 0; i < SIMPLE_PROPERTIES.size(); i++){
+                SimplePropertyDescription<?> property = SIMPLE_PROPERTIES.get(i);
+                builder.withProperty(property.getName(),
+                        property.getType().parse(row[SIMPLE_INDICES[i]]));
+            }
+            for (int i = 0; i < MULTIPLE_PROPERTIES.size(); i++){
+                MultiplePropertyDescription<?,?> property = MULTIPLE_PROPERTIES.get(i);
+                builder.withPropertyMap(property.getName(),
+                        property.buildMap(row[MULTIPLE_INDICES[i]].split(";")));
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package mentoring.datastructure;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class SymbolTableTest implements TestFramework<SymbolTableTest.SymbolTableArgs>{
+    
+    @Override
+    public Stream<SymbolTableArgs> argumentsSupplier(){
+        return Stream.of(new SymbolTableArgs("empty set", List.of()),
+                new SymbolTableArgs("single symbol", List.of("a")),
+                new SymbolTableArgs("symbols in one word", List.of("a", "b", "c")),
+                new SymbolTableArgs("symbols in several words", IntStream.range(0, 150)
+                        .mapToObj(i -> "symbol " + i).toList()));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> indexOf_stableAndDistinct(){
+        return test("indexOf() returns a distinct index per symbol, always the same", args -> {
+            SymbolTable table = args.convert();
+            int[] indices = args.symbols.stream().mapToInt(table::indexOf).toArray();
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(args.symbols.size(),
+                            IntStream.of(indices).distinct().count()),
+                    () -> Assertions.assertArrayEquals(indices,
+                            args.symbols.stream().mapToInt(table::indexOf).toArray()),
+                    () -> Assertions.assertEquals(args.symbols.size(), table.size()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> encode_expectedBits(){
+        return test("encode() sets the bits of the indices of the symbols", args -> {
+            SymbolTable table = args.convert();
+            table.indexOf("symbol not in set");
+            long[] actual = table.encode(args.symbols);
+            BitSet expected = new BitSet();
+            args.symbols.forEach(symbol -> expected.set(table.indexOf(symbol)));
+            Assertions.assertArrayEquals(expected.toLongArray(), actual);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> encodeRanks_symbolsOrderedByRank(){
+        return test("encodeRanks() returns the indices of the symbols ordered by rank", args -> {
+            SymbolTable table = args.convert();
+            Map<String, Integer> ranks = new HashMap<>();
+            for (int i = 0; i < args.symbols.size(); i++){
+                //Leaves a gap before each rank, as when a symbol is repeated in a parsed property
+                ranks.put(args.symbols.get(i), 2 * i + 1);
+            }
+            int[] expected = new int[2 * args.symbols.size()];
+            Arrays.fill(expected, SymbolTable.NO_SYMBOL);
+            for (int i = 0; i < args.symbols.size(); i++){
+                expected[2 * i + 1] = table.indexOf(args.symbols.get(i));
+            }
+            Assertions.assertArrayEquals(expected, table.encodeRanks(ranks));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> encodeRanks_invalidInput(){
+        return test(Stream.of(new SymbolTableArgs("specific test case", List.of())),
+                "encodeRanks() fails on negative or duplicate ranks", args -> {
+                    SymbolTable table = args.convert();
+                    Assertions.assertAll(
+                            () -> Assertions.assertThrows(IllegalArgumentException.class,
+                                    () -> table.encodeRanks(Map.of("a", -1))),
+                            () -> Assertions.assertThrows(IllegalArgumentException.class,
+                                    () -> table.encodeRanks(Map.of("a", 0, "b", 0))));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> indexOf_independentTables(){
+        return test("indexOf() does not depend on the symbols of other tables", args -> {
+            SymbolTable other = args.convert();
+            other.indexOf("symbol of another table");
+            SymbolTable table = args.convert();
+            Assertions.assertArrayEquals(IntStream.range(0, args.symbols.size()).toArray(),
+                    args.symbols.stream().mapToInt(table::indexOf).toArray());
+        });
+    }
+    
+    static class SymbolTableArgs extends TestArgs{
+        final List<String> symbols;
+    
+        SymbolTableArgs(String testCase, List<String> symbols){
+            super(testCase);
+            this.symbols = symbols;
+        }
+    
+        SymbolTable convert(){
+            return new SymbolTable();
+        }
+    }
+}
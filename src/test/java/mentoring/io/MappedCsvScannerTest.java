@@ -0,0 +1,122 @@
+package mentoring.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestFramework;
+
+class MappedCsvScannerTest implements TestFramework<MappedCsvScannerTest.MappedCsvScannerArgs>{
+    
+    @Override
+    public Stream<MappedCsvScannerArgs> argumentsSupplier(){
+        return Stream.of(
+                new MappedCsvScannerArgs("empty file", "", List.of(), List.of()),
+                new MappedCsvScannerArgs("LF line breaks", "a,b,c\nd,e,f\n",
+                        List.of(List.of("a", "b", "c"), List.of("d", "e", "f")), List.of(1L, 2L)),
+                new MappedCsvScannerArgs("CRLF line breaks without final break",
+                        "a,b,c\r\nd,e,f",
+                        List.of(List.of("a", "b", "c"), List.of("d", "e", "f")), List.of(1L, 2L)),
+                new MappedCsvScannerArgs("empty values and empty lines", ",,\n\n\r\n,b,\n",
+                        List.of(List.of("", "", ""), List.of("", "b", "")), List.of(1L, 4L)),
+                new MappedCsvScannerArgs("quoted values",
+                        "\"a,b\",\"say \"\"hi\"\"\",c\n\"multi\nline\",,\"\"\nd,e,f",
+                        List.of(List.of("a,b", "say \"hi\"", "c"), List.of("multi\nline", "", ""),
+                                List.of("d", "e", "f")),
+                        List.of(1L, 2L, 4L)),
+                new MappedCsvScannerArgs("byte order mark and non-ASCII characters",
+                        "\uFEFFé,à\nœ,\"ü\"\n",
+                        List.of(List.of("é", "à"), List.of("œ", "ü")), List.of(1L, 2L)),
+                new MappedCsvScannerArgs("backslashes kept as is", "a\\b,\"c\\\\d\"\n",
+                        List.of(List.of("a\\b", "c\\\\d")), List.of(1L)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readNext_allColumns(){
+        return test("readNext() returns the values of all the columns", args -> {
+            MappedCsvScanner scanner = args.convert();
+            Assertions.assertEquals(args.expectedLines, args.readAll(scanner, null));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readNext_selectedColumns(){
+        return test("readNext() only returns the values of the selected columns", args -> {
+            MappedCsvScanner scanner = args.convert();
+            BitSet columns = new BitSet();
+            columns.set(1);
+            scanner.selectColumns(columns);
+            List<List<String>> expected = args.expectedLines.stream()
+                    .map(line -> {
+                        List<String> result = new ArrayList<>(line);
+                        for (int i = 0; i < result.size(); i++){
+                            if (i != 1){
+                                result.set(i, null);
+                            }
+                        }
+                        return result;
+                    }).toList();
+            Assertions.assertEquals(expected, args.readAll(scanner, null));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> getLineNumber_firstLineOfEachLine(){
+        return test("getLineNumber() returns the number of the first line of each line", args -> {
+            MappedCsvScanner scanner = args.convert();
+            List<Long> actual = new ArrayList<>();
+            args.readAll(scanner, actual);
+            Assertions.assertEquals(args.expectedLineNumbers, actual);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> readNext_unclosedQuote(){
+        return test(Stream.of(new MappedCsvScannerArgs("unclosed quote", "a,b\n\"c,d\ne,f",
+                        List.of(), List.of())),
+                "readNext() fails on a quoted value that is never closed", args -> {
+                    MappedCsvScanner scanner = args.convert();
+                    try {
+                        scanner.readNext();
+                    } catch (IOException e){
+                        Assertions.fail(e);
+                    }
+                    Assertions.assertThrows(IOException.class, () -> scanner.readNext());
+                });
+    }
+    
+    static record MappedCsvScannerArgs(String testCase, String input,
+            List<List<String>> expectedLines, List<Long> expectedLineNumbers) {
+    
+        @Override
+        public String toString(){
+            return testCase;
+        }
+    
+        MappedCsvScanner convert(){
+            return new MappedCsvScanner(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+        }
+    
+        List<List<String>> readAll(MappedCsvScanner scanner, List<Long> lineNumbers){
+            List<List<String>> result = new ArrayList<>();
+            try {
+                for (String[] line = scanner.readNext(); line != null; line = scanner.readNext()){
+                    result.add(Arrays.asList(line));
+                    if (lineNumbers != null){
+                        lineNumbers.add(scanner.getLineNumber());
+                    }
+                }
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+            return result;
+        }
+    }
+}
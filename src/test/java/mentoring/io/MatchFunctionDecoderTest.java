@@ -1,5 +1,6 @@
 package mentoring.io;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -44,6 +45,12 @@ class MatchFunctionDecoderTest implements TestFramework<MatchFunctionDecoderArgs
                                 new MatchTest.MatchArgs("", builder.build(), builder.build(), 
                                         12).convertAs(Person.class, Person.class),
                                 12)),
+                new MatchFunctionDecoderArgs("criterion scores property", 
+                        MatchFunctionDecoder.CRITERION_SCORES_TOKEN,
+                        Map.of(
+                                new MatchTest.MatchArgs("", builder.build(), builder.build(), 
+                                        12).convertAs(Person.class, Person.class),
+                                List.of())),
                 new MatchFunctionDecoderArgs("multiple property",
                         MatchFunctionDecoder.MENTEE_TOKEN 
                                 + MatchFunctionDecoder.CUSTOM_MULTIPLE_PROPERTY_TOKEN + "Sports",
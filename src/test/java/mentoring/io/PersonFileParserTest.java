@@ -3,9 +3,15 @@ package mentoring.io;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import mentoring.configuration.PersonConfiguration;
 import mentoring.datastructure.Person;
@@ -70,6 +76,153 @@ class PersonFileParserTest implements TestFramework<PersonFileParserArgs>{
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> parse_mappedFile(){
+        return test("parse() returns the same persons from a path as from a reader", args ->{
+            PersonFileParser parser = args.convert();
+            try{
+                Path file = Files.createTempFile("persons", ".csv");
+                try {
+                    Files.writeString(file, args.input, StandardCharsets.UTF_8);
+                    Assertions.assertEquals(parser.parse(args.getReader()), parser.parse(file));
+                } finally {
+                    Files.delete(file);
+                }
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> stream_CorrectResult(){
+        return test("stream() returns the expected person", args ->{
+            PersonFileParser parser = args.convert();
+            try{
+                args.assertCorrectParsing(parser.stream(args.getReader(), 
+                        error -> Assertions.fail(error.toString())).toList());
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> stream_invalidLines(){
+        return test(invalidLinesArgumentsSupplier(), 
+                "stream() skips the invalid lines and reports their line number", args -> {
+                    List<Long> errorLines = new ArrayList<>();
+                    List<Long> fileErrorLines = new ArrayList<>();
+                    try{
+                        args.assertCorrectParsing(args.convert().stream(args.getReader(), 
+                                error -> errorLines.add(error.lineNumber())).toList());
+                        Path file = Files.createTempFile("persons", ".csv");
+                        try {
+                            Files.writeString(file, args.input, StandardCharsets.UTF_8);
+                            args.assertCorrectParsing(args.convert().stream(file, 
+                                    error -> fileErrorLines.add(error.lineNumber())).toList());
+                        } finally {
+                            Files.delete(file);
+                        }
+                    } catch (IOException e){
+                        Assertions.fail(e);
+                    }
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(List.of(3L), errorLines),
+                            () -> Assertions.assertEquals(List.of(3L), fileErrorLines));
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> stream_invalidLinesInParallel(){
+        return test(invalidLinesArgumentsSupplier(), 
+                "stream() with an executor skips the invalid lines and reports their line number",
+                args -> {
+                    List<Long> errorLines = new ArrayList<>();
+                    try{
+                        args.assertCorrectParsing(args.convert()
+                                .withExecutor(ForkJoinPool.commonPool())
+                                .stream(args.getReader(), 
+                                        error -> errorLines.add(error.lineNumber())).toList());
+                    } catch (IOException e){
+                        Assertions.fail(e);
+                    }
+                    Assertions.assertEquals(List.of(3L), errorLines);
+                });
+    }
+    
+    private static Stream<PersonFileParserArgs> invalidLinesArgumentsSupplier(){
+        List<Person> validPersons = List.of(
+                new PersonBuilder().withProperty("first", "string")
+                        .withProperty("second", 1).withFullName("").build(),
+                new PersonBuilder().withProperty("first","bar")
+                        .withProperty("second",3).withFullName("").build());
+        return Stream.of(new PersonFileParserArgs("invalid second line", 
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration,
+                        "first,second" + NEWLINE + "string,1" + NEWLINE + "foo,two" + NEWLINE 
+                                + "bar,3", validPersons),
+                new PersonFileParserArgs("second line missing a column", 
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration,
+                        "first,second" + NEWLINE + "string,1" + NEWLINE + "short" + NEWLINE 
+                                + "bar,3", validPersons));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> stream_lazyParsing(){
+        return test(Stream.of(new PersonFileParserArgs("invalid second line", 
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration,
+                        "first,second" + NEWLINE + "string,1" + NEWLINE + "foo,two", List.of())),
+                "stream() only reads the lines needed by the stream", args -> {
+                    try{
+                        Assertions.assertTrue(args.convert().stream(args.getReader(), 
+                                error -> Assertions.fail(error.toString())).findFirst()
+                                .isPresent());
+                    } catch (IOException e){
+                        Assertions.fail(e);
+                    }
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> stream_parallelSameAsSequential(){
+        String input = "first,second" + NEWLINE + IntStream.range(0, 2000)
+                .mapToObj(i -> i % 300 == 7 ? "invalid,line" : "person %s,%s".formatted(i, i % 10))
+                .reduce((line, other) -> line + NEWLINE + other).orElseThrow();
+        return test(Stream.of(new PersonFileParserArgs("several batches with invalid lines", 
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration, input, 
+                        List.of())),
+                "stream() returns the same persons in the same order with an executor", args -> {
+                    List<Long> expectedErrors = new ArrayList<>();
+                    List<Long> actualErrors = new ArrayList<>();
+                    try{
+                        List<Person> expected = args.convert().stream(args.getReader(),
+                                error -> expectedErrors.add(error.lineNumber())).toList();
+                        List<Person> actual = args.convert()
+                                .withExecutor(ForkJoinPool.commonPool())
+                                .stream(args.getReader(), 
+                                        error -> actualErrors.add(error.lineNumber())).toList();
+                        Assertions.assertAll(
+                                () -> Assertions.assertEquals(expected, actual),
+                                () -> Assertions.assertEquals(expectedErrors, actualErrors),
+                                () -> Assertions.assertEquals(
+                                        actual.stream().map(Person::getRowId).toList(),
+                                        IntStream.range(0, actual.size()).boxed().toList()));
+                    } catch (IOException e){
+                        Assertions.fail(e);
+                    }
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> parse_invalidLine(){
+        return test(Stream.of(new PersonFileParserArgs("invalid second line", 
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration,
+                        "first,second" + NEWLINE + "string,1" + NEWLINE + "foo,two", List.of())),
+                "parse() fails on an invalid line", args -> 
+                        Assertions.assertThrows(IllegalArgumentException.class, 
+                                () -> args.convert().parse(args.getReader())));
+    }
+    
     static record PersonFileParserArgs(String testCase, PersonConfiguration configuration, 
         String input, List<Person> output) {
         
@@ -0,0 +1,190 @@
+package mentoring.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import mentoring.configuration.PersonConfiguration;
+import mentoring.datastructure.Person;
+import mentoring.datastructure.PersonTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestFramework;
+
+class PersonSnapshotCacheTest
+        implements TestFramework<PersonSnapshotCacheTest.PersonSnapshotCacheArgs>{
+    
+    @Override
+    public Stream<PersonSnapshotCacheArgs> argumentsSupplier(){
+        return Stream.of(
+                new PersonSnapshotCacheArgs("simple properties",
+                        DummyPersonConfiguration.SIMPLE_PROPERTIES.configuration,
+                        "first,second\nstring,1\nfoo,2\nbar,3\n", "foo,4\n"),
+                new PersonSnapshotCacheArgs("multiple properties",
+                        DummyPersonConfiguration.MULTIPLE_PROPERTIES.configuration,
+                        "third,fourth\nvrai|faux,0\nfaux,1|2|3\n", "vrai,0\n"),
+                new PersonSnapshotCacheArgs("all properties",
+                        DummyPersonConfiguration.ALL_PROPERTIES.configuration,
+                        "first,second,third,fourth,fifth,sixth,seventh\n"
+                                + "foo,-98765432,oui|faux|vrai,2147483647|0,bar,foo,barfoo\n"
+                                + "élève,0,faux,1,a,b,c\n",
+                        "foo,-98765432,oui|faux|vrai,2147483647|0,bar,foo,barfoo\n"));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> load_unchangedFile(){
+        return test("load() only parses a file once when it does not change", args ->
+                args.withFiles((directory, file) -> {
+                    PersonSnapshotCache cache = args.convert(directory);
+                    AtomicInteger parseCount = new AtomicInteger();
+                    List<Person> first = args.load(cache, file, args.configuration, parseCount);
+                    List<Person> second = args.load(cache, file, args.configuration, parseCount);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(args.parse(file), first),
+                            () -> Assertions.assertEquals(first, second),
+                            () -> Assertions.assertEquals(1, parseCount.get()));
+                }));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> load_changedFile(){
+        return test("load() parses a file again when its content changes", args ->
+                args.withFiles((directory, file) -> {
+                    PersonSnapshotCache cache = args.convert(directory);
+                    AtomicInteger parseCount = new AtomicInteger();
+                    args.load(cache, file, args.configuration, parseCount);
+                    Files.writeString(file, args.extraLine, StandardCharsets.UTF_8,
+                            StandardOpenOption.APPEND);
+                    List<Person> actual = args.load(cache, file, args.configuration, parseCount);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(args.parse(file), actual),
+                            () -> Assertions.assertEquals(2, parseCount.get()));
+                }));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> load_changedConfiguration(){
+        return test("load() parses a file again when its configuration changes", args ->
+                args.withFiles((directory, file) -> {
+                    PersonSnapshotCache cache = args.convert(directory);
+                    AtomicInteger parseCount = new AtomicInteger();
+                    args.load(cache, file, args.configuration, parseCount);
+                    PersonConfiguration renamed = new PersonConfiguration("other configuration",
+                            args.configuration.getSimplePropertiesNames(),
+                            args.configuration.getMultiplePropertiesNames(),
+                            args.configuration.getSeparator(), args.configuration.getNameFormat(),
+                            args.configuration.getNamePropertiesHeaderNames());
+                    args.load(cache, file, renamed, parseCount);
+                    Assertions.assertEquals(2, parseCount.get());
+                }));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> load_equalConfiguration(){
+        return test("load() reads the snapshot with an equal configuration listing its properties "
+                + "in another order", args ->
+                args.withFiles((directory, file) -> {
+                    PersonSnapshotCache cache = args.convert(directory);
+                    AtomicInteger parseCount = new AtomicInteger();
+                    args.load(cache, file, args.configuration, parseCount);
+                    PersonConfiguration reordered = new PersonConfiguration(
+                            args.configuration.toString(),
+                            reverse(args.configuration.getSimplePropertiesNames()),
+                            reverse(args.configuration.getMultiplePropertiesNames()),
+                            args.configuration.getSeparator(), args.configuration.getNameFormat(),
+                            args.configuration.getNamePropertiesHeaderNames());
+                    List<Person> actual = args.load(cache, file, reordered, parseCount);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(args.parse(file), actual),
+                            () -> Assertions.assertEquals(1, parseCount.get()));
+                }));
+    }
+    
+    private static <T> Set<T> reverse(Set<T> set){
+        List<T> list = new ArrayList<>(set);
+        Collections.reverse(list);
+        return new LinkedHashSet<>(list);
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> load_corruptedSnapshot(){
+        return test("load() parses a file again when its snapshot is corrupted", args ->
+                args.withFiles((directory, file) -> {
+                    PersonSnapshotCache cache = args.convert(directory);
+                    AtomicInteger parseCount = new AtomicInteger();
+                    args.load(cache, file, args.configuration, parseCount);
+                    try (Stream<Path> snapshots = Files.list(directory)){
+                        for (Path snapshot : snapshots.toList()){
+                            byte[] bytes = Files.readAllBytes(snapshot);
+                            Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 1));
+                        }
+                    }
+                    List<Person> actual = args.load(cache, file, args.configuration, parseCount);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(args.parse(file), actual),
+                            () -> Assertions.assertEquals(2, parseCount.get()));
+                }));
+    }
+    
+    static record PersonSnapshotCacheArgs(String testCase, PersonConfiguration configuration,
+            String input, String extraLine) {
+    
+        @Override
+        public String toString(){
+            return testCase;
+        }
+    
+        PersonSnapshotCache convert(Path directory){
+            return new PersonSnapshotCache(directory, PersonTable.Equality.VALUE);
+        }
+    
+        List<Person> parse(Path file) throws IOException{
+            return new PersonFileParser(configuration).parse(file);
+        }
+    
+        List<Person> load(PersonSnapshotCache cache, Path file,
+                PersonConfiguration configuration, AtomicInteger parseCount) throws IOException{
+            return cache.load(file, configuration, () -> {
+                parseCount.incrementAndGet();
+                return new PersonFileParser(configuration).parse(file);
+            });
+        }
+    
+        /** Runs a test on a snapshot directory and a file containing the input. */
+        void withFiles(FileTest test){
+            try {
+                Path directory = Files.createTempDirectory("snapshots");
+                Path file = Files.createTempFile("persons", ".csv");
+                try {
+                    Files.writeString(file, input, StandardCharsets.UTF_8);
+                    test.run(directory, file);
+                } finally {
+                    Files.delete(file);
+                    try (Stream<Path> paths = Files.walk(directory)){
+                        for (Path path : paths.sorted(Comparator.reverseOrder()).toList()){
+                            Files.delete(path);
+                        }
+                    }
+                }
+            } catch (IOException e){
+                Assertions.fail(e);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    static interface FileTest {
+        void run(Path directory, Path file) throws IOException;
+    }
+}
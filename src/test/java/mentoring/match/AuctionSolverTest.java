@@ -0,0 +1,85 @@
+package mentoring.match;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class AuctionSolverTest implements TestFramework<AuctionSolverTest.AuctionSolverArgs>{
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    @Override
+    public Stream<AuctionSolverArgs> argumentsSupplier(){
+        return Stream.of(new AuctionSolverArgs("square matrix", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}, {3, 2, 2}}),
+                new AuctionSolverArgs("more rows than columns", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}),
+                new AuctionSolverArgs("more columns than rows", new int[][]{
+                    {4, 1, 3, 7}, {2, 0, 5, 1}}),
+                new AuctionSolverArgs("forbidden pairs", new int[][]{
+                    {0, X, X}, {1, 5, X}, {X, X, X}}),
+                new AuctionSolverArgs("cheap pair preventing a larger assignment", new int[][]{
+                    {0, 100}, {1, X}}),
+                new AuctionSolverArgs("negative costs", new int[][]{
+                    {-4, 1, -3}, {2, -10, 5}, {X, -2, X}}),
+                new AuctionSolverArgs("empty matrix", new int[0][0]));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignment(){
+        return test("solve() returns an optimal assignment", args ->
+                SolverAssertions.assertOptimal(args.costMatrix,
+                        new AuctionSolver(null).solve(args.costMatrix), null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignmentOnRandomMatrices(){
+        Random random = new Random(42);
+        Stream<AuctionSolverArgs> testCases = Stream.generate(() -> {
+            int nRows = 1 + random.nextInt(6);
+            int nColumns = 1 + random.nextInt(6);
+            int[][] costMatrix = new int[nRows][nColumns];
+            for (int[] row : costMatrix){
+                for (int j = 0; j < nColumns; j++){
+                    row[j] = random.nextInt(4) == 0 ? X : random.nextInt(20);
+                }
+            }
+            return new AuctionSolverArgs("random %sx%s matrix".formatted(nRows, nColumns),
+                    costMatrix);
+        }).limit(50);
+        return test(testCases, "solve() returns an optimal assignment", args ->
+                SolverAssertions.assertOptimal(args.costMatrix,
+                        new AuctionSolver(-1).solve(args.costMatrix), -1));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidInput(){
+        return test(Stream.of(new AuctionSolverArgs("ragged matrix", new int[][]{{1, 2}, {3}})),
+                "solve() fails on invalid input", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new AuctionSolver(null).solve(args.costMatrix)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_stopsAtDeadline(){
+        return test(Stream.of(new AuctionSolverArgs("square matrix", new int[][]{{0, 5}, {0, 9}})),
+                "solve() stops when the deadline is reached", args ->
+                        Assertions.assertThrows(CancellationException.class,
+                                () -> new AuctionSolver(null).solve(args.costMatrix,
+                                        Deadline.after(Duration.ZERO))));
+    }
+    
+    static class AuctionSolverArgs extends TestArgs{
+        final int[][] costMatrix;
+    
+        AuctionSolverArgs(String testCase, int[][] costMatrix){
+            super(testCase);
+            this.costMatrix = costMatrix;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package mentoring.match;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class BitMatrixTest implements TestFramework<BitMatrixTest.BitMatrixArgs>{
+    
+    @Override
+    public Stream<BitMatrixArgs> argumentsSupplier(){
+        return Stream.of(new BitMatrixArgs("small matrix", 3, 5),
+                new BitMatrixArgs("matrix with rows spanning several words", 4, 130),
+                new BitMatrixArgs("matrix with rows ending on a word boundary", 3, 128));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_allCellsFalse(){
+        return test("constructor builds a matrix with only false cells", args -> {
+            BitMatrix matrix = args.convert();
+            for (int i = 0; i < args.nRows; i++){
+                for (int j = 0; j < args.nColumns; j++){
+                    Assertions.assertFalse(matrix.get(i, j), "cell (%s,%s)".formatted(i, j));
+                }
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_invalidInput(){
+        return test(Stream.of(new BitMatrixArgs("negative rows", -1, 2),
+                new BitMatrixArgs("negative columns", 2, -1),
+                new BitMatrixArgs("too many cells", Integer.MAX_VALUE, Integer.MAX_VALUE)),
+                "constructor fails on invalid input", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> args.convert()));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> set_onlySetsTargetCell(){
+        return test("set() only sets the target cell", args -> {
+            BitMatrix matrix = args.convert();
+            int row = args.nRows - 1;
+            int column = args.nColumns - 1;
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(matrix.set(row, column)),
+                    () -> Assertions.assertFalse(matrix.set(row, column)),
+                    () -> Assertions.assertEquals(1, countSetCells(matrix, args)),
+                    () -> Assertions.assertTrue(matrix.get(row, column)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> clear_onlyClearsTargetCell(){
+        return test("clear() only clears the target cell", args -> {
+            BitMatrix matrix = args.convert();
+            matrix.set(0, 0);
+            matrix.set(1, args.nColumns - 1);
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(matrix.clear(0, 0)),
+                    () -> Assertions.assertFalse(matrix.clear(0, 0)),
+                    () -> Assertions.assertFalse(matrix.get(0, 0)),
+                    () -> Assertions.assertTrue(matrix.get(1, args.nColumns - 1)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> clearAll_clearsAllCells(){
+        return test("clearAll() clears all cells", args -> {
+            BitMatrix matrix = args.convert();
+            for (int i = 0; i < args.nRows; i++){
+                matrix.set(i, i % args.nColumns);
+            }
+            matrix.clearAll();
+            Assertions.assertEquals(0, countSetCells(matrix, args));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> copy_independentOfOriginal(){
+        return test("copy() returns an independent matrix with the same cells", args -> {
+            BitMatrix matrix = args.convert();
+            matrix.set(0, args.nColumns - 1);
+            BitMatrix copy = matrix.copy();
+            copy.set(1, 0);
+            matrix.clear(0, args.nColumns - 1);
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(copy.get(0, args.nColumns - 1)),
+                    () -> Assertions.assertFalse(matrix.get(1, 0)),
+                    () -> Assertions.assertEquals(2, countSetCells(copy, args)),
+                    () -> Assertions.assertEquals(0, countSetCells(matrix, args)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> get_invalidInput(){
+        return test("get() fails on invalid indices", args -> {
+            BitMatrix matrix = args.convert();
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.get(args.nRows, 0)),
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.get(0, args.nColumns)),
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.get(-1, 0)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> nextSetBit_findsSetCellsInOrder(){
+        return test("nextSetBit() iterates over the set cells of a row", args -> {
+            BitMatrix matrix = args.convert();
+            int row = args.nRows - 1;
+            List<Integer> expected = List.of(0, args.nColumns / 2, args.nColumns - 1);
+            expected.forEach(column -> matrix.set(row, column));
+            matrix.set(row - 1, 1);
+            List<Integer> actual = new ArrayList<>();
+            for (int j = matrix.nextSetBit(row, 0); j != -1; j = matrix.nextSetBit(row, j + 1)){
+                actual.add(j);
+            }
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expected, actual),
+                    () -> Assertions.assertEquals(-1, matrix.nextSetBit(row, args.nColumns)),
+                    () -> Assertions.assertEquals(-1, matrix.nextSetBit(0, 0)),
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.nextSetBit(row, -1)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addRowsAndColumns_keepsExistingCells(){
+        return test("addRows() and addColumns() keep existing cells and add false cells", args -> {
+            BitMatrix matrix = args.convert();
+            matrix.set(0, 0);
+            matrix.set(args.nRows - 1, args.nColumns - 1);
+            matrix.addRows(2);
+            matrix.addColumns(70);
+            BitMatrixArgs expectedDimensions = new BitMatrixArgs("expected", args.nRows + 2, 
+                    args.nColumns + 70);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(args.nRows + 2, matrix.getRowCount()),
+                    () -> Assertions.assertEquals(args.nColumns + 70, matrix.getColumnCount()),
+                    () -> Assertions.assertTrue(matrix.get(0, 0)),
+                    () -> Assertions.assertTrue(matrix.get(args.nRows - 1, args.nColumns - 1)),
+                    () -> Assertions.assertEquals(2, countSetCells(matrix, expectedDimensions)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeRowsAndColumns_shiftsRemainingCells(){
+        return test("removeRows() and removeColumns() shift the remaining cells", args -> {
+            BitMatrix matrix = args.convert();
+            matrix.set(1, args.nColumns - 1);
+            matrix.set(0, 0);
+            BitSet rows = new BitSet();
+            rows.set(0);
+            BitSet columns = new BitSet();
+            columns.set(0);
+            columns.set(args.nColumns - 2);
+            matrix.removeRows(rows);
+            matrix.removeColumns(columns);
+            BitMatrixArgs expectedDimensions = new BitMatrixArgs("expected", args.nRows - 1, 
+                    args.nColumns - 2);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(args.nRows - 1, matrix.getRowCount()),
+                    () -> Assertions.assertEquals(args.nColumns - 2, matrix.getColumnCount()),
+                    () -> Assertions.assertTrue(matrix.get(0, args.nColumns - 3)),
+                    () -> Assertions.assertEquals(1, countSetCells(matrix, expectedDimensions)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeRowsAndColumns_invalidInput(){
+        return test("removeRows() and removeColumns() fail on invalid indices", args -> {
+            BitMatrix matrix = args.convert();
+            BitSet rows = new BitSet();
+            rows.set(args.nRows);
+            BitSet columns = new BitSet();
+            columns.set(args.nColumns);
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.removeRows(rows)),
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrix.removeColumns(columns)),
+                    () -> Assertions.assertEquals(args.nRows, matrix.getRowCount()),
+                    () -> Assertions.assertEquals(args.nColumns, matrix.getColumnCount()));
+        });
+    }
+    
+    private static int countSetCells(BitMatrix matrix, BitMatrixArgs args){
+        int result = 0;
+        for (int i = 0; i < args.nRows; i++){
+            for (int j = 0; j < args.nColumns; j++){
+                result += matrix.get(i, j) ? 1 : 0;
+            }
+        }
+        return result;
+    }
+    
+    private static Object sink;
+    
+    @TestFactory
+    Stream<DynamicNode> heapFootprint_muchSmallerThanEnumSetMatrix(){
+        return test(Stream.of(new BitMatrixArgs("5000x5000 matrix", 5000, 5000)),
+                "two bit matrices use much less heap than the former List<List<EnumSet>>", args -> {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            long start = bean.getThreadAllocatedBytes(threadId);
+            BitMatrix specificallyForbidden = args.convert();
+            BitMatrix forbiddenByCriteria = args.convert();
+            long bitMatricesFootprint = bean.getThreadAllocatedBytes(threadId) - start;
+            sink = List.of(specificallyForbidden, forbiddenByCriteria);
+            /*
+            Rows of the former structure are dropped as soon as they are built so that the test does
+            not need several hundreds of megabytes of heap: the allocated bytes are still counted.
+            */
+            start = bean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < args.nRows; i++){
+                List<Set<LegacyForbiddenCode>> line = new ArrayList<>(args.nColumns);
+                for (int j = 0; j < args.nColumns; j++){
+                    line.add(EnumSet.noneOf(LegacyForbiddenCode.class));
+                }
+                sink = line;
+            }
+            long legacyFootprint = bean.getThreadAllocatedBytes(threadId) - start;
+            Assertions.assertTrue(bitMatricesFootprint * 50 < legacyFootprint,
+                    "bit matrices use %s bytes, legacy structure uses %s bytes"
+                            .formatted(bitMatricesFootprint, legacyFootprint));
+        });
+    }
+    
+    private enum LegacyForbiddenCode {SPECIFICALLY_FORBIDDEN, FORBIDDEN_BY_CRITERIA}
+    
+    static class BitMatrixArgs extends TestArgs {
+        final int nRows;
+        final int nColumns;
+    
+        BitMatrixArgs(String testCase, int nRows, int nColumns){
+            super(testCase);
+            this.nRows = nRows;
+            this.nColumns = nColumns;
+        }
+    
+        BitMatrix convert(){
+            return new BitMatrix(nRows, nColumns);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package mentoring.match;
 
-import assignmentproblem.Solver;
+import assignmentproblem.Result;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicNode;
@@ -55,6 +60,118 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> constructor_parallel(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        return test("parallel constructor yields the correct cost matrix", args -> {
+            CostMatrixHandler<Integer,Integer> matrixHandler = args.convert(pool);
+            assertMatricesAsExpected(args.expectedCostMatrix, args.expectedAllowedMatchMatrix, 
+                    matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_parallelFailsLikeSequential(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        Stream<CostMatrixHandlerArgs> testCase = Stream.of(
+                new CostMatrixHandlerArgs("negative score", null, 
+                        List.of(1,2,3,4,5,6,7,8), List.of(3,2,1),
+                        List.of((mentee, mentor) -> mentee >= 3 && mentor <= 2 ? -1 : 1)),
+                new CostMatrixHandlerArgs("overflow", null, 
+                        List.of(1,2,3,4,5,6,7,8), List.of(3,2,1),
+                        List.of((mentee, mentor) -> 3,
+                                (mentee, mentor) -> mentee >= 5 ? Integer.MAX_VALUE : 1)));
+        return test(testCase, "parallel constructor throws the same exception as sequential one", 
+                args -> {
+            IllegalStateException expected = Assertions.assertThrows(IllegalStateException.class,
+                    () -> args.convert());
+            IllegalStateException actual = Assertions.assertThrows(IllegalStateException.class,
+                    () -> args.convert(pool));
+            Assertions.assertEquals(expected.getMessage(), actual.getMessage());
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_singlePass(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        return test(withNecessaryCriterionSupplier(), 
+                "constructor with necessary criteria yields the correct matrices", args -> {
+            CostMatrixHandler<Integer,Integer> sequentialHandler = args.convertSinglePass(null);
+            CostMatrixHandler<Integer,Integer> parallelHandler = args.convertSinglePass(pool);
+            Assertions.assertAll(
+                    () -> assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), 
+                            args.expectedAllowedMatchMatrix, sequentialHandler),
+                    () -> assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), 
+                            args.expectedAllowedMatchMatrix, parallelHandler));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_singlePassVisitsEachPairOnce(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        return test("constructor with necessary criteria evaluates each criterion once per pair", 
+                args -> {
+            for (ForkJoinPool usedPool : Arrays.asList(null, pool)){
+                AtomicInteger progressiveCalls = new AtomicInteger();
+                AtomicInteger necessaryCalls = new AtomicInteger();
+                new CostMatrixHandler<>(args.mentees, args.mentors, 
+                        List.of((mentee, mentor) -> progressiveCalls.incrementAndGet()), 
+                        List.of((mentee, mentor) -> necessaryCalls.incrementAndGet() > 0), 
+                        usedPool);
+                int expectedCalls = args.mentees.size() * args.mentors.size();
+                Assertions.assertAll(
+                        () -> Assertions.assertEquals(expectedCalls, progressiveCalls.get()),
+                        () -> Assertions.assertEquals(expectedCalls, necessaryCalls.get()));
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> constructor_singlePassSkipsForbiddenPairs(){
+        return test(withNecessaryCriterionSupplier(), 
+                "constructor with necessary criteria does not evaluate forbidden pairs", args -> {
+            List<Integer> evaluatedMentees = new ArrayList<>();
+            new CostMatrixHandler<>(args.mentees, args.mentors, 
+                    List.of((mentee, mentor) -> {
+                        evaluatedMentees.add(mentee);
+                        return 0;
+                    }), args.necessaryCriteria, null);
+            long allowedPairs = Arrays.stream(args.expectedAllowedMatchMatrix)
+                    .mapToLong(row -> IntStream.range(0, row.length).filter(j -> row[j]).count())
+                    .sum();
+            Assertions.assertAll(
+                    () -> Assertions.assertFalse(evaluatedMentees.contains(2)),
+                    () -> Assertions.assertEquals(allowedPairs, evaluatedMentees.size()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> withNecessaryCriteria_computesSkippedCosts(){
+        return test(withNecessaryCriterionSupplier(), 
+                "withNecessaryCriteria() computes the costs skipped by previous criteria", args -> {
+            CostMatrixHandler<Integer,Integer> matrixHandler = args.convertSinglePass(null);
+            matrixHandler.withNecessaryCriteria(List.of());
+            assertMatricesAsExpected(args.expectedCostMatrix, 
+                    new CostMatrixHandlerArgs("all allowed", args.expectedCostMatrix, args.mentees,
+                            args.mentors, args.progressiveCriteria).expectedAllowedMatchMatrix,
+                    matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> withNecessaryCriteria_parallel(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        return test(withNecessaryCriterionSupplier(), 
+                "withNecessaryCriteria() on a parallel handler forbids the expected matches", 
+                args -> {
+            CostMatrixHandler<Integer,Integer> matrixHandler = new CostMatrixHandler<>(args.mentees,
+                    args.mentors, args.progressiveCriteria, pool);
+            matrixHandler.withNecessaryCriteria(args.necessaryCriteria);
+            assertMatricesAsExpected(args.expectedCostMatrix, args.expectedAllowedMatchMatrix, 
+                    matrixHandler);
+        });
+    }
+    
     @TestFactory
     Stream<DynamicNode> isMatchAllowed(){
         boolean[][] expectedResult = new boolean[][]{{true,false,false},{false,true,false}};
@@ -117,14 +234,14 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         DummySolver solver = new DummySolver();
         return test("solveCostMatrix() solves cost matrix", args -> {
             Assertions.assertEquals(solver.expectedResult, 
-                    args.convert().solveCostMatrix(solver));
+                    args.convert().solveCostMatrix(solver::solve));
         });
     }
     
     @TestFactory
     Stream<DynamicNode> solveCostMatrixForbidsForbiddenMatches(){
         return test("solveCostMatrix() forbids forbidden matches", args -> {
-            Solver solver = Mockito.mock(Solver.class);
+            MatrixSolver solver = Mockito.mock(MatrixSolver.class);
             ArgumentCaptor<int[][]> captor = ArgumentCaptor.forClass(int[][].class);
             CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
             matrixHandler.forbidMatch(0, 1);
@@ -142,7 +259,7 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
     @TestFactory
     Stream<DynamicNode> solveCostMatrixAllowsAllowedMatches(){
         return test("solveCostMatrix() allows allowed matches", args -> {
-            Solver solver = Mockito.mock(Solver.class);
+            MatrixSolver solver = Mockito.mock(MatrixSolver.class);
             ArgumentCaptor<int[][]> captor = ArgumentCaptor.forClass(int[][].class);
             CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
             Assertions.assertTrue(matrixHandler.getMatchScore(0, 1) < MatchesBuilder.PROHIBITIVE_VALUE, 
@@ -160,7 +277,7 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
     @TestFactory
     Stream<DynamicNode> solvePartialCostMatrixSolvesMatrix(){
         return test("solvePartialCostMatrix() solves partial cost matrix", args -> {
-                Solver solver = Mockito.mock(Solver.class);
+                MatrixSolver solver = Mockito.mock(MatrixSolver.class);
                 args.convert().solvePartialCostMatrix(solver, args.partialMenteeIndices, 
                         args.partialMentorIndices);
                 ArgumentCaptor<int[][]> captor = 
@@ -188,7 +305,7 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
                         new int[][]{{MatchesBuilder.PROHIBITIVE_VALUE}, 
                             {MatchesBuilder.PROHIBITIVE_VALUE}}));
         return test(testCase, "solvePartialCostMatrix() forbids forbidden matches", args -> {
-                Solver solver = Mockito.mock(Solver.class);
+                MatrixSolver solver = Mockito.mock(MatrixSolver.class);
                 CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
                 matrixHandler.forbidMatch(1,0);
                 matrixHandler.solvePartialCostMatrix(solver, args.partialMenteeIndices, 
@@ -217,7 +334,7 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
                         List.of(1,2), List.of(0),
                         new int[][]{{1},{MatchesBuilder.PROHIBITIVE_VALUE}}));
         return test(testCase, "solvePartialCostMatrix() forbids forbidden matches", args -> {
-                Solver solver = Mockito.mock(Solver.class);
+                MatrixSolver solver = Mockito.mock(MatrixSolver.class);
                 CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
                 matrixHandler.forbidMatch(1,0);
                 matrixHandler.allowMatch(1, 0);
@@ -235,7 +352,7 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         DummySolver solver = new DummySolver();
         return test("solveCostMatrix() does not modify matrix", args -> {
             CostMatrixHandler<Integer,Integer> matrixHandler = args.convert();
-            matrixHandler.solveCostMatrix(solver);
+            matrixHandler.solveCostMatrix(solver::solve);
             assertMatricesAsExpected(args.expectedCostMatrix, args.expectedAllowedMatchMatrix,
                     matrixHandler);
         });
@@ -246,13 +363,202 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         DummySolver solver = new DummySolver();
         return test("solveCostMatrix() does not modify matrix", args -> {
             CostMatrixHandler<Integer,Integer> matrixHandler = args.convert();
-            matrixHandler.solvePartialCostMatrix(solver, args.partialMenteeIndices,
+            matrixHandler.solvePartialCostMatrix(solver::solve, args.partialMenteeIndices,
                     args.partialMentorIndices);
             assertMatricesAsExpected(args.expectedCostMatrix, args.expectedAllowedMatchMatrix,
                     matrixHandler);
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> solveCostMatrix_doesNotEvaluateCriteria(){
+        DummySolver solver = new DummySolver();
+        return test("solveCostMatrix() reuses the computed costs", args -> {
+            AtomicInteger progressiveCalls = new AtomicInteger();
+            CostMatrixHandler<Integer,Integer> matrixHandler = new CostMatrixHandler<>(args.mentees,
+                    args.mentors, List.of((mentee, mentor) -> progressiveCalls.incrementAndGet()));
+            int callsAfterConstruction = progressiveCalls.get();
+            matrixHandler.solveCostMatrix(solver::solve);
+            matrixHandler.solvePartialCostMatrix(solver::solve, new int[]{0}, new int[]{0});
+            Assertions.assertEquals(callsAfterConstruction, progressiveCalls.get());
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solveCostMatrix_reusesBuffer(){
+        return test("solveCostMatrix() reuses its buffer and rewrites all its cells", args -> {
+            MatrixSolver solver = Mockito.mock(MatrixSolver.class);
+            ArgumentCaptor<int[][]> captor = ArgumentCaptor.forClass(int[][].class);
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
+            matrixHandler.solveCostMatrix(solver);
+            matrixHandler.forbidMatch(0, 1);
+            matrixHandler.solveCostMatrix(solver);
+            Mockito.verify(solver, Mockito.times(2)).solve(captor.capture());
+            int[][] buffer = captor.getAllValues().get(0);
+            Assertions.assertAll(
+                    () -> Assertions.assertSame(buffer, captor.getAllValues().get(1)),
+                    () -> Assertions.assertEquals(MatchesBuilder.PROHIBITIVE_VALUE, buffer[0][1]));
+            matrixHandler.allowMatch(0, 1);
+            matrixHandler.solveCostMatrix(solver);
+            Assertions.assertEquals(args.expectedCostMatrix[0][1], buffer[0][1]);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solveCostMatrix_warmStartsLapjvSolver(){
+        return test("solveCostMatrix() warm-starts a LapjvSolver with its previous result", 
+                args -> {
+            RecordingLapjvSolver solver = new RecordingLapjvSolver();
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
+            LapjvSolver.DualResult first = 
+                    (LapjvSolver.DualResult) matrixHandler.solveCostMatrix(solver);
+            matrixHandler.forbidMatch(0, 1);
+            matrixHandler.solveCostMatrix(solver);
+            LapjvSolver.WarmStart expected = first.getWarmStart();
+            LapjvSolver.WarmStart actual = solver.warmStarts.get(1);
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(Arrays.stream(solver.warmStarts.get(0).rowDuals())
+                            .allMatch(dual -> dual == LapjvSolver.UNKNOWN_DUAL)),
+                    () -> Assertions.assertArrayEquals(expected.rowDuals(), actual.rowDuals()),
+                    () -> Assertions.assertArrayEquals(expected.columnDuals(), 
+                            actual.columnDuals()),
+                    () -> Assertions.assertArrayEquals(expected.rowAssignments(), 
+                            actual.rowAssignments()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeMentors_keepsWarmStartOfRemainingPersons(){
+        return test("removeMentors() keeps the warm start of the remaining persons", args -> {
+            RecordingLapjvSolver solver = new RecordingLapjvSolver();
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
+            LapjvSolver.WarmStart expected = 
+                    ((LapjvSolver.DualResult) matrixHandler.solveCostMatrix(solver))
+                    .getWarmStart();
+            BitSet removed = new BitSet();
+            removed.set(0);
+            matrixHandler.removeMentors(removed);
+            matrixHandler.solveCostMatrix(solver);
+            LapjvSolver.WarmStart actual = solver.warmStarts.get(1);
+            int[] expectedAssignments = Arrays.stream(expected.rowAssignments())
+                    .map(j -> j <= 0 ? -1 : j - 1).toArray();
+            Assertions.assertAll(
+                    () -> Assertions.assertArrayEquals(expected.rowDuals(), actual.rowDuals()),
+                    () -> Assertions.assertArrayEquals(Arrays.copyOfRange(expected.columnDuals(), 
+                            1, args.mentors.size()), actual.columnDuals()),
+                    () -> Assertions.assertArrayEquals(expectedAssignments, 
+                            actual.rowAssignments()));
+        });
+    }
+    
+    /** LapjvSolver recording the warm start of each solve. */
+    private static class RecordingLapjvSolver extends LapjvSolver {
+        final List<LapjvSolver.WarmStart> warmStarts = new ArrayList<>();
+        
+        RecordingLapjvSolver(){
+            super(null);
+        }
+        
+        @Override
+        DualResult solve(int[][] costMatrix, WarmStart warmStart, Deadline deadline){
+            warmStarts.add(warmStart);
+            return super.solve(costMatrix, warmStart, deadline);
+        }
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> findComponents_splitsAllowedGraph(){
+        return test(Stream.of("specific test case"), 
+                "findComponents() returns the connected components of allowed matches", args -> {
+            CostMatrixHandler<Integer,Integer> matrixHandler = new CostMatrixHandler<>(
+                    List.of(0, 1, 2, 3, 4, 5), List.of(0, 1, 2, 3), 
+                    List.of((mentee, mentor) -> 0), 
+                    List.of((mentee, mentor) -> mentee % 2 == mentor % 2 && mentee != 4), null);
+            matrixHandler.forbidMatch(1, 1);
+            matrixHandler.forbidMatch(1, 3);
+            List<CostMatrixHandler.Component> components = matrixHandler.findComponents(
+                    new int[]{0, 1, 2, 3, 4, 5}, new int[]{0, 1, 2, 3});
+            List<CostMatrixHandler.Component> partialComponents = matrixHandler.findComponents(
+                    new int[]{5, 2}, new int[]{3, 0});
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(2, components.size()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 2}, components.get(0).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 2}, 
+                            components.get(0).columns()),
+                    () -> Assertions.assertArrayEquals(new int[]{3, 5}, components.get(1).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{1, 3}, 
+                            components.get(1).columns()),
+                    () -> Assertions.assertEquals(2, partialComponents.size()),
+                    () -> Assertions.assertArrayEquals(new int[]{0}, 
+                            partialComponents.get(0).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{0}, 
+                            partialComponents.get(0).columns()),
+                    () -> Assertions.assertArrayEquals(new int[]{1}, 
+                            partialComponents.get(1).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{1}, 
+                            partialComponents.get(1).columns()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> findComponents_wholeProblemWhenConnected(){
+        return test(Stream.of("specific test case"), 
+                "findComponents() returns the whole problem when it is connected", args -> {
+            CostMatrixHandler<Integer,Integer> matrixHandler = new CostMatrixHandler<>(
+                    List.of(0, 1, 2), List.of(0, 1, 2, 3), List.of((mentee, mentor) -> 0), 
+                    List.of(), null);
+            List<CostMatrixHandler.Component> noForbiddenMatch = matrixHandler.findComponents(
+                    new int[]{2, 0}, new int[]{3, 1, 0});
+            matrixHandler.forbidMatch(0, 1);
+            List<CostMatrixHandler.Component> connected = matrixHandler.findComponents(
+                    new int[]{0, 1, 2}, new int[]{0, 1, 2, 3});
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(1, noForbiddenMatch.size()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 1}, 
+                            noForbiddenMatch.get(0).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 1, 2}, 
+                            noForbiddenMatch.get(0).columns()),
+                    () -> Assertions.assertEquals(1, connected.size()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 1, 2}, 
+                            connected.get(0).rows()),
+                    () -> Assertions.assertArrayEquals(new int[]{0, 1, 2, 3}, 
+                            connected.get(0).columns()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solveComponents_solvesEachComponentApart(){
+        ForkJoinPool pool = new ForkJoinPool(2);
+        return test(Stream.of("specific test case"), 
+                "solveComponents() solves the cost matrix of each component", args -> {
+            for (ForkJoinPool usedPool : Arrays.asList(null, pool)){
+                CostMatrixHandler<Integer,Integer> matrixHandler = new CostMatrixHandler<>(
+                        List.of(0, 1, 2, 3), List.of(0, 1, 2), 
+                        List.of((mentee, mentor) -> 10 * mentee + mentor), 
+                        List.of((mentee, mentor) -> mentee % 2 == mentor % 2), usedPool);
+                int[] menteeIndices = new int[]{0, 1, 2, 3};
+                int[] mentorIndices = new int[]{0, 1, 2};
+                List<int[][]> solvedMatrices = new ArrayList<>();
+                DummySolver solver = new DummySolver(){
+                    @Override
+                    public synchronized Result solve(int[][] costMatrix){
+                        solvedMatrices.add(costMatrix);
+                        return super.solve(costMatrix);
+                    }
+                };
+                matrixHandler.solveComponents(solver::solve, menteeIndices, mentorIndices, 
+                        matrixHandler.findComponents(menteeIndices, mentorIndices));
+                solvedMatrices.sort((first, second) -> first[0][0] - second[0][0]);
+                Assertions.assertAll(
+                        () -> Assertions.assertEquals(2, solvedMatrices.size()),
+                        () -> Assertions.assertArrayEquals(new int[][]{{0, 2}, {20, 22}}, 
+                                solvedMatrices.get(0)),
+                        () -> Assertions.assertArrayEquals(new int[][]{{11}, {31}}, 
+                                solvedMatrices.get(1)));
+            }
+        });
+    }
+    
     static void assertMatricesAsExpected(int[][] expectedCostMatrix, 
             boolean[][] expectedAllowedMatrix, CostMatrixHandler<?,?> matrixHandler){
         int[][] actualCostMatrix = extractCostMatrix(matrixHandler,
@@ -382,11 +688,163 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> addMentees_sameMatrixAsFullConstructor(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        return test("addMentees() yields the same cost matrix as the constructor", args -> {
+            int split = args.mentees.size() / 2;
+            CostMatrixHandler<Integer, Integer> sequentialHandler = 
+                    args.convertSinglePass(args.mentees.subList(0, split), args.mentors, null);
+            sequentialHandler.addMentees(args.mentees.subList(split, args.mentees.size()));
+            CostMatrixHandler<Integer, Integer> parallelHandler = 
+                    args.convertSinglePass(args.mentees.subList(0, split), args.mentors, pool);
+            parallelHandler.addMentees(args.mentees.subList(split, args.mentees.size()));
+            Assertions.assertAll(
+                    () -> assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), 
+                            args.expectedAllowedMatchMatrix, sequentialHandler),
+                    () -> assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), 
+                            args.expectedAllowedMatchMatrix, parallelHandler));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addMentors_sameMatrixAsFullConstructor(){
+        return test("addMentors() yields the same cost matrix as the constructor", args -> {
+            int split = args.mentors.size() / 2;
+            CostMatrixHandler<Integer, Integer> matrixHandler = 
+                    args.convertSinglePass(args.mentees, args.mentors.subList(0, split), null);
+            matrixHandler.addMentors(args.mentors.subList(split, args.mentors.size()));
+            assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), 
+                    args.expectedAllowedMatchMatrix, matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addPersons_onlyComputesNewCells(){
+        return test("addMentees() and addMentors() only evaluate the criteria on new cells", args -> {
+            AtomicInteger progressiveCalls = new AtomicInteger();
+            AtomicInteger necessaryCalls = new AtomicInteger();
+            CostMatrixHandler<Integer, Integer> matrixHandler = new CostMatrixHandler<>(
+                    args.mentees, args.mentors, List.of((mentee, mentor) -> 
+                            progressiveCalls.incrementAndGet()));
+            matrixHandler.withNecessaryCriteria(List.of((mentee, mentor) -> 
+                    necessaryCalls.incrementAndGet() > 0));
+            progressiveCalls.set(0);
+            necessaryCalls.set(0);
+            matrixHandler.addMentees(List.of(10, 11));
+            matrixHandler.addMentors(List.of(12));
+            int expectedCalls = 2 * args.mentors.size() + (args.mentees.size() + 2);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expectedCalls, progressiveCalls.get()),
+                    () -> Assertions.assertEquals(expectedCalls, necessaryCalls.get()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeMentees_keepsRemainingCells(){
+        return test("removeMentees() keeps the scores and forbidden matches of other mentees", 
+                args -> {
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convertSinglePass(null);
+            matrixHandler.addMentees(args.mentees);
+            matrixHandler.forbidMatch(args.mentees.size(), 0);
+            BitSet removed = new BitSet();
+            removed.set(0, args.mentees.size());
+            matrixHandler.removeMentees(removed);
+            boolean[][] expectedAllowedMatrix = copy(args.expectedAllowedMatchMatrix);
+            expectedAllowedMatrix[0][0] = false;
+            assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), expectedAllowedMatrix, 
+                    matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeMentors_keepsRemainingCells(){
+        return test("removeMentors() keeps the scores and forbidden matches of other mentors", 
+                args -> {
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convertSinglePass(null);
+            matrixHandler.addMentors(args.mentors);
+            matrixHandler.forbidMatch(0, args.mentors.size());
+            BitSet removed = new BitSet();
+            removed.set(0, args.mentors.size());
+            matrixHandler.removeMentors(removed);
+            boolean[][] expectedAllowedMatrix = copy(args.expectedAllowedMatchMatrix);
+            expectedAllowedMatrix[0][0] = false;
+            assertMatricesAsExpected(args.expectedSinglePassCostMatrix(), expectedAllowedMatrix, 
+                    matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removePersons_invalidIndex(){
+        return test("removeMentees() and removeMentors() fail on unknown indices", args -> {
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convert();
+            BitSet invalidMentee = new BitSet();
+            invalidMentee.set(args.mentees.size());
+            BitSet invalidMentor = new BitSet();
+            invalidMentor.set(args.mentors.size());
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrixHandler.removeMentees(invalidMentee)),
+                    () -> Assertions.assertThrows(IndexOutOfBoundsException.class,
+                            () -> matrixHandler.removeMentors(invalidMentor)));
+            assertMatricesAsExpected(args.expectedCostMatrix, args.expectedAllowedMatchMatrix, 
+                    matrixHandler);
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> recordCriterionScores_recordsScoreOfEachCriterion(){
+        ForkJoinPool pool = new ForkJoinPool(3);
+        Stream<CostMatrixHandlerArgs> testCases = Stream.concat(argumentsSupplier(), Stream.of(
+                new CostMatrixHandlerArgs("scores not fitting in a short", null, 
+                        List.of(1,2,3), List.of(1,2),
+                        List.of((mentee, mentor) -> mentee,
+                                (mentee, mentor) -> mentee == 2 && mentor == 2 
+                                        ? 100_000 : mentor))));
+        return test(testCases, "recordCriterionScores() records the score of each criterion", 
+                args -> {
+            CostMatrixHandler<Integer, Integer> matrixHandler = args.convertSinglePass(pool);
+            Assertions.assertNull(matrixHandler.getCriterionScores(0, 0));
+            matrixHandler.recordCriterionScores();
+            matrixHandler.addMentees(args.mentees);
+            matrixHandler.addMentors(args.mentors);
+            BitSet removed = new BitSet();
+            removed.set(0);
+            matrixHandler.removeMentees(removed);
+            matrixHandler.removeMentors(removed);
+            List<Integer> mentees = new ArrayList<>(args.mentees);
+            mentees.addAll(args.mentees);
+            List<Integer> mentors = new ArrayList<>(args.mentors);
+            mentors.addAll(args.mentors);
+            for (int i = 0; i < mentees.size() - 1; i++){
+                for (int j = 0; j < mentors.size() - 1; j++){
+                    Integer mentee = mentees.get(i + 1);
+                    Integer mentor = mentors.get(j + 1);
+                    if (matrixHandler.isMatchAllowed(i, j)){
+                        Assertions.assertArrayEquals(args.progressiveCriteria.stream()
+                                .mapToInt(criterion -> criterion.applyAsInt(mentee, mentor))
+                                .toArray(), matrixHandler.getCriterionScores(i, j));
+                    } else {
+                        Assertions.assertNull(matrixHandler.getCriterionScores(i, j));
+                    }
+                }
+            }
+        });
+    }
+    
+    private static boolean[][] copy(boolean[][] matrix){
+        boolean[][] result = new boolean[matrix.length][];
+        for (int i = 0; i < matrix.length; i++){
+            result[i] = matrix[i].clone();
+        }
+        return result;
+    }
+    
     static class CostMatrixHandlerArgs extends TestArgs{
         final List<Integer> mentees;
-        final List<Integer> partialMenteeIndices;
+        final int[] partialMenteeIndices;
         final List<Integer> mentors;
-        final List<Integer> partialMentorIndices;
+        final int[] partialMentorIndices;
         final Collection<ProgressiveCriterion<Integer, Integer>> progressiveCriteria;
         final int[][] expectedCostMatrix;
         final int[][] expectedPartialActualCostMatrix;
@@ -419,11 +877,15 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
             } else {
                 this.expectedAllowedMatchMatrix = expectedAllowedMatchMatrix;
             }
-            this.partialMenteeIndices = partialMenteeIndices;
-            this.partialMentorIndices = partialMentorIndices;
+            this.partialMenteeIndices = toArray(partialMenteeIndices);
+            this.partialMentorIndices = toArray(partialMentorIndices);
             this.expectedPartialActualCostMatrix = expectedPartialActualCostMatrix;
         }
         
+        private static int[] toArray(List<Integer> indices){
+            return indices == null ? null : indices.stream().mapToInt(Integer::intValue).toArray();
+        }
+        
         CostMatrixHandlerArgs(String testCase, int[][] expectedCostMatrix, 
                 List<Integer> mentees, List<Integer> mentors,
                 Collection<ProgressiveCriterion<Integer, Integer>> progressiveCriteria){
@@ -432,7 +894,39 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         }
         
         CostMatrixHandler<Integer, Integer> convert(){
-            return new CostMatrixHandler<>(mentees, mentors, progressiveCriteria);
+            return convert(null);
+        }
+        
+        CostMatrixHandler<Integer, Integer> convert(ForkJoinPool pool){
+            return convert(mentees, mentors, pool);
+        }
+        
+        CostMatrixHandler<Integer, Integer> convert(List<Integer> mentees, List<Integer> mentors,
+                ForkJoinPool pool){
+            return new CostMatrixHandler<>(mentees, mentors, progressiveCriteria, pool);
+        }
+        
+        CostMatrixHandler<Integer, Integer> convertSinglePass(ForkJoinPool pool){
+            return convertSinglePass(mentees, mentors, pool);
+        }
+        
+        CostMatrixHandler<Integer, Integer> convertSinglePass(List<Integer> mentees, 
+                List<Integer> mentors, ForkJoinPool pool){
+            return convert(mentees, mentors, pool);
+        }
+        
+        /** Returns the expected cost matrix where the cells forbidden by criteria are prohibitive. */
+        int[][] expectedSinglePassCostMatrix(){
+            int[][] result = new int[expectedCostMatrix.length][];
+            for (int i = 0; i < result.length; i++){
+                result[i] = expectedCostMatrix[i].clone();
+                for (int j = 0; j < result[i].length; j++){
+                    if (!expectedAllowedMatchMatrix[i][j]){
+                        result[i][j] = MatchesBuilder.PROHIBITIVE_VALUE;
+                    }
+                }
+            }
+            return result;
         }
     }
     
@@ -463,8 +957,16 @@ final class CostMatrixHandlerTest implements TestFramework<CostMatrixHandlerTest
         }
         
         @Override
-        CostMatrixHandler<Integer, Integer> convert(){
-            CostMatrixHandler<Integer, Integer> result = super.convert();
+        CostMatrixHandler<Integer, Integer> convertSinglePass(List<Integer> mentees, 
+                List<Integer> mentors, ForkJoinPool pool){
+            return new CostMatrixHandler<>(mentees, mentors, progressiveCriteria, necessaryCriteria,
+                    pool);
+        }
+        
+        @Override
+        CostMatrixHandler<Integer, Integer> convert(List<Integer> mentees, List<Integer> mentors,
+                ForkJoinPool pool){
+            CostMatrixHandler<Integer, Integer> result = super.convert(mentees, mentors, pool);
             result.withNecessaryCriteria(necessaryCriteria);
             return result;
         }
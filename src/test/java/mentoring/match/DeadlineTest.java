@@ -0,0 +1,77 @@
+package mentoring.match;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class DeadlineTest implements TestFramework<DeadlineTest.DeadlineArgs>{
+    
+    @Override
+    public Stream<DeadlineArgs> argumentsSupplier(){
+        return Stream.of(new DeadlineArgs("zero time limit", Duration.ZERO, true),
+                new DeadlineArgs("negative time limit", Duration.ofSeconds(-1), true),
+                new DeadlineArgs("one minute time limit", Duration.ofMinutes(1), false),
+                new DeadlineArgs("unbounded time limit", ChronoUnit.FOREVER.getDuration(), false));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> isReached_dependsOnTimeLimit(){
+        return test("isReached() returns true once the time limit is over", args -> {
+            Deadline deadline = Deadline.after(args.timeLimit);
+            Assertions.assertEquals(args.expectedReached, deadline.isReached());
+            if (args.expectedReached){
+                Assertions.assertThrows(CancellationException.class, deadline::check);
+            } else {
+                Assertions.assertDoesNotThrow(deadline::check);
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> isReached_whenOwnerIsInterrupted(){
+        return test("isReached() returns true when the thread that built it is interrupted",
+                args -> {
+                    Deadline deadline = Deadline.after(args.timeLimit);
+                    Thread.currentThread().interrupt();
+                    boolean reached;
+                    try {
+                        reached = deadline.isReached();
+                    } finally {
+                        Assertions.assertTrue(Thread.interrupted(), "interrupted status");
+                    }
+                    Assertions.assertTrue(reached);
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> isReached_neverForNone(){
+        return test(Stream.of(new DeadlineArgs("no deadline", null, false)),
+                "Deadline.NONE is never reached, even when the thread is interrupted", args -> {
+                    Thread.currentThread().interrupt();
+                    boolean reached;
+                    try {
+                        reached = Deadline.NONE.isReached();
+                    } finally {
+                        Thread.interrupted();
+                    }
+                    Assertions.assertFalse(reached);
+                });
+    }
+    
+    static class DeadlineArgs extends TestArgs{
+        final Duration timeLimit;
+        final boolean expectedReached;
+    
+        DeadlineArgs(String testCase, Duration timeLimit, boolean expectedReached){
+            super(testCase);
+            this.timeLimit = timeLimit;
+            this.expectedReached = expectedReached;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package mentoring.match;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class FeatureCriterionTest 
+        implements TestFramework<FeatureCriterionTest.FeatureCriterionArgs>{
+    
+    @Override
+    public Stream<FeatureCriterionArgs> argumentsSupplier(){
+        return Stream.of(new FeatureCriterionArgs("integer features", 
+                        FeatureCriterion.ofInts(String::length, mentor -> mentor * 2, 
+                                (menteeLength, mentorDouble) -> 
+                                        Math.abs(menteeLength - mentorDouble))),
+                new FeatureCriterionArgs("object features", 
+                        FeatureCriterion.of(mentee -> Set.of(mentee.split("")), 
+                                mentor -> Integer.toString(mentor), 
+                                (letters, digits) -> letters.contains(digits) ? 0 : 1)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> prepare_sameScoresAsApplyAsInt(){
+        List<String> mentees = List.of("a", "1", "abcdef", "");
+        List<Integer> mentors = List.of(1, 3, 0);
+        return test("prepare() returns the same scores as applyAsInt()", args -> {
+            IntBinaryOperator evaluator = args.criterion.prepare(mentees, mentors);
+            for (int i = 0; i < mentees.size(); i++){
+                for (int j = 0; j < mentors.size(); j++){
+                    Assertions.assertEquals(
+                            args.criterion.applyAsInt(mentees.get(i), mentors.get(j)), 
+                            evaluator.applyAsInt(i, j));
+                }
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> costMatrix_extractsFeaturesOncePerPerson(){
+        return test(Stream.of(new FeatureCriterionArgs("counting features", null)), 
+                "the cost matrix extracts the features of each person once", args -> {
+            AtomicInteger menteeExtractions = new AtomicInteger();
+            AtomicInteger mentorExtractions = new AtomicInteger();
+            ProgressiveCriterion<String, Integer> criterion = FeatureCriterion.ofInts(
+                    mentee -> menteeExtractions.incrementAndGet() > 0 ? mentee.length() : 0,
+                    mentor -> mentorExtractions.incrementAndGet() > 0 ? mentor : 0, 
+                    Integer::sum);
+            CostMatrixHandler<String, Integer> handler = new CostMatrixHandler<>(
+                    List.of("a", "bb", "ccc"), List.of(1, 2), List.of(criterion));
+            handler.addMentees(List.of("dddd"));
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(4, menteeExtractions.get()),
+                    () -> Assertions.assertEquals(4, mentorExtractions.get()),
+                    () -> Assertions.assertEquals(6, handler.getMatchScore(3, 1)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> factories_NPE(){
+        return test(Stream.of(new FeatureCriterionArgs("null functions", null)), 
+                "ofInts() and of() throw an NPE on null input", args -> Assertions.assertAll(
+                        () -> Assertions.assertThrows(NullPointerException.class, 
+                                () -> FeatureCriterion.ofInts(null, mentor -> 0, Integer::sum)),
+                        () -> Assertions.assertThrows(NullPointerException.class, 
+                                () -> FeatureCriterion.of(mentee -> 0, null, (a, b) -> 0)),
+                        () -> Assertions.assertThrows(NullPointerException.class, 
+                                () -> FeatureCriterion.of(mentee -> 0, mentor -> 0, null))));
+    }
+    
+    static class FeatureCriterionArgs extends TestArgs{
+        final ProgressiveCriterion<String, Integer> criterion;
+        
+        FeatureCriterionArgs(String testCase, ProgressiveCriterion<String, Integer> criterion){
+            super(testCase);
+            this.criterion = criterion;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package mentoring.match;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class GreedySolverTest implements TestFramework<GreedySolverTest.GreedySolverArgs>{
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    @Override
+    public Stream<GreedySolverArgs> argumentsSupplier(){
+        return Stream.of(new GreedySolverArgs("square matrix", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}, {3, 2, 2}}, new int[]{1, 1, 1}),
+                new GreedySolverArgs("more rows than columns", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}, new int[]{1, 1}),
+                new GreedySolverArgs("greedy choice improved by a swap", new int[][]{
+                    {1, 2}, {2, 9}}, new int[]{1, 1}),
+                new GreedySolverArgs("greedy choice improved by a move", new int[][]{
+                    {1, 2, 5}, {0, 9, 9}}, new int[]{1, 1, 1}),
+                new GreedySolverArgs("column taking several rows", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}, new int[]{1, 2}),
+                new GreedySolverArgs("forbidden pairs", new int[][]{
+                    {0, X, X}, {1, 5, X}, {X, X, X}}, new int[]{1, 1, 1}),
+                new GreedySolverArgs("empty matrix", new int[0][0], new int[0]));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_boundedApproximation(){
+        return test("solve() returns a valid assignment with a valid lower bound", args ->
+                assertBoundedApproximation(args, new GreedySolver(null).solve(args.costMatrix,
+                        args.capacities), null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_boundedApproximationOnRandomMatrices(){
+        Random random = new Random(42);
+        Stream<GreedySolverArgs> testCases = Stream.generate(() -> {
+            int nRows = 1 + random.nextInt(6);
+            int nColumns = 1 + random.nextInt(5);
+            int[][] costMatrix = new int[nRows][nColumns];
+            for (int[] row : costMatrix){
+                for (int j = 0; j < nColumns; j++){
+                    row[j] = random.nextInt(4) == 0 ? X : random.nextInt(20);
+                }
+            }
+            int[] capacities = new int[nColumns];
+            for (int j = 0; j < nColumns; j++){
+                capacities[j] = random.nextInt(3);
+            }
+            return new GreedySolverArgs("random %sx%s matrix".formatted(nRows, nColumns),
+                    costMatrix, capacities);
+        }).limit(50);
+        return test(testCases, "solve() returns a valid assignment with a valid lower bound",
+                args -> assertBoundedApproximation(args, new GreedySolver(-1)
+                        .solve(args.costMatrix, args.capacities), -1));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_exactOnSimpleCases(){
+        return test(Stream.of(new GreedySolverArgs("swap", new int[][]{{1, 2}, {2, 9}},
+                        new int[]{1, 1}),
+                new GreedySolverArgs("move", new int[][]{{1, 2, 5}, {0, 9, 9}},
+                        new int[]{1, 1, 1})),
+                "solve() finds the optimal assignment after improving the greedy one",
+                args -> SolverAssertions.assertOptimal(args.costMatrix,
+                        new GreedySolver(null).solve(args.costMatrix), null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidInput(){
+        return test(Stream.of(
+                new GreedySolverArgs("ragged matrix", new int[][]{{1, 2}, {3}}, new int[]{1, 1}),
+                new GreedySolverArgs("missing capacity", new int[][]{{1, 2}}, new int[]{1}),
+                new GreedySolverArgs("negative capacity", new int[][]{{1, 2}}, new int[]{1, -1})),
+                "solve() fails on invalid input", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new GreedySolver(null).solve(args.costMatrix,
+                                        args.capacities)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_fromPartialAssignment(){
+        return test(Stream.of(new PartialAssignmentArgs("row assigned to its second choice",
+                        new int[][]{{0, 1}, {0, 5}}, new int[]{1, 1}, new int[]{1, -1})),
+                "solve() keeps the pairs of a partial assignment and assigns the other rows",
+                args -> {
+                    PartialAssignmentArgs partialArgs = (PartialAssignmentArgs) args;
+                    GreedySolver.ApproximateResult result = new GreedySolver(null).solve(
+                            args.costMatrix, args.capacities, partialArgs.partialAssignment);
+                    Assertions.assertEquals(List.of(1, 0), result.getRowAssignments());
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidPartialAssignment(){
+        int[][] costMatrix = new int[][]{{0, X}, {1, 2}};
+        return test(Stream.of(
+                new PartialAssignmentArgs("missing row", costMatrix, new int[]{1, 1},
+                        new int[]{0}),
+                new PartialAssignmentArgs("forbidden pair", costMatrix, new int[]{1, 1},
+                        new int[]{1, -1}),
+                new PartialAssignmentArgs("unknown column", costMatrix, new int[]{1, 1},
+                        new int[]{0, 2}),
+                new PartialAssignmentArgs("full column", costMatrix, new int[]{1, 1},
+                        new int[]{0, 0})),
+                "solve() fails on a partial assignment that does not match the problem", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new GreedySolver(null).solve(args.costMatrix,
+                                        args.capacities,
+                                        ((PartialAssignmentArgs) args).partialAssignment)));
+    }
+    
+    /**
+     * Asserts that a result is a valid assignment that cannot be extended by an allowed pair, and
+     * that its cost and lower bound frame the optimal cost.
+     */
+    private static void assertBoundedApproximation(GreedySolverArgs args,
+            GreedySolver.ApproximateResult result, Integer unassigned){
+        List<Integer> rows = result.getRowAssignments();
+        List<Integer> columns = result.getColumnAssignments();
+        int[] loads = new int[args.capacities.length];
+        long cost = 0;
+        for (int i = 0; i < rows.size(); i++){
+            Integer j = rows.get(i);
+            if (!Objects.equals(j, unassigned)){
+                Assertions.assertNotEquals(X, args.costMatrix[i][j], "forbidden pair assigned");
+                Assertions.assertEquals(j, rows.get(columns.get(j)), "inconsistent assignments");
+                loads[j]++;
+                cost += args.costMatrix[i][j];
+            }
+        }
+        for (int i = 0; i < rows.size(); i++){
+            for (int j = 0; j < loads.length && Objects.equals(rows.get(i), unassigned); j++){
+                Assertions.assertFalse(args.costMatrix[i][j] != X
+                        && loads[j] < args.capacities[j], "pair %s, %s can be added"
+                                .formatted(i, j));
+            }
+        }
+        for (int j = 0; j < loads.length; j++){
+            Assertions.assertTrue(loads[j] <= args.capacities[j], "capacity of column " + j);
+        }
+        long actualCost = cost;
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(actualCost, result.getCost(), "cost"),
+                () -> Assertions.assertTrue(result.getGap() >= 0, "gap"),
+                () -> Assertions.assertTrue(result.getLowerBound() <= optimalCost(args),
+                        "lower bound"));
+    }
+    
+    /** Returns the cost of the optimal assignment, found by an exact solver. */
+    private static long optimalCost(GreedySolverArgs args){
+        List<Integer> rows = new MinCostFlowSolver(null).solve(args.costMatrix, args.capacities)
+                .getRowAssignments();
+        long result = 0;
+        for (int i = 0; i < rows.size(); i++){
+            if (rows.get(i) != null){
+                result += args.costMatrix[i][rows.get(i)];
+            }
+        }
+        return result;
+    }
+    
+    static class GreedySolverArgs extends TestArgs{
+        final int[][] costMatrix;
+        final int[] capacities;
+    
+        GreedySolverArgs(String testCase, int[][] costMatrix, int[] capacities){
+            super(testCase);
+            this.costMatrix = costMatrix;
+            this.capacities = capacities;
+        }
+    }
+    
+    static class PartialAssignmentArgs extends GreedySolverArgs{
+        final int[] partialAssignment;
+    
+        PartialAssignmentArgs(String testCase, int[][] costMatrix, int[] capacities,
+                int[] partialAssignment){
+            super(testCase, costMatrix, capacities);
+            this.partialAssignment = partialAssignment;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package mentoring.match;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class IndexedListTest implements TestFramework<IndexedListTest.IndexedListArgs>{
+    
+    @Override
+    public Stream<IndexedListArgs> argumentsSupplier(){
+        return Stream.of(new IndexedListArgs("distinct elements", List.of("a", "b", "c", "d")),
+                new IndexedListArgs("duplicate elements", List.of("a", "b", "a", "c", "b")),
+                new IndexedListArgs("empty list", List.of()));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> indexOf_sameAsList(){
+        return test("indexOf() returns the same index as List.indexOf()", args -> {
+            IndexedList<String> list = args.convert();
+            for (String element : List.of("a", "b", "c", "d", "e")){
+                Assertions.assertEquals(args.elements.indexOf(element), list.indexOf(element), 
+                        element);
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> addAll_indexesNewElements(){
+        return test("addAll() keeps the first occurrence of each element", args -> {
+            IndexedList<String> list = args.convert();
+            list.addAll(List.of("a", "e"));
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(args.elements.size() + 2, list.size()),
+                    () -> Assertions.assertEquals(0, list.indexOf("a")),
+                    () -> Assertions.assertEquals(args.elements.size() + 1, list.indexOf("e")));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removeAll_shiftsRemainingElements(){
+        return test(Stream.of(new IndexedListArgs("duplicate elements",
+                List.of("a", "b", "a", "c", "b"))),
+                "removeAll() keeps the order and the index of the remaining elements", args -> {
+            IndexedList<String> list = args.convert();
+            BitSet toRemove = new BitSet();
+            toRemove.set(0);
+            toRemove.set(3);
+            list.removeAll(toRemove);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(List.of("b", "a", "b"), list.asList()),
+                    () -> Assertions.assertEquals(1, list.indexOf("a")),
+                    () -> Assertions.assertEquals(0, list.indexOf("b")),
+                    () -> Assertions.assertEquals(-1, list.indexOf("c")));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> indexOfUnmarked_skipsMarkedOccurrences(){
+        return test(Stream.of(new IndexedListArgs("duplicate elements",
+                List.of("a", "b", "a", "c", "b"))),
+                "indexOfUnmarked() returns the first unmarked occurrence", args -> {
+            IndexedList<String> list = args.convert();
+            BitSet marked = new BitSet();
+            marked.set(0);
+            marked.set(1);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(2, list.indexOfUnmarked("a", marked)),
+                    () -> Assertions.assertEquals(4, list.indexOfUnmarked("b", marked)),
+                    () -> Assertions.assertEquals(3, list.indexOfUnmarked("c", marked)),
+                    () -> Assertions.assertEquals(-1, list.indexOfUnmarked("d", marked)));
+            marked.set(2);
+            Assertions.assertEquals(-1, list.indexOfUnmarked("a", marked));
+        });
+    }
+    
+    static class IndexedListArgs extends TestArgs{
+        final List<String> elements;
+    
+        IndexedListArgs(String testCase, List<String> elements){
+            super(testCase);
+            this.elements = elements;
+        }
+    
+        IndexedList<String> convert(){
+            return new IndexedList<>(elements);
+        }
+    }
+}
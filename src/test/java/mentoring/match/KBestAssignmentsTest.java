@@ -0,0 +1,136 @@
+package mentoring.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class KBestAssignmentsTest implements TestFramework<KBestAssignmentsTest.KBestArgs>{
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    @Override
+    public Stream<KBestArgs> argumentsSupplier(){
+        return Stream.of(new KBestArgs("square matrix", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}, {3, 2, 2}}, 4),
+                new KBestArgs("more rows than columns", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}, 5),
+                new KBestArgs("forbidden pairs", new int[][]{
+                    {0, X, X}, {1, 5, X}, {X, X, X}}, 3),
+                new KBestArgs("fewer assignments than requested", new int[][]{{1, X}, {X, 2}}, 10),
+                new KBestArgs("empty matrix", new int[0][0], 2));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_bestAssignments(){
+        return test("solve() returns the best assignments from the best to the worst", args ->
+                assertBestAssignments(args, new KBestAssignments(args.costMatrix, null)
+                        .solve(args.k, null)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_bestAssignmentsOnRandomMatrices(){
+        Random random = new Random(42);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Stream<KBestArgs> testCases = Stream.generate(() -> {
+            int nRows = 1 + random.nextInt(4);
+            int nColumns = 1 + random.nextInt(4);
+            int[][] costMatrix = new int[nRows][nColumns];
+            for (int[] row : costMatrix){
+                for (int j = 0; j < nColumns; j++){
+                    row[j] = random.nextInt(4) == 0 ? X : random.nextInt(10);
+                }
+            }
+            return new KBestArgs("random %sx%s matrix".formatted(nRows, nColumns), costMatrix,
+                    1 + random.nextInt(12));
+        }).limit(50);
+        return test(testCases, "solve() in parallel returns the best assignments", args ->
+                assertBestAssignments(args, new KBestAssignments(args.costMatrix, pool)
+                        .solve(args.k, null)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidInput(){
+        return test(Stream.of(new KBestArgs("no assignment requested", new int[][]{{1}}, 0)),
+                "solve() fails when k is not positive", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new KBestAssignments(args.costMatrix, null)
+                                        .solve(args.k, null)));
+    }
+    
+    /**
+     * Asserts that the assignments are valid and distinct, and that their numbers of pairs and
+     * costs are those of the best assignments found by enumerating all of them.
+     */
+    private static void assertBestAssignments(KBestArgs args, List<int[]> actual){
+        List<long[]> expectedRanks = new ArrayList<>();
+        enumerate(args.costMatrix, 0, new boolean[args.costMatrix.length == 0 ? 0
+                : args.costMatrix[0].length], 0, 0, expectedRanks);
+        expectedRanks.sort(Comparator.comparingLong((long[] rank) -> -rank[0])
+                .thenComparingLong(rank -> rank[1]));
+        List<List<Long>> expected = expectedRanks.stream()
+                .limit(args.k)
+                .map(rank -> List.of(rank[0], rank[1]))
+                .toList();
+        Set<List<Integer>> distinctAssignments = new HashSet<>();
+        List<List<Long>> actualRanks = new ArrayList<>();
+        for (int[] assignment : actual){
+            boolean[] usedColumns = new boolean[args.costMatrix.length == 0 ? 0
+                    : args.costMatrix[0].length];
+            long nPairs = 0;
+            long cost = 0;
+            for (int i = 0; i < assignment.length; i++){
+                int j = assignment[i];
+                if (j != -1){
+                    Assertions.assertNotEquals(X, args.costMatrix[i][j], "forbidden pair");
+                    Assertions.assertFalse(usedColumns[j], "column assigned twice");
+                    usedColumns[j] = true;
+                    nPairs++;
+                    cost += args.costMatrix[i][j];
+                }
+            }
+            actualRanks.add(List.of(nPairs, cost));
+            Assertions.assertTrue(distinctAssignments.add(
+                    Arrays.stream(assignment).boxed().toList()), "duplicate assignment");
+        }
+        Assertions.assertEquals(expected, actualRanks);
+    }
+    
+    /** Adds the number of pairs and the cost of all the assignments of the remaining rows. */
+    private static void enumerate(int[][] costMatrix, int row, boolean[] usedColumns, long nPairs,
+            long cost, List<long[]> ranks){
+        if (row == costMatrix.length){
+            ranks.add(new long[]{nPairs, cost});
+            return;
+        }
+        enumerate(costMatrix, row + 1, usedColumns, nPairs, cost, ranks);
+        for (int j = 0; j < usedColumns.length; j++){
+            if (!usedColumns[j] && costMatrix[row][j] != X){
+                usedColumns[j] = true;
+                enumerate(costMatrix, row + 1, usedColumns, nPairs + 1,
+                        cost + costMatrix[row][j], ranks);
+                usedColumns[j] = false;
+            }
+        }
+    }
+    
+    static class KBestArgs extends TestArgs{
+        final int[][] costMatrix;
+        final int k;
+    
+        KBestArgs(String testCase, int[][] costMatrix, int k){
+            super(testCase);
+            this.costMatrix = costMatrix;
+            this.k = k;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package mentoring.match;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class LapjvSolverTest implements TestFramework<LapjvSolverTest.LapjvSolverArgs>{
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    @Override
+    public Stream<LapjvSolverArgs> argumentsSupplier(){
+        return Stream.of(new LapjvSolverArgs("square matrix", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}, {3, 2, 2}}),
+                new LapjvSolverArgs("more rows than columns", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}),
+                new LapjvSolverArgs("more columns than rows", new int[][]{
+                    {4, 1, 3, 7}, {2, 0, 5, 1}}),
+                new LapjvSolverArgs("forbidden pairs", new int[][]{
+                    {0, X, X}, {1, 5, X}, {X, X, X}}),
+                new LapjvSolverArgs("cheap pair preventing a larger assignment", new int[][]{
+                    {0, 100}, {1, X}}),
+                new LapjvSolverArgs("negative costs", new int[][]{
+                    {-4, 1, -3}, {2, -10, 5}, {X, -2, X}}),
+                new LapjvSolverArgs("empty matrix", new int[0][0]));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignment(){
+        return test("solve() returns an optimal assignment", args ->
+                SolverAssertions.assertOptimal(args.costMatrix,
+                        new LapjvSolver(null).solve(args.costMatrix), null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignmentOnRandomMatrices(){
+        return test(randomArgs(new Random(42)), "solve() returns an optimal assignment", args ->
+                SolverAssertions.assertOptimal(args.costMatrix,
+                        new LapjvSolver(-1).solve(args.costMatrix), -1));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_warmStartAfterForbiddingAMatch(){
+        return test(randomArgs(new Random(7)),
+                "solve() warm-started after forbidding a match returns an optimal assignment",
+                args -> {
+                    LapjvSolver solver = new LapjvSolver(null);
+                    LapjvSolver.DualResult previous = solver.solve(args.costMatrix);
+                    List<Integer> rows = previous.getRowAssignments();
+                    for (int i = 0; i < rows.size(); i++){
+                        if (rows.get(i) != null){
+                            args.costMatrix[i][rows.get(i)] = X;
+                            break;
+                        }
+                    }
+                    SolverAssertions.assertOptimal(args.costMatrix,
+                            solver.solve(args.costMatrix, previous.getWarmStart()), null);
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_arbitraryWarmStart(){
+        Random random = new Random(3);
+        return test(randomArgs(new Random(5)),
+                "solve() warm-started with arbitrary values returns an optimal assignment",
+                args -> {
+                    int nRows = args.costMatrix.length;
+                    int nColumns = args.costMatrix[0].length;
+                    int[] rowAssignments = random.ints(nRows, -1, nColumns + 1).toArray();
+                    LapjvSolver.WarmStart warmStart = new LapjvSolver.WarmStart(
+                            randomDuals(random, nRows), randomDuals(random, nColumns),
+                            rowAssignments);
+                    SolverAssertions.assertOptimal(args.costMatrix,
+                            new LapjvSolver(null).solve(args.costMatrix, warmStart), null);
+                });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidInput(){
+        return test(Stream.of(new LapjvSolverArgs("ragged matrix", new int[][]{{1, 2}, {3}})),
+                "solve() fails on invalid input", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new LapjvSolver(null).solve(args.costMatrix)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidWarmStart(){
+        int[][] costMatrix = {{1, 2, 3}, {4, 5, 6}};
+        return test(Stream.of(new LapjvSolverArgs("too few row duals", costMatrix,
+                        new LapjvSolver.WarmStart(new long[1], new long[3], new int[2])),
+                new LapjvSolverArgs("too many column duals", costMatrix,
+                        new LapjvSolver.WarmStart(new long[2], new long[4], new int[2])),
+                new LapjvSolverArgs("too many row assignments", costMatrix,
+                        new LapjvSolver.WarmStart(new long[2], new long[3], new int[3]))),
+                "solve() fails when the warm start does not match the matrix", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new LapjvSolver(null).solve(args.costMatrix,
+                                        args.warmStart)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_stopsAtDeadline(){
+        return test(Stream.of(new LapjvSolverArgs("row needing an augmenting path",
+                        new int[][]{{0, 5}, {0, 9}})),
+                "solve() stops when the deadline is reached, with the assignment found so far",
+                args -> {
+                    StoppedSolveException exception = Assertions.assertThrows(
+                            StoppedSolveException.class,
+                            () -> new LapjvSolver(null).solve(args.costMatrix, null,
+                                    Deadline.after(Duration.ZERO)));
+                    Assertions.assertArrayEquals(new int[]{0, -1},
+                            exception.getPartialAssignment());
+                });
+    }
+    
+    private static Stream<LapjvSolverArgs> randomArgs(Random random){
+        return Stream.generate(() -> {
+            int nRows = 1 + random.nextInt(6);
+            int nColumns = 1 + random.nextInt(6);
+            int[][] costMatrix = new int[nRows][nColumns];
+            for (int[] row : costMatrix){
+                for (int j = 0; j < nColumns; j++){
+                    row[j] = random.nextInt(4) == 0 ? X : random.nextInt(20);
+                }
+            }
+            return new LapjvSolverArgs("random %sx%s matrix".formatted(nRows, nColumns),
+                    costMatrix);
+        }).limit(50);
+    }
+    
+    private static long[] randomDuals(Random random, int length){
+        long[] result = new long[length];
+        for (int k = 0; k < length; k++){
+            result[k] = switch (random.nextInt(4)){
+                case 0 -> LapjvSolver.UNKNOWN_DUAL;
+                case 1 -> random.nextLong();
+                default -> random.nextInt(200) - 100;
+            };
+        }
+        return result;
+    }
+    
+    static class LapjvSolverArgs extends TestArgs{
+        final int[][] costMatrix;
+        final LapjvSolver.WarmStart warmStart;
+    
+        LapjvSolverArgs(String testCase, int[][] costMatrix){
+            this(testCase, costMatrix, null);
+        }
+    
+        LapjvSolverArgs(String testCase, int[][] costMatrix, LapjvSolver.WarmStart warmStart){
+            super(testCase);
+            this.costMatrix = Arrays.stream(costMatrix).map(int[]::clone).toArray(int[][]::new);
+            this.warmStart = warmStart;
+        }
+    }
+}
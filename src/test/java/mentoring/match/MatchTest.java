@@ -1,5 +1,6 @@
 package mentoring.match;
 
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicNode;
@@ -39,7 +40,8 @@ public final class MatchTest implements TestFramework<MatchTest.MatchArgs>{
             Assertions.assertAll(
                     () -> Assertions.assertEquals(args.mentee, match.getMentee()),
                     () -> Assertions.assertEquals(args.mentor, match.getMentor()),
-                    () -> Assertions.assertEquals(args.cost, match.getCost())
+                    () -> Assertions.assertEquals(args.cost, match.getCost()),
+                    () -> Assertions.assertEquals(List.of(), match.getCriterionScores())
             );
         });
     }
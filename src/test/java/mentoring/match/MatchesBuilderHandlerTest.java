@@ -1,9 +1,12 @@
 package mentoring.match;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -12,6 +15,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import mentoring.configuration.CriteriaConfiguration;
 import mentoring.match.MatchesBuilderHandlerTest.MatchesBuilderHandlerArgs;
@@ -397,6 +401,103 @@ final class MatchesBuilderHandlerTest implements TestFramework<MatchesBuilderHan
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> forbiddenMatches_solvedFromLastSolve(){
+        Matches<Integer,Integer> secondExpectedMatches = new Matches<>(List.of(
+                new Match<>(0,0,PROHIBITIVE_COST), new Match<>(1,1,PROHIBITIVE_COST)));
+        return test(singleArgumentSupplier(),
+                "a solve after a match is forbidden is warm-started with the last solve", args -> {
+                    List<LapjvSolver.WarmStart> warmStarts = new ArrayList<>();
+                    MatchesBuilderHandler<Integer, Integer> handler = args.convert(
+                            new LapjvSolver(null){
+                                @Override
+                                DualResult solve(int[][] costMatrix, WarmStart warmStart, 
+                                        Deadline deadline){
+                                    warmStarts.add(warmStart);
+                                    return super.solve(costMatrix, warmStart, deadline);
+                                }
+                            });
+                    assertMatchesBuilderAsExpected(args.expectedMatches, handler);
+                    handler.getForbiddenMatches().forbidMatch(0, 1);
+                    assertMatchesBuilderAsExpected(secondExpectedMatches, handler);
+                    Assertions.assertAll(
+                            () -> Assertions.assertEquals(2, warmStarts.size()),
+                            () -> Assertions.assertArrayEquals(new int[]{-1, -1}, 
+                                    warmStarts.get(0).rowAssignments()),
+                            () -> Assertions.assertArrayEquals(new int[]{1, 0}, 
+                                    warmStarts.get(1).rowAssignments()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> get_builderStopsWhenInterrupted(){
+        List<Integer> persons = IntStream.range(0, 300).boxed().toList();
+        Stream<MatchesBuilderHandlerArgs> testCase = Stream.of(new MatchesBuilderHandlerArgs(
+                "large problem", null, new DummyFuture<>(persons), new DummyFuture<>(persons),
+                new DummyFuture<>(new DummyConfiguration(
+                        List.of((mentee, mentor) -> mentee * mentor % 97), List.of()))));
+        return test(testCase, 
+                "the builders of get() stop solving as soon as the thread is interrupted", args -> {
+                    MatchesBuilderHandler<Integer, Integer> handler = args.convert(
+                            new LapjvSolver(null){
+                                @Override
+                                DualResult solve(int[][] costMatrix, WarmStart warmStart, 
+                                        Deadline deadline){
+                                    //As when the task is cancelled once the solve has started
+                                    Thread.currentThread().interrupt();
+                                    return super.solve(costMatrix, warmStart, deadline);
+                                }
+                            });
+                    CancellationException thrown = null;
+                    boolean interrupted;
+                    try {
+                        MatchesBuilder<Integer, Integer> builder = handler.get();
+                        int[] menteeIndices = builder.getMenteeIndices(persons);
+                        int[] mentorIndices = builder.getMentorIndices(persons);
+                        thrown = Assertions.assertThrows(CancellationException.class, 
+                                () -> builder.build(menteeIndices, mentorIndices, 
+                                        Duration.ofMinutes(1)));
+                    } catch (InterruptedException | ExecutionException e){
+                        Assertions.fail(e);
+                    } finally {
+                        interrupted = Thread.interrupted();
+                    }
+                    CancellationException cancellation = thrown;
+                    Assertions.assertAll(
+                            () -> Assertions.assertTrue(interrupted, "interrupted status"),
+                            () -> Assertions.assertTrue(
+                                    cancellation instanceof StoppedSolveException stopped
+                                            && Arrays.stream(stopped.getPartialAssignment())
+                                                    .anyMatch(j -> j == -1),
+                                    "solve stopped before its end"));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> get_updatesCopyOfLastBuilderWhenOnlyPersonsChanged(){
+        Future<List<Integer>> secondMenteesSupplier = new DummyFuture<>(List.of(3,1));
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(3,1,STANDARD_COST), new Match<>(1,0,STANDARD_COST)));
+        return test(singleArgumentSupplier(), 
+                "get() updates a copy of the last builder when only the persons have changed", 
+                args -> {
+                    MatchesBuilderHandler<Integer, Integer> handler = args.convert();
+                    try {
+                        MatchesBuilder<Integer, Integer> firstBuilder = handler.get();
+                        int[] menteeIndices = firstBuilder.getMenteeIndices(List.of(0,1));
+                        int[] mentorIndices = firstBuilder.getMentorIndices(List.of(0,1));
+                        handler.setMenteesSupplier(secondMenteesSupplier);
+                        handler.setCriteriaSupplier(args.criteriaSupplier);
+                        Assertions.assertNotSame(firstBuilder, handler.get());
+                        MatchesBuilderTest.assertMatchesEquals(args.expectedMatches, 
+                                firstBuilder.build(menteeIndices, mentorIndices));
+                    } catch (InterruptedException | ExecutionException e){
+                        Assertions.fail(e);
+                    }
+                    assertMatchesBuilderAsExpected(expectedMatches, handler);
+        });
+    }
+    
     static void assertMatchesBuilderAsExpected(Matches<Integer, Integer> expectedMatches,
             MatchesBuilderHandler<Integer, Integer> actual){
         try{
@@ -425,7 +526,15 @@ final class MatchesBuilderHandlerTest implements TestFramework<MatchesBuilderHan
         }
         
         MatchesBuilderHandler<Integer, Integer> convert(){
-            MatchesBuilderHandler<Integer, Integer> result = new MatchesBuilderHandler<>();
+            return initialise(new MatchesBuilderHandler<>());
+        }
+        
+        MatchesBuilderHandler<Integer, Integer> convert(LapjvSolver solver){
+            return initialise(new MatchesBuilderHandler<>(null, solver));
+        }
+        
+        private MatchesBuilderHandler<Integer, Integer> initialise(
+                MatchesBuilderHandler<Integer, Integer> result){
             result.setMenteesSupplier(menteesSupplier);
             result.setMentorsSupplier(mentorsSupplier);
             result.setCriteriaSupplier(criteriaSupplier);
@@ -1,12 +1,27 @@
 package mentoring.match;
 
+import assignmentproblem.Result;
 import assignmentproblem.Solver;
+import assignmentproblem.hungariansolver.HungarianSolver;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
+import mentoring.configuration.PojoCriteriaConfiguration;
+import mentoring.configuration.PojoPersonConfiguration;
+import mentoring.datastructure.Person;
+import mentoring.io.PersonFileParser;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.TestFactory;
@@ -41,6 +56,63 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> parallelMatchesBuilderWorks(){
+        int prohibitiveCost = 2000;
+        int standardCost = 5;
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(0,1,standardCost), new Match<>(1,0,standardCost)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("non square matrix", expectedMatches, 
+                        List.of(0,1,12), List.of(0,1),
+                        List.of((mentee, mentor) -> 
+                                (mentee.equals(mentor) || mentee.equals(12)) 
+                                        ? prohibitiveCost : standardCost)));
+        return test(testCase, "build() with parallel cost matrix works", args -> {
+            MatchesBuilder<Integer, Integer> builder = new MatchesBuilder<>(args.mentees, 
+                    args.mentors, args.progressiveCriteria, new ForkJoinPool(2));
+            assertMatchesEquals(args.expectedMatches, builder.build());
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> updatedMatchesBuilderWorks(){
+        int prohibitiveCost = 2000;
+        int standardCost = 5;
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(0,1,standardCost), new Match<>(1,0,standardCost)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("non square matrix", expectedMatches, 
+                        List.of(0,1,12), List.of(0,1),
+                        List.of((mentee, mentor) -> 
+                                (mentee.equals(mentor) || mentee.equals(12)) 
+                                        ? prohibitiveCost : standardCost)));
+        return test(testCase, "build() works after adding and removing persons", args -> {
+            MatchesBuilder<Integer, Integer> builder = new MatchesBuilder<>(List.of(7, 0), 
+                    List.of(1, 7), args.progressiveCriteria);
+            builder.addMentees(List.of(1, 12)).addMentors(List.of(0))
+                    .removeMentees(List.of(7)).removeMentors(List.of(7));
+            assertMatchesEquals(args.expectedMatches, builder.build());
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> removePersons_unknownPersons(){
+        return test(Stream.of("specific test case"), 
+                "removeMentees() and removeMentors() fail on unknown persons", args -> {
+            MatchesBuilder<Integer, Integer> builder = new MatchesBuilder<>(List.of(0, 1), 
+                    List.of(0, 1), List.of((mentee, mentor) -> 1));
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.removeMentees(List.of(2))),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.removeMentees(List.of(0, 0))),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.removeMentors(List.of(2))));
+            Assertions.assertEquals(1, builder.buildSingleMatch(0, 0).getCost());
+        });
+    }
+    
     @TestFactory
     Stream<DynamicNode> defaultMatchesBuilderWorksWithPartialBuild(){
         int prohibitiveCost = 2000;
@@ -68,6 +140,61 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> partialBuildWithIndicesWorks(){
+        Stream<PublicPartialMatchesBuilderArgs> testCase = Stream.of(
+                new PublicPartialMatchesBuilderArgs("persons known several times", null, 
+                        List.of(3, 1, 3, 2), List.of(4, 4, 6), 
+                        List.of((mentee, mentor) -> mentee * mentor),
+                        List.of(2, 3), List.of(6, 4),
+                        null));
+        return test(testCase, "build() with indices returns the same result as with persons", 
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            int[] menteeIndices = builder.getMenteeIndices(args.partialMentees);
+            int[] mentorIndices = builder.getMentorIndices(args.partialMentors);
+            Assertions.assertAll(
+                    () -> Assertions.assertArrayEquals(new int[]{3, 0}, menteeIndices),
+                    () -> Assertions.assertArrayEquals(new int[]{2, 0}, mentorIndices),
+                    () -> assertMatchesEquals(
+                            builder.build(args.partialMentees, args.partialMentors),
+                            builder.build(menteeIndices, mentorIndices)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> personIndices_invalidInput(){
+        return test(Stream.of("specific test case"), 
+                "index getters and build() with indices fail on unknown persons", args -> {
+            MatchesBuilder<Integer, Integer> builder = new MatchesBuilder<>(List.of(0, 1), 
+                    List.of(0, 1), List.of((mentee, mentor) -> 1));
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.getMenteeIndex(2)),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.getMentorIndices(List.of(0, 2))),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.build(new int[]{2}, new int[]{0})),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class,
+                            () -> builder.build(new int[]{0}, new int[]{-1})));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> personIndices_followAddedAndRemovedPersons(){
+        return test(Stream.of("specific test case"), 
+                "index getters reflect added and removed persons", args -> {
+            MatchesBuilder<Integer, Integer> builder = new MatchesBuilder<>(List.of(0, 1, 2), 
+                    List.of(0, 1), List.of((mentee, mentor) -> 1));
+            builder.removeMentees(List.of(0)).addMentees(List.of(0)).addMentors(List.of(1, 5));
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(2, builder.getMenteeIndex(0)),
+                    () -> Assertions.assertEquals(0, builder.getMenteeIndex(1)),
+                    () -> Assertions.assertEquals(1, builder.getMentorIndex(1)),
+                    () -> Assertions.assertEquals(3, builder.getMentorIndex(5)));
+        });
+    }
+    
     @TestFactory
     Stream<DynamicNode> defaultMatchesBuilderWithNecessaryCriteriaWorks(){
         int prohibitiveCost = 2000;
@@ -87,6 +214,33 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> singlePassMatchesBuilderWithNecessaryCriteriaWorks(){
+        int prohibitiveCost = 2000;
+        int standardCost = 5;
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(0,0,prohibitiveCost), new Match<>(1,1,prohibitiveCost)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("minimal test case", expectedMatches, 
+                        List.of(0,1), List.of(0,1), 
+                        List.of((mentee, mentor) -> 
+                                mentee.equals(mentor) ? prohibitiveCost : standardCost)
+                ));
+        List<NecessaryCriterion<Integer, Integer>> necessaryCriteria = 
+                List.of((mentee, mentor) -> mentee.equals(mentor));
+        return test(testCase, "build() with necessary criteria given to the constructor works", 
+                args -> {
+            MatchesBuilder<Integer,Integer> sequentialBuilder = new MatchesBuilder<>(args.mentees, 
+                    args.mentors, args.progressiveCriteria, necessaryCriteria, null);
+            MatchesBuilder<Integer,Integer> parallelBuilder = new MatchesBuilder<>(args.mentees, 
+                    args.mentors, args.progressiveCriteria, necessaryCriteria, 
+                    new ForkJoinPool(2));
+            Assertions.assertAll(
+                    () -> assertMatchesEquals(args.expectedMatches, sequentialBuilder.build()),
+                    () -> assertMatchesEquals(args.expectedMatches, parallelBuilder.build()));
+        });
+    }
+    
     @TestFactory
     Stream<DynamicNode> defaultMatchesBuilderWithNecessaryCriteriaWorksWithPartialBuild(){
         Matches<Integer,Integer> expectedMatch = new Matches<>(List.of(new Match<>(2,5,10)));
@@ -111,6 +265,97 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> matchesBuilderSolvesComponentsApart(){
+        Integer defaultMentee = -1;
+        Integer defaultMentor = -2;
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(0, 0, 0), new Match<>(1, 1, 1), new Match<>(2, 2, 2),
+                new Match<>(3, 3, 3), 
+                new Match<>(4, defaultMentor, MatchesBuilder.PROHIBITIVE_VALUE),
+                new Match<>(5, defaultMentor, MatchesBuilder.PROHIBITIVE_VALUE),
+                new Match<>(defaultMentee, 6, MatchesBuilder.PROHIBITIVE_VALUE)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("two components and isolated persons", 
+                        expectedMatches, List.of(0, 1, 2, 3, 4, 5), List.of(0, 1, 2, 3, 6), 
+                        List.of((mentee, mentor) -> (mentee - mentor) * (mentee - mentor) + mentee)
+                ));
+        List<NecessaryCriterion<Integer, Integer>> necessaryCriteria = 
+                List.of((mentee, mentor) -> mentee % 2 == mentor % 2 && mentor != 6);
+        return test(testCase, "build() solves each component of allowed matches apart", args -> {
+            for (ForkJoinPool pool : Arrays.asList(null, new ForkJoinPool(2))){
+                List<Integer> solvedRowCounts = new ArrayList<>();
+                Solver hungarianSolver = new HungarianSolver(null);
+                Solver solver = new DummySolver(){
+                    @Override
+                    public synchronized Result solve(int[][] costMatrix){
+                        solvedRowCounts.add(costMatrix.length);
+                        return hungarianSolver.solve(costMatrix);
+                    }
+                };
+                MatchesBuilder<Integer,Integer> builder = new MatchesBuilder<>(args.mentees, 
+                        args.mentors, args.progressiveCriteria, necessaryCriteria, pool)
+                        .withSolver(solver, null)
+                        .withPlaceholderPersons(defaultMentee, defaultMentor);
+                Assertions.assertAll(
+                        () -> assertMatchesEquals(args.expectedMatches, builder.build()),
+                        () -> Assertions.assertEquals(List.of(3, 3), solvedRowCounts),
+                        () -> assertMatchesEquals(args.expectedMatches, 
+                                builder.build(args.mentees, args.mentors)));
+            }
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> matchesBuilderSolvesComponentsLikeWholeProblem(){
+        return test(Stream.of("10", "250"), 
+                "build() finds matches of the same cost as a solve of the whole problem", size -> {
+            List<Person> mentees = parse("resources/main/Filleul_%s.csv".formatted(size));
+            List<Person> mentors = parse("resources/main/Mentor_%s.csv".formatted(size));
+            PojoCriteriaConfiguration criteria = PojoCriteriaConfiguration.CRITERIA_CONFIGURATION;
+            List<NecessaryCriterion<Person, Person>> necessaryCriteria = 
+                    new ArrayList<>(criteria.getNecessaryCriteria());
+            necessaryCriteria.add((mentee, mentor) -> mentee.getPropertyAs("Anglais", 
+                    Boolean.class).equals(mentor.getPropertyAs("Anglais", Boolean.class)));
+            MatchesBuilder<Person, Person> builder = new MatchesBuilder<>(mentees, mentors, 
+                    criteria.getProgressiveCriteria(), necessaryCriteria, null)
+                    .withSolver(new HungarianSolver(null), null);
+            int[] menteeIndices = builder.getMenteeIndices(mentees);
+            int[] mentorIndices = builder.getMentorIndices(mentors);
+            Result wholeProblemResult = 
+                    builder.costMatrixHandler.solveCostMatrix(new HungarianSolver(null)::solve);
+            long expectedCount = 0;
+            long expectedCost = 0;
+            List<Integer> rowAssignments = wholeProblemResult.getRowAssignments();
+            for (int i = 0; i < rowAssignments.size(); i++){
+                Integer j = rowAssignments.get(i);
+                if (j != null && builder.costMatrixHandler.isMatchAllowed(i, j)){
+                    expectedCount++;
+                    expectedCost += builder.costMatrixHandler.getMatchScore(i, j);
+                }
+            }
+            long actualCount = 0;
+            long actualCost = 0;
+            for (Match<Person, Person> match : builder.build()){
+                actualCount++;
+                actualCost += match.getCost();
+            }
+            Assertions.assertTrue(builder.costMatrixHandler
+                    .findComponents(menteeIndices, mentorIndices).size() > 1);
+            Assertions.assertEquals(List.of(expectedCount, expectedCost), 
+                    List.of(actualCount, actualCost));
+        });
+    }
+    
+    private static List<Person> parse(String file){
+        try (Reader reader = new FileReader(file, StandardCharsets.UTF_8)){
+            return new PersonFileParser(PojoPersonConfiguration.TEST_CONFIGURATION
+                    .getConfiguration()).parse(reader);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+    
     @TestFactory
     Stream<DynamicNode> defaultMatchesBuilderWithSolverWorks(){
         Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
@@ -166,6 +411,37 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> rebuildAfterForbiddingMatchesIsOptimal(){
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("more mentees than mentors", null, 
+                        List.of(0, 1, 2, 3, 4, 5, 6), List.of(0, 1, 2, 3, 4), 
+                        List.of((mentee, mentor) -> (mentee * 7 + mentor * 3) % 11)));
+        return test(testCase, "build() after forbidding matches returns an optimal assignment", 
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            ForbiddenMatches<Integer, Integer> forbiddenMatches = new ForbiddenMatches<>();
+            builder.withForbiddenMatches(forbiddenMatches);
+            Matches<Integer, Integer> matches = builder.build();
+            for (int k = 0; k < 4; k++){
+                Match<Integer, Integer> forbidden = matches.iterator().next();
+                forbiddenMatches.forbidMatch(forbidden.getMentee(), forbidden.getMentor());
+                matches = builder.build();
+                MatchesBuilder<Integer,Integer> freshBuilder = args.convert();
+                freshBuilder.withForbiddenMatches(forbiddenMatches);
+                Assertions.assertEquals(totalCost(freshBuilder.build()), totalCost(matches));
+            }
+        });
+    }
+    
+    private static long totalCost(Matches<?, ?> matches){
+        long result = 0;
+        for (Match<?, ?> match : matches){
+            result += match.getCost();
+        }
+        return result;
+    }
+    
     @TestFactory
     Stream<DynamicNode> defaultMatchesBuilderWithForbiddenMatchesWorksWithPartialBuild(){
         Matches<Integer,Integer> expectedMatch = new Matches<>(List.of(new Match<>(2,10,20)));
@@ -252,6 +528,156 @@ final class MatchesBuilderTest implements TestFramework<MatchesBuilderTest.Match
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> buildPreviewWorks(){
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(1,3,3), new Match<>(2,2,4), new Match<>(3,1,3)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("greedy matches improved by a swap", 
+                        expectedMatches, List.of(1, 2, 3), List.of(1, 2, 3), 
+                        List.of((mentee, mentor) -> mentee*mentor)));
+        return test(testCase, "buildPreview() returns approximate matches and their bound", 
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            ApproximateMatches<Integer, Integer> actual = builder.buildPreview(
+                    builder.getMenteeIndices(args.mentees), 
+                    builder.getMentorIndices(args.mentors));
+            assertMatchesEquals(args.expectedMatches, actual.matches());
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(10, actual.cost()),
+                    () -> Assertions.assertEquals(6, actual.lowerBound()),
+                    () -> Assertions.assertEquals(4, actual.gap()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> buildBestWorks(){
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(1,3,3), new Match<>(2,2,4), new Match<>(3,1,3)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("optimal matches and their alternatives", 
+                        expectedMatches, List.of(1, 2, 3), List.of(1, 2, 3), 
+                        List.of((mentee, mentor) -> mentee*mentor)));
+        return test(testCase, "buildBest() returns the best matches from the best to the worst", 
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            int[] menteeIndices = builder.getMenteeIndices(args.mentees);
+            int[] mentorIndices = builder.getMentorIndices(args.mentors);
+            List<Matches<Integer,Integer>> actual = builder.buildBest(menteeIndices, 
+                    mentorIndices, 4);
+            List<Long> actualCosts = new ArrayList<>();
+            for (Matches<Integer,Integer> matches : actual){
+                long cost = 0;
+                for (Match<Integer,Integer> match : matches){
+                    cost += match.getCost();
+                }
+                actualCosts.add(cost);
+            }
+            Assertions.assertAll(
+                    () -> assertMatchesEquals(args.expectedMatches, actual.get(0)),
+                    () -> Assertions.assertEquals(List.of(10L, 11L, 11L, 13L), actualCosts),
+                    () -> Assertions.assertThrows(IllegalArgumentException.class, 
+                            () -> builder.buildBest(menteeIndices, mentorIndices, 0)),
+                    () -> Assertions.assertThrows(IllegalStateException.class, 
+                            () -> builder.withMentorCapacities(mentor -> 1)
+                                    .buildBest(menteeIndices, mentorIndices, 1)),
+                    () -> Assertions.assertThrows(IllegalStateException.class, 
+                            () -> builder.withMentorCapacities(mentor -> 1)
+                                    .buildBest(menteeIndices, mentorIndices, 0)));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> buildWithCriterionScoresWorks(){
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(1,3,7), new Match<>(2,2,8), new Match<>(3,1,7)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("matches explained by two criteria", 
+                        expectedMatches, List.of(1, 2, 3), List.of(1, 2, 3), 
+                        List.of((mentee, mentor) -> mentee*mentor, 
+                                (mentee, mentor) -> mentee + mentor)));
+        return test(testCase, "withCriterionScores() gives the score of each criterion of a match",
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            Match<Integer,Integer> unexplainedMatch = builder.buildSingleMatch(2, 3);
+            builder.withCriterionScores();
+            Matches<Integer,Integer> actual = builder.build();
+            List<List<Integer>> actualScores = new ArrayList<>();
+            for (Match<Integer,Integer> match : actual){
+                actualScores.add(match.getCriterionScores());
+            }
+            Assertions.assertAll(
+                    () -> assertMatchesEquals(args.expectedMatches, actual),
+                    () -> Assertions.assertEquals(List.of(List.of(3, 4), List.of(4, 4), 
+                            List.of(3, 4)), actualScores),
+                    () -> Assertions.assertEquals(List.of(), 
+                            unexplainedMatch.getCriterionScores()),
+                    () -> Assertions.assertEquals(List.of(6, 5), 
+                            builder.buildSingleMatch(2, 3).getCriterionScores()));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> buildWithTimeLimitWorks(){
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(1,3,3), new Match<>(2,2,4), new Match<>(3,1,3)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("matches found by all solvers", 
+                        expectedMatches, List.of(1, 2, 3), List.of(1, 2, 3), 
+                        List.of((mentee, mentor) -> mentee*mentor)));
+        return test(testCase, "build() with a time limit returns the best matches found in time", 
+                args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            int[] menteeIndices = builder.getMenteeIndices(args.mentees);
+            int[] mentorIndices = builder.getMentorIndices(args.mentors);
+            Matches<Integer,Integer> optimalMatches = builder.build(menteeIndices, mentorIndices, 
+                    Duration.ofMinutes(1));
+            builder.withSolver(new DummySolver(){
+                @Override
+                public Result solve(int[][] costMatrix){
+                    throw new AssertionError("solver called after the deadline");
+                }
+            }, null);
+            Matches<Integer,Integer> expiredMatches = builder.build(menteeIndices, mentorIndices, 
+                    Duration.ZERO);
+            Thread.currentThread().interrupt();
+            boolean interrupted;
+            try {
+                Assertions.assertThrows(CancellationException.class, 
+                        () -> builder.build(menteeIndices, mentorIndices, Duration.ofMinutes(1)));
+            } finally {
+                interrupted = Thread.interrupted();
+            }
+            Assertions.assertAll(
+                    () -> assertMatchesEquals(args.expectedMatches, optimalMatches),
+                    () -> assertMatchesEquals(args.expectedMatches, expiredMatches),
+                    () -> Assertions.assertTrue(interrupted, "interrupted status"));
+        });
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> matchesBuilderWithMentorCapacitiesWorks(){
+        Integer defaultMentee = 5;
+        Integer defaultMentor = -2;
+        Matches<Integer,Integer> expectedMatches = new Matches<>(List.of(
+                new Match<>(1,10,0), new Match<>(2,20,0), new Match<>(3,20,1),
+                new Match<>(defaultMentee,40,MatchesBuilder.PROHIBITIVE_VALUE)));
+        Stream<PublicMatchesBuilderArgs> testCase = Stream.of(
+                new PublicMatchesBuilderArgs("mentors accepting zero, one or two mentees", 
+                        expectedMatches, List.of(1, 2, 3), List.of(10, 20, 40), 
+                        List.of((mentee, mentor) -> Math.abs(mentee - mentor / 10))));
+        return test(testCase, "build() with mentor capacities works", args -> {
+            MatchesBuilder<Integer,Integer> builder = args.convert();
+            builder.withMentorCapacities(mentor -> switch (mentor){
+                case 10 -> 1;
+                case 20 -> 2;
+                default -> 0;
+            });
+            builder.withPlaceholderPersons(defaultMentee, defaultMentor);
+            assertMatchesEquals(args.expectedMatches, builder.build());
+        });
+    }
+    
     static <Mentee, Mentor> void assertMatchesEquals(Matches<Mentee, Mentor> expected, 
             Matches<Mentee, Mentor> actual){
         Map<Mentee, Map<Mentor, List<Match<Mentee, Mentor>>>> found = new HashMap<>();
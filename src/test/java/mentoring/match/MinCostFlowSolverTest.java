@@ -0,0 +1,106 @@
+package mentoring.match;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+final class MinCostFlowSolverTest implements TestFramework<MinCostFlowSolverTest.MinCostFlowArgs>{
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    @Override
+    public Stream<MinCostFlowArgs> argumentsSupplier(){
+        return Stream.of(new MinCostFlowArgs("square matrix with unit capacities", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}, {3, 2, 2}}, new int[]{1, 1, 1}),
+                new MinCostFlowArgs("column taking all rows", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}}, new int[]{1, 3}),
+                new MinCostFlowArgs("capacities below the number of rows", new int[][]{
+                    {4, 1}, {2, 0}, {3, 2}, {0, 0}}, new int[]{1, 2}),
+                new MinCostFlowArgs("column without capacity", new int[][]{
+                    {4, 1, 3}, {2, 0, 5}}, new int[]{2, 0, 1}),
+                new MinCostFlowArgs("forbidden pairs", new int[][]{
+                    {0, X, X}, {1, 5, X}, {X, X, X}, {2, X, 1}}, new int[]{2, 1, 1}),
+                new MinCostFlowArgs("cheap pair preventing a larger assignment", new int[][]{
+                    {0, 100}, {1, X}, {0, 100}}, new int[]{2, 1}),
+                new MinCostFlowArgs("negative costs", new int[][]{
+                    {-4, 1, -3}, {2, -10, 5}, {X, -2, X}}, new int[]{1, 2, 1}),
+                new MinCostFlowArgs("no row", new int[0][0], new int[0]));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignment(){
+        return test("solve() returns an optimal assignment respecting the capacities", args ->
+                SolverAssertions.assertOptimal(args.costMatrix, args.capacities,
+                        new MinCostFlowSolver(null).solve(args.costMatrix, args.capacities),
+                        null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_optimalAssignmentOnRandomMatrices(){
+        Random random = new Random(42);
+        Stream<MinCostFlowArgs> testCases = Stream.generate(() -> {
+            int nRows = 1 + random.nextInt(7);
+            int nColumns = 1 + random.nextInt(4);
+            int[][] costMatrix = new int[nRows][nColumns];
+            for (int[] row : costMatrix){
+                for (int j = 0; j < nColumns; j++){
+                    row[j] = random.nextInt(4) == 0 ? X : random.nextInt(20);
+                }
+            }
+            int[] capacities = new int[nColumns];
+            for (int j = 0; j < nColumns; j++){
+                capacities[j] = random.nextInt(4);
+            }
+            return new MinCostFlowArgs("random %sx%s matrix".formatted(nRows, nColumns),
+                    costMatrix, capacities);
+        }).limit(50);
+        return test(testCases, "solve() returns an optimal assignment respecting the capacities",
+                args -> SolverAssertions.assertOptimal(args.costMatrix, args.capacities,
+                        new MinCostFlowSolver(-1).solve(args.costMatrix, args.capacities), -1));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_unitCapacitiesByDefault(){
+        return test("solve() without capacities returns an optimal one-to-one assignment",
+                args -> SolverAssertions.assertOptimal(args.costMatrix,
+                        new MinCostFlowSolver(null).solve(args.costMatrix), null));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_invalidInput(){
+        return test(Stream.of(
+                new MinCostFlowArgs("ragged matrix", new int[][]{{1, 2}, {3}}, new int[]{1, 1}),
+                new MinCostFlowArgs("missing capacity", new int[][]{{1, 2}}, new int[]{1}),
+                new MinCostFlowArgs("negative capacity", new int[][]{{1, 2}}, new int[]{1, -1})),
+                "solve() fails on invalid input", args ->
+                        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new MinCostFlowSolver(null).solve(args.costMatrix,
+                                        args.capacities)));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solve_stopsAtDeadline(){
+        return test(Stream.of(new MinCostFlowArgs("column too small for its cheapest rows",
+                        new int[][]{{0, 5}, {0, 9}}, new int[]{1, 1})),
+                "solve() stops when the deadline is reached", args ->
+                        Assertions.assertThrows(CancellationException.class,
+                                () -> new MinCostFlowSolver(null).solve(args.costMatrix,
+                                        args.capacities, Deadline.after(Duration.ZERO))));
+    }
+    
+    static class MinCostFlowArgs extends TestArgs{
+        final int[][] costMatrix;
+        final int[] capacities;
+    
+        MinCostFlowArgs(String testCase, int[][] costMatrix, int[] capacities){
+            super(testCase);
+            this.costMatrix = costMatrix;
+            this.capacities = capacities;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package mentoring.match;
+
+import assignmentproblem.Result;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Assertions;
+
+/** Assertions shared by the tests of the solvers. */
+final class SolverAssertions {
+    private static final int X = MatchesBuilder.PROHIBITIVE_VALUE;
+    
+    private SolverAssertions(){}
+    
+    /**
+     * Asserts that a result is a valid assignment maximising the number of assigned rows, with a
+     * minimal total cost among those, by comparing it with an exhaustive search.
+     * @param costMatrix solved, small enough for an exhaustive search
+     * @param result to check
+     * @param unassigned value used by the solver to signal an unassigned row or column
+     */
+    static void assertOptimal(int[][] costMatrix, Result result, Integer unassigned){
+        int[] capacities = new int[costMatrix.length == 0 ? 0 : costMatrix[0].length];
+        Arrays.fill(capacities, 1);
+        assertOptimal(costMatrix, capacities, result, unassigned);
+    }
+    
+    /**
+     * Asserts that a result is a valid assignment respecting the capacities of the columns and
+     * maximising the number of assigned rows, with a minimal total cost among those, by comparing
+     * it with an exhaustive search.
+     * @param costMatrix solved, small enough for an exhaustive search
+     * @param capacities maximal number of rows assigned to each column
+     * @param result to check, whose column assignments give one of the rows assigned to each
+     * column
+     * @param unassigned value used by the solver to signal an unassigned row or column
+     */
+    static void assertOptimal(int[][] costMatrix, int[] capacities, Result result, 
+            Integer unassigned){
+        List<Integer> rows = result.getRowAssignments();
+        List<Integer> columns = result.getColumnAssignments();
+        int nColumns = capacities.length;
+        Assertions.assertEquals(costMatrix.length, rows.size(), "row assignments");
+        Assertions.assertEquals(nColumns, columns.size(), "column assignments");
+        int[] loads = new int[nColumns];
+        int assigned = 0;
+        long cost = 0;
+        for (int i = 0; i < rows.size(); i++){
+            Integer j = rows.get(i);
+            if (!Objects.equals(j, unassigned)){
+                Assertions.assertNotEquals(X, costMatrix[i][j], "forbidden pair assigned");
+                loads[j]++;
+                assigned++;
+                cost += costMatrix[i][j];
+            }
+        }
+        for (int j = 0; j < nColumns; j++){
+            Assertions.assertTrue(loads[j] <= capacities[j], "capacity of column " + j);
+            Integer i = columns.get(j);
+            if (loads[j] == 0){
+                Assertions.assertEquals(unassigned, i, "inconsistent assignments");
+            } else {
+                Assertions.assertNotEquals(unassigned, i, "inconsistent assignments");
+                Assertions.assertEquals(Integer.valueOf(j), rows.get(i), 
+                        "inconsistent assignments");
+            }
+        }
+        long[] expected = bruteForce(costMatrix, 0, capacities.clone());
+        Assertions.assertEquals(expected[0], assigned, "number of assigned rows");
+        Assertions.assertEquals(expected[1], cost, "total cost");
+    }
+    
+    /** Returns the maximal number of assigned rows and the minimal cost for that number. */
+    private static long[] bruteForce(int[][] costMatrix, int row, int[] remainingCapacities){
+        if (row == costMatrix.length){
+            return new long[]{0, 0};
+        }
+        long[] best = bruteForce(costMatrix, row + 1, remainingCapacities);
+        for (int j = 0; j < remainingCapacities.length; j++){
+            if (remainingCapacities[j] > 0 && costMatrix[row][j] != X){
+                remainingCapacities[j]--;
+                long[] candidate = bruteForce(costMatrix, row + 1, remainingCapacities);
+                remainingCapacities[j]++;
+                candidate[0]++;
+                candidate[1] += costMatrix[row][j];
+                if (candidate[0] > best[0] || (candidate[0] == best[0] && candidate[1] < best[1])){
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,149 @@
+package mentoring.match;
+
+import assignmentproblem.hungariansolver.HungarianSolver;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import mentoring.configuration.PojoCriteriaConfiguration;
+import mentoring.configuration.PojoPersonConfiguration;
+import mentoring.datastructure.Person;
+import mentoring.datastructure.PersonBuilder;
+import mentoring.io.PersonFileParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import test.tools.TestArgs;
+import test.tools.TestFramework;
+
+/**
+ * Compares the {@link AuctionSolver} and the {@link LapjvSolver} with the {@link HungarianSolver}
+ * on the bundled 250 persons data sets, scaled up by copying the persons, and times a warm-started
+ * solve of the LapjvSolver after a match is forbidden, a preview with the {@link GreedySolver} and
+ * the enumeration of the 10 best matches. Run with {@code gradlew benchmark}: the sizes can be set
+ * with the {@code mentoring.benchmark.sizes} system property, and the Hungarian solver, which runs
+ * in cubic time on the dense matrix, is skipped above {@code mentoring.benchmark.hungarianMaxSize}
+ * persons.
+ */
+@Tag("benchmark")
+final class SolverBenchmark implements TestFramework<SolverBenchmark.SolverBenchmarkArgs>{
+    private static final String MENTEE_FILE = "resources/main/Filleul_250.csv";
+    private static final String MENTOR_FILE = "resources/main/Mentor_250.csv";
+    
+    @Override
+    public Stream<SolverBenchmarkArgs> argumentsSupplier(){
+        int hungarianMaxSize = Integer.getInteger("mentoring.benchmark.hungarianMaxSize", 2000);
+        return Arrays.stream(System.getProperty("mentoring.benchmark.sizes", "250,1000,10000")
+                .split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .map(size -> new SolverBenchmarkArgs("%s mentees and mentors".formatted(size),
+                        size, size <= hungarianMaxSize));
+    }
+    
+    @TestFactory
+    Stream<DynamicNode> solversFindMatchesOfTheSameCost(){
+        return test("all solvers find matches of the same cost", args -> {
+            List<Person> mentees = scale(parse(MENTEE_FILE), args.size);
+            List<Person> mentors = scale(parse(MENTOR_FILE), args.size);
+            PojoCriteriaConfiguration criteria = PojoCriteriaConfiguration.CRITERIA_CONFIGURATION;
+            MatchesBuilder<Person, Person> builder = new MatchesBuilder<>(mentees, mentors,
+                    criteria.getProgressiveCriteria(), criteria.getNecessaryCriteria(),
+                    ForkJoinPool.commonPool());
+            Matches<Person, Person> auctionMatches = time(args, "auction solver",
+                    builder.withSolver(new AuctionSolver(null), null));
+            Matches<Person, Person> lapjvMatches = time(args, "LAPJV solver",
+                    builder.withSolver(new LapjvSolver(null), null));
+            Assertions.assertEquals(summarize(lapjvMatches), summarize(auctionMatches));
+            if (args.runHungarian){
+                Matches<Person, Person> hungarianMatches = time(args, "Hungarian solver",
+                        builder.withSolver(new HungarianSolver(null), null));
+                Assertions.assertEquals(summarize(hungarianMatches), summarize(auctionMatches));
+            }
+            Match<Person, Person> forbidden = lapjvMatches.iterator().next();
+            ForbiddenMatches<Person, Person> forbiddenMatches = new ForbiddenMatches<>();
+            forbiddenMatches.forbidMatch(forbidden.getMentee(), forbidden.getMentor());
+            time(args, "LAPJV solver warm-started after forbidding a match", builder
+                    .withSolver(new LapjvSolver(null), null)
+                    .withForbiddenMatches(forbiddenMatches));
+            long start = System.nanoTime();
+            ApproximateMatches<Person, Person> preview = builder.buildPreview(
+                    builder.getMenteeIndices(mentees), builder.getMentorIndices(mentors));
+            System.out.printf("%s, greedy preview: %d ms, gap %d over a lower bound of %d%n",
+                    args, (System.nanoTime() - start) / 1_000_000, preview.gap(),
+                    preview.lowerBound());
+            start = System.nanoTime();
+            builder.buildBest(builder.getMenteeIndices(mentees), 
+                    builder.getMentorIndices(mentors), 10);
+            System.out.printf("%s, 10 best matches: %d ms%n", args, 
+                    (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+    
+    private static List<Person> parse(String file){
+        try (Reader reader = new FileReader(file, StandardCharsets.UTF_8)){
+            return new PersonFileParser(PojoPersonConfiguration.TEST_CONFIGURATION
+                    .getConfiguration()).parse(reader);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /** Copies the persons until there are size of them, shifting the year of the copies. */
+    private static List<Person> scale(List<Person> persons, int size){
+        List<Person> result = new ArrayList<>(size);
+        PersonBuilder builder = new PersonBuilder();
+        for (int k = 0; k < size; k++){
+            Person person = persons.get(k % persons.size());
+            int copy = k / persons.size();
+            result.add(builder.withFullName(person.getFullName() + " #" + copy)
+                    .withProperty("Anglais", person.getPropertyAs("Anglais", Boolean.class))
+                    .withProperty("Promotion",
+                            person.getPropertyAs("Promotion", Integer.class) - copy % 10)
+                    .withPropertyMap("Métiers",
+                            person.getPropertyAsMapOf("Métiers", String.class, Object.class))
+                    .withPropertyMap("Motivation",
+                            person.getPropertyAsMapOf("Motivation", String.class, Object.class))
+                    .build());
+        }
+        return result;
+    }
+    
+    private static Matches<Person, Person> time(SolverBenchmarkArgs args, String solverName,
+            MatchesBuilder<Person, Person> builder){
+        long start = System.nanoTime();
+        Matches<Person, Person> result = builder.build();
+        System.out.printf("%s, %s: %d ms%n", args, solverName,
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+    
+    /** Returns the number of matches and their total cost. */
+    private static List<Long> summarize(Matches<Person, Person> matches){
+        long count = 0;
+        long totalCost = 0;
+        for (Match<Person, Person> match : matches){
+            count++;
+            totalCost += match.getCost();
+        }
+        return List.of(count, totalCost);
+    }
+    
+    static class SolverBenchmarkArgs extends TestArgs{
+        final int size;
+        final boolean runHungarian;
+    
+        SolverBenchmarkArgs(String testCase, int size, boolean runHungarian){
+            super(testCase);
+            this.size = size;
+            this.runHungarian = runHungarian;
+        }
+    }
+}
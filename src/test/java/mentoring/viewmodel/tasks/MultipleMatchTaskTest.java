@@ -1,5 +1,7 @@
 package mentoring.viewmodel.tasks;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -12,6 +14,9 @@ import mentoring.configuration.PersonConfiguration;
 import mentoring.configuration.PojoCriteriaConfiguration;
 import mentoring.datastructure.Person;
 import mentoring.datastructure.PersonBuilder;
+import mentoring.datastructure.PropertyType;
+import mentoring.datastructure.SimplePropertyDescription;
+import mentoring.io.PersonFileParser;
 import mentoring.match.Match;
 import mentoring.match.MatchTest;
 import mentoring.match.Matches;
@@ -56,6 +61,22 @@ class MultipleMatchTaskTest implements TestFramework<MultipleMatchTaskArgs>{
         });
     }
     
+    @TestFactory
+    Stream<DynamicNode> makePreviewMatches_updateViewModel(){
+        return test("call() in preview mode updates the input view model", args -> {
+            MultipleMatchTask task = args.convert(true);
+            runTask(task);
+            task.succeeded();
+            ArgumentCaptor<Matches<Person, Person>> captor = captureArgumentsForSetAll(args.resultVM);
+            Matches<Person,Person> expectedMatches = args.makeMatches(Stream.of(
+                    Pair.of(0,2),Pair.of(1,1),Pair.of(2,0)));
+            assertMatchesEquals(expectedMatches, captor.getValue());
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(10, task.getPreviewResults().cost()),
+                    () -> Assertions.assertEquals(6, task.getPreviewResults().lowerBound()));
+        });
+    }
+    
     @TestFactory
     Stream<DynamicNode> makeMultipleMatches_excludeManualMatches(){
         return test(argumentsSupplier().filter(args -> args.excludedMatchesVM != null), 
@@ -73,6 +94,40 @@ class MultipleMatchTaskTest implements TestFramework<MultipleMatchTaskArgs>{
                 });
     }
     
+    @TestFactory
+    Stream<DynamicNode> makeMultipleMatches_excludeManualMatchesAfterReload(){
+        return test(argumentsSupplier().filter(args -> args.excludedMatchesVM != null), 
+                "call() excludes the manual matches made before the persons were parsed again",
+                args -> {
+                    PersonConfiguration configuration = new PersonConfiguration("configuration",
+                            Set.of(new SimplePropertyDescription<>("value", "value", 
+                                    PropertyType.INTEGER)), 
+                            Set.of(), "\\|", "%s", List.of("name"));
+                    String file = "name,value\n1,1\n2,2\n3,3\n";
+                    List<Person> firstParse = parse(configuration, file);
+                    args.reload(configuration, parse(configuration, file), 
+                            parse(configuration, file));
+                    args.setManualMatch(firstParse.get(0), firstParse.get(1));
+                    MultipleMatchTask task = args.convert();
+                    runTask(task);
+                    task.succeeded();
+                    ArgumentCaptor<Matches<Person, Person>> captor = 
+                            captureArgumentsForSetAll(args.resultVM);
+                    Matches<Person,Person> expectedMatches = args.makeMatches(Stream.of(
+                            Pair.of(1,2),Pair.of(2,0)));
+                    assertMatchesEquals(expectedMatches, captor.getValue());
+                });
+    }
+    
+    /** Parses persons as the application does when a file is loaded. */
+    private static List<Person> parse(PersonConfiguration configuration, String file){
+        try {
+            return new PersonFileParser(configuration).parse(new StringReader(file));
+        } catch (IOException e){
+            return Assertions.fail(e);
+        }
+    }
+    
     @TestFactory
     Stream<DynamicNode> makeMultipleMatches_updateMenteeMatchStatus(){
         return test("call() updates the mentees match status", args -> {
@@ -257,6 +312,18 @@ class MultipleMatchTaskTest implements TestFramework<MultipleMatchTaskArgs>{
             mentees.update(configuration, menteesList);
             mentors = new PersonListViewModel();
             mentors.update(configuration, mentorsList);
+            stubHandler();
+        }
+        
+        /** Replaces the persons, as when the files of mentees and mentors are loaded again. */
+        void reload(PersonConfiguration configuration, List<Person> menteesList, 
+                List<Person> mentorsList){
+            mentees.update(configuration, menteesList);
+            mentors.update(configuration, mentorsList);
+            stubHandler();
+        }
+        
+        private void stubHandler(){
             CriteriaConfiguration<Person, Person> criteria = new PojoCriteriaConfiguration(
                     "ad-hoc configuration", List.of((mentee, mentor) -> 
                             mentee.getPropertyAs("value", Integer.class) 
@@ -289,6 +356,11 @@ class MultipleMatchTaskTest implements TestFramework<MultipleMatchTaskArgs>{
                     callback);
         }
         
+        MultipleMatchTask convert(boolean preview){
+            return new MultipleMatchTask(resultVM, excludedMatchesVM, handler, mentees, mentors, 
+                    preview, callback);
+        }
+        
         void setManualMatch(Person mentee, Person mentor){
             PersonMatchViewModel manualMatchVM = Mockito.mock(PersonMatchViewModel.class);
             Mockito.when(manualMatchVM.getData())